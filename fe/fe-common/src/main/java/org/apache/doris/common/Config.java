@@ -165,6 +165,15 @@ public class Config extends ConfigBase {
                     + "In each cycle, the expired history load job will be cleaned"})
     public static int label_clean_interval_second = 1 * 3600; // 1 hours
 
+    @ConfField(description = {"是否并行加载元数据镜像中相互独立的模块（如权限、导出作业、事务状态等）。仅对 FE 启动时的镜像加载生效",
+            "Whether to load the independent modules of the image (such as auth, export jobs, transaction states) "
+                    + "concurrently. Only takes effect when loading image at FE startup"})
+    public static boolean enable_parallel_image_loading = false;
+
+    @ConfField(description = {"并行加载元数据镜像时使用的线程数",
+            "The number of threads used to load the image modules concurrently"})
+    public static int image_loading_parallelism = 4;
+
     @ConfField(description = {"元数据的存储目录", "The directory to save Doris meta data"})
     public static String meta_dir = System.getenv("DORIS_HOME") + "/doris-meta";
 
@@ -184,6 +193,20 @@ public class Config extends ConfigBase {
             "The log roll size of BDBJE. When the number of log entries exceeds this value, the log will be rolled"})
     public static int edit_log_roll_num = 50000;
 
+    @ConfField(description = {"非 Master FE 回放元数据日志时，后台预先读取并反序列化的日志条数。0 表示不预读",
+            "The number of journals fetched and deserialized ahead of the replay thread on non-master FE. "
+                    + "0 means no prefetch"})
+    public static int journal_replay_prefetch_num = 0;
+
+    @ConfField(description = {"非 Master FE 并行回放相互独立的元数据日志（如不同数据库的事务状态）的线程数。1 表示串行回放",
+            "The number of threads to apply independent journals (such as transaction states of different databases) "
+                    + "in parallel on non-master FE. 1 means applying journals one by one"})
+    public static int journal_replay_parallelism = 1;
+
+    @ConfField(description = {"并行回放元数据日志时，一个批次最多包含的日志条数",
+            "The max number of journals in one batch when applying journals in parallel"})
+    public static int journal_replay_parallel_batch_num = 1024;
+
     @ConfField(description = {"元数据同步的容忍延迟时间，单位为秒。如果元数据的延迟超过这个值，非主 FE 会停止提供服务",
             "The toleration delay time of meta data synchronization, in seconds. "
                     + "If the delay of meta data exceeds this value, non-master FE will stop offering service"})
@@ -236,6 +259,17 @@ public class Config extends ConfigBase {
                     + "If the free disk space is less than this value, BDBJE will not be able to write."})
     public static int bdbje_reserved_disk_bytes = 1 * 1024 * 1024 * 1024; // 1G
 
+    @ConfField(description = {"是否开启元数据日志的组提交。开启后，并发写入的元数据日志会由后台线程合并到一个 BDBJE 事务中提交，"
+            + "以提升高并发下的元数据写入吞吐",
+            "Whether to enable group commit of edit log. If enabled, concurrently written edit logs are "
+                    + "batched into one BDBJE transaction by a background flusher, "
+                    + "so that the metadata write throughput scales with concurrency"})
+    public static boolean enable_edit_log_group_commit = false;
+
+    @ConfField(mutable = true, description = {"元数据日志组提交时，一个批次最多包含的日志条数",
+            "The max number of edit logs in one group commit batch"})
+    public static int edit_log_group_commit_max_batch_num = 256;
+
     @ConfField(masterOnly = true, description = {"心跳线程池的线程数",
             "Num of thread to handle heartbeat events"})
     public static int heartbeat_mgr_threads_num = 8;
@@ -399,6 +433,27 @@ public class Config extends ConfigBase {
     @ConfField(description = {"MySQL 服务的最大任务线程数", "The max number of task threads in MySQL service"})
     public static int max_mysql_service_task_threads_num = 4096;
 
+    @ConfField(mutable = true, description = {"是否让 MySQL 连接从共享的缓冲池中借用读写缓冲。关闭时每个连接在创建时分配"
+            + "自己的读写缓冲。只对之后新建的连接生效",
+            "Whether MySQL connections borrow the buffers to read and write packets from the shared buffer pools. "
+                    + "If disabled, each connection allocates its own buffers when it is created. "
+                    + "Only takes effect on the connections created afterwards"})
+    public static boolean enable_mysql_buffer_pool = false;
+
+    @ConfField(mutable = true, description = {"MySQL 连接共享的读写缓冲池中，每种缓冲（堆内和堆外）最多缓存的空闲字节数。"
+            + "连接只在读写报文时借用缓冲，空闲连接不占用缓冲",
+            "The max idle bytes cached by each of the heap and direct buffer pools shared by MySQL connections. "
+                    + "A connection borrows buffers only when reading or writing packets, "
+                    + "an idle connection holds no buffer"})
+    public static long mysql_buffer_pool_max_idle_bytes = 256 * 1024 * 1024L;
+
+    @ConfField(mutable = true, description = {"MySQL 连接借用的堆外缓冲的最大总字节数，超过后改为借用堆内缓冲，"
+            + "避免大量并发的大结果集占满堆外内存",
+            "The max total bytes of the direct buffers borrowed by MySQL connections. A heap buffer is borrowed "
+                    + "instead if it is reached, so that many concurrent large result sets do not use up "
+                    + "the direct memory"})
+    public static long mysql_buffer_pool_max_direct_bytes = 512 * 1024 * 1024L;
+
     @ConfField(description = {
             "集群 ID，用于内部认证。通常在集群第一次启动时，会随机生成一个 cluster id. 用户也可以手动指定。",
             "Cluster id used for internal authentication. Usually a random integer generated when master FE "
@@ -436,6 +491,21 @@ public class Config extends ConfigBase {
             "The interval of publish task trigger thread, in milliseconds"})
     public static int publish_version_interval_ms = 10;
 
+    @ConfField(mutable = true, masterOnly = true, description = {"是否由事件驱动 Publish。开启后，事务提交后立即下发 publish 任务，"
+            + "BE 汇报一个事务的所有 publish 任务完成后立即尝试使其可见，"
+            + "每隔 `publish_version_check_interval_ms` 才检查一次所有已提交的事务（用于处理超时和宕机的 BE）。"
+            + "关闭后，每隔 `publish_version_interval_ms` 检查一次所有已提交的事务",
+            "Whether to publish versions driven by events. If enabled, the publish tasks of a transaction are sent "
+                    + "as soon as it is committed, and it is made visible as soon as all its publish tasks are "
+                    + "reported, all committed transactions are only checked every "
+                    + "`publish_version_check_interval_ms` for timeout and dead backends. "
+                    + "If disabled, all committed transactions are checked every `publish_version_interval_ms`"})
+    public static boolean enable_event_driven_publish_version = false;
+
+    @ConfField(mutable = true, masterOnly = true, description = {"事件驱动 Publish 时，检查所有已提交事务的间隔，单位是毫秒。",
+            "The interval to check all committed transactions when publish is driven by events, in milliseconds"})
+    public static int publish_version_check_interval_ms = 1000;
+
     @ConfField(description = {"thrift server 的最大 worker 线程数", "The max worker threads of thrift server"})
     public static int thrift_server_max_worker_threads = 4096;
 
@@ -848,6 +918,15 @@ public class Config extends ConfigBase {
     @ConfField(mutable = true)
     public static int max_point_query_retry_time = 2;
 
+    /**
+     * If set to true, a prepared SELECT statement which is not a point query keeps the plan created
+     * by its first execution, and the following executions only bind the new parameter values
+     * and recompute the scan ranges, as long as the tables it reads and the types of the values
+     * are not changed.
+     */
+    @ConfField(mutable = true)
+    public static boolean enable_prepared_stmt_plan_reuse = false;
+
     /**
      * The tryLock timeout configuration of catalog lock.
      * Normally it does not need to change, unless you need to test something.
@@ -936,6 +1015,26 @@ public class Config extends ConfigBase {
     @ConfField(mutable = true, masterOnly = true)
     public static int max_scheduling_tablets = 2000;
 
+    @ConfField(masterOnly = true, description = {"TabletScheduler 的待调度 tablet 按 tablet id 分成的分片数，各分片并发调度。"
+            + "默认为 1，即串行调度。分片后，优先级只在各分片内生效，VERY_HIGH 的 tablet 不再优先于其他分片的 tablet。",
+            "The number of shards the pending tablets of TabletScheduler are partitioned into by tablet id, "
+                    + "the shards are scheduled concurrently. Default is 1, which schedules the tablets serially. "
+                    + "With more shards, the priority only takes effect within a shard, a VERY_HIGH tablet "
+                    + "is not scheduled before the tablets of other shards"})
+    public static int tablet_scheduler_shard_num = 1;
+
+    @ConfField(mutable = true, masterOnly = true, description = {"是否增量检查 tablet 的健康状态。开启后，TabletChecker 每轮只检查"
+            + "副本状态变化、BE 上下线、下线（decommission）等事件涉及的 tablet，"
+            + "每隔 `tablet_checker_full_check_interval_second` 才检查一次所有 tablet。",
+            "Whether to check the health of tablets incrementally. If enabled, TabletChecker only checks the tablets "
+                    + "affected by replica state changes, backend up/down and decommission events in each round, "
+                    + "all tablets are only checked every `tablet_checker_full_check_interval_second`"})
+    public static boolean enable_incremental_tablet_check = false;
+
+    @ConfField(mutable = true, masterOnly = true, description = {"增量检查 tablet 时，检查所有 tablet 的间隔，单位是秒。",
+            "The interval to check all tablets when tablets are checked incrementally, in seconds"})
+    public static long tablet_checker_full_check_interval_second = 300;
+
     // if the number of balancing tablets in TabletScheduler exceed max_balancing_tablets,
     // no more balance check
     @ConfField(mutable = true, masterOnly = true)
@@ -971,6 +1070,12 @@ public class Config extends ConfigBase {
     @ConfField(mutable = true, masterOnly = true)
     public static int report_queue_size = 100;
 
+    @ConfField(mutable = true, masterOnly = true, description = {
+            "BE 汇报 tablet 时，FE 将汇报的副本切分为多少个分片并行做 diff。设置为 1 表示串行处理。",
+            "The number of shards that the replicas of a tablet report are split into to be diffed in parallel. "
+                    + "Set to 1 to diff the report serially."})
+    public static int tablet_report_diff_shard_num = 16;
+
     /**
      * If set to true, metric collector will be run as a daemon timer to collect metrics at fix interval
      */
@@ -997,6 +1102,30 @@ public class Config extends ConfigBase {
     @ConfField(mutable = true, masterOnly = true)
     public static int max_routine_load_task_num_per_be = 5;
 
+    /**
+     * If set to true, the batch interval of a kafka routine load task is adapted to the lag and the ingest rate
+     * of its partitions, and the small tasks of a job are merged to one task to load in one txn.
+     * The batch interval may be longer than the 'max_batch_interval' set by user,
+     * up to routine_load_max_batch_interval_multiple times, so it is disabled by default.
+     */
+    @ConfField(mutable = true, masterOnly = true)
+    public static boolean enable_routine_load_adaptive_batch = false;
+
+    /**
+     * A routine load task is small if it is expected to consume less than
+     * 'max_batch_rows' * routine_load_small_task_rows_ratio rows in 'max_batch_interval'.
+     * The batch interval of a small task is extended to consume about this number of rows in one txn.
+     */
+    @ConfField(mutable = true, masterOnly = true)
+    public static double routine_load_small_task_rows_ratio = 0.1;
+
+    /**
+     * The max multiple of 'max_batch_interval' that the batch interval of a small routine load task
+     * could be extended to.
+     */
+    @ConfField(mutable = true, masterOnly = true)
+    public static int routine_load_max_batch_interval_multiple = 3;
+
     /**
      * The max number of files store in SmallFileMgr
      */
@@ -1047,6 +1176,17 @@ public class Config extends ConfigBase {
     @ConfField(mutable = true, masterOnly = true)
     public static boolean force_do_metadata_checkpoint = false;
 
+    /**
+     * If set to true, the checkpoint thread will verify the newly generated image by the crc32 of its body
+     * instead of loading it into a new catalog again. This saves the time of the second full load,
+     * but does not detect the asymmetric bugs between writing and reading meta.
+     * Note that the checkpoint itself still replays the journal into a full second catalog, so this does not
+     * reduce the peak memory of the checkpoint. The body crc is also checked when a follower downloads an image,
+     * regardless of this config.
+     */
+    @ConfField(mutable = true, masterOnly = true)
+    public static boolean checkpoint_verify_image_by_crc = false;
+
     /**
      * Decide how often to check dynamic partition
      */
@@ -1155,6 +1295,40 @@ public class Config extends ConfigBase {
     @ConfField(mutable = true, masterOnly = false)
     public static int cache_result_max_row_count = 3000;
 
+    /**
+     * The max bytes of the query results cached in the memory of fe, the least used ones are evicted.
+     */
+    @ConfField
+    public static long cache_fe_max_bytes = 64L * 1024 * 1024;
+
+    /**
+     * The query result smaller than this size is cached in the memory of fe, and the larger one is cached in be.
+     * Set to 0 to cache all query results in be.
+     */
+    @ConfField(mutable = true, masterOnly = false)
+    public static long cache_fe_result_max_bytes = 1024 * 1024;
+
+    /**
+     * If set to true, fe will cache the physical plans of the queries planned by nereids,
+     * and a query with the same statement, user, database and session variables will reuse the cached plan
+     * instead of analyzing and optimizing it again, as long as the tables it reads are not changed.
+     */
+    @ConfField(mutable = true, masterOnly = false)
+    public static boolean enable_nereids_plan_cache = false;
+
+    /**
+     * The max number of plans in nereids plan cache.
+     */
+    @ConfField
+    public static int nereids_plan_cache_max_num = 1000;
+
+    /**
+     * The plans in nereids plan cache will be expired after this time.
+     * This also limits how long a cached plan may be used after the statistics of its tables are reloaded.
+     */
+    @ConfField
+    public static int nereids_plan_cache_expire_seconds = 300;
+
     /**
      * Used to limit element num of InPredicate in delete statement.
      */
@@ -1347,6 +1521,21 @@ public class Config extends ConfigBase {
     @ConfField(mutable = true, masterOnly = false)
     public static boolean use_compact_thrift_rpc = true;
 
+    /*
+     * If set to true, the fragment params sent to different backends will be serialized in parallel,
+     * and the rpc to a backend will be sent as soon as its params are serialized.
+     * This reduces the latency of scheduling queries with a lot of backends and instances.
+     */
+    @ConfField(mutable = true, masterOnly = false)
+    public static boolean enable_parallel_serialize_fragments = false;
+
+    /*
+     * The number of threads used to serialize fragment params of all queries
+     * when enable_parallel_serialize_fragments is true.
+     */
+    @ConfField
+    public static int serialize_fragments_thread_num = 16;
+
     /*
      * If set to true, the tablet scheduler will not work, so that all tablet repair/balance task will not work.
      */
@@ -1627,12 +1816,50 @@ public class Config extends ConfigBase {
     @ConfField(mutable = true, masterOnly = false)
     public static int min_backend_num_for_external_table = 3;
 
+    /**
+     * The splits of external tables are assigned to backends by their sizes, and the total bytes assigned to
+     * a backend will not exceed this factor times of its fair share, plus the size of one split.
+     * When file cache is enabled, a split is assigned to the first backend on the consistent hash ring which
+     * is under this bound, so a larger value keeps more splits on the same backend among queries, at the cost
+     * of more skew. If it is less than 1, splits are assigned without their sizes, by round robin or consistent hash,
+     * which is the default. A value such as 1.25 is suggested to enable it.
+     */
+    @ConfField(mutable = true, masterOnly = false)
+    public static double external_split_max_load_factor = 0;
+
+    /**
+     * If set to true, the fair share of splits of external tables for a backend is weighted by
+     * the number of its cpu cores, otherwise all backends have the same share.
+     */
+    @ConfField(mutable = true, masterOnly = false)
+    public static boolean external_split_weight_by_cpu_cores = false;
+
     /**
      * Max query profile num.
      */
     @ConfField(mutable = true, masterOnly = false)
     public static int max_query_profile_num = 100;
 
+    /**
+     * If true, the profiles which are not updated for spill_profile_after_seconds are compressed and spilled to
+     * the files in spilled_profile_dir, only their summary is kept in memory. The spilled profiles are loaded
+     * again after FE restarts, and max_query_profile_num only limits the number of profiles kept in memory.
+     */
+    @ConfField(mutable = false, masterOnly = false)
+    public static boolean enable_profile_spill = false;
+
+    @ConfField(mutable = false, masterOnly = false)
+    public static String spilled_profile_dir = System.getenv("DORIS_HOME") + "/log/profile";
+
+    @ConfField(mutable = true, masterOnly = false)
+    public static int spill_profile_after_seconds = 60;
+
+    /**
+     * The max total bytes of the spilled profile files, the oldest files are deleted if it is exceeded.
+     */
+    @ConfField(mutable = true, masterOnly = false)
+    public static long max_spilled_profile_bytes = 1024L * 1024 * 1024;
+
     /**
      * Set to true to disable backend black list, so that even if we failed to send task to a backend,
      * that backend won't be added to black list.
@@ -1700,6 +1927,18 @@ public class Config extends ConfigBase {
         "Max number of hive partition values to return while list partitions, -1 means no limitation."})
     public static short max_hive_list_partition_num = -1;
 
+    @ConfField(mutable = true, masterOnly = false, description = {"查询外表时，每批创建并分配给 BE 的 split 数量。",
+        "Number of splits which are created and assigned to backends in one batch when scanning "
+            + "an external table."})
+    public static int max_external_split_batch_size = 1024;
+
+    @ConfField(mutable = true, masterOnly = false, description = {"查询 Hive 表时，每批列举文件的最大分区数量。"
+            + "同一批的分区并行列举，小于 max_external_file_listing_thread_pool_size 时按该值处理。",
+        "Max number of partitions whose files are listed in one batch when scanning a hive table. "
+            + "The partitions of a batch are listed in parallel, so a value smaller than "
+            + "max_external_file_listing_thread_pool_size is raised to it."})
+    public static int max_hive_list_file_partition_batch_size = 128;
+
     /**
      * Max cache loader thread-pool size.
      * Max thread pool size for loading external meta cache
@@ -1714,6 +1953,29 @@ public class Config extends ConfigBase {
     @ConfField(mutable = false, masterOnly = false)
     public static long max_external_file_cache_num = 100000;
 
+    /**
+     * Max thread pool size for listing the files of external table partitions in parallel.
+     * The files are listed by a separate thread pool from the other external meta cache loaders,
+     * so a table with a large number of partitions would not block the loading of other meta.
+     */
+    @ConfField(mutable = false, masterOnly = false)
+    public static int max_external_file_listing_thread_pool_size = 64;
+
+    /**
+     * Whether to persist the file list of hive partitions in local disk, so the files need not be listed again
+     * after FE restarts. A persisted file list is used only if the modification time of the partition directory
+     * is not changed. On storage without directory modification time, such as object storage, the file list
+     * is persisted only if the catalog sets file.meta.cache.ttl-second, and is checked by transient_lastDdlTime.
+     */
+    @ConfField(mutable = false, masterOnly = false)
+    public static boolean enable_hive_file_meta_disk_cache = false;
+
+    /**
+     * The directory to persist the file list of hive partitions, used if enable_hive_file_meta_disk_cache is true.
+     */
+    @ConfField(mutable = false, masterOnly = false)
+    public static String hive_file_meta_disk_cache_dir = System.getenv("DORIS_HOME") + "/hive_file_meta_cache";
+
     /**
      * Max cache num of external table's schema
      * Decrease this value if FE's memory is small
@@ -1995,6 +2257,21 @@ public class Config extends ConfigBase {
     @ConfField
     public static long stats_cache_size = 10_0000;
 
+    /*
+     * The max number of partition ndv sketches kept in the stats cache, each sketch takes about 16KB mem,
+     * and 7~10KB in the statistics table since it is compressed.
+     */
+    @ConfField
+    public static long stats_ndv_sketch_cache_size = 5000;
+
+    @ConfField(description = {"是否收集并使用分区的 NDV sketch。开启后，全量收集统计信息时会为每个分区保存 NDV sketch，"
+            + "优化器在分区裁剪后合并被选中分区的 sketch 来估算 NDV。关闭时不会创建 sketch 统计表。",
+            "Whether to collect and use the ndv sketches of partitions. If enabled, the ndv sketch of each partition "
+                    + "is saved by full analysis, and the optimizer merges the sketches of the selected partitions "
+                    + "to estimate the ndv after partition pruning. The sketch statistics table is not created "
+                    + "if disabled."})
+    public static boolean enable_stats_ndv_sketch = false;
+
     /**
      * This configuration is used to enable the statistics of query information, which will record
      * the access status of databases, tables, and columns, and can be used to guide the
@@ -2019,6 +2296,14 @@ public class Config extends ConfigBase {
     @ConfField
     public static int analyze_task_timeout_in_minutes = 120;
 
+    @ConfField(mutable = true, masterOnly = true, description = {
+            "分析 OLAP 表时，一个分析任务最多同时收集统计信息的列数。这些列的统计信息在每个分区上通过一次扫描收集，"
+                    + "并批量写入统计信息表。设置为 1 表示每个任务只分析一列。",
+            "The max number of columns analyzed by one task of an OLAP table. The statistics of these columns "
+                    + "are collected by one scan of each partition, and written to the statistics table in bulk. "
+                    + "1 means each task analyzes only one column."})
+    public static int analyze_batch_column_num = 1;
+
     @ConfField(mutable = true, masterOnly = true, description = {
             "是否禁止使用 WITH REOSOURCE 语句创建 Catalog。",
             "Whether to disable creating catalog with WITH RESOURCE statement."})
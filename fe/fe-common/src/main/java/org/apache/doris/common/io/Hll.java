@@ -135,6 +135,20 @@ public class Hll {
         }
     }
 
+    /**
+     * Update a register with the position of the first one bit of a hash value, which is computed elsewhere.
+     * e.g. the max position of each register is aggregated by BE when collecting the ndv sketch of a column.
+     */
+    public void updateRegister(int idx, byte firstOneBit) {
+        if (type == HLL_DATA_EMPTY) {
+            registers = new byte[HLL_REGISTERS_COUNT];
+        } else if (type == HLL_DATA_EXPLICIT) {
+            convertExplicitToRegister();
+        }
+        type = HLL_DATA_FULL;
+        registers[idx] = registers[idx] > firstOneBit ? registers[idx] : firstOneBit;
+    }
+
     public void merge(Hll other) {
         if (other.type == HLL_DATA_EMPTY) {
             return;
@@ -26,6 +26,7 @@ import java.io.DataInputStream;
 import java.io.DataOutput;
 import java.io.DataOutputStream;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 
 public class HllTest {
 
@@ -261,6 +262,69 @@ public class HllTest {
         return hll;
     }
 
+    // murmur_hash3_64 of BE, which is the x64 variant of murmur3 with seed 0 returning the first 64 bits,
+    // the sketches of the statistics are built from the registers of these hash values.
+    private static long murmurHash3x64(byte[] data) {
+        final long c1 = 0x87c37b91114253d5L;
+        final long c2 = 0x4cf5ad432745937fL;
+        long h1 = 0;
+        int blockNum = data.length / 8;
+        for (int i = 0; i < blockNum; i++) {
+            long k1 = 0;
+            for (int j = 7; j >= 0; j--) {
+                k1 = (k1 << 8) | (data[i * 8 + j] & 0xffL);
+            }
+            k1 *= c1;
+            k1 = Long.rotateLeft(k1, 31);
+            k1 *= c2;
+            h1 ^= k1;
+            h1 = Long.rotateLeft(h1, 27);
+            h1 = h1 * 5 + 0x52dce729;
+        }
+        long k1 = 0;
+        for (int j = data.length - 1; j >= blockNum * 8; j--) {
+            k1 = (k1 << 8) | (data[j] & 0xffL);
+        }
+        if (data.length % 8 != 0) {
+            k1 *= c1;
+            k1 = Long.rotateLeft(k1, 31);
+            k1 *= c2;
+            h1 ^= k1;
+        }
+        h1 ^= data.length;
+        h1 ^= h1 >>> 33;
+        h1 *= 0xff51afd7ed558ccdL;
+        h1 ^= h1 >>> 33;
+        h1 *= 0xc4ceb9fe1a85ec53L;
+        h1 ^= h1 >>> 33;
+        return h1;
+    }
 
+    @Test
+    public void testBeMurmurHash3() {
+        // the outputs of murmur_hash3_64 in the unit test and the regression test of BE
+        Assert.assertEquals(-3215607508166160593L, murmurHash3x64("hello".getBytes(StandardCharsets.UTF_8)));
+        Assert.assertEquals(-7629742527255288609L, murmurHash3x64("string1".getBytes(StandardCharsets.UTF_8)));
+        Assert.assertEquals(6540042322033322577L, murmurHash3x64("string2".getBytes(StandardCharsets.UTF_8)));
+        Assert.assertEquals(-2588750725983543588L, murmurHash3x64("string3".getBytes(StandardCharsets.UTF_8)));
+    }
 
+    @Test
+    public void testUpdateRegister() {
+        Hll hll = new Hll();
+        Hll registerHll = new Hll();
+        int ndv = 100000;
+        for (int i = 0; i < ndv; i++) {
+            long hash = murmurHash3x64(String.valueOf(i).getBytes(StandardCharsets.UTF_8));
+            hll.update(hash);
+            // the register and the position of the first one bit are computed like the statistics query
+            long bits = hash & -Hll.HLL_REGISTERS_COUNT;
+            byte firstOneBit = (byte) (bits == 0 ? Hll.HLL_ZERO_COUNT_BITS + 1
+                    : Long.numberOfTrailingZeros(bits) - Hll.HLL_COLUMN_PRECISION + 1);
+            registerHll.updateRegister((int) (hash & (Hll.HLL_REGISTERS_COUNT - 1)), firstOneBit);
+        }
+        Assert.assertEquals(Hll.HLL_DATA_FULL, registerHll.getType());
+        Assert.assertEquals(hll.estimateCardinality(), registerHll.estimateCardinality());
+        Assert.assertTrue(Math.abs(registerHll.estimateCardinality() - ndv) < ndv * 0.02);
+    }
 }
@@ -189,6 +189,10 @@ public class Analyzer {
         return globalState.hasPlanHints = true;
     }
 
+    public void setContainsNondeterministicFn() {
+        globalState.containsNondeterministicFn = true;
+    }
+
     public boolean hasPlanHints() {
         return globalState.hasPlanHints;
     }
@@ -318,6 +322,10 @@ public class Analyzer {
         // True if at least one of the analyzers belongs to a subquery.
         public boolean containsSubquery = false;
 
+        // True if the statement calls a nondeterministic function, such as now().
+        // The call may be folded to a constant which is only valid for the current query.
+        public boolean containsNondeterministicFn = false;
+
         // When parsing a ddl of hive view, it does not contains any catalog info,
         // so we need to record it in Analyzer
         // otherwise some error will occurs when resolving TableRef later.
@@ -2493,6 +2501,10 @@ public class Analyzer {
         return globalState.containsSubquery;
     }
 
+    public boolean containsNondeterministicFn() {
+        return globalState.containsNondeterministicFn;
+    }
+
     /**
      * Mark slots that are being referenced by the plan tree itself or by the outputExprs exprs as materialized. If the
      * latter is null, mark all slots in planRoot's tupleIds() as being referenced. All aggregate slots are
@@ -1259,6 +1259,10 @@ public class FunctionCallExpr extends Expr {
             this.children.get(i).analyze(analyzer);
             argTypes[i] = this.children.get(i).getType();
         }
+        if (analyzer != null && (Env.getCurrentEnv().isNondeterministicFunction(fnName.getFunction())
+                || (children.isEmpty() && fnName.getFunction().equalsIgnoreCase("unix_timestamp")))) {
+            analyzer.setContainsNondeterministicFn();
+        }
 
         analyzeBuiltinAggFunction(analyzer);
 
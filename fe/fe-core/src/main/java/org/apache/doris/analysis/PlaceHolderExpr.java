@@ -59,6 +59,12 @@ public class PlaceHolderExpr extends LiteralExpr {
         this.type = literal.getType();
     }
 
+    // back to the state before the value is assigned
+    public void unsetLiteral() {
+        this.lExpr = null;
+        this.type = Type.INVALID;
+    }
+
     public LiteralExpr createLiteralFromType() throws AnalysisException {
         Preconditions.checkState(mysqlTypeCode > 0);
         return LiteralExpr.getLiteralByMysqlType(mysqlTypeCode);
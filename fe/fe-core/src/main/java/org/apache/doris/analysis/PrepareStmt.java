@@ -53,6 +53,10 @@ public class PrepareStmt extends StatementBase {
     private boolean binaryRowFormat;
     int schemaVersion = -1;
     OlapTable tbl;
+    // whether the inner stmt is a point query which is executed by short circuit
+    private boolean isPointQuery = false;
+    // whether values are bound to placeholders by any execution
+    private boolean valuesAssigned = false;
     ConnectContext context;
     // Serialized mysql Field, this could avoid serialize mysql field each time sendFields.
     // Since, serialize fields is too heavy when table is wide
@@ -69,6 +73,10 @@ public class PrepareStmt extends StatementBase {
         this.context = ctx;
     }
 
+    public boolean isPointQuery() {
+        return isPointQuery;
+    }
+
     public boolean needReAnalyze() {
         if (schemaVersion == tbl.getBaseSchemaVersion()) {
             return false;
@@ -139,18 +147,52 @@ public class PrepareStmt extends StatementBase {
         // Use tmpAnalyzer since selectStmt will be reAnalyzed
         Analyzer tmpAnalyzer = new Analyzer(context.getEnv(), context);
         SelectStmt selectStmt = (SelectStmt) inner;
-        inner.analyze(tmpAnalyzer);
-        if (!selectStmt.checkAndSetPointQuery()) {
-            throw new UserException("Only support prepare SelectStmt point query now");
+        try {
+            inner.analyze(tmpAnalyzer);
+            isPointQuery = selectStmt.checkAndSetPointQuery();
+        } catch (UserException | RuntimeException e) {
+            if (valuesAssigned || !isCausedByUnboundPlaceholders()) {
+                throw e;
+            }
+            // Placeholders have no values before the first execution, a stmt which could not be
+            // analyzed without them is analyzed and planned when it is executed.
+            LOG.debug("prepare stmt {} is analyzed when executed, {}", stmtName, e.getMessage());
+            isPointQuery = false;
+        }
+        if (isPointQuery) {
+            tbl = (OlapTable) selectStmt.getTableRefs().get(0).getTable();
+            schemaVersion = tbl.getBaseSchemaVersion();
         }
-        tbl = (OlapTable) selectStmt.getTableRefs().get(0).getTable();
-        schemaVersion = tbl.getBaseSchemaVersion();
         // reset will be reAnalyzed
         selectStmt.reset();
         analyzer.setPrepareStmt(this);
         // tmpAnalyzer.setPrepareStmt(this);
     }
 
+    // Analyze the stmt again with every placeholder bound to NULL. If it succeeds, the failure is caused by
+    // the placeholders without values, otherwise it is an error of the stmt itself and reported when preparing.
+    private boolean isCausedByUnboundPlaceholders() {
+        List<PlaceHolderExpr> placeholders = inner.getPlaceHolders();
+        if (placeholders.isEmpty()) {
+            return false;
+        }
+        inner.reset();
+        for (PlaceHolderExpr placeholder : placeholders) {
+            placeholder.setLiteral(new NullLiteral());
+        }
+        try {
+            inner.analyze(new Analyzer(context.getEnv(), context));
+            return true;
+        } catch (UserException | RuntimeException e) {
+            LOG.debug("failed to analyze prepare stmt {} with null values", stmtName, e);
+            return false;
+        } finally {
+            for (PlaceHolderExpr placeholder : placeholders) {
+                placeholder.unsetLiteral();
+            }
+        }
+    }
+
     public String getName() {
         return stmtName;
     }
@@ -196,6 +238,7 @@ public class PrepareStmt extends StatementBase {
         for (int i = 0; i < values.size(); ++i) {
             inner.getPlaceHolders().get(i).setLiteral(values.get(i));
         }
+        valuesAssigned = true;
         if (!values.isEmpty()) {
             LOG.debug("assign values {}", values.get(0).toSql());
         }
@@ -116,6 +116,7 @@ import org.apache.doris.common.util.MasterDaemon;
 import org.apache.doris.common.util.MetaLockUtils;
 import org.apache.doris.common.util.NetUtils;
 import org.apache.doris.common.util.PrintableMap;
+import org.apache.doris.common.util.ProfileManager;
 import org.apache.doris.common.util.PropertyAnalyzer;
 import org.apache.doris.common.util.QueryableReentrantLock;
 import org.apache.doris.common.util.SmallFileMgr;
@@ -143,6 +144,8 @@ import org.apache.doris.ha.MasterInfo;
 import org.apache.doris.httpv2.meta.MetaBaseAction;
 import org.apache.doris.journal.JournalCursor;
 import org.apache.doris.journal.JournalEntity;
+import org.apache.doris.journal.ParallelJournalApplier;
+import org.apache.doris.journal.PrefetchJournalCursor;
 import org.apache.doris.journal.bdbje.Timestamp;
 import org.apache.doris.load.DeleteHandler;
 import org.apache.doris.load.ExportJob;
@@ -268,6 +271,7 @@ import java.util.UUID;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
@@ -294,6 +298,10 @@ public class Env {
     private String imageDir;
 
     private MetaContext metaContext;
+    // lazily created by replay thread, see Config.journal_replay_parallelism
+    private ParallelJournalApplier journalApplier = null;
+    // lazily created by replay thread and reused by every replay, see Config.journal_replay_prefetch_num
+    private ExecutorService journalPrefetcher = null;
     private long epoch = 0;
 
     // Lock to perform atomic modification on map like 'idToDb' and 'fullNameToDb'.
@@ -730,6 +738,10 @@ public class Env {
         return tabletScheduler;
     }
 
+    public PublishVersionDaemon getPublishVersionDaemon() {
+        return publishVersionDaemon;
+    }
+
     public TabletChecker getTabletChecker() {
         return tabletChecker;
     }
@@ -1325,6 +1337,7 @@ public class Env {
         long replayStartTime = System.currentTimeMillis();
         // replay journals. -1 means replay all the journals larger than current journal id.
         replayJournal(-1);
+        shutdownJournalReplayWorkers();
         long replayEndTime = System.currentTimeMillis();
         LOG.info("finish replay in " + (replayEndTime - replayStartTime) + " msec");
 
@@ -1499,6 +1512,8 @@ public class Env {
         getInternalCatalog().getEsRepository().start();
         // domain resolver
         domainResolver.start();
+        // load spilled profiles and spill profiles to disk
+        ProfileManager.getInstance().start();
     }
 
     private void transferToNonMaster(FrontendNodeType newType) {
@@ -2520,38 +2535,103 @@ public class Env {
             return false;
         }
 
-        long startTime = System.currentTimeMillis();
-        boolean hasLog = false;
-        while (true) {
-            Pair<Long, JournalEntity> kv = cursor.next();
-            if (kv == null) {
-                break;
+        // Env.getCurrentEnv() relies on the identity of checkpoint thread,
+        // so only the replay thread of serving env prefetches and applies journals in parallel.
+        boolean isCheckpoint = isCheckpointThread();
+        if (!isCheckpoint && Config.journal_replay_prefetch_num > 0) {
+            if (journalPrefetcher == null) {
+                journalPrefetcher = ThreadPoolManager.newDaemonFixedThreadPool(1, 1, "journal-prefetcher", false);
             }
-            Long logId = kv.first;
-            JournalEntity entity = kv.second;
-            if (entity == null) {
-                break;
+            cursor = new PrefetchJournalCursor(cursor, Config.journal_replay_prefetch_num, journalPrefetcher);
+        }
+        ParallelJournalApplier applier = null;
+        if (!isCheckpoint && Config.journal_replay_parallelism > 1) {
+            if (journalApplier == null) {
+                journalApplier = new ParallelJournalApplier(Config.journal_replay_parallelism,
+                        Config.journal_replay_parallel_batch_num);
             }
-            hasLog = true;
-            EditLog.loadJournal(this, logId, entity);
-            replayedJournalId.incrementAndGet();
-            LOG.debug("journal {} replayed.", replayedJournalId);
-            if (feType != FrontendNodeType.MASTER) {
-                journalObservable.notifyObservers(replayedJournalId.get());
+            applier = journalApplier;
+        } else if (!isCheckpoint && journalApplier != null) {
+            // parallelism is turned off at runtime
+            journalApplier.shutdown();
+            journalApplier = null;
+        }
+
+        long startTime = System.currentTimeMillis();
+        long replayedNum = 0;
+        boolean hasLog = false;
+        try {
+            while (true) {
+                Pair<Long, JournalEntity> kv = cursor.next();
+                if (kv == null) {
+                    break;
+                }
+                Long logId = kv.first;
+                JournalEntity entity = kv.second;
+                if (entity == null) {
+                    break;
+                }
+                hasLog = true;
+                replayedNum++;
+                if (applier != null) {
+                    if (applier.canApplyInParallel(entity)) {
+                        applier.add(logId, entity);
+                        if (applier.getPendingNum() >= Config.journal_replay_parallel_batch_num) {
+                            onJournalsReplayed(applier.flush(this));
+                        }
+                        continue;
+                    }
+                    // ordering barrier, all the journals before it must be applied first
+                    onJournalsReplayed(applier.flush(this));
+                }
+                EditLog.loadJournal(this, logId, entity);
+                onJournalsReplayed(1);
             }
-            if (MetricRepo.isInit) {
-                // Metric repo may not init after this replay thread start
-                MetricRepo.COUNTER_EDIT_LOG_READ.increase(1L);
+            if (applier != null) {
+                onJournalsReplayed(applier.flush(this));
             }
+        } finally {
+            cursor.close();
         }
         long cost = System.currentTimeMillis() - startTime;
+        if (MetricRepo.isInit && replayedNum > 0) {
+            MetricRepo.HISTO_JOURNAL_REPLAY_BATCH_LATENCY.update(cost);
+        }
         if (cost >= 1000) {
-            LOG.warn("replay journal cost too much time: {} replayedJournalId: {}", cost, replayedJournalId);
+            LOG.warn("replay journal cost too much time: {} replayedJournalId: {}, replayed num: {}",
+                    cost, replayedJournalId, replayedNum);
         }
 
         return hasLog;
     }
 
+    // called after the last replay before becoming master, the replay workers are not needed any more
+    private synchronized void shutdownJournalReplayWorkers() {
+        if (journalPrefetcher != null) {
+            journalPrefetcher.shutdown();
+            journalPrefetcher = null;
+        }
+        if (journalApplier != null) {
+            journalApplier.shutdown();
+            journalApplier = null;
+        }
+    }
+
+    private void onJournalsReplayed(int num) {
+        if (num <= 0) {
+            return;
+        }
+        replayedJournalId.addAndGet(num);
+        LOG.debug("journal {} replayed.", replayedJournalId);
+        if (feType != FrontendNodeType.MASTER) {
+            journalObservable.notifyObservers(replayedJournalId.get());
+        }
+        if (MetricRepo.isInit) {
+            // Metric repo may not init after this replay thread start
+            MetricRepo.COUNTER_EDIT_LOG_READ.increase((long) num);
+        }
+    }
+
     public void createTimePrinter() {
         // time printer will write timestamp edit log every 10 seconds
         timePrinter = new MasterDaemon("timePrinter", 10 * 1000L) {
@@ -4434,6 +4514,7 @@ public class Env {
         boolean isInMemory = partitionInfo.getIsInMemory(partition.getId());
         DataProperty newDataProperty = partitionInfo.getDataProperty(partition.getId());
         partitionInfo.setReplicaAllocation(partition.getId(), replicaAlloc);
+        tabletChecker.markPartitionDirty(partition);
 
         // set table's default replication number.
         Map<String, String> tblProperties = Maps.newHashMap();
@@ -5182,6 +5263,7 @@ public class Env {
                             SetReplicaStatusOperationLog log = new SetReplicaStatusOperationLog(backendId, tabletId,
                                     status);
                             getEditLog().logSetReplicaStatus(log);
+                            tabletChecker.markTabletDirty(tabletId);
                         }
                         LOG.info("set replica {} of tablet {} on backend {} as {}. is replay: {}", replica.getId(),
                                 tabletId, backendId, status, isReplay);
@@ -730,6 +730,10 @@ public class Tablet extends MetaObject implements Writable {
         return ready;
     }
 
+    public long getLastStatusCheckTime() {
+        return lastStatusCheckTime;
+    }
+
     public void setLastStatusCheckTime(long lastStatusCheckTime) {
         this.lastStatusCheckTime = lastStatusCheckTime;
     }
@@ -20,6 +20,8 @@ package org.apache.doris.catalog;
 import org.apache.doris.catalog.Replica.ReplicaState;
 import org.apache.doris.common.Config;
 import org.apache.doris.common.Pair;
+import org.apache.doris.common.util.LongLongHashMap;
+import org.apache.doris.common.util.LongObjectHashMap;
 import org.apache.doris.cooldown.CooldownConf;
 import org.apache.doris.task.PublishVersionTask;
 import org.apache.doris.thrift.TPartitionVersionInfo;
@@ -48,12 +50,14 @@ import org.apache.logging.log4j.Logger;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.locks.StampedLock;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 /*
  * this class stores a inverted index
@@ -69,13 +73,18 @@ public class TabletInvertedIndex {
     public static final TabletMeta NOT_EXIST_TABLET_META = new TabletMeta(NOT_EXIST_VALUE, NOT_EXIST_VALUE,
             NOT_EXIST_VALUE, NOT_EXIST_VALUE, NOT_EXIST_VALUE, TStorageMedium.HDD);
 
+    // do not split a tablet report into shards smaller than this when diffing it
+    private static final int MIN_TABLET_REPORT_SHARD_SIZE = 1024;
+
     private StampedLock lock = new StampedLock();
 
     // tablet id -> tablet meta
-    private Map<Long, TabletMeta> tabletMetaMap = Maps.newHashMap();
+    // Use primitive long keyed maps for the maps with one entry per tablet or replica,
+    // to avoid boxing keys and allocating one node per entry.
+    private LongObjectHashMap<TabletMeta> tabletMetaMap = new LongObjectHashMap<>();
 
     // replica id -> tablet id
-    private Map<Long, Long> replicaToTabletMap = Maps.newHashMap();
+    private LongLongHashMap replicaToTabletMap = new LongLongHashMap();
 
     /*
      *  we use this to save memory.
@@ -136,216 +145,220 @@ public class TabletInvertedIndex {
             LOG.debug("begin to do tablet diff with backend[{}]. num: {}", backendId, backendTablets.size());
             Map<Long, Replica> replicaMetaWithBackend = backingReplicaMetaTable.row(backendId);
             if (replicaMetaWithBackend != null) {
-                taskPool.submit(() -> {
-                    // traverse replicas in meta with this backend
-                    replicaMetaWithBackend.entrySet().parallelStream().forEach(entry -> {
-                        long tabletId = entry.getKey();
-                        Preconditions.checkState(tabletMetaMap.containsKey(tabletId));
-                        TabletMeta tabletMeta = tabletMetaMap.get(tabletId);
-
-                        if (backendTablets.containsKey(tabletId)) {
-                            TTablet backendTablet = backendTablets.get(tabletId);
-                            Replica replica = entry.getValue();
-                            tabletFoundInMeta.add(tabletId);
-                            TTabletInfo backendTabletInfo = backendTablet.getTabletInfos().get(0);
-                            TTabletMetaInfo tabletMetaInfo = null;
-                            if (backendTabletInfo.getReplicaId() != replica.getId()
-                                    && replica.getState() != ReplicaState.CLONE) {
-                                // Need to update replica id in BE
-                                tabletMetaInfo = new TTabletMetaInfo();
-                                tabletMetaInfo.setReplicaId(replica.getId());
-                            }
-                            if (partitionIdInMemorySet.contains(
-                                    backendTabletInfo.getPartitionId()) != backendTabletInfo.isIsInMemory()) {
-                                if (tabletMetaInfo == null) {
-                                    tabletMetaInfo = new TTabletMetaInfo();
-                                    tabletMetaInfo.setIsInMemory(!backendTabletInfo.isIsInMemory());
-                                }
-                            }
-                            // 1. (intersection)
-                            if (needSync(replica, backendTabletInfo)) {
-                                // need sync
-                                synchronized (tabletSyncMap) {
-                                    tabletSyncMap.put(tabletMeta.getDbId(), tabletId);
-                                }
-                            }
+                // Split the replicas into shards and diff them in parallel. Each shard saves its diff into
+                // its own result, and the results are merged at the end, so no lock is needed when diffing.
+                List<Map.Entry<Long, Replica>> entries = new ArrayList<>(replicaMetaWithBackend.entrySet());
+                int shardNum = Math.max(1, Math.min(Config.tablet_report_diff_shard_num,
+                        entries.size() / MIN_TABLET_REPORT_SHARD_SIZE));
+                int shardSize = (entries.size() + shardNum - 1) / shardNum;
+                List<TabletReportDiffResult> results = new ArrayList<>(shardNum);
+                for (int i = 0; i < shardNum; i++) {
+                    results.add(new TabletReportDiffResult());
+                }
+                taskPool.submit(() -> IntStream.range(0, shardNum).parallel().forEach(shard -> {
+                    TabletReportDiffResult result = results.get(shard);
+                    int end = Math.min(entries.size(), (shard + 1) * shardSize);
+                    for (int i = shard * shardSize; i < end; i++) {
+                        diffReplica(backendId, entries.get(i), backendTablets, storageMediumMap, result);
+                    }
+                })).join();
+                for (TabletReportDiffResult result : results) {
+                    result.mergeTo(tabletSyncMap, tabletDeleteFromMeta, tabletFoundInMeta, tabletMigrationMap,
+                            transactionsToPublish, transactionsToClear, tabletRecoveryMap, tabletToUpdate,
+                            cooldownTablets);
+                }
+            }
+        } finally {
+            readUnlock(stamp);
+        }
+        cooldownTablets.forEach(p -> handleCooldownConf(p.first, p.second, cooldownConfToPush, cooldownConfToUpdate));
 
-                            // check and set path
-                            // path info of replica is only saved in Master FE
-                            if (backendTabletInfo.isSetPathHash()
-                                    && replica.getPathHash() != backendTabletInfo.getPathHash()) {
-                                replica.setPathHash(backendTabletInfo.getPathHash());
-                            }
+        long end = System.currentTimeMillis();
+        LOG.info("finished to do tablet diff with backend[{}]. sync: {}."
+                        + " metaDel: {}. foundInMeta: {}. migration: {}. "
+                        + "found invalid transactions {}. found republish transactions {}. tabletToUpdate: {}."
+                        + " need recovery: {}. cost: {} ms", backendId, tabletSyncMap.size(),
+                tabletDeleteFromMeta.size(), tabletFoundInMeta.size(), tabletMigrationMap.size(),
+                transactionsToClear.size(), transactionsToPublish.size(), tabletToUpdate.size(),
+                tabletRecoveryMap.size(), (end - start));
+    }
 
-                            if (backendTabletInfo.isSetSchemaHash() && replica.getState() == ReplicaState.NORMAL
-                                    && replica.getSchemaHash() != backendTabletInfo.getSchemaHash()) {
-                                // update the schema hash only when replica is normal
-                                replica.setSchemaHash(backendTabletInfo.getSchemaHash());
-                            }
+    // Compare one replica in meta with the tablet reported by backend, and save the diff into result.
+    private void diffReplica(long backendId, Map.Entry<Long, Replica> entry, Map<Long, TTablet> backendTablets,
+                             HashMap<Long, TStorageMedium> storageMediumMap, TabletReportDiffResult result) {
+        long tabletId = entry.getKey();
+        Preconditions.checkState(tabletMetaMap.containsKey(tabletId));
+        TabletMeta tabletMeta = tabletMetaMap.get(tabletId);
+
+        if (backendTablets.containsKey(tabletId)) {
+            TTablet backendTablet = backendTablets.get(tabletId);
+            Replica replica = entry.getValue();
+            result.tabletFoundInMeta.add(tabletId);
+            TTabletInfo backendTabletInfo = backendTablet.getTabletInfos().get(0);
+            TTabletMetaInfo tabletMetaInfo = null;
+            if (backendTabletInfo.getReplicaId() != replica.getId()
+                    && replica.getState() != ReplicaState.CLONE) {
+                // Need to update replica id in BE
+                tabletMetaInfo = new TTabletMetaInfo();
+                tabletMetaInfo.setReplicaId(replica.getId());
+            }
+            if (partitionIdInMemorySet.contains(
+                    backendTabletInfo.getPartitionId()) != backendTabletInfo.isIsInMemory()) {
+                if (tabletMetaInfo == null) {
+                    tabletMetaInfo = new TTabletMetaInfo();
+                    tabletMetaInfo.setIsInMemory(!backendTabletInfo.isIsInMemory());
+                }
+            }
+            // 1. (intersection)
+            if (needSync(replica, backendTabletInfo)) {
+                // need sync
+                result.tabletSyncMap.put(tabletMeta.getDbId(), tabletId);
+            }
 
-                            if (needRecover(replica, tabletMeta.getOldSchemaHash(), backendTabletInfo)) {
-                                LOG.warn("replica {} of tablet {} on backend {} need recovery. "
-                                                + "replica in FE: {}, report version {}, report schema hash: {},"
-                                                + " is bad: {}, is version missing: {}",
-                                        replica.getId(), tabletId, backendId, replica,
-                                        backendTabletInfo.getVersion(),
-                                        backendTabletInfo.getSchemaHash(),
-                                        backendTabletInfo.isSetUsed() ? !backendTabletInfo.isUsed() : "false",
-                                        backendTabletInfo.isSetVersionMiss() ? backendTabletInfo.isVersionMiss() :
-                                                "unset");
-                                synchronized (tabletRecoveryMap) {
-                                    tabletRecoveryMap.put(tabletMeta.getDbId(), tabletId);
-                                }
-                            }
+            // check and set path
+            // path info of replica is only saved in Master FE
+            if (backendTabletInfo.isSetPathHash()
+                    && replica.getPathHash() != backendTabletInfo.getPathHash()) {
+                replica.setPathHash(backendTabletInfo.getPathHash());
+            }
 
-                            if (Config.enable_storage_policy && backendTabletInfo.isSetCooldownTerm()) {
-                                // Place tablet info in a container and process it outside of read lock to avoid
-                                // deadlock with OlapTable lock
-                                synchronized (cooldownTablets) {
-                                    cooldownTablets.add(Pair.of(tabletMeta, backendTabletInfo));
-                                }
-                                replica.setCooldownMetaId(backendTabletInfo.getCooldownMetaId());
-                                replica.setCooldownTerm(backendTabletInfo.getCooldownTerm());
-                            }
+            if (backendTabletInfo.isSetSchemaHash() && replica.getState() == ReplicaState.NORMAL
+                    && replica.getSchemaHash() != backendTabletInfo.getSchemaHash()) {
+                // update the schema hash only when replica is normal
+                replica.setSchemaHash(backendTabletInfo.getSchemaHash());
+            }
 
-                            long partitionId = tabletMeta.getPartitionId();
-                            if (!Config.disable_storage_medium_check) {
-                                // check if need migration
-                                TStorageMedium storageMedium = storageMediumMap.get(partitionId);
-                                if (storageMedium != null && backendTabletInfo.isSetStorageMedium()
-                                        && isLocal(storageMedium) && isLocal(backendTabletInfo.getStorageMedium())
-                                        && isLocal(tabletMeta.getStorageMedium())) {
-                                    if (storageMedium != backendTabletInfo.getStorageMedium()) {
-                                        synchronized (tabletMigrationMap) {
-                                            tabletMigrationMap.put(storageMedium, tabletId);
-                                        }
-                                    }
-                                    if (storageMedium != tabletMeta.getStorageMedium()) {
-                                        tabletMeta.setStorageMedium(storageMedium);
-                                    }
-                                }
-                            }
+            if (needRecover(replica, tabletMeta.getOldSchemaHash(), backendTabletInfo)) {
+                LOG.warn("replica {} of tablet {} on backend {} need recovery. "
+                                + "replica in FE: {}, report version {}, report schema hash: {},"
+                                + " is bad: {}, is version missing: {}",
+                        replica.getId(), tabletId, backendId, replica,
+                        backendTabletInfo.getVersion(),
+                        backendTabletInfo.getSchemaHash(),
+                        backendTabletInfo.isSetUsed() ? !backendTabletInfo.isUsed() : "false",
+                        backendTabletInfo.isSetVersionMiss() ? backendTabletInfo.isVersionMiss() :
+                                "unset");
+                result.tabletRecoveryMap.put(tabletMeta.getDbId(), tabletId);
+            }
 
-                            // check if should clear transactions
-                            if (backendTabletInfo.isSetTransactionIds()) {
-                                List<Long> transactionIds = backendTabletInfo.getTransactionIds();
-                                GlobalTransactionMgr transactionMgr = Env.getCurrentGlobalTransactionMgr();
-                                for (Long transactionId : transactionIds) {
-                                    TransactionState transactionState
-                                            = transactionMgr.getTransactionState(tabletMeta.getDbId(), transactionId);
-                                    if (transactionState == null
-                                            || transactionState.getTransactionStatus() == TransactionStatus.ABORTED) {
-                                        synchronized (transactionsToClear) {
-                                            transactionsToClear.put(transactionId, tabletMeta.getPartitionId());
-                                        }
-                                        LOG.debug("transaction id [{}] is not valid any more, "
-                                                + "clear it from backend [{}]", transactionId, backendId);
-                                    } else if (transactionState.getTransactionStatus() == TransactionStatus.VISIBLE) {
+            if (Config.enable_storage_policy && backendTabletInfo.isSetCooldownTerm()) {
+                // Place tablet info in a container and process it outside of read lock to avoid
+                // deadlock with OlapTable lock
+                result.cooldownTablets.add(Pair.of(tabletMeta, backendTabletInfo));
+                replica.setCooldownMetaId(backendTabletInfo.getCooldownMetaId());
+                replica.setCooldownTerm(backendTabletInfo.getCooldownTerm());
+            }
+
+            long partitionId = tabletMeta.getPartitionId();
+            if (!Config.disable_storage_medium_check) {
+                // check if need migration
+                TStorageMedium storageMedium = storageMediumMap.get(partitionId);
+                if (storageMedium != null && backendTabletInfo.isSetStorageMedium()
+                        && isLocal(storageMedium) && isLocal(backendTabletInfo.getStorageMedium())
+                        && isLocal(tabletMeta.getStorageMedium())) {
+                    if (storageMedium != backendTabletInfo.getStorageMedium()) {
+                        result.tabletMigrationMap.put(storageMedium, tabletId);
+                    }
+                    if (storageMedium != tabletMeta.getStorageMedium()) {
+                        tabletMeta.setStorageMedium(storageMedium);
+                    }
+                }
+            }
+
+            // check if should clear transactions
+            if (backendTabletInfo.isSetTransactionIds()) {
+                List<Long> transactionIds = backendTabletInfo.getTransactionIds();
+                GlobalTransactionMgr transactionMgr = Env.getCurrentGlobalTransactionMgr();
+                for (Long transactionId : transactionIds) {
+                    TransactionState transactionState
+                            = transactionMgr.getTransactionState(tabletMeta.getDbId(), transactionId);
+                    if (transactionState == null
+                            || transactionState.getTransactionStatus() == TransactionStatus.ABORTED) {
+                        result.transactionsToClear.put(transactionId, tabletMeta.getPartitionId());
+                        LOG.debug("transaction id [{}] is not valid any more, "
+                                + "clear it from backend [{}]", transactionId, backendId);
+                    } else if (transactionState.getTransactionStatus() == TransactionStatus.VISIBLE) {
+                        TableCommitInfo tableCommitInfo
+                                = transactionState.getTableCommitInfo(tabletMeta.getTableId());
+                        PartitionCommitInfo partitionCommitInfo = tableCommitInfo == null
+                                ? null : tableCommitInfo.getPartitionCommitInfo(partitionId);
+                        if (partitionCommitInfo != null) {
+                            TPartitionVersionInfo versionInfo
+                                    = new TPartitionVersionInfo(tabletMeta.getPartitionId(),
+                                    partitionCommitInfo.getVersion(), 0);
+                            ListMultimap<Long, TPartitionVersionInfo> map
+                                    = result.transactionsToPublish.get(transactionState.getDbId());
+                            if (map == null) {
+                                map = ArrayListMultimap.create();
+                                result.transactionsToPublish.put(transactionState.getDbId(), map);
+                            }
+                            map.put(transactionId, versionInfo);
+                        }
+                    } else if (transactionState.getTransactionStatus() == TransactionStatus.COMMITTED) {
+                        // for some reasons, transaction pushlish succeed replica num less than quorum,
+                        // this transaction's status can not to be VISIBLE, and this publish task of
+                        // this replica of this tablet on this backend need retry publish success to
+                        // make transaction VISIBLE when last publish failed.
+                        Map<Long, PublishVersionTask> publishVersionTask =
+                                        transactionState.getPublishVersionTasks();
+                        PublishVersionTask task = publishVersionTask.get(backendId);
+                        if (task != null && task.isFinished()) {
+                            List<Long> errorTablets = task.getErrorTablets();
+                            if (errorTablets != null) {
+                                for (int i = 0; i < errorTablets.size(); i++) {
+                                    if (tabletId == errorTablets.get(i)) {
                                         TableCommitInfo tableCommitInfo
-                                                = transactionState.getTableCommitInfo(tabletMeta.getTableId());
-                                        PartitionCommitInfo partitionCommitInfo = tableCommitInfo == null
-                                                ? null : tableCommitInfo.getPartitionCommitInfo(partitionId);
+                                                = transactionState.getTableCommitInfo(
+                                                        tabletMeta.getTableId());
+                                        PartitionCommitInfo partitionCommitInfo =
+                                                tableCommitInfo == null ? null :
+                                                tableCommitInfo.getPartitionCommitInfo(partitionId);
                                         if (partitionCommitInfo != null) {
                                             TPartitionVersionInfo versionInfo
-                                                    = new TPartitionVersionInfo(tabletMeta.getPartitionId(),
-                                                    partitionCommitInfo.getVersion(), 0);
-                                            synchronized (transactionsToPublish) {
-                                                ListMultimap<Long, TPartitionVersionInfo> map
-                                                        = transactionsToPublish.get(transactionState.getDbId());
-                                                if (map == null) {
-                                                    map = ArrayListMultimap.create();
-                                                    transactionsToPublish.put(transactionState.getDbId(), map);
-                                                }
-                                                map.put(transactionId, versionInfo);
+                                                    = new TPartitionVersionInfo(
+                                                        tabletMeta.getPartitionId(),
+                                                        partitionCommitInfo.getVersion(), 0);
+                                            ListMultimap<Long, TPartitionVersionInfo> map
+                                                    = result.transactionsToPublish.get(
+                                                    transactionState.getDbId());
+                                            if (map == null) {
+                                                map = ArrayListMultimap.create();
+                                                result.transactionsToPublish.put(
+                                                        transactionState.getDbId(), map);
                                             }
+                                            map.put(transactionId, versionInfo);
                                         }
-                                    } else if (transactionState.getTransactionStatus() == TransactionStatus.COMMITTED) {
-                                        // for some reasons, transaction pushlish succeed replica num less than quorum,
-                                        // this transaction's status can not to be VISIBLE, and this publish task of
-                                        // this replica of this tablet on this backend need retry publish success to
-                                        // make transaction VISIBLE when last publish failed.
-                                        Map<Long, PublishVersionTask> publishVersionTask =
-                                                        transactionState.getPublishVersionTasks();
-                                        PublishVersionTask task = publishVersionTask.get(backendId);
-                                        if (task != null && task.isFinished()) {
-                                            List<Long> errorTablets = task.getErrorTablets();
-                                            if (errorTablets != null) {
-                                                for (int i = 0; i < errorTablets.size(); i++) {
-                                                    if (tabletId == errorTablets.get(i)) {
-                                                        TableCommitInfo tableCommitInfo
-                                                                = transactionState.getTableCommitInfo(
-                                                                        tabletMeta.getTableId());
-                                                        PartitionCommitInfo partitionCommitInfo =
-                                                                tableCommitInfo == null ? null :
-                                                                tableCommitInfo.getPartitionCommitInfo(partitionId);
-                                                        if (partitionCommitInfo != null) {
-                                                            TPartitionVersionInfo versionInfo
-                                                                    = new TPartitionVersionInfo(
-                                                                        tabletMeta.getPartitionId(),
-                                                                        partitionCommitInfo.getVersion(), 0);
-                                                            synchronized (transactionsToPublish) {
-                                                                ListMultimap<Long, TPartitionVersionInfo> map
-                                                                        = transactionsToPublish.get(
-                                                                        transactionState.getDbId());
-                                                                if (map == null) {
-                                                                    map = ArrayListMultimap.create();
-                                                                    transactionsToPublish.put(
-                                                                            transactionState.getDbId(), map);
-                                                                }
-                                                                map.put(transactionId, versionInfo);
-                                                            }
-                                                        }
-                                                        break;
-                                                    }
-                                                }
-                                            }
-                                        }
-
+                                        break;
                                     }
                                 }
-                            } // end for txn id
-
-                            // update replicase's version count
-                            // no need to write log, and no need to get db lock.
-                            if (backendTabletInfo.isSetVersionCount()) {
-                                replica.setVersionCount(backendTabletInfo.getVersionCount());
-                            }
-                            if (tabletMetaInfo != null) {
-                                tabletMetaInfo.setTabletId(tabletId);
-                                synchronized (tabletToUpdate) {
-                                    tabletToUpdate.add(tabletMetaInfo);
-                                }
-                            }
-                        } else {
-                            // 2. (meta - be)
-                            // may need delete from meta
-                            LOG.debug("backend[{}] does not report tablet[{}-{}]", backendId, tabletId, tabletMeta);
-                            synchronized (tabletDeleteFromMeta) {
-                                tabletDeleteFromMeta.put(tabletMeta.getDbId(), tabletId);
                             }
                         }
-                    });
-                }).join();
+                    }
+                }
+            } // end for txn id
+
+            // update replicase's version count
+            // no need to write log, and no need to get db lock.
+            if (backendTabletInfo.isSetVersionCount()) {
+                replica.setVersionCount(backendTabletInfo.getVersionCount());
             }
-        } finally {
-            readUnlock(stamp);
+            if (tabletMetaInfo != null) {
+                tabletMetaInfo.setTabletId(tabletId);
+                result.tabletToUpdate.add(tabletMetaInfo);
+            }
+        } else {
+            // 2. (meta - be)
+            // may need delete from meta
+            LOG.debug("backend[{}] does not report tablet[{}-{}]", backendId, tabletId, tabletMeta);
+            result.tabletDeleteFromMeta.put(tabletMeta.getDbId(), tabletId);
         }
-        cooldownTablets.forEach(p -> handleCooldownConf(p.first, p.second, cooldownConfToPush, cooldownConfToUpdate));
-
-        long end = System.currentTimeMillis();
-        LOG.info("finished to do tablet diff with backend[{}]. sync: {}."
-                        + " metaDel: {}. foundInMeta: {}. migration: {}. "
-                        + "found invalid transactions {}. found republish transactions {}. tabletToUpdate: {}."
-                        + " need recovery: {}. cost: {} ms", backendId, tabletSyncMap.size(),
-                tabletDeleteFromMeta.size(), tabletFoundInMeta.size(), tabletMigrationMap.size(),
-                transactionsToClear.size(), transactionsToPublish.size(), tabletToUpdate.size(),
-                tabletRecoveryMap.size(), (end - start));
     }
 
     public Long getTabletIdByReplica(long replicaId) {
         long stamp = readLock();
         try {
-            return replicaToTabletMap.get(replicaId);
+            long tabletId = replicaToTabletMap.get(replicaId, NOT_EXIST_VALUE);
+            return tabletId == NOT_EXIST_VALUE ? null : tabletId;
         } finally {
             readUnlock(stamp);
         }
@@ -702,7 +715,14 @@ public class TabletInvertedIndex {
     }
 
     public Map<Long, Long> getReplicaToTabletMap() {
-        return replicaToTabletMap;
+        long stamp = readLock();
+        try {
+            Map<Long, Long> replicaToTablet = Maps.newHashMapWithExpectedSize(replicaToTabletMap.size());
+            replicaToTabletMap.forEach(replicaToTablet::put);
+            return replicaToTablet;
+        } finally {
+            readUnlock(stamp);
+        }
     }
 
     // Only build from available bes, exclude colocate tables
@@ -818,11 +838,54 @@ public class TabletInvertedIndex {
 
     // just for ut
     public Map<Long, TabletMeta> getTabletMetaMap() {
-        return tabletMetaMap;
+        long stamp = readLock();
+        try {
+            Map<Long, TabletMeta> tabletMetas = Maps.newHashMapWithExpectedSize(tabletMetaMap.size());
+            tabletMetaMap.forEach(tabletMetas::put);
+            return tabletMetas;
+        } finally {
+            readUnlock(stamp);
+        }
     }
 
     private boolean isLocal(TStorageMedium storageMedium) {
         return storageMedium == TStorageMedium.HDD || storageMedium == TStorageMedium.SSD;
     }
 
+    // The diff result of one shard of a tablet report
+    private static class TabletReportDiffResult {
+        private final ListMultimap<Long, Long> tabletSyncMap = ArrayListMultimap.create();
+        private final ListMultimap<Long, Long> tabletDeleteFromMeta = ArrayListMultimap.create();
+        private final Set<Long> tabletFoundInMeta = new HashSet<>();
+        private final ListMultimap<TStorageMedium, Long> tabletMigrationMap = ArrayListMultimap.create();
+        private final Map<Long, ListMultimap<Long, TPartitionVersionInfo>> transactionsToPublish = Maps.newHashMap();
+        private final ListMultimap<Long, Long> transactionsToClear = ArrayListMultimap.create();
+        private final ListMultimap<Long, Long> tabletRecoveryMap = ArrayListMultimap.create();
+        private final List<TTabletMetaInfo> tabletToUpdate = new ArrayList<>();
+        private final List<Pair<TabletMeta, TTabletInfo>> cooldownTablets = new ArrayList<>();
+
+        private void mergeTo(ListMultimap<Long, Long> tabletSyncMap,
+                             ListMultimap<Long, Long> tabletDeleteFromMeta,
+                             Set<Long> tabletFoundInMeta,
+                             ListMultimap<TStorageMedium, Long> tabletMigrationMap,
+                             Map<Long, ListMultimap<Long, TPartitionVersionInfo>> transactionsToPublish,
+                             ListMultimap<Long, Long> transactionsToClear,
+                             ListMultimap<Long, Long> tabletRecoveryMap,
+                             List<TTabletMetaInfo> tabletToUpdate,
+                             List<Pair<TabletMeta, TTabletInfo>> cooldownTablets) {
+            tabletSyncMap.putAll(this.tabletSyncMap);
+            tabletDeleteFromMeta.putAll(this.tabletDeleteFromMeta);
+            tabletFoundInMeta.addAll(this.tabletFoundInMeta);
+            tabletMigrationMap.putAll(this.tabletMigrationMap);
+            for (Map.Entry<Long, ListMultimap<Long, TPartitionVersionInfo>> entry
+                    : this.transactionsToPublish.entrySet()) {
+                transactionsToPublish.computeIfAbsent(entry.getKey(), k -> ArrayListMultimap.create())
+                        .putAll(entry.getValue());
+            }
+            transactionsToClear.putAll(this.transactionsToClear);
+            tabletRecoveryMap.putAll(this.tabletRecoveryMap);
+            tabletToUpdate.addAll(this.tabletToUpdate);
+            cooldownTablets.addAll(this.cooldownTablets);
+        }
+    }
 }
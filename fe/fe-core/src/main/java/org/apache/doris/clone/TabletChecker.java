@@ -29,6 +29,8 @@ import org.apache.doris.catalog.Partition.PartitionState;
 import org.apache.doris.catalog.Table;
 import org.apache.doris.catalog.Tablet;
 import org.apache.doris.catalog.Tablet.TabletStatus;
+import org.apache.doris.catalog.TabletInvertedIndex;
+import org.apache.doris.catalog.TabletMeta;
 import org.apache.doris.clone.TabletScheduler.AddResult;
 import org.apache.doris.common.Config;
 import org.apache.doris.common.DdlException;
@@ -44,11 +46,13 @@ import org.apache.doris.system.SystemInfoService;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.HashBasedTable;
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 import com.google.common.collect.Table.Cell;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
@@ -83,6 +87,16 @@ public class TabletChecker extends MasterDaemon {
     // priority of replicas of partitions in this table will be set to VERY_HIGH if not healthy
     private com.google.common.collect.Table<Long, Long, Set<PrioPart>> prios = HashBasedTable.create();
 
+    // tablet id -> the time when the tablet is marked dirty, the tablet is regarded as healthy until then.
+    // 0 if the tablet just needs to be checked again.
+    private final Map<Long, Long> dirtyTablets = Maps.newConcurrentMap();
+    // backend id -> the time when the backend is marked dirty, all tablets on it will be marked dirty
+    private final Map<Long, Long> dirtyBackends = Maps.newConcurrentMap();
+    private long lastFullCheckTime = 0;
+    private volatile long lastFullCheckCostMs = 0;
+    private volatile long lastIncrementalCheckCostMs = 0;
+    private volatile long lastDirtyTabletNum = 0;
+
     // represent a partition which need to be repaired preferentially
     public static class PrioPart {
         public long partId;
@@ -148,6 +162,44 @@ public class TabletChecker extends MasterDaemon {
             gauge.addLabel(new MetricLabel("type", status));
             MetricRepo.DORIS_METRIC_REGISTER.addMetrics(gauge);
         }
+
+        GaugeMetric<Long> fullCheckCost = new GaugeMetric<Long>("tablet_checker_round_cost_ms",
+                Metric.MetricUnit.MILLISECONDS, "time cost of last round of tablet checker") {
+            @Override
+            public Long getValue() {
+                return lastFullCheckCostMs;
+            }
+        };
+        fullCheckCost.addLabel(new MetricLabel("type", "full"));
+        MetricRepo.DORIS_METRIC_REGISTER.addMetrics(fullCheckCost);
+        GaugeMetric<Long> incrementalCheckCost = new GaugeMetric<Long>("tablet_checker_round_cost_ms",
+                Metric.MetricUnit.MILLISECONDS, "time cost of last round of tablet checker") {
+            @Override
+            public Long getValue() {
+                return lastIncrementalCheckCostMs;
+            }
+        };
+        incrementalCheckCost.addLabel(new MetricLabel("type", "incremental"));
+        MetricRepo.DORIS_METRIC_REGISTER.addMetrics(incrementalCheckCost);
+
+        GaugeMetric<Long> pendingDirty = new GaugeMetric<Long>("tablet_checker_dirty_tablet_num",
+                Metric.MetricUnit.NOUNIT, "number of dirty tablets of tablet checker") {
+            @Override
+            public Long getValue() {
+                return (long) dirtyTablets.size();
+            }
+        };
+        pendingDirty.addLabel(new MetricLabel("type", "pending"));
+        MetricRepo.DORIS_METRIC_REGISTER.addMetrics(pendingDirty);
+        GaugeMetric<Long> checkedDirty = new GaugeMetric<Long>("tablet_checker_dirty_tablet_num",
+                Metric.MetricUnit.NOUNIT, "number of dirty tablets of tablet checker") {
+            @Override
+            public Long getValue() {
+                return lastDirtyTabletNum;
+            }
+        };
+        checkedDirty.addLabel(new MetricLabel("type", "last_round"));
+        MetricRepo.DORIS_METRIC_REGISTER.addMetrics(checkedDirty);
     }
 
     private void addPrios(RepairTabletInfo repairTabletInfo, long timeoutMs) {
@@ -192,7 +244,67 @@ public class TabletChecker extends MasterDaemon {
     }
 
     /*
-     * For each cycle, TabletChecker will check all OlapTable's tablet.
+     * Mark the tablet dirty because the state of its replicas is changed, it will be checked in next round.
+     * Tablets which are not marked dirty are only checked by the full check.
+     */
+    public void markTabletDirty(long tabletId) {
+        if (isTrackingDirty()) {
+            dirtyTablets.putIfAbsent(tabletId, System.currentTimeMillis());
+        }
+    }
+
+    public void markTabletsDirty(Collection<Long> tabletIds) {
+        if (isTrackingDirty()) {
+            long now = System.currentTimeMillis();
+            for (Long tabletId : tabletIds) {
+                dirtyTablets.putIfAbsent(tabletId, now);
+            }
+        }
+    }
+
+    /*
+     * Mark all tablets of the partition dirty, e.g. its replica allocation is changed.
+     */
+    public void markPartitionDirty(Partition partition) {
+        if (isTrackingDirty()) {
+            long now = System.currentTimeMillis();
+            for (MaterializedIndex idx : partition.getMaterializedIndices(IndexExtState.VISIBLE)) {
+                for (Long tabletId : idx.getTabletIdsInOrder()) {
+                    dirtyTablets.putIfAbsent(tabletId, now);
+                }
+            }
+        }
+    }
+
+    /*
+     * Mark all tablets on the backend dirty because the backend is up, down, decommissioned or dropped.
+     * The tablets are looked up when the next round begins, to keep the caller cheap.
+     */
+    public void markBackendDirty(long backendId) {
+        if (isTrackingDirty()) {
+            dirtyBackends.putIfAbsent(backendId, System.currentTimeMillis());
+        }
+    }
+
+    /*
+     * Check the tablet again in next round, e.g. it is removed from tablet scheduler.
+     * Unlike markTabletDirty(), the repair delay of the tablet is not restarted.
+     */
+    public void recheckTablet(long tabletId) {
+        if (isTrackingDirty()) {
+            dirtyTablets.putIfAbsent(tabletId, 0L);
+        }
+    }
+
+    private boolean isTrackingDirty() {
+        // dirty tablets are only consumed by the checker on master, and a full check is always done
+        // when the checker starts, so there is no need to track them otherwise.
+        return Config.enable_incremental_tablet_check && env.isMaster();
+    }
+
+    /*
+     * For each cycle, TabletChecker will check the dirty tablets, and check all OlapTable's tablet
+     * every tablet_checker_full_check_interval_second, or every cycle if incremental check is disabled.
      * If a tablet is not healthy, a TabletInfo will be created and sent to TabletScheduler for repairing.
      */
     @Override
@@ -206,7 +318,18 @@ public class TabletChecker extends MasterDaemon {
             return;
         }
 
-        checkTablets();
+        long now = System.currentTimeMillis();
+        boolean fullCheck = !Config.enable_incremental_tablet_check
+                || now - lastFullCheckTime >= Config.tablet_checker_full_check_interval_second * 1000L;
+        if (fullCheck) {
+            // the tablets marked dirty from now on are checked in next round
+            dirtyBackends.clear();
+            dirtyTablets.clear();
+        }
+        if (checkTablets(fullCheck) && fullCheck) {
+            // do full check again in next round if it is stopped by tablet scheduler
+            lastFullCheckTime = now;
+        }
 
         removePriosIfNecessary();
 
@@ -222,12 +345,18 @@ public class TabletChecker extends MasterDaemon {
         public long tabletNotReady = 0;
     }
 
+    public int getDirtyTabletNum() {
+        return dirtyTablets.size();
+    }
+
     private enum LoopControlStatus {
         CONTINUE,
         BREAK_OUT
     }
 
-    private void checkTablets() {
+    // return false if the check is stopped because tablet scheduler refuses to add more tablets
+    private boolean checkTablets(boolean fullCheck) {
+        boolean finished = true;
         long start = System.currentTimeMillis();
         CheckerCounter counter = new CheckerCounter();
 
@@ -261,6 +390,7 @@ public class TabletChecker extends MasterDaemon {
                         LoopControlStatus st = handlePartitionTablet(db, tbl, partition, true, aliveBeIds, start,
                                 counter);
                         if (st == LoopControlStatus.BREAK_OUT) {
+                            finished = false;
                             break OUT;
                         } else {
                             continue;
@@ -272,7 +402,23 @@ public class TabletChecker extends MasterDaemon {
             }
         }
 
-        // 2. Traverse other partitions not in "prios"
+        // 2. Traverse other partitions not in "prios", or only the dirty tablets in them
+        if (!fullCheck) {
+            if (finished) {
+                finished = checkDirtyTablets(start, counter);
+            }
+            long cost = System.currentTimeMillis() - start;
+            lastIncrementalCheckCostMs = cost;
+            stat.counterTabletCheckCostMs.addAndGet(cost);
+            stat.counterTabletChecked.addAndGet(counter.totalTabletNum);
+            stat.counterUnhealthyTabletNum.addAndGet(counter.unhealthyTabletNum);
+            stat.counterTabletAddToBeScheduled.addAndGet(counter.addToSchedulerTabletNum);
+            LOG.debug("finished to check dirty tablets. unhealth/total/added/in_sched/not_ready: {}/{}/{}/{}/{}, "
+                    + "cost: {} ms", counter.unhealthyTabletNum, counter.totalTabletNum,
+                    counter.addToSchedulerTabletNum, counter.tabletInScheduler, counter.tabletNotReady, cost);
+            return finished;
+        }
+
         List<Long> dbIds = env.getInternalCatalog().getDbIds();
         OUT:
         for (Long dbId : dbIds) {
@@ -305,6 +451,7 @@ public class TabletChecker extends MasterDaemon {
                         LoopControlStatus st = handlePartitionTablet(db, tbl, partition, false, aliveBeIds, start,
                                 counter);
                         if (st == LoopControlStatus.BREAK_OUT) {
+                            finished = false;
                             break OUT;
                         } else {
                             continue;
@@ -317,6 +464,7 @@ public class TabletChecker extends MasterDaemon {
         } // end for dbs
 
         long cost = System.currentTimeMillis() - start;
+        lastFullCheckCostMs = cost;
         stat.counterTabletCheckCostMs.addAndGet(cost);
         stat.counterTabletChecked.addAndGet(counter.totalTabletNum);
         stat.counterUnhealthyTabletNum.addAndGet(counter.unhealthyTabletNum);
@@ -331,6 +479,108 @@ public class TabletChecker extends MasterDaemon {
         LOG.info("finished to check tablets. unhealth/total/added/in_sched/not_ready: {}/{}/{}/{}/{}, cost: {} ms",
                 counter.unhealthyTabletNum, counter.totalTabletNum, counter.addToSchedulerTabletNum,
                 counter.tabletInScheduler, counter.tabletNotReady, cost);
+        return finished;
+    }
+
+    /*
+     * Check the tablets marked dirty since last round. The tablets which are unhealthy but not added to
+     * tablet scheduler are kept dirty, so that they are checked again in next round.
+     */
+    private boolean checkDirtyTablets(long startTime, CheckerCounter counter) {
+        TabletInvertedIndex invertedIndex = Env.getCurrentInvertedIndex();
+        for (Long beId : Lists.newArrayList(dirtyBackends.keySet())) {
+            Long markTime = dirtyBackends.remove(beId);
+            if (markTime != null) {
+                for (Long tabletId : invertedIndex.getTabletIdsByBackendId(beId)) {
+                    dirtyTablets.putIfAbsent(tabletId, markTime);
+                }
+            }
+        }
+
+        // db id -> tbl id -> (tablet id -> mark time)
+        com.google.common.collect.Table<Long, Long, Map<Long, Long>> tablets = HashBasedTable.create();
+        for (Long tabletId : Lists.newArrayList(dirtyTablets.keySet())) {
+            Long markTime = dirtyTablets.remove(tabletId);
+            TabletMeta tabletMeta = invertedIndex.getTabletMeta(tabletId);
+            if (markTime == null || tabletMeta == null) {
+                continue;
+            }
+            Map<Long, Long> tblTablets = tablets.get(tabletMeta.getDbId(), tabletMeta.getTableId());
+            if (tblTablets == null) {
+                tblTablets = Maps.newHashMap();
+                tablets.put(tabletMeta.getDbId(), tabletMeta.getTableId(), tblTablets);
+            }
+            tblTablets.put(tabletId, markTime);
+        }
+        lastDirtyTabletNum = tablets.values().stream().mapToInt(Map::size).sum();
+
+        List<Long> aliveBeIds = infoService.getAllBackendIds(true);
+        boolean finished = true;
+        for (Cell<Long, Long, Map<Long, Long>> cell : tablets.cellSet()) {
+            if (!finished) {
+                // keep the remaining tablets dirty
+                cell.getValue().forEach(dirtyTablets::putIfAbsent);
+                continue;
+            }
+            Database db = env.getInternalCatalog().getDbNullable(cell.getRowKey());
+            Table table = db == null ? null : db.getTableNullable(cell.getColumnKey());
+            if (table == null) {
+                continue;
+            }
+            table.readLock();
+            try {
+                if (!table.needSchedule()) {
+                    continue;
+                }
+                OlapTable tbl = (OlapTable) table;
+                Iterator<Map.Entry<Long, Long>> iter = cell.getValue().entrySet().iterator();
+                while (finished && iter.hasNext()) {
+                    Map.Entry<Long, Long> entry = iter.next();
+                    TabletCheckResult res = handleDirtyTablet(db, tbl, entry.getKey(), entry.getValue(),
+                            aliveBeIds, startTime, counter);
+                    if (res == TabletCheckResult.BREAK_OUT) {
+                        finished = false;
+                    }
+                    if (res == TabletCheckResult.NOT_READY || res == TabletCheckResult.BREAK_OUT) {
+                        dirtyTablets.putIfAbsent(entry.getKey(), entry.getValue());
+                    }
+                }
+                while (iter.hasNext()) {
+                    Map.Entry<Long, Long> entry = iter.next();
+                    dirtyTablets.putIfAbsent(entry.getKey(), entry.getValue());
+                }
+            } finally {
+                table.readUnlock();
+            }
+        }
+        return finished;
+    }
+
+    private TabletCheckResult handleDirtyTablet(Database db, OlapTable tbl, long tabletId, long markTime,
+            List<Long> aliveBeIds, long startTime, CheckerCounter counter) {
+        TabletMeta tabletMeta = Env.getCurrentInvertedIndex().getTabletMeta(tabletId);
+        Partition partition = tabletMeta == null ? null : tbl.getPartition(tabletMeta.getPartitionId());
+        if (partition == null) {
+            return TabletCheckResult.HEALTHY;
+        }
+        if (partition.getState() != PartitionState.NORMAL) {
+            // check it again after the alter job or restore job is finished
+            return TabletCheckResult.NOT_READY;
+        }
+        if (isInPrios(db.getId(), tbl.getId(), partition.getId())) {
+            // it has been checked with the partition in "prios"
+            return TabletCheckResult.HEALTHY;
+        }
+        MaterializedIndex idx = partition.getIndex(tabletMeta.getIndexId());
+        Tablet tablet = idx == null ? null : idx.getTablet(tabletId);
+        if (tablet == null || !idx.getState().isVisible()) {
+            return TabletCheckResult.HEALTHY;
+        }
+        // the tablet is regarded as healthy until it is marked dirty, so the repair delay starts from then
+        if (markTime > tablet.getLastStatusCheckTime()) {
+            tablet.setLastStatusCheckTime(markTime);
+        }
+        return handleTablet(db, tbl, partition, idx, tablet, false, aliveBeIds, startTime, counter);
     }
 
     private LoopControlStatus handlePartitionTablet(Database db, OlapTable tbl, Partition partition, boolean isInPrios,
@@ -346,54 +596,13 @@ public class TabletChecker extends MasterDaemon {
          */
         for (MaterializedIndex idx : partition.getMaterializedIndices(IndexExtState.VISIBLE)) {
             for (Tablet tablet : idx.getTablets()) {
-                counter.totalTabletNum++;
-
-                if (tabletScheduler.containsTablet(tablet.getId())) {
-                    counter.tabletInScheduler++;
-                    continue;
-                }
-
-                Pair<TabletStatus, TabletSchedCtx.Priority> statusWithPrio = tablet.getHealthStatusWithPriority(
-                        infoService, partition.getVisibleVersion(),
-                        tbl.getPartitionInfo().getReplicaAllocation(partition.getId()), aliveBeIds);
-
-                if (statusWithPrio.first == TabletStatus.HEALTHY) {
-                    // Only set last status check time when status is healthy.
-                    tablet.setLastStatusCheckTime(startTime);
-                    continue;
-                } else if (statusWithPrio.first == TabletStatus.UNRECOVERABLE) {
-                    // This tablet is not recoverable, do not set it into tablet scheduler
-                    // all UNRECOVERABLE tablet can be seen from "show proc '/statistic'"
-                    counter.unhealthyTabletNum++;
-                    continue;
-                } else if (isInPrios) {
-                    statusWithPrio.second = TabletSchedCtx.Priority.VERY_HIGH;
+                TabletCheckResult res = handleTablet(db, tbl, partition, idx, tablet, isInPrios, aliveBeIds,
+                        startTime, counter);
+                if (res != TabletCheckResult.HEALTHY && res != TabletCheckResult.UNRECOVERABLE) {
                     prioPartIsHealthy = false;
                 }
-
-                counter.unhealthyTabletNum++;
-
-                if (!tablet.readyToBeRepaired(statusWithPrio.second)) {
-                    counter.tabletNotReady++;
-                    continue;
-                }
-
-                TabletSchedCtx tabletCtx = new TabletSchedCtx(
-                        TabletSchedCtx.Type.REPAIR,
-                        db.getId(), tbl.getId(),
-                        partition.getId(), idx.getId(), tablet.getId(),
-                        tbl.getPartitionInfo().getReplicaAllocation(partition.getId()),
-                        System.currentTimeMillis());
-                // the tablet status will be set again when being scheduled
-                tabletCtx.setTabletStatus(statusWithPrio.first);
-                tabletCtx.setOrigPriority(statusWithPrio.second);
-
-                AddResult res = tabletScheduler.addTablet(tabletCtx, false /* not force */);
-                if (res == AddResult.LIMIT_EXCEED || res == AddResult.DISABLED) {
-                    LOG.info("tablet scheduler return: {}. stop tablet checker", res.name());
+                if (res == TabletCheckResult.BREAK_OUT) {
                     return LoopControlStatus.BREAK_OUT;
-                } else if (res == AddResult.ADDED) {
-                    counter.addToSchedulerTabletNum++;
                 }
             }
         } // indices
@@ -409,6 +618,71 @@ public class TabletChecker extends MasterDaemon {
         return LoopControlStatus.CONTINUE;
     }
 
+    private enum TabletCheckResult {
+        // healthy, or already being scheduled
+        HEALTHY,
+        UNRECOVERABLE,
+        // unhealthy and added to tablet scheduler
+        ADDED,
+        // unhealthy but not ready to be repaired yet, need to be checked again
+        NOT_READY,
+        // unhealthy but tablet scheduler refuses to add more tablets
+        BREAK_OUT
+    }
+
+    private TabletCheckResult handleTablet(Database db, OlapTable tbl, Partition partition, MaterializedIndex idx,
+            Tablet tablet, boolean isInPrios, List<Long> aliveBeIds, long startTime, CheckerCounter counter) {
+        counter.totalTabletNum++;
+
+        if (tabletScheduler.containsTablet(tablet.getId())) {
+            counter.tabletInScheduler++;
+            return TabletCheckResult.HEALTHY;
+        }
+
+        Pair<TabletStatus, TabletSchedCtx.Priority> statusWithPrio = tablet.getHealthStatusWithPriority(
+                infoService, partition.getVisibleVersion(),
+                tbl.getPartitionInfo().getReplicaAllocation(partition.getId()), aliveBeIds);
+
+        if (statusWithPrio.first == TabletStatus.HEALTHY) {
+            // Only set last status check time when status is healthy.
+            tablet.setLastStatusCheckTime(startTime);
+            return TabletCheckResult.HEALTHY;
+        } else if (statusWithPrio.first == TabletStatus.UNRECOVERABLE) {
+            // This tablet is not recoverable, do not set it into tablet scheduler
+            // all UNRECOVERABLE tablet can be seen from "show proc '/statistic'"
+            counter.unhealthyTabletNum++;
+            return TabletCheckResult.UNRECOVERABLE;
+        } else if (isInPrios) {
+            statusWithPrio.second = TabletSchedCtx.Priority.VERY_HIGH;
+        }
+
+        counter.unhealthyTabletNum++;
+
+        if (!tablet.readyToBeRepaired(statusWithPrio.second)) {
+            counter.tabletNotReady++;
+            return TabletCheckResult.NOT_READY;
+        }
+
+        TabletSchedCtx tabletCtx = new TabletSchedCtx(
+                TabletSchedCtx.Type.REPAIR,
+                db.getId(), tbl.getId(),
+                partition.getId(), idx.getId(), tablet.getId(),
+                tbl.getPartitionInfo().getReplicaAllocation(partition.getId()),
+                System.currentTimeMillis());
+        // the tablet status will be set again when being scheduled
+        tabletCtx.setTabletStatus(statusWithPrio.first);
+        tabletCtx.setOrigPriority(statusWithPrio.second);
+
+        AddResult res = tabletScheduler.addTablet(tabletCtx, false /* not force */);
+        if (res == AddResult.LIMIT_EXCEED || res == AddResult.DISABLED) {
+            LOG.info("tablet scheduler return: {}. stop tablet checker", res.name());
+            return TabletCheckResult.BREAK_OUT;
+        } else if (res == AddResult.ADDED) {
+            counter.addToSchedulerTabletNum++;
+        }
+        return TabletCheckResult.ADDED;
+    }
+
     private boolean isInPrios(long dbId, long tblId, long partId) {
         synchronized (prios) {
             if (prios.contains(dbId, tblId)) {
@@ -42,6 +42,7 @@ import org.apache.doris.common.AnalysisException;
 import org.apache.doris.common.Config;
 import org.apache.doris.common.FeConstants;
 import org.apache.doris.common.Pair;
+import org.apache.doris.common.ThreadPoolManager;
 import org.apache.doris.common.util.MasterDaemon;
 import org.apache.doris.persist.ReplicaPersistInfo;
 import org.apache.doris.resource.Tag;
@@ -74,6 +75,11 @@ import java.util.Map;
 import java.util.PriorityQueue;
 import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 /**
@@ -111,14 +117,18 @@ public class TabletScheduler extends MasterDaemon {
      *
      * pendingTablets + runningTablets = allTabletIds
      *
-     * pendingTablets, allTabletIds, runningTablets and schedHistory are protected by 'synchronized'
+     * pendingTablets is partitioned into shards by tablet id, and the shards are scheduled concurrently.
+     * Each shard is protected by 'synchronized' on itself, and schedHistory is protected by 'synchronized'
+     * on itself too. allTabletIds and runningTablets are concurrent collections.
      */
-    private PriorityQueue<TabletSchedCtx> pendingTablets = new PriorityQueue<>();
-    private Set<Long> allTabletIds = Sets.newHashSet();
+    private final List<PriorityQueue<TabletSchedCtx>> pendingTablets = Lists.newArrayList();
+    private final Set<Long> allTabletIds = Sets.newConcurrentHashSet();
     // contains all tabletCtxs which state are RUNNING
-    private Map<Long, TabletSchedCtx> runningTablets = Maps.newHashMap();
+    private final Map<Long, TabletSchedCtx> runningTablets = Maps.newConcurrentMap();
     // save the latest 1000 scheduled tablet info
-    private Queue<TabletSchedCtx> schedHistory = EvictingQueue.create(1000);
+    private final Queue<TabletSchedCtx> schedHistory = EvictingQueue.create(1000);
+    // schedule the shards except the first one, which is scheduled by the daemon thread itself
+    private ExecutorService shardExecutor;
 
     // be id -> #working slots
     private Map<Long, PathSlot> backendsWorkingSlots = Maps.newConcurrentMap();
@@ -159,6 +169,18 @@ public class TabletScheduler extends MasterDaemon {
         }
         // if rebalancer can not get new task, then use diskRebalancer to get task
         this.diskRebalancer = new DiskRebalancer(infoService, invertedIndex);
+        int shardNum = Math.max(1, Config.tablet_scheduler_shard_num);
+        for (int i = 0; i < shardNum; i++) {
+            pendingTablets.add(new PriorityQueue<>());
+        }
+    }
+
+    private PriorityQueue<TabletSchedCtx> getPendingShard(TabletSchedCtx tabletCtx) {
+        // balance tablets are all in the first shard, so that the rebalancers are only used by one thread.
+        if (tabletCtx.getType() == Type.BALANCE) {
+            return pendingTablets.get(0);
+        }
+        return pendingTablets.get((int) Math.floorMod(tabletCtx.getTabletId(), (long) pendingTablets.size()));
     }
 
     public TabletSchedulerStat getStat() {
@@ -221,7 +243,7 @@ public class TabletScheduler extends MasterDaemon {
      * add a ready-to-be-scheduled tablet to pendingTablets, if it has not being added before.
      * if force is true, do not check if tablet is already added before.
      */
-    public synchronized AddResult addTablet(TabletSchedCtx tablet, boolean force) {
+    public AddResult addTablet(TabletSchedCtx tablet, boolean force) {
         if (!force && Config.disable_tablet_scheduler) {
             return AddResult.DISABLED;
         }
@@ -233,17 +255,23 @@ public class TabletScheduler extends MasterDaemon {
         // and number of scheduling tablets exceed the limit,
         // refuse to add.
         if (tablet.getType() != TabletSchedCtx.Type.BALANCE && !force
-                && (pendingTablets.size() > Config.max_scheduling_tablets
+                && (getPendingNum() > Config.max_scheduling_tablets
                 || runningTablets.size() > Config.max_scheduling_tablets)) {
             return AddResult.LIMIT_EXCEED;
         }
 
-        allTabletIds.add(tablet.getTabletId());
-        pendingTablets.offer(tablet);
+        if (!allTabletIds.add(tablet.getTabletId()) && !force) {
+            // added by others concurrently
+            return AddResult.ALREADY_IN;
+        }
+        PriorityQueue<TabletSchedCtx> shard = getPendingShard(tablet);
+        synchronized (shard) {
+            shard.offer(tablet);
+        }
         return AddResult.ADDED;
     }
 
-    public synchronized boolean containsTablet(long tabletId) {
+    public boolean containsTablet(long tabletId) {
         return allTabletIds.contains(tabletId);
     }
 
@@ -258,16 +286,20 @@ public class TabletScheduler extends MasterDaemon {
     /**
      * Iterate current tablets, change their priority to VERY_HIGH if necessary.
      */
-    public synchronized void changeTabletsPriorityToVeryHigh(long dbId, long tblId, List<Long> partitionIds) {
-        PriorityQueue<TabletSchedCtx> newPendingTablets = new PriorityQueue<>();
-        for (TabletSchedCtx tabletCtx : pendingTablets) {
-            if (tabletCtx.getDbId() == dbId && tabletCtx.getTblId() == tblId
-                    && partitionIds.contains(tabletCtx.getPartitionId())) {
-                tabletCtx.setOrigPriority(Priority.VERY_HIGH);
+    public void changeTabletsPriorityToVeryHigh(long dbId, long tblId, List<Long> partitionIds) {
+        for (PriorityQueue<TabletSchedCtx> shard : pendingTablets) {
+            synchronized (shard) {
+                List<TabletSchedCtx> tabletCtxs = Lists.newArrayList(shard);
+                shard.clear();
+                for (TabletSchedCtx tabletCtx : tabletCtxs) {
+                    if (tabletCtx.getDbId() == dbId && tabletCtx.getTblId() == tblId
+                            && partitionIds.contains(tabletCtx.getPartitionId())) {
+                        tabletCtx.setOrigPriority(Priority.VERY_HIGH);
+                    }
+                    shard.add(tabletCtx);
+                }
             }
-            newPendingTablets.add(tabletCtx);
         }
-        pendingTablets = newPendingTablets;
     }
 
     /**
@@ -345,20 +377,21 @@ public class TabletScheduler extends MasterDaemon {
     /**
      * adjust priorities of all tablet infos
      */
-    private synchronized void adjustPriorities() {
-        int size = pendingTablets.size();
+    private void adjustPriorities() {
+        int size = 0;
         int changedNum = 0;
-        TabletSchedCtx tabletCtx;
-        for (int i = 0; i < size; i++) {
-            tabletCtx = pendingTablets.poll();
-            if (tabletCtx == null) {
-                break;
-            }
-
-            if (tabletCtx.adjustPriority(stat)) {
-                changedNum++;
+        for (PriorityQueue<TabletSchedCtx> shard : pendingTablets) {
+            synchronized (shard) {
+                List<TabletSchedCtx> tabletCtxs = Lists.newArrayList(shard);
+                shard.clear();
+                for (TabletSchedCtx tabletCtx : tabletCtxs) {
+                    if (tabletCtx.adjustPriority(stat)) {
+                        changedNum++;
+                    }
+                    shard.add(tabletCtx);
+                }
+                size += tabletCtxs.size();
             }
-            pendingTablets.add(tabletCtx);
         }
 
         LOG.debug("adjust priority for all tablets. changed: {}, total: {}", changedNum, size);
@@ -375,7 +408,39 @@ public class TabletScheduler extends MasterDaemon {
      */
     private void schedulePendingTablets() {
         long start = System.currentTimeMillis();
-        List<TabletSchedCtx> currentBatch = getNextTabletCtxBatch();
+        int shardNum = pendingTablets.size();
+        // the available slots are shared by all shards, so each shard takes its part of them in one round
+        int batchNum = Math.min(MIN_BATCH_NUM, (getCurrentAvailableSlotNum() + shardNum - 1) / shardNum);
+        List<Future<?>> futures = Lists.newArrayList();
+        for (int i = 1; i < shardNum; i++) {
+            PriorityQueue<TabletSchedCtx> shard = pendingTablets.get(i);
+            futures.add(getShardExecutor().submit(() -> schedulePendingShard(shard, batchNum)));
+        }
+        schedulePendingShard(pendingTablets.get(0), batchNum);
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (InterruptedException | ExecutionException e) {
+                LOG.warn("failed to schedule pending tablets", e);
+            }
+        }
+
+        long cost = System.currentTimeMillis() - start;
+        stat.counterTabletScheduleCostMs.addAndGet(cost);
+    }
+
+    private ExecutorService getShardExecutor() {
+        if (shardExecutor == null) {
+            // only created on master, when the shards are scheduled for the first time
+            int threadNum = pendingTablets.size() - 1;
+            shardExecutor = ThreadPoolManager.newDaemonFixedThreadPool(threadNum, threadNum,
+                    "tablet-scheduler-shard", true);
+        }
+        return shardExecutor;
+    }
+
+    private void schedulePendingShard(PriorityQueue<TabletSchedCtx> shard, int batchNum) {
+        List<TabletSchedCtx> currentBatch = getNextTabletCtxBatch(shard, batchNum);
         LOG.debug("get {} tablets to schedule", currentBatch.size());
 
         AgentBatchTask batchTask = new AgentBatchTask();
@@ -450,12 +515,9 @@ public class TabletScheduler extends MasterDaemon {
 
         // send task immediately
         AgentTaskExecutor.submit(batchTask);
-
-        long cost = System.currentTimeMillis() - start;
-        stat.counterTabletScheduleCostMs.addAndGet(cost);
     }
 
-    private synchronized void addToRunningTablets(TabletSchedCtx tabletCtx) {
+    private void addToRunningTablets(TabletSchedCtx tabletCtx) {
         runningTablets.put(tabletCtx.getTabletId(), tabletCtx);
     }
 
@@ -464,7 +526,7 @@ public class TabletScheduler extends MasterDaemon {
      * avoid other threads see it.
      * Whoever takes this tablet, make sure to put it to the schedHistory or back to runningTablets.
      */
-    private synchronized TabletSchedCtx takeRunningTablets(long tabletId) {
+    private TabletSchedCtx takeRunningTablets(long tabletId) {
         return runningTablets.remove(tabletId);
     }
 
@@ -1420,25 +1482,30 @@ public class TabletScheduler extends MasterDaemon {
         tabletCtx.setFinishedTime(System.currentTimeMillis());
     }
 
-    private synchronized void removeTabletCtx(TabletSchedCtx tabletCtx, String reason) {
+    private void removeTabletCtx(TabletSchedCtx tabletCtx, String reason) {
         runningTablets.remove(tabletCtx.getTabletId());
         allTabletIds.remove(tabletCtx.getTabletId());
-        schedHistory.add(tabletCtx);
+        synchronized (schedHistory) {
+            schedHistory.add(tabletCtx);
+        }
+        // the tablet may be still unhealthy if it is not repaired successfully
+        Env.getCurrentEnv().getTabletChecker().recheckTablet(tabletCtx.getTabletId());
         LOG.info("remove the tablet {}. because: {}", tabletCtx.getTabletId(), reason);
     }
 
-    // get next batch of tablets from queue.
-    private synchronized List<TabletSchedCtx> getNextTabletCtxBatch() {
+    // get next batch of tablets from the shard.
+    private List<TabletSchedCtx> getNextTabletCtxBatch(PriorityQueue<TabletSchedCtx> shard, int count) {
         List<TabletSchedCtx> list = Lists.newArrayList();
-        int count = Math.min(MIN_BATCH_NUM, getCurrentAvailableSlotNum());
-        while (count > 0) {
-            TabletSchedCtx tablet = pendingTablets.poll();
-            if (tablet == null) {
-                // no more tablets
-                break;
+        synchronized (shard) {
+            while (count > 0) {
+                TabletSchedCtx tablet = shard.poll();
+                if (tablet == null) {
+                    // no more tablets
+                    break;
+                }
+                list.add(tablet);
+                count--;
             }
-            list.add(tablet);
-            count--;
         }
         return list;
     }
@@ -1577,13 +1644,15 @@ public class TabletScheduler extends MasterDaemon {
     public void handleRunningTablets() {
         // 1. remove the tablet ctx if timeout
         List<TabletSchedCtx> timeoutTablets = Lists.newArrayList();
-        synchronized (this) {
-            runningTablets.values().stream().filter(TabletSchedCtx::isTimeout).forEach(timeoutTablets::add);
-
-            for (TabletSchedCtx tabletSchedCtx : timeoutTablets) {
-                removeTabletCtx(tabletSchedCtx, "timeout");
+        for (TabletSchedCtx tabletSchedCtx : runningTablets.values()) {
+            // the tablet may be taken by finishCloneTask() concurrently
+            if (tabletSchedCtx.isTimeout() && runningTablets.remove(tabletSchedCtx.getTabletId(), tabletSchedCtx)) {
+                timeoutTablets.add(tabletSchedCtx);
             }
         }
+        for (TabletSchedCtx tabletSchedCtx : timeoutTablets) {
+            removeTabletCtx(tabletSchedCtx, "timeout");
+        }
 
         // 2. release ctx
         timeoutTablets.forEach(t -> {
@@ -1596,7 +1665,12 @@ public class TabletScheduler extends MasterDaemon {
     }
 
     public List<List<String>> getPendingTabletsInfo(int limit) {
-        List<TabletSchedCtx> tabletCtxs = getCopiedTablets(pendingTablets, limit);
+        List<TabletSchedCtx> tabletCtxs = Lists.newArrayList();
+        for (PriorityQueue<TabletSchedCtx> shard : pendingTablets) {
+            synchronized (shard) {
+                tabletCtxs.addAll(getCopiedTablets(shard, limit - tabletCtxs.size()));
+            }
+        }
         return collectTabletCtx(tabletCtxs);
     }
 
@@ -1606,7 +1680,10 @@ public class TabletScheduler extends MasterDaemon {
     }
 
     public List<List<String>> getHistoryTabletsInfo(int limit) {
-        List<TabletSchedCtx> tabletCtxs = getCopiedTablets(schedHistory, limit);
+        List<TabletSchedCtx> tabletCtxs;
+        synchronized (schedHistory) {
+            tabletCtxs = getCopiedTablets(schedHistory, limit);
+        }
         return collectTabletCtx(tabletCtxs);
     }
 
@@ -1618,7 +1695,7 @@ public class TabletScheduler extends MasterDaemon {
         return result;
     }
 
-    private synchronized List<TabletSchedCtx> getCopiedTablets(Collection<TabletSchedCtx> source, int limit) {
+    private List<TabletSchedCtx> getCopiedTablets(Collection<TabletSchedCtx> source, int limit) {
         List<TabletSchedCtx> tabletCtxs = Lists.newArrayList();
         source.stream().limit(limit).forEach(t -> {
             tabletCtxs.add(t);
@@ -1626,31 +1703,45 @@ public class TabletScheduler extends MasterDaemon {
         return tabletCtxs;
     }
 
-    public synchronized int getPendingNum() {
-        return pendingTablets.size();
+    public int getPendingNum() {
+        int num = 0;
+        for (PriorityQueue<TabletSchedCtx> shard : pendingTablets) {
+            synchronized (shard) {
+                num += shard.size();
+            }
+        }
+        return num;
     }
 
-    public synchronized int getRunningNum() {
+    public int getRunningNum() {
         return runningTablets.size();
     }
 
-    public synchronized int getHistoryNum() {
-        return schedHistory.size();
+    public int getHistoryNum() {
+        synchronized (schedHistory) {
+            return schedHistory.size();
+        }
     }
 
-    public synchronized int getTotalNum() {
+    public int getTotalNum() {
         return allTabletIds.size();
     }
 
-    public synchronized long getBalanceTabletsNumber() {
-        return pendingTablets.stream().filter(t -> t.getType() == Type.BALANCE).count()
-                + runningTablets.values().stream().filter(t -> t.getType() == Type.BALANCE).count();
+    public long getBalanceTabletsNumber() {
+        long num;
+        // balance tablets are all in the first shard
+        PriorityQueue<TabletSchedCtx> shard = pendingTablets.get(0);
+        synchronized (shard) {
+            num = shard.stream().filter(t -> t.getType() == Type.BALANCE).count();
+        }
+        return num + runningTablets.values().stream().filter(t -> t.getType() == Type.BALANCE).count();
     }
 
     /**
      * PathSlot keeps track of slot num per path of a Backend.
      * Each path on a Backend has several slot.
      * If a path's available slot num become 0, no task should be assigned to this path.
+     * The slots are taken and freed by the scheduling shards concurrently, so they are accounted without lock.
      */
     public static class PathSlot {
         // path hash -> slot num
@@ -1663,48 +1754,46 @@ public class TabletScheduler extends MasterDaemon {
         }
 
         // update the path
-        public synchronized void updatePaths(List<Long> paths) {
+        public void updatePaths(List<Long> paths) {
             // delete non exist path
             pathSlots.entrySet().removeIf(entry -> !paths.contains(entry.getKey()));
 
             // add new path
             for (Long pathHash : paths) {
-                if (!pathSlots.containsKey(pathHash)) {
-                    pathSlots.put(pathHash, new Slot(Config.schedule_slot_num_per_path));
-                }
+                pathSlots.computeIfAbsent(pathHash, k -> new Slot(Config.schedule_slot_num_per_path));
             }
         }
 
         // Update the total slots num of specified paths, increase or decrease
-        public synchronized void updateSlot(List<Long> pathHashs, int delta) {
+        public void updateSlot(List<Long> pathHashs, int delta) {
             for (Long pathHash : pathHashs) {
                 Slot slot = pathSlots.get(pathHash);
                 if (slot == null) {
                     continue;
                 }
 
-                slot.total += delta;
+                slot.total.addAndGet(delta);
                 slot.rectify();
-                LOG.debug("decrease path {} slots num to {}", pathHash, pathSlots.get(pathHash).total);
+                LOG.debug("decrease path {} slots num to {}", pathHash, slot.total.get());
             }
         }
 
         /**
          * Update the statistic of specified path
          */
-        public synchronized void updateStatistic(long pathHash, long copySize, long copyTimeMs) {
+        public void updateStatistic(long pathHash, long copySize, long copyTimeMs) {
             Slot slot = pathSlots.get(pathHash);
             if (slot == null) {
                 return;
             }
-            slot.totalCopySize += copySize;
-            slot.totalCopyTimeMs += copyTimeMs;
+            slot.totalCopySize.addAndGet(copySize);
+            slot.totalCopyTimeMs.addAndGet(copyTimeMs);
         }
 
         /**
          * If the specified 'pathHash' has available slot, decrease the slot number and return this path hash
          */
-        public synchronized long takeSlot(long pathHash) throws SchedException {
+        public long takeSlot(long pathHash) throws SchedException {
             if (pathHash == -1) {
                 if (LOG.isDebugEnabled()) {
                     LOG.debug("path hash is not set.", new Exception());
@@ -1718,36 +1807,35 @@ public class TabletScheduler extends MasterDaemon {
                 return -1;
             }
             slot.rectify();
-            if (slot.available <= 0) {
+            if (!Slot.tryDecrease(slot.available)) {
                 LOG.debug("path {} has no available slot", pathHash);
                 return -1;
             }
-            slot.available--;
             return pathHash;
         }
 
-        public synchronized void freeSlot(long pathHash) {
+        public void freeSlot(long pathHash) {
             Slot slot = pathSlots.get(pathHash);
             if (slot == null) {
                 return;
             }
-            slot.available++;
+            slot.available.incrementAndGet();
             slot.rectify();
         }
 
-        public synchronized int peekSlot(long pathHash) {
+        public int peekSlot(long pathHash) {
             Slot slot = pathSlots.get(pathHash);
             if (slot == null) {
                 return -1;
             }
             slot.rectify();
-            return slot.available;
+            return slot.available.get();
         }
 
-        public synchronized int getTotalAvailSlotNum() {
+        public int getTotalAvailSlotNum() {
             int total = 0;
             for (Slot slot : pathSlots.values()) {
-                total += slot.available;
+                total += slot.available.get();
             }
             return total;
         }
@@ -1755,76 +1843,74 @@ public class TabletScheduler extends MasterDaemon {
         /**
          * get path whose balance slot num is larger than 0
          */
-        public synchronized Set<Long> getAvailPathsForBalance() {
+        public Set<Long> getAvailPathsForBalance() {
             Set<Long> pathHashs = Sets.newHashSet();
             for (Map.Entry<Long, Slot> entry : pathSlots.entrySet()) {
-                if (entry.getValue().balanceSlot > 0) {
+                if (entry.getValue().balanceSlot.get() > 0) {
                     pathHashs.add(entry.getKey());
                 }
             }
             return pathHashs;
         }
 
-        public synchronized int getAvailBalanceSlotNum() {
+        public int getAvailBalanceSlotNum() {
             int num = 0;
             for (Map.Entry<Long, Slot> entry : pathSlots.entrySet()) {
-                num += entry.getValue().balanceSlot;
+                num += entry.getValue().balanceSlot.get();
             }
             return num;
         }
 
-        public synchronized List<List<String>> getSlotInfo(long beId) {
+        public List<List<String>> getSlotInfo(long beId) {
             List<List<String>> results = Lists.newArrayList();
             pathSlots.forEach((key, value) -> {
                 value.rectify();
                 List<String> result = Lists.newArrayList();
                 result.add(String.valueOf(beId));
                 result.add(String.valueOf(key));
-                result.add(String.valueOf(value.available));
-                result.add(String.valueOf(value.total));
-                result.add(String.valueOf(value.balanceSlot));
+                result.add(String.valueOf(value.available.get()));
+                result.add(String.valueOf(value.total.get()));
+                result.add(String.valueOf(value.balanceSlot.get()));
                 result.add(String.valueOf(value.getAvgRate()));
                 results.add(result);
             });
             return results;
         }
 
-        public synchronized long takeBalanceSlot(long pathHash) {
+        public long takeBalanceSlot(long pathHash) {
             Slot slot = pathSlots.get(pathHash);
             if (slot == null) {
                 return -1;
             }
-            if (slot.balanceSlot > 0) {
-                slot.balanceSlot--;
+            if (Slot.tryDecrease(slot.balanceSlot)) {
                 return pathHash;
             }
             return -1;
         }
 
-        public synchronized long takeAnAvailBalanceSlotFrom(Set<Long> pathHashs) {
+        public long takeAnAvailBalanceSlotFrom(Set<Long> pathHashs) {
             for (Long pathHash : pathHashs) {
                 Slot slot = pathSlots.get(pathHash);
                 if (slot == null) {
                     continue;
                 }
-                if (slot.balanceSlot > 0) {
-                    slot.balanceSlot--;
+                if (Slot.tryDecrease(slot.balanceSlot)) {
                     return pathHash;
                 }
             }
             return -1;
         }
 
-        public synchronized void freeBalanceSlot(long pathHash) {
+        public void freeBalanceSlot(long pathHash) {
             Slot slot = pathSlots.get(pathHash);
             if (slot == null) {
                 return;
             }
-            slot.balanceSlot++;
+            slot.balanceSlot.incrementAndGet();
             slot.rectify();
         }
 
-        public synchronized void updateDiskBalanceLastSuccTime(long pathHash) {
+        public void updateDiskBalanceLastSuccTime(long pathHash) {
             Slot slot = pathSlots.get(pathHash);
             if (slot == null) {
                 return;
@@ -1832,7 +1918,7 @@ public class TabletScheduler extends MasterDaemon {
             slot.diskBalanceLastSuccTime = System.currentTimeMillis();
         }
 
-        public synchronized long getDiskBalanceLastSuccTime(long pathHash) {
+        public long getDiskBalanceLastSuccTime(long pathHash) {
             Slot slot = pathSlots.get(pathHash);
             if (slot == null) {
                 return 0L;
@@ -1851,42 +1937,48 @@ public class TabletScheduler extends MasterDaemon {
     }
 
     public static class Slot {
-        public int total;
-        public int available;
+        public final AtomicInteger total;
+        public final AtomicInteger available;
         // slot reserved for balance
-        public int balanceSlot;
+        public final AtomicInteger balanceSlot;
 
-        public long totalCopySize = 0;
-        public long totalCopyTimeMs = 0;
+        public final AtomicLong totalCopySize = new AtomicLong(0);
+        public final AtomicLong totalCopyTimeMs = new AtomicLong(0);
 
         // for disk balance
-        public long diskBalanceLastSuccTime = 0;
+        public volatile long diskBalanceLastSuccTime = 0;
 
         public Slot(int total) {
-            this.total = total;
-            this.available = total;
-            this.balanceSlot = Config.balance_slot_num_per_path;
+            this.total = new AtomicInteger(total);
+            this.available = new AtomicInteger(total);
+            this.balanceSlot = new AtomicInteger(Config.balance_slot_num_per_path);
         }
 
         public void rectify() {
-            if (total <= 0) {
-                total = 1;
-            }
-            if (available > total) {
-                available = total;
-            }
+            int totalNum = total.updateAndGet(v -> Math.max(v, 1));
+            available.accumulateAndGet(totalNum, Math::min);
+            balanceSlot.accumulateAndGet(Config.balance_slot_num_per_path, Math::min);
+        }
 
-            if (balanceSlot > Config.balance_slot_num_per_path) {
-                balanceSlot = Config.balance_slot_num_per_path;
+        // decrease the slot num by 1 if it is positive
+        private static boolean tryDecrease(AtomicInteger slotNum) {
+            int num = slotNum.get();
+            while (num > 0) {
+                if (slotNum.compareAndSet(num, num - 1)) {
+                    return true;
+                }
+                num = slotNum.get();
             }
+            return false;
         }
 
         // return avg rate, Bytes/S
         public double getAvgRate() {
-            if (totalCopyTimeMs / 1000 == 0) {
+            long copyTimeMs = totalCopyTimeMs.get();
+            if (copyTimeMs / 1000 == 0) {
                 return 0.0;
             }
-            return totalCopySize / ((double) totalCopyTimeMs / 1000);
+            return totalCopySize.get() / ((double) copyTimeMs / 1000);
         }
     }
 }
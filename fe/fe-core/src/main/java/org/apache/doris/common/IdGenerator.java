@@ -28,4 +28,15 @@ public abstract class IdGenerator<IdType extends Id<IdType>> {
     protected int nextId = 0;
 
     public abstract IdType getNextId();
+
+    public int peekNextId() {
+        return nextId;
+    }
+
+    /**
+     * Make sure the ids generated later are not less than the given id.
+     */
+    public void skipTo(int id) {
+        nextId = Math.max(nextId, id);
+    }
 }
@@ -0,0 +1,307 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+package org.apache.doris.common.profile;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * An append-only store of the profiles spilled from memory. The profiles are appended to the segment files
+ * in the directory, a new segment is created if the current one exceeds SEGMENT_BYTES, and the oldest
+ * segments are deleted if the total bytes exceed the limit.
+ * Each record of a segment is:
+ *     int summaryLength, summary: the profile id and the info strings of the profile
+ *     int contentLength, content: the gzip compressed text of the profile
+ * The summaries are read when the store is opened, and the content is only read when it is requested.
+ */
+public class ProfileSpillStore {
+    private static final Logger LOG = LogManager.getLogger(ProfileSpillStore.class);
+
+    private static final String SEGMENT_PREFIX = "profile.";
+    private static final long SEGMENT_BYTES = 64L * 1024 * 1024;
+
+    /**
+     * The location and the summary of a spilled profile.
+     */
+    public static class SpilledProfile {
+        public final String id;
+        public final Map<String, String> infoStrings;
+        private final long segmentId;
+        private final long offset;
+        private final int length;
+
+        public SpilledProfile(String id, Map<String, String> infoStrings, long segmentId, long offset, int length) {
+            this.id = id;
+            this.infoStrings = infoStrings;
+            this.segmentId = segmentId;
+            this.offset = offset;
+            this.length = length;
+        }
+
+        public long getSegmentId() {
+            return segmentId;
+        }
+    }
+
+    private final File dir;
+    // segment id -> segment file, ordered from the oldest
+    private final TreeMap<Long, File> segments = new TreeMap<>();
+    private DataOutputStream output;
+    private long outputSize;
+
+    public ProfileSpillStore(String dir) {
+        this.dir = new File(dir);
+    }
+
+    /**
+     * Open the store and return the spilled profiles in the order they are appended. The incomplete record
+     * at the end of a segment, which is being written when FE exits, is truncated.
+     */
+    public synchronized List<SpilledProfile> open() throws IOException {
+        if (!dir.exists() && !dir.mkdirs()) {
+            throw new IOException("failed to create profile dir " + dir.getAbsolutePath());
+        }
+        File[] files = dir.listFiles((d, name) -> name.startsWith(SEGMENT_PREFIX));
+        if (files != null) {
+            for (File file : files) {
+                try {
+                    segments.put(Long.parseLong(file.getName().substring(SEGMENT_PREFIX.length())), file);
+                } catch (NumberFormatException e) {
+                    LOG.warn("ignore unknown profile file {}", file.getName());
+                }
+            }
+        }
+        List<SpilledProfile> profiles = Lists.newArrayList();
+        for (Map.Entry<Long, File> entry : segments.entrySet()) {
+            readSegment(entry.getKey(), entry.getValue(), profiles);
+        }
+        return profiles;
+    }
+
+    private void readSegment(long segmentId, File file, List<SpilledProfile> profiles) throws IOException {
+        long validLength = 0;
+        long fileLength = file.length();
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            while (true) {
+                int summaryLength = input.readInt();
+                if (summaryLength < 0 || validLength + 4 + summaryLength > fileLength) {
+                    break;
+                }
+                byte[] summary = new byte[summaryLength];
+                input.readFully(summary);
+                int length = input.readInt();
+                long offset = validLength + 4 + summary.length + 4;
+                // skip() may move beyond the end of file, so check the length of the content explicitly
+                if (offset + length > fileLength) {
+                    break;
+                }
+                skipFully(input, length);
+                validLength = offset + length;
+                DataInputStream summaryInput = new DataInputStream(new ByteArrayInputStream(summary));
+                String id = readString(summaryInput);
+                profiles.add(new SpilledProfile(id, readInfoStrings(summaryInput), segmentId, offset, length));
+            }
+        } catch (EOFException e) {
+            // reach the end of the segment
+        }
+        if (validLength < fileLength) {
+            LOG.warn("truncate incomplete profile file {} from {} to {}", file.getName(), fileLength, validLength);
+            try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+                raf.setLength(validLength);
+            }
+        }
+    }
+
+    private static void skipFully(InputStream input, long length) throws IOException {
+        while (length > 0) {
+            long skipped = input.skip(length);
+            if (skipped <= 0) {
+                if (input.read() < 0) {
+                    throw new EOFException();
+                }
+                skipped = 1;
+            }
+            length -= skipped;
+        }
+    }
+
+    public synchronized SpilledProfile spill(String id, Map<String, String> infoStrings, String content)
+            throws IOException {
+        ByteArrayOutputStream summaryBytes = new ByteArrayOutputStream();
+        DataOutputStream summaryOutput = new DataOutputStream(summaryBytes);
+        writeString(summaryOutput, id);
+        writeInfoStrings(summaryOutput, infoStrings);
+        ByteArrayOutputStream contentBytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(contentBytes)) {
+            gzip.write(content.getBytes(StandardCharsets.UTF_8));
+        }
+
+        if (output == null || outputSize >= SEGMENT_BYTES) {
+            rollSegment();
+        }
+        long offset = outputSize + 4 + summaryBytes.size() + 4;
+        output.writeInt(summaryBytes.size());
+        summaryBytes.writeTo(output);
+        output.writeInt(contentBytes.size());
+        contentBytes.writeTo(output);
+        output.flush();
+        outputSize = offset + contentBytes.size();
+        return new SpilledProfile(id, infoStrings, segments.lastKey(), offset, contentBytes.size());
+    }
+
+    private void rollSegment() throws IOException {
+        closeOutput();
+        long segmentId = segments.isEmpty() ? 0 : segments.lastKey() + 1;
+        File file = new File(dir, SEGMENT_PREFIX + segmentId);
+        output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file, true)));
+        outputSize = file.length();
+        segments.put(segmentId, file);
+    }
+
+    private void closeOutput() {
+        if (output != null) {
+            try {
+                output.close();
+            } catch (IOException e) {
+                LOG.warn("failed to close profile file", e);
+            }
+            output = null;
+        }
+    }
+
+    /**
+     * Read the text of a spilled profile, return null if its segment is deleted.
+     */
+    public String read(SpilledProfile profile) throws IOException {
+        File file;
+        synchronized (this) {
+            file = segments.get(profile.segmentId);
+        }
+        if (file == null) {
+            return null;
+        }
+        byte[] content = new byte[profile.length];
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            raf.seek(profile.offset);
+            raf.readFully(content);
+        }
+        ByteArrayOutputStream text = new ByteArrayOutputStream();
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(content))) {
+            byte[] buffer = new byte[8192];
+            int n;
+            while ((n = gzip.read(buffer)) > 0) {
+                text.write(buffer, 0, n);
+            }
+        }
+        return new String(text.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Delete the oldest segments until the total bytes do not exceed maxBytes, the segment being written
+     * is never deleted. Return the ids of the deleted segments.
+     */
+    public synchronized Set<Long> purge(long maxBytes) {
+        long totalBytes = 0;
+        for (File file : segments.values()) {
+            totalBytes += file.length();
+        }
+        Set<Long> deleted = Sets.newHashSet();
+        while (totalBytes > maxBytes && segments.size() > 1) {
+            Map.Entry<Long, File> oldest = segments.pollFirstEntry();
+            totalBytes -= oldest.getValue().length();
+            if (!oldest.getValue().delete()) {
+                LOG.warn("failed to delete profile file {}", oldest.getValue().getAbsolutePath());
+            }
+            deleted.add(oldest.getKey());
+        }
+        return deleted;
+    }
+
+    /**
+     * Delete all segments.
+     */
+    public synchronized void clear() {
+        closeOutput();
+        for (File file : segments.values()) {
+            if (!file.delete()) {
+                LOG.warn("failed to delete profile file {}", file.getAbsolutePath());
+            }
+        }
+        segments.clear();
+    }
+
+    private static void writeInfoStrings(DataOutputStream output, Map<String, String> infoStrings)
+            throws IOException {
+        output.writeInt(infoStrings.size());
+        for (Map.Entry<String, String> entry : infoStrings.entrySet()) {
+            writeString(output, entry.getKey());
+            output.writeBoolean(entry.getValue() != null);
+            if (entry.getValue() != null) {
+                writeString(output, entry.getValue());
+            }
+        }
+    }
+
+    private static Map<String, String> readInfoStrings(DataInputStream input) throws IOException {
+        int size = input.readInt();
+        Map<String, String> infoStrings = Maps.newHashMapWithExpectedSize(size);
+        for (int i = 0; i < size; i++) {
+            String key = readString(input);
+            infoStrings.put(key, input.readBoolean() ? readString(input) : null);
+        }
+        return Collections.unmodifiableMap(infoStrings);
+    }
+
+    // The info strings, e.g. the sql statement, may exceed the limit of writeUTF.
+    private static void writeString(DataOutputStream output, String str) throws IOException {
+        byte[] bytes = str.getBytes(StandardCharsets.UTF_8);
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    private static String readString(DataInputStream input) throws IOException {
+        byte[] bytes = new byte[input.readInt()];
+        input.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -56,6 +56,9 @@ public class SummaryProfile {
     public static final String QUERY_DISTRIBUTED_TIME = "QueryDistributed Time";
     public static final String PLAN_TIME = "Plan Time";
     public static final String SCHEDULE_TIME = "Schedule Time";
+    public static final String FRAGMENT_SERIALIZE_TIME = "Fragment Serialize Time";
+    public static final String FRAGMENT_PREPARE_RPC_TIME = "Fragment Prepare Rpc Time";
+    public static final String FRAGMENT_START_RPC_TIME = "Fragment Start Rpc Time";
     public static final String FETCH_RESULT_TIME = "Fetch Result Time";
     public static final String WRITE_RESULT_TIME = "Write Result Time";
     public static final String WAIT_FETCH_RESULT_TIME = "Wait and Fetch Result Time";
@@ -84,6 +87,14 @@ public class SummaryProfile {
     private long queryPlanFinishTime = -1;
     // Fragment schedule and send end time
     private long queryScheduleFinishTime = -1;
+    // Begin time of serializing and sending fragments to backends
+    private long fragmentSendBeginTime = -1;
+    // Time when the fragments of all backends are serialized and sent
+    private long fragmentSerializeFinishTime = -1;
+    // Time when all backends replied the exec (or prepare) fragment rpc
+    private long fragmentPrepareRpcFinishTime = -1;
+    // Time when all backends replied the execution start rpc, only for two phase execution
+    private long fragmentStartRpcFinishTime = -1;
     // Query result fetch end time
     private long queryFetchResultFinishTime = -1;
     private long tempStarTime = -1;
@@ -127,6 +138,12 @@ public class SummaryProfile {
         executionSummaryProfile.addInfoString(QUERY_DISTRIBUTED_TIME, getPrettyQueryDistributedFinishTime());
         executionSummaryProfile.addInfoString(PLAN_TIME, getPrettyQueryPlanFinishTime());
         executionSummaryProfile.addInfoString(SCHEDULE_TIME, getPrettyQueryScheduleFinishTime());
+        executionSummaryProfile.addInfoString(FRAGMENT_SERIALIZE_TIME,
+                getPrettyTime(fragmentSerializeFinishTime, fragmentSendBeginTime));
+        executionSummaryProfile.addInfoString(FRAGMENT_PREPARE_RPC_TIME,
+                getPrettyTime(fragmentPrepareRpcFinishTime, fragmentSerializeFinishTime));
+        executionSummaryProfile.addInfoString(FRAGMENT_START_RPC_TIME,
+                getPrettyTime(fragmentStartRpcFinishTime, fragmentPrepareRpcFinishTime));
         executionSummaryProfile.addInfoString(FETCH_RESULT_TIME,
                 RuntimeProfile.printCounter(queryFetchResultConsumeTime, TUnit.TIME_MS));
         executionSummaryProfile.addInfoString(WRITE_RESULT_TIME,
@@ -162,6 +179,22 @@ public class SummaryProfile {
         this.queryScheduleFinishTime = TimeUtils.getStartTimeMs();
     }
 
+    public void setFragmentSendBeginTime() {
+        this.fragmentSendBeginTime = TimeUtils.getStartTimeMs();
+    }
+
+    public void setFragmentSerializeFinishTime() {
+        this.fragmentSerializeFinishTime = TimeUtils.getStartTimeMs();
+    }
+
+    public void setFragmentPrepareRpcFinishTime() {
+        this.fragmentPrepareRpcFinishTime = TimeUtils.getStartTimeMs();
+    }
+
+    public void setFragmentStartRpcFinishTime() {
+        this.fragmentStartRpcFinishTime = TimeUtils.getStartTimeMs();
+    }
+
     public void setQueryFetchResultFinishTime() {
         this.queryFetchResultFinishTime = TimeUtils.getStartTimeMs();
     }
@@ -318,4 +351,11 @@ public class SummaryProfile {
         }
         return RuntimeProfile.printCounter(queryFetchResultFinishTime - queryScheduleFinishTime, TUnit.TIME_MS);
     }
+
+    private String getPrettyTime(long end, long start) {
+        if (start == -1 || end == -1) {
+            return "N/A";
+        }
+        return RuntimeProfile.printCounter(end - start, TUnit.TIME_MS);
+    }
 }
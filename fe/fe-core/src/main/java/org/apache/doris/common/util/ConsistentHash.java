@@ -24,6 +24,7 @@ import com.google.common.hash.Hasher;
 import java.util.Collection;
 import java.util.SortedMap;
 import java.util.TreeMap;
+import java.util.function.Predicate;
 
 /**
  * Consistent hash algorithm implemented by SortedMap
@@ -99,4 +100,27 @@ public class ConsistentHash<K, N> {
         hashKey = !tailMap.isEmpty() ? tailMap.firstKey() : ring.firstKey();
         return ring.get(hashKey).getNode();
     }
+
+    /**
+     * Get the first node which is accepted by the predicate, walking clockwise on the ring from the hash of the key.
+     * Return null if no node is accepted.
+     */
+    public N getNode(K key, Predicate<N> accept) {
+        if (ring.isEmpty()) {
+            return null;
+        }
+        Hasher hasher = hashFunction.newHasher();
+        Long hashKey = hasher.putObject(key, keyFunnel).hash().asLong();
+        for (VirtualNode vNode : ring.tailMap(hashKey).values()) {
+            if (accept.test(vNode.getNode())) {
+                return vNode.getNode();
+            }
+        }
+        for (VirtualNode vNode : ring.headMap(hashKey).values()) {
+            if (accept.test(vNode.getNode())) {
+                return vNode.getNode();
+            }
+        }
+        return null;
+    }
 }
@@ -35,6 +35,9 @@ public class Daemon extends Thread {
 
     private MetaContext metaContext = null;
 
+    private final Object wakeupLock = new Object();
+    private boolean wakeupRequested = false;
+
     {
         setDaemon(true);
     }
@@ -98,6 +101,29 @@ public class Daemon extends Thread {
         this.intervalMs = intervalMs;
     }
 
+    /**
+     * Run the next cycle immediately instead of waiting for the interval.
+     * The requests during a running cycle are merged into one.
+     */
+    public void wakeup() {
+        synchronized (wakeupLock) {
+            wakeupRequested = true;
+            wakeupLock.notifyAll();
+        }
+    }
+
+    private void waitInterval() throws InterruptedException {
+        synchronized (wakeupLock) {
+            long deadline = System.currentTimeMillis() + intervalMs;
+            long waitMs = intervalMs;
+            while (!wakeupRequested && waitMs > 0) {
+                wakeupLock.wait(waitMs);
+                waitMs = deadline - System.currentTimeMillis();
+            }
+            wakeupRequested = false;
+        }
+    }
+
     /**
      * implement in child
      */
@@ -119,7 +145,7 @@ public class Daemon extends Thread {
             }
 
             try {
-                Thread.sleep(intervalMs);
+                waitInterval();
             } catch (InterruptedException e) {
                 LOG.error("InterruptedException: ", e);
             }
@@ -0,0 +1,199 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+package org.apache.doris.common.util;
+
+import java.util.Arrays;
+
+/**
+ * An open addressing hash map with primitive long keys and long values.
+ * Compared with HashMap<Long, Long>, it does not box the keys and values and does not
+ * allocate a node per entry, which matters for the maps with tens of millions of entries.
+ * It is not thread safe.
+ */
+public class LongLongHashMap {
+    private static final float LOAD_FACTOR = 0.75f;
+    private static final int MIN_CAPACITY = 16;
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    // key 0 marks an empty slot, so the entry with key 0 is saved separately
+    private long[] keys;
+    private long[] values;
+    private boolean hasZeroKey = false;
+    private long zeroValue = 0;
+    // number of entries in the table, not including the zero key entry
+    private int tableSize = 0;
+    private int mask;
+    private int resizeThreshold;
+
+    public LongLongHashMap() {
+        this(MIN_CAPACITY);
+    }
+
+    public LongLongHashMap(int expectedSize) {
+        allocate(PrimitiveHashUtils.tableSizeFor(expectedSize, LOAD_FACTOR, MIN_CAPACITY, MAX_CAPACITY));
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new long[capacity];
+        mask = capacity - 1;
+        resizeThreshold = (int) (capacity * LOAD_FACTOR);
+    }
+
+    public int size() {
+        return tableSize + (hasZeroKey ? 1 : 0);
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    public boolean containsKey(long key) {
+        if (key == 0) {
+            return hasZeroKey;
+        }
+        return indexOf(key) >= 0;
+    }
+
+    public long get(long key, long defaultValue) {
+        if (key == 0) {
+            return hasZeroKey ? zeroValue : defaultValue;
+        }
+        int idx = indexOf(key);
+        return idx >= 0 ? values[idx] : defaultValue;
+    }
+
+    public void put(long key, long value) {
+        if (key == 0) {
+            hasZeroKey = true;
+            zeroValue = value;
+            return;
+        }
+        int idx = PrimitiveHashUtils.mix(key) & mask;
+        while (keys[idx] != 0) {
+            if (keys[idx] == key) {
+                values[idx] = value;
+                return;
+            }
+            idx = (idx + 1) & mask;
+        }
+        keys[idx] = key;
+        values[idx] = value;
+        if (++tableSize >= resizeThreshold && keys.length < MAX_CAPACITY) {
+            rehash(keys.length << 1);
+        }
+    }
+
+    /**
+     * Return true if the key exists and is removed.
+     */
+    public boolean remove(long key) {
+        if (key == 0) {
+            boolean existed = hasZeroKey;
+            hasZeroKey = false;
+            zeroValue = 0;
+            return existed;
+        }
+        int idx = indexOf(key);
+        if (idx < 0) {
+            return false;
+        }
+        shiftKeys(idx);
+        tableSize--;
+        return true;
+    }
+
+    public void clear() {
+        Arrays.fill(keys, 0);
+        Arrays.fill(values, 0);
+        tableSize = 0;
+        hasZeroKey = false;
+        zeroValue = 0;
+    }
+
+    public void forEach(LongLongConsumer consumer) {
+        if (hasZeroKey) {
+            consumer.accept(0, zeroValue);
+        }
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != 0) {
+                consumer.accept(keys[i], values[i]);
+            }
+        }
+    }
+
+    private int indexOf(long key) {
+        int idx = PrimitiveHashUtils.mix(key) & mask;
+        while (true) {
+            long k = keys[idx];
+            if (k == 0) {
+                return -1;
+            }
+            if (k == key) {
+                return idx;
+            }
+            idx = (idx + 1) & mask;
+        }
+    }
+
+    // Backward shift deletion of linear probing, so that no tombstone is needed.
+    private void shiftKeys(int pos) {
+        while (true) {
+            int last = pos;
+            pos = (pos + 1) & mask;
+            long curr;
+            while (true) {
+                curr = keys[pos];
+                if (curr == 0) {
+                    keys[last] = 0;
+                    values[last] = 0;
+                    return;
+                }
+                int slot = PrimitiveHashUtils.mix(curr) & mask;
+                if (last <= pos ? last >= slot || slot > pos : last >= slot && slot > pos) {
+                    break;
+                }
+                pos = (pos + 1) & mask;
+            }
+            keys[last] = curr;
+            values[last] = values[pos];
+        }
+    }
+
+    private void rehash(int newCapacity) {
+        long[] oldKeys = keys;
+        long[] oldValues = values;
+        allocate(newCapacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            long key = oldKeys[i];
+            if (key != 0) {
+                int idx = PrimitiveHashUtils.mix(key) & mask;
+                while (keys[idx] != 0) {
+                    idx = (idx + 1) & mask;
+                }
+                keys[idx] = key;
+                values[idx] = oldValues[i];
+            }
+        }
+    }
+
+    @FunctionalInterface
+    public interface LongLongConsumer {
+        void accept(long key, long value);
+    }
+}
@@ -0,0 +1,211 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+package org.apache.doris.common.util;
+
+import java.util.Arrays;
+
+/**
+ * An open addressing hash map with primitive long keys.
+ * Compared with HashMap<Long, V>, it does not box the keys and does not allocate a node per entry,
+ * which matters for the maps with tens of millions of entries.
+ * Null values are not allowed. It is not thread safe.
+ */
+public class LongObjectHashMap<V> {
+    private static final float LOAD_FACTOR = 0.75f;
+    private static final int MIN_CAPACITY = 16;
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    // key 0 marks an empty slot, so the entry with key 0 is saved separately
+    private long[] keys;
+    private Object[] values;
+    private V zeroValue = null;
+    // number of entries in the table, not including the zero key entry
+    private int tableSize = 0;
+    private int mask;
+    private int resizeThreshold;
+
+    public LongObjectHashMap() {
+        this(MIN_CAPACITY);
+    }
+
+    public LongObjectHashMap(int expectedSize) {
+        allocate(PrimitiveHashUtils.tableSizeFor(expectedSize, LOAD_FACTOR, MIN_CAPACITY, MAX_CAPACITY));
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new Object[capacity];
+        mask = capacity - 1;
+        resizeThreshold = (int) (capacity * LOAD_FACTOR);
+    }
+
+    public int size() {
+        return tableSize + (zeroValue != null ? 1 : 0);
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    public boolean containsKey(long key) {
+        return get(key) != null;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V get(long key) {
+        if (key == 0) {
+            return zeroValue;
+        }
+        int idx = indexOf(key);
+        return idx >= 0 ? (V) values[idx] : null;
+    }
+
+    public V getOrDefault(long key, V defaultValue) {
+        V value = get(key);
+        return value != null ? value : defaultValue;
+    }
+
+    /**
+     * Return the previous value of the key, or null if there is no previous value.
+     */
+    @SuppressWarnings("unchecked")
+    public V put(long key, V value) {
+        if (value == null) {
+            throw new NullPointerException("null value is not allowed, key: " + key);
+        }
+        if (key == 0) {
+            V prev = zeroValue;
+            zeroValue = value;
+            return prev;
+        }
+        int idx = PrimitiveHashUtils.mix(key) & mask;
+        while (keys[idx] != 0) {
+            if (keys[idx] == key) {
+                V prev = (V) values[idx];
+                values[idx] = value;
+                return prev;
+            }
+            idx = (idx + 1) & mask;
+        }
+        keys[idx] = key;
+        values[idx] = value;
+        if (++tableSize >= resizeThreshold && keys.length < MAX_CAPACITY) {
+            rehash(keys.length << 1);
+        }
+        return null;
+    }
+
+    /**
+     * Return the removed value, or null if the key does not exist.
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(long key) {
+        if (key == 0) {
+            V prev = zeroValue;
+            zeroValue = null;
+            return prev;
+        }
+        int idx = indexOf(key);
+        if (idx < 0) {
+            return null;
+        }
+        V prev = (V) values[idx];
+        shiftKeys(idx);
+        tableSize--;
+        return prev;
+    }
+
+    public void clear() {
+        Arrays.fill(keys, 0);
+        Arrays.fill(values, null);
+        tableSize = 0;
+        zeroValue = null;
+    }
+
+    @SuppressWarnings("unchecked")
+    public void forEach(LongObjectConsumer<V> consumer) {
+        if (zeroValue != null) {
+            consumer.accept(0, zeroValue);
+        }
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != 0) {
+                consumer.accept(keys[i], (V) values[i]);
+            }
+        }
+    }
+
+    private int indexOf(long key) {
+        int idx = PrimitiveHashUtils.mix(key) & mask;
+        while (true) {
+            long k = keys[idx];
+            if (k == 0) {
+                return -1;
+            }
+            if (k == key) {
+                return idx;
+            }
+            idx = (idx + 1) & mask;
+        }
+    }
+
+    // Backward shift deletion of linear probing, so that no tombstone is needed.
+    private void shiftKeys(int pos) {
+        while (true) {
+            int last = pos;
+            pos = (pos + 1) & mask;
+            long curr;
+            while (true) {
+                curr = keys[pos];
+                if (curr == 0) {
+                    keys[last] = 0;
+                    values[last] = null;
+                    return;
+                }
+                int slot = PrimitiveHashUtils.mix(curr) & mask;
+                if (last <= pos ? last >= slot || slot > pos : last >= slot && slot > pos) {
+                    break;
+                }
+                pos = (pos + 1) & mask;
+            }
+            keys[last] = curr;
+            values[last] = values[pos];
+        }
+    }
+
+    private void rehash(int newCapacity) {
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+        allocate(newCapacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            long key = oldKeys[i];
+            if (key != 0) {
+                int idx = PrimitiveHashUtils.mix(key) & mask;
+                while (keys[idx] != 0) {
+                    idx = (idx + 1) & mask;
+                }
+                keys[idx] = key;
+                values[idx] = oldValues[i];
+            }
+        }
+    }
+
+    @FunctionalInterface
+    public interface LongObjectConsumer<V> {
+        void accept(long key, V value);
+    }
+}
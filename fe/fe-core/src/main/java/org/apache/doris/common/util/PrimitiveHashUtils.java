@@ -0,0 +1,38 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+package org.apache.doris.common.util;
+
+/**
+ * Helpers shared by the primitive keyed open addressing hash maps.
+ */
+final class PrimitiveHashUtils {
+    private PrimitiveHashUtils() {
+    }
+
+    // Spread the bits of the key, ids are often allocated continuously.
+    static int mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    // Return the power of 2 table size which can hold expectedSize entries under loadFactor.
+    static int tableSizeFor(int expectedSize, float loadFactor, int minCapacity, int maxCapacity) {
+        long capacity = Math.max(minCapacity, (long) Math.ceil(expectedSize / loadFactor));
+        return (int) Math.min(maxCapacity, Long.highestOneBit(capacity - 1) << 1);
+    }
+}
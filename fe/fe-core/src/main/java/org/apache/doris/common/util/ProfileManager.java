@@ -23,6 +23,8 @@ import org.apache.doris.common.Config;
 import org.apache.doris.common.DdlException;
 import org.apache.doris.common.Pair;
 import org.apache.doris.common.profile.MultiProfileTreeBuilder;
+import org.apache.doris.common.profile.ProfileSpillStore;
+import org.apache.doris.common.profile.ProfileSpillStore.SpilledProfile;
 import org.apache.doris.common.profile.ProfileTreeBuilder;
 import org.apache.doris.common.profile.ProfileTreeNode;
 import org.apache.doris.common.profile.SummaryProfile;
@@ -35,11 +37,13 @@ import org.apache.commons.lang3.tuple.Triple;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.io.IOException;
 import java.util.Deque;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock.ReadLock;
@@ -57,6 +61,8 @@ import java.util.concurrent.locks.ReentrantReadWriteLock.WriteLock;
 public class ProfileManager {
     private static final Logger LOG = LogManager.getLogger(ProfileManager.class);
     private static volatile ProfileManager INSTANCE = null;
+    private static final String SPILLED_ERR_MSG = "the profile is spilled to disk, only the text profile is kept";
+    private static final long SPILL_INTERVAL_MS = 5000L;
 
     public enum ProfileType {
         QUERY,
@@ -68,23 +74,52 @@ public class ProfileManager {
             this.profile = profile;
         }
 
-        private final RuntimeProfile profile;
+        public ProfileElement(SpilledProfile spilledProfile) {
+            this.spilledProfile = spilledProfile;
+            this.infoStrings = spilledProfile.infoStrings;
+            this.errMsg = SPILLED_ERR_MSG;
+        }
+
+        // null if the profile is spilled to disk
+        private volatile RuntimeProfile profile;
         // cache the result of getProfileContent method
         private volatile String profileContent;
+        private volatile SpilledProfile spilledProfile;
+        private final long updateTime = System.currentTimeMillis();
         public Map<String, String> infoStrings = Maps.newHashMap();
-        public MultiProfileTreeBuilder builder = null;
-        public String errMsg = "";
+        public volatile MultiProfileTreeBuilder builder = null;
+        public volatile String errMsg = "";
 
         public StatsErrorEstimator statsErrorEstimator;
 
         // lazy load profileContent because sometimes profileContent is very large
         public String getProfileContent() {
-            if (profileContent != null) {
-                return profileContent;
+            String content = profileContent;
+            if (content != null) {
+                return content;
+            }
+            RuntimeProfile runtimeProfile = profile;
+            if (runtimeProfile == null) {
+                // the spilled profile is read from disk each time, and not cached in memory
+                return ProfileManager.getInstance().readSpilledProfile(spilledProfile);
             }
             // no need to lock because the possibility of concurrent read is very low
-            profileContent = profile.toString();
-            return profileContent;
+            content = runtimeProfile.toString();
+            profileContent = content;
+            return content;
+        }
+
+        public boolean isSpilled() {
+            return profile == null;
+        }
+
+        // Release the profile in memory after it is spilled, only its summary is kept.
+        private void setSpilled(SpilledProfile spilledProfile) {
+            this.spilledProfile = spilledProfile;
+            this.errMsg = SPILLED_ERR_MSG;
+            this.builder = null;
+            this.profile = null;
+            this.profileContent = null;
         }
 
         public double getError() {
@@ -105,6 +140,9 @@ public class ProfileManager {
     private Deque<String> queryIdDeque;
     private Map<String, ProfileElement> queryIdToProfileMap; // from QueryId to RuntimeProfile
 
+    // not null if the profiles are spilled to disk
+    private volatile ProfileSpillStore spillStore;
+
     public static ProfileManager getInstance() {
         if (INSTANCE == null) {
             synchronized (ProfileManager.class) {
@@ -166,12 +204,13 @@ public class ProfileManager {
         }
 
         writeLock.lock();
-        // a profile may be updated multiple times in queryIdToProfileMap,
-        // and only needs to be inserted into the queryIdDeque for the first time.
-        queryIdToProfileMap.put(key, element);
         try {
-            if (!queryIdDeque.contains(key)) {
-                if (queryIdDeque.size() >= Config.max_query_profile_num) {
+            // a profile may be updated multiple times in queryIdToProfileMap,
+            // and only needs to be inserted into the queryIdDeque for the first time.
+            if (queryIdToProfileMap.put(key, element) == null) {
+                // if the profiles are spilled, the number of profiles in memory is limited by the spiller,
+                // and the spilled profiles are limited by the bytes of files.
+                if (spillStore == null && queryIdDeque.size() >= Config.max_query_profile_num) {
                     queryIdToProfileMap.remove(queryIdDeque.getFirst());
                     queryIdDeque.removeFirst();
                 }
@@ -182,6 +221,109 @@ public class ProfileManager {
         }
     }
 
+    /**
+     * Load the spilled profiles and start to spill profiles to disk, if enable_profile_spill is true.
+     */
+    public void start() {
+        if (!Config.enable_profile_spill || spillStore != null) {
+            return;
+        }
+        ProfileSpillStore store = new ProfileSpillStore(Config.spilled_profile_dir);
+        List<SpilledProfile> spilledProfiles;
+        try {
+            spilledProfiles = store.open();
+        } catch (IOException e) {
+            LOG.warn("failed to open spilled profiles in {}, profiles will not be spilled",
+                    Config.spilled_profile_dir, e);
+            return;
+        }
+        writeLock.lock();
+        try {
+            for (SpilledProfile spilledProfile : spilledProfiles) {
+                // a profile may be spilled multiple times, the last one is the latest
+                if (queryIdToProfileMap.put(spilledProfile.id, new ProfileElement(spilledProfile)) == null) {
+                    queryIdDeque.addLast(spilledProfile.id);
+                }
+            }
+            spillStore = store;
+        } finally {
+            writeLock.unlock();
+        }
+        LOG.info("load {} spilled profiles from {}", spilledProfiles.size(), Config.spilled_profile_dir);
+        new Daemon("ProfileSpiller", SPILL_INTERVAL_MS) {
+            @Override
+            protected void runOneCycle() {
+                spillProfiles();
+            }
+        }.start();
+    }
+
+    // Spill the profiles which are not updated for a while, and the oldest profiles in memory if the number
+    // of profiles in memory exceeds max_query_profile_num.
+    private void spillProfiles() {
+        long spillTime = System.currentTimeMillis() - Config.spill_profile_after_seconds * 1000L;
+        List<Pair<String, ProfileElement>> toSpill = Lists.newArrayList();
+        readLock.lock();
+        try {
+            int inMemoryNum = 0;
+            Iterator<String> reverse = queryIdDeque.descendingIterator();
+            while (reverse.hasNext()) {
+                String queryId = reverse.next();
+                ProfileElement element = queryIdToProfileMap.get(queryId);
+                if (element == null || element.isSpilled()) {
+                    continue;
+                }
+                if (++inMemoryNum > Config.max_query_profile_num || element.updateTime < spillTime) {
+                    toSpill.add(Pair.of(queryId, element));
+                }
+            }
+        } finally {
+            readLock.unlock();
+        }
+        for (Pair<String, ProfileElement> pair : Lists.reverse(toSpill)) {
+            ProfileElement element = pair.second;
+            try {
+                element.setSpilled(spillStore.spill(pair.first, element.infoStrings, element.getProfileContent()));
+            } catch (IOException e) {
+                LOG.warn("failed to spill profile {}", pair.first, e);
+                return;
+            }
+        }
+
+        Set<Long> deletedSegments = spillStore.purge(Config.max_spilled_profile_bytes);
+        if (deletedSegments.isEmpty()) {
+            return;
+        }
+        writeLock.lock();
+        try {
+            Iterator<String> iterator = queryIdDeque.iterator();
+            while (iterator.hasNext()) {
+                String queryId = iterator.next();
+                ProfileElement element = queryIdToProfileMap.get(queryId);
+                if (element != null && element.isSpilled()
+                        && deletedSegments.contains(element.spilledProfile.getSegmentId())) {
+                    queryIdToProfileMap.remove(queryId);
+                    iterator.remove();
+                }
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private String readSpilledProfile(SpilledProfile spilledProfile) {
+        ProfileSpillStore store = spillStore;
+        if (store == null || spilledProfile == null) {
+            return null;
+        }
+        try {
+            return store.read(spilledProfile);
+        } catch (IOException e) {
+            LOG.warn("failed to read spilled profile {}", spilledProfile.id, e);
+            return null;
+        }
+    }
+
     public List<List<String>> getAllQueries() {
         return getQueryWithType(null);
     }
@@ -215,16 +357,12 @@ public class ProfileManager {
     }
 
     public String getProfile(String queryID) {
-        readLock.lock();
-        try {
-            ProfileElement element = queryIdToProfileMap.get(queryID);
-            if (element == null) {
-                return null;
-            }
-            return element.getProfileContent();
-        } finally {
-            readLock.unlock();
+        // the spilled profile is read from disk, so do not hold the lock
+        ProfileElement element = queryIdToProfileMap.get(queryID);
+        if (element == null) {
+            return null;
         }
+        return element.getProfileContent();
     }
 
     public ProfileElement findProfileElementObject(String queryId) {
@@ -359,6 +497,9 @@ public class ProfileManager {
         try {
             queryIdToProfileMap.clear();
             queryIdDeque.clear();
+            if (spillStore != null) {
+                spillStore.clear();
+            }
         } finally {
             writeLock.unlock();
         }
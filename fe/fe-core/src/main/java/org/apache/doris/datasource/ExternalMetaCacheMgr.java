@@ -22,6 +22,7 @@ import org.apache.doris.catalog.external.HMSExternalTable;
 import org.apache.doris.cluster.ClusterNamespace;
 import org.apache.doris.common.Config;
 import org.apache.doris.common.ThreadPoolManager;
+import org.apache.doris.datasource.hive.HiveFileMetaDiskCache;
 import org.apache.doris.datasource.hive.HiveMetaStoreCache;
 
 import com.google.common.collect.Maps;
@@ -45,12 +46,18 @@ public class ExternalMetaCacheMgr {
     // catalog id -> table schema cache
     private Map<Long, ExternalSchemaCache> schemaCacheMap = Maps.newHashMap();
     private ExecutorService executor;
+    // executor for listing the files of partitions
+    private ExecutorService fileListingExecutor;
 
     public ExternalMetaCacheMgr() {
         executor = ThreadPoolManager.newDaemonFixedThreadPool(
                 Config.max_external_cache_loader_thread_pool_size,
                 Config.max_external_cache_loader_thread_pool_size * 1000,
                 "ExternalMetaCacheMgr", 120, true);
+        fileListingExecutor = ThreadPoolManager.newDaemonFixedThreadPool(
+                Config.max_external_file_listing_thread_pool_size,
+                Config.max_external_file_listing_thread_pool_size * 1000,
+                "ExternalFileListing", 120, true);
     }
 
     public HiveMetaStoreCache getMetaStoreCache(HMSExternalCatalog catalog) {
@@ -58,7 +65,7 @@ public class ExternalMetaCacheMgr {
         if (cache == null) {
             synchronized (cacheMap) {
                 if (!cacheMap.containsKey(catalog.getId())) {
-                    cacheMap.put(catalog.getId(), new HiveMetaStoreCache(catalog, executor));
+                    cacheMap.put(catalog.getId(), new HiveMetaStoreCache(catalog, executor, fileListingExecutor));
                 }
                 cache = cacheMap.get(catalog.getId());
             }
@@ -79,12 +86,16 @@ public class ExternalMetaCacheMgr {
         return cache;
     }
 
-    public void removeCache(String catalogId) {
+    public void removeCache(long catalogId) {
         if (cacheMap.remove(catalogId) != null) {
-            LOG.info("remove hive metastore cache for catalog {}" + catalogId);
+            LOG.info("remove hive metastore cache for catalog {}", catalogId);
         }
         if (schemaCacheMap.remove(catalogId) != null) {
-            LOG.info("remove schema cache for catalog {}" + catalogId);
+            LOG.info("remove schema cache for catalog {}", catalogId);
+        }
+        if (Config.enable_hive_file_meta_disk_cache) {
+            // the cache of the catalog may not be created since fe started, so remove the directory by the id
+            new HiveFileMetaDiskCache(HiveMetaStoreCache.getFileMetaDiskCacheDir(catalogId)).clear();
         }
     }
 
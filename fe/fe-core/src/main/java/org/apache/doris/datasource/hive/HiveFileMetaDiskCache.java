@@ -0,0 +1,208 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+package org.apache.doris.datasource.hive;
+
+import org.apache.doris.fs.remote.RemoteFile;
+
+import com.google.common.collect.Lists;
+import com.google.common.hash.Hashing;
+import org.apache.hadoop.fs.BlockLocation;
+import org.apache.hadoop.fs.Path;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+import javax.annotation.Nullable;
+
+/**
+ * The file list of hive partition locations persisted in local disk, so the files need not be listed again
+ * after FE restarts.
+ * Each location is saved in a file named by the hash of the location, with the version of the location when it is
+ * listed, eg: the modification time of the partition directory. An entry is only used if the version is not changed.
+ * The files of a catalog are saved in a directory of the catalog, which is removed when the catalog is dropped.
+ */
+public class HiveFileMetaDiskCache {
+    private static final Logger LOG = LogManager.getLogger(HiveFileMetaDiskCache.class);
+    private static final int FORMAT_VERSION = 1;
+    private static final String TMP_SUFFIX = ".tmp";
+
+    private final java.nio.file.Path dir;
+
+    public HiveFileMetaDiskCache(String dir) {
+        this.dir = Paths.get(dir);
+    }
+
+    /**
+     * Get the files of the location.
+     *
+     * @param location the location of a partition
+     * @param version the current version of the location, must be positive
+     * @param ttlMs the max time since the files are listed, negative means no limitation
+     * @return the files of the location, or null if the location is not cached or the cache is stale
+     */
+    @Nullable
+    public List<RemoteFile> get(String location, long version, long ttlMs) {
+        java.nio.file.Path file = getFile(location);
+        try {
+            // the files are small, a plain read avoids holding mapped buffers which are only released by gc
+            ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file));
+            if (buffer.getInt() != FORMAT_VERSION || !location.equals(readString(buffer))
+                    || buffer.getLong() != version) {
+                return null;
+            }
+            long listTime = buffer.getLong();
+            if (ttlMs >= 0 && System.currentTimeMillis() - listTime > ttlMs) {
+                return null;
+            }
+            int fileNum = buffer.getInt();
+            List<RemoteFile> files = Lists.newArrayListWithCapacity(fileNum);
+            for (int i = 0; i < fileNum; i++) {
+                Path path = new Path(readString(buffer));
+                long length = buffer.getLong();
+                long blockSize = buffer.getLong();
+                long modificationTime = buffer.getLong();
+                BlockLocation[] blockLocations = new BlockLocation[buffer.getInt()];
+                for (int j = 0; j < blockLocations.length; j++) {
+                    long offset = buffer.getLong();
+                    long blockLength = buffer.getLong();
+                    String[] hosts = new String[buffer.getInt()];
+                    for (int k = 0; k < hosts.length; k++) {
+                        hosts[k] = readString(buffer);
+                    }
+                    blockLocations[j] = new BlockLocation(hosts, hosts, offset, blockLength);
+                }
+                files.add(new RemoteFile(path, false, length, blockSize, modificationTime, blockLocations));
+            }
+            return files;
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (Exception e) {
+            LOG.warn("failed to read the persisted files of location {}, remove it", location, e);
+            remove(location);
+            return null;
+        }
+    }
+
+    /**
+     * Persist the files of the location listed at the version.
+     */
+    public void put(String location, long version, List<RemoteFile> files) {
+        java.nio.file.Path file = getFile(location);
+        // the same location may be listed by several threads at the same time
+        String tmpName = file.getFileName() + TMP_SUFFIX + Thread.currentThread().getId();
+        java.nio.file.Path tmpFile = file.resolveSibling(tmpName);
+        try {
+            Files.createDirectories(file.getParent());
+            try (OutputStream outputStream = Files.newOutputStream(tmpFile);
+                    DataOutputStream out = new DataOutputStream(new BufferedOutputStream(outputStream))) {
+                out.writeInt(FORMAT_VERSION);
+                writeString(out, location);
+                out.writeLong(version);
+                out.writeLong(System.currentTimeMillis());
+                out.writeInt(files.size());
+                for (RemoteFile remoteFile : files) {
+                    writeString(out, remoteFile.getPath().toString());
+                    out.writeLong(remoteFile.getSize());
+                    out.writeLong(remoteFile.getBlockSize());
+                    out.writeLong(remoteFile.getModificationTime());
+                    BlockLocation[] blockLocations = remoteFile.getBlockLocations();
+                    if (blockLocations == null) {
+                        out.writeInt(0);
+                        continue;
+                    }
+                    out.writeInt(blockLocations.length);
+                    for (BlockLocation blockLocation : blockLocations) {
+                        out.writeLong(blockLocation.getOffset());
+                        out.writeLong(blockLocation.getLength());
+                        String[] hosts = blockLocation.getHosts();
+                        out.writeInt(hosts.length);
+                        for (String host : hosts) {
+                            writeString(out, host);
+                        }
+                    }
+                }
+            }
+            Files.move(tmpFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            LOG.warn("failed to persist the files of location {}", location, e);
+            try {
+                Files.deleteIfExists(tmpFile);
+            } catch (IOException ignored) {
+                // the tmp file is overwritten when the location is persisted next time.
+            }
+        }
+    }
+
+    public void remove(String location) {
+        try {
+            Files.deleteIfExists(getFile(location));
+        } catch (IOException e) {
+            LOG.warn("failed to remove the persisted files of location {}", location, e);
+        }
+    }
+
+    /**
+     * Remove all persisted locations, and the directory of them.
+     */
+    public void clear() {
+        if (!Files.exists(dir)) {
+            return;
+        }
+        try (Stream<java.nio.file.Path> paths = Files.walk(dir)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> {
+                try {
+                    Files.deleteIfExists(path);
+                } catch (IOException e) {
+                    LOG.warn("failed to remove {}", path, e);
+                }
+            });
+        } catch (IOException e) {
+            LOG.warn("failed to clear the persisted files in {}", dir, e);
+        }
+    }
+
+    private java.nio.file.Path getFile(String location) {
+        String hash = Hashing.sha256().hashString(location, StandardCharsets.UTF_8).toString();
+        // spread the files in sub directories, so there would not be too many files in a directory
+        return dir.resolve(hash.substring(0, 2)).resolve(hash);
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
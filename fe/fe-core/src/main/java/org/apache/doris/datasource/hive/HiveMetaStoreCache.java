@@ -106,10 +106,16 @@ public class HiveMetaStoreCache {
     public static final String HIVE_ORC_ACID_VERSION_FILE = "_orc_acid_version";
 
     private static final String HIVE_TRANSACTIONAL_ORC_BUCKET_PREFIX = "bucket_";
+    private static final String HIVE_LAST_DDL_TIME = "transient_lastDdlTime";
 
     private final HMSExternalCatalog catalog;
     private JobConf jobConf;
     private final ExecutorService executor;
+    // the executor to list the files of partitions
+    private final ExecutorService fileListingExecutor;
+    // the file list of partitions persisted in local disk, null if it is disabled.
+    private final HiveFileMetaDiskCache fileMetaDiskCache;
+    private volatile int fileMetaCacheTtlSecond = HMSExternalCatalog.FILE_META_CACHE_NO_TTL;
 
     // cache from <dbname-tblname> -> <values of partitions>
     private LoadingCache<PartitionValueCacheKey, HivePartitionValues> partitionValuesCache;
@@ -119,9 +125,13 @@ public class HiveMetaStoreCache {
     private volatile AtomicReference<LoadingCache<FileCacheKey, FileCacheValue>> fileCacheRef
             = new AtomicReference<>();
 
-    public HiveMetaStoreCache(HMSExternalCatalog catalog, ExecutorService executor) {
+    public HiveMetaStoreCache(HMSExternalCatalog catalog, ExecutorService executor,
+            ExecutorService fileListingExecutor) {
         this.catalog = catalog;
         this.executor = executor;
+        this.fileListingExecutor = fileListingExecutor;
+        this.fileMetaDiskCache = Config.enable_hive_file_meta_disk_cache
+                ? new HiveFileMetaDiskCache(getFileMetaDiskCacheDir(catalog.getId())) : null;
         init();
         initMetrics();
     }
@@ -172,7 +182,7 @@ public class HiveMetaStoreCache {
         // init or refresh job conf
         setJobConf();
         // if the file.meta.cache.ttl-second is equal or greater than 0, the cache expired will be set to that value
-        int fileMetaCacheTtlSecond = NumberUtils.toInt(
+        fileMetaCacheTtlSecond = NumberUtils.toInt(
                 (catalog.getProperties().get(HMSExternalCatalog.FILE_META_CACHE_TTL_SECOND)),
                 HMSExternalCatalog.FILE_META_CACHE_NO_TTL);
 
@@ -184,10 +194,11 @@ public class HiveMetaStoreCache {
             fileCacheBuilder.expireAfterWrite(fileMetaCacheTtlSecond, TimeUnit.SECONDS);
         }
 
+        // The files of partitions are listed in parallel by a separate executor.
         CacheLoader<FileCacheKey, FileCacheValue> loader = new CacheBulkLoader<FileCacheKey, FileCacheValue>() {
             @Override
             protected ExecutorService getExecutor() {
-                return HiveMetaStoreCache.this.executor;
+                return HiveMetaStoreCache.this.fileListingExecutor;
             }
 
             @Override
@@ -312,16 +323,40 @@ public class HiveMetaStoreCache {
                     sd.getInputFormat(), sd.getLocation(), key, catalog.getName());
         }
         // TODO: more info?
-        return new HivePartition(key.dbName, key.tblName, false, sd.getInputFormat(), sd.getLocation(), key.values);
+        HivePartition hivePartition = new HivePartition(key.dbName, key.tblName, false, sd.getInputFormat(),
+                sd.getLocation(), key.values);
+        hivePartition.setLastDdlTime(getLastDdlTime(partition.getParameters()));
+        return hivePartition;
+    }
+
+    /**
+     * Get transient_lastDdlTime in the parameters of a hive table or partition, 0 if it is not set.
+     */
+    public static long getLastDdlTime(Map<String, String> parameters) {
+        if (parameters == null) {
+            return 0;
+        }
+        return NumberUtils.toLong(parameters.get(HIVE_LAST_DDL_TIME), 0);
     }
 
     // Get File Status by using FileSystem API.
     private FileCacheValue getFileCache(String location, InputFormat<?, ?> inputFormat,
                                                                  JobConf jobConf,
-                                                                 List<String> partitionValues) throws UserException {
+                                                                 List<String> partitionValues,
+                                                                 long lastDdlTime) throws UserException {
         FileCacheValue result = new FileCacheValue();
         result.setSplittable(HiveUtil.isSplittable(inputFormat, new Path(location), jobConf));
         RemoteFileSystem fs = FileSystemFactory.getByLocation(location, jobConf);
+        long version = getFileMetaVersion(fs, location, lastDdlTime);
+        if (version > 0) {
+            long ttlMs = fileMetaCacheTtlSecond < 0 ? -1 : fileMetaCacheTtlSecond * 1000L;
+            List<RemoteFile> persistedFiles = fileMetaDiskCache.get(location, version, ttlMs);
+            if (persistedFiles != null) {
+                persistedFiles.forEach(result::addFile);
+                result.setPartitionValues(partitionValues);
+                return result;
+            }
+        }
         try {
             // For Tez engine, it may generate subdirectoies for "union" query.
             // So there may be files and directories in the table directory at the same time. eg:
@@ -339,6 +374,9 @@ public class HiveMetaStoreCache {
                 }
                 result.addFile(remoteFile);
             }
+            if (version > 0) {
+                fileMetaDiskCache.put(location, version, locatedFiles.files());
+            }
         } catch (Exception e) {
             // User may manually remove partition under HDFS, in this case,
             // Hive doesn't aware that the removed partition is missing.
@@ -353,6 +391,37 @@ public class HiveMetaStoreCache {
         return result;
     }
 
+    public static String getFileMetaDiskCacheDir(long catalogId) {
+        return Config.hive_file_meta_disk_cache_dir + "/" + catalogId;
+    }
+
+    /**
+     * The version of the files in a location which are persisted in local disk.
+     * It is the modification time of the location, which is changed when files are added to or removed from it,
+     * including the files appended by engines which do not update transient_lastDdlTime, such as Spark and Flink.
+     * If the location has no modification time, eg: on object storage, transient_lastDdlTime is used only if
+     * the catalog sets a ttl of file meta cache, which bounds how long a missed append is not seen.
+     * Return 0 if the files could not be persisted.
+     */
+    private long getFileMetaVersion(RemoteFileSystem fs, String location, long lastDdlTime) {
+        if (fileMetaDiskCache == null
+                || fileMetaCacheTtlSecond == HMSExternalCatalog.FILE_META_CACHE_TTL_DISABLE_CACHE) {
+            return 0;
+        }
+        try {
+            long modificationTime = fs.getModificationTime(location);
+            if (modificationTime > 0) {
+                return modificationTime;
+            }
+        } catch (UserException e) {
+            LOG.debug("failed to get modification time of {}", location, e);
+        }
+        if (lastDdlTime > 0 && fileMetaCacheTtlSecond > 0) {
+            return lastDdlTime;
+        }
+        return 0;
+    }
+
     private FileCacheValue loadFiles(FileCacheKey key) {
         ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
         try {
@@ -369,22 +438,25 @@ public class HiveMetaStoreCache {
             } catch (Exception e) {
                 LOG.warn("unknown scheme in path: " + finalLocation, e);
             }
-            FileInputFormat.setInputPaths(jobConf, finalLocation);
             try {
                 FileCacheValue result;
                 InputFormat<?, ?> inputFormat = HiveUtil.getInputFormat(jobConf, key.inputFormat, false);
                 // TODO: This is a temp config, will remove it after the HiveSplitter is stable.
                 if (key.useSelfSplitter) {
-                    result = getFileCache(finalLocation, inputFormat, jobConf, key.getPartitionValues());
+                    result = getFileCache(finalLocation, inputFormat, jobConf, key.getPartitionValues(),
+                            key.lastDdlTime);
                 } else {
+                    // The files of partitions are listed in parallel, so the input path is set to a copy of jobConf.
+                    JobConf splitJobConf = new JobConf(jobConf);
+                    FileInputFormat.setInputPaths(splitJobConf, finalLocation);
                     InputSplit[] splits;
-                    String remoteUser = jobConf.get(HdfsResource.HADOOP_USER_NAME);
+                    String remoteUser = splitJobConf.get(HdfsResource.HADOOP_USER_NAME);
                     if (!Strings.isNullOrEmpty(remoteUser)) {
                         UserGroupInformation ugi = UserGroupInformation.createRemoteUser(remoteUser);
                         splits = ugi.doAs(
-                            (PrivilegedExceptionAction<InputSplit[]>) () -> inputFormat.getSplits(jobConf, 0));
+                            (PrivilegedExceptionAction<InputSplit[]>) () -> inputFormat.getSplits(splitJobConf, 0));
                     } else {
-                        splits = inputFormat.getSplits(jobConf, 0 /* use hdfs block size as default */);
+                        splits = inputFormat.getSplits(splitJobConf, 0 /* use hdfs block size as default */);
                     }
                     result = new FileCacheValue();
                     // Convert the hadoop split to Doris Split.
@@ -460,6 +532,7 @@ public class HiveMetaStoreCache {
                     p.getInputFormat(), useSelfSplitter)
                     : new FileCacheKey(p.getPath(), p.getInputFormat(), p.getPartitionValues());
             fileCacheKey.setUseSelfSplitter(useSelfSplitter);
+            fileCacheKey.lastDdlTime = p.getLastDdlTime();
             return fileCacheKey;
         }).collect(Collectors.toList());
 
@@ -507,6 +580,7 @@ public class HiveMetaStoreCache {
                 if (partition != null) {
                     fileCacheRef.get().invalidate(new FileCacheKey(partition.getPath(),
                             null, partition.getPartitionValues()));
+                    removePersistedFiles(partition.getPath());
                     partitionCache.invalidate(partKey);
                 }
             }
@@ -525,10 +599,22 @@ public class HiveMetaStoreCache {
              * */
             FileCacheKey fileCacheKey = FileCacheKey.createDummyCacheKey(
                     dbName, tblName, null, null, false);
+            if (fileMetaDiskCache != null) {
+                // the location of the table is only saved in the key of the cache entry
+                fileCacheRef.get().asMap().keySet().stream().filter(fileCacheKey::equals).findFirst()
+                        .ifPresent(key -> removePersistedFiles(key.location));
+            }
             fileCacheRef.get().invalidate(fileCacheKey);
         }
     }
 
+    // The persisted files are removed when the cache is invalidated, so they are listed again.
+    private void removePersistedFiles(String location) {
+        if (fileMetaDiskCache != null && location != null) {
+            fileMetaDiskCache.remove(S3Util.convertToS3IfNecessary(location));
+        }
+    }
+
     public void invalidatePartitionCache(String dbName, String tblName, String partitionName) {
         PartitionValueCacheKey key = new PartitionValueCacheKey(dbName, tblName, null);
         HivePartitionValues partitionValues = partitionValuesCache.getIfPresent(key);
@@ -540,6 +626,7 @@ public class HiveMetaStoreCache {
             if (partition != null) {
                 fileCacheRef.get().invalidate(new FileCacheKey(partition.getPath(),
                         null, partition.getPartitionValues()));
+                removePersistedFiles(partition.getPath());
                 partitionCache.invalidate(partKey);
             }
         }
@@ -561,6 +648,9 @@ public class HiveMetaStoreCache {
         partitionValuesCache.invalidateAll();
         partitionCache.invalidateAll();
         fileCacheRef.get().invalidateAll();
+        if (fileMetaDiskCache != null) {
+            fileMetaDiskCache.clear();
+        }
         LOG.debug("invalid all meta cache in catalog {}", catalog.getName());
     }
 
@@ -849,6 +939,8 @@ public class HiveMetaStoreCache {
         private String location;
         // not in key
         private String inputFormat;
+        // not in key, transient_lastDdlTime of the partition, 0 if it is unknown.
+        private long lastDdlTime;
         // Temp variable, use self file splitter or use InputFormat.getSplits.
         // Will remove after self splitter is stable.
         private boolean useSelfSplitter;
@@ -32,6 +32,8 @@ public class HivePartition {
     private String path;
     private List<String> partitionValues;
     private boolean isDummyPartition;
+    // transient_lastDdlTime of the partition in hive metastore, 0 if it is unknown.
+    private long lastDdlTime = 0;
 
     public HivePartition(String dbName, String tblName, boolean isDummyPartition,
                          String inputFormat, String path, List<String> partitionValues) {
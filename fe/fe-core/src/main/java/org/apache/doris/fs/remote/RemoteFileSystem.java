@@ -55,6 +55,19 @@ public abstract class RemoteFileSystem extends PersistentFileSystem {
         }
     }
 
+    /**
+     * Get the modification time of a file or a directory. It may be 0 if the file system does not maintain
+     * the modification time of directories, eg: object storage.
+     */
+    public long getModificationTime(String remotePath) throws UserException {
+        org.apache.hadoop.fs.FileSystem fileSystem = nativeFileSystem(remotePath);
+        try {
+            return fileSystem.getFileStatus(new Path(remotePath)).getModificationTime();
+        } catch (IOException e) {
+            throw new UserException("Failed to get file status for path: " + remotePath, e);
+        }
+    }
+
     private RemoteFiles getFileLocations(RemoteIterator<LocatedFileStatus> locatedFiles) throws IOException {
         List<RemoteFile> locations = new ArrayList<>();
         while (locatedFiles.hasNext()) {
@@ -28,6 +28,7 @@ import org.apache.doris.master.MetaHelper;
 import org.apache.doris.persist.MetaCleaner;
 import org.apache.doris.persist.Storage;
 import org.apache.doris.persist.StorageInfo;
+import org.apache.doris.persist.meta.MetaReader;
 import org.apache.doris.system.Frontend;
 
 import com.google.common.base.Strings;
@@ -165,7 +166,14 @@ public class MetaService extends RestBaseController {
         try {
             OutputStream out = MetaHelper.getOutputStream(filename, dir);
             MetaHelper.getRemoteFile(url, TIMEOUT_SECOND * 1000, out);
-            MetaHelper.complete(filename, dir);
+            File imageFile = MetaHelper.complete(filename, dir);
+            // detect the image corrupted in transfer, images without body crc are checked when loading
+            try {
+                MetaReader.verifyBodyCrc(imageFile);
+            } catch (IOException e) {
+                imageFile.delete();
+                throw e;
+            }
         } catch (FileNotFoundException e) {
             return ResponseEntityBuilder.notFound("file not found.");
         } catch (IOException e) {
@@ -626,6 +626,7 @@ public class NodeAction extends RestBaseController {
                             .findFirst().ifPresent(h -> {
                                 v.setDecommissioned(true);
                                 Env.getCurrentEnv().getEditLog().logBackendStateChange(v);
+                                Env.getCurrentEnv().getTabletChecker().markBackendDirty(v.getId());
                             });
                 });
             }
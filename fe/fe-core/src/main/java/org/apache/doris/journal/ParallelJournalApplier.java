@@ -0,0 +1,117 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+package org.apache.doris.journal;
+
+import org.apache.doris.catalog.Env;
+import org.apache.doris.common.Pair;
+import org.apache.doris.common.ThreadPoolManager;
+import org.apache.doris.meta.MetaContext;
+import org.apache.doris.persist.EditLog;
+import org.apache.doris.persist.OperationType;
+import org.apache.doris.transaction.TransactionState;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Apply consecutive journals which are known to be independent of each other in parallel.
+ * Currently only transaction state upserts are applied in parallel, grouped by database,
+ * so that the journals of the same database are still applied in order.
+ * Any other journal acts as a barrier: the pending journals must be flushed before applying it.
+ */
+public class ParallelJournalApplier {
+    private static final Logger LOG = LogManager.getLogger(ParallelJournalApplier.class);
+
+    private final ThreadPoolExecutor applyPool;
+    private final List<Pair<Long, JournalEntity>> pendingJournals = Lists.newArrayList();
+
+    public ParallelJournalApplier(int parallelism, int maxPendingNum) {
+        // at most one task per database of the pending journals
+        this.applyPool = ThreadPoolManager.newDaemonFixedThreadPool(parallelism, Math.max(maxPendingNum, 1),
+                "journal-applier", false);
+    }
+
+    public boolean canApplyInParallel(JournalEntity entity) {
+        return entity.getOpCode() == OperationType.OP_UPSERT_TRANSACTION_STATE;
+    }
+
+    public void add(long logId, JournalEntity entity) {
+        pendingJournals.add(Pair.of(logId, entity));
+    }
+
+    public int getPendingNum() {
+        return pendingJournals.size();
+    }
+
+    /**
+     * Apply all the pending journals and wait for them to finish.
+     * Return the number of applied journals.
+     */
+    public int flush(Env env) {
+        if (pendingJournals.isEmpty()) {
+            return 0;
+        }
+        Map<Long, List<Pair<Long, JournalEntity>>> dbToJournals = Maps.newLinkedHashMap();
+        for (Pair<Long, JournalEntity> kv : pendingJournals) {
+            long dbId = ((TransactionState) kv.second.getData()).getDbId();
+            dbToJournals.computeIfAbsent(dbId, k -> Lists.newArrayList()).add(kv);
+        }
+
+        MetaContext metaContext = MetaContext.get();
+        List<Future<?>> futures = Lists.newArrayList();
+        for (List<Pair<Long, JournalEntity>> journals : dbToJournals.values()) {
+            futures.add(applyPool.submit(() -> {
+                if (metaContext != null) {
+                    metaContext.setThreadLocalInfo();
+                }
+                try {
+                    for (Pair<Long, JournalEntity> kv : journals) {
+                        EditLog.loadJournal(env, kv.first, kv.second);
+                    }
+                } finally {
+                    MetaContext.remove();
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (InterruptedException | ExecutionException e) {
+                // Same as EditLog.loadJournal, journals can not be skipped.
+                LOG.error("failed to apply journals in parallel, will exit", e);
+                System.exit(-1);
+            }
+        }
+
+        int num = pendingJournals.size();
+        pendingJournals.clear();
+        return num;
+    }
+
+    public void shutdown() {
+        applyPool.shutdown();
+    }
+}
@@ -0,0 +1,136 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+package org.apache.doris.journal;
+
+import org.apache.doris.common.Pair;
+import org.apache.doris.meta.MetaContext;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * A journal cursor which fetches and deserializes journals from the underlying cursor
+ * in a background thread, so that the replay thread only needs to apply them.
+ * The fetch task runs in the given long-lived executor and is never interrupted,
+ * since interrupting a thread doing bdb io invalidates the environment.
+ */
+public class PrefetchJournalCursor implements JournalCursor {
+    private static final Logger LOG = LogManager.getLogger(PrefetchJournalCursor.class);
+
+    // marks the end of the underlying cursor
+    private static final Pair<Long, JournalEntity> END = Pair.of(-1L, null);
+
+    private final BlockingQueue<Pair<Long, JournalEntity>> queue;
+    private final Future<?> fetchFuture;
+    // the exception thrown by the underlying cursor, rethrown by next() after the prefetched journals
+    private volatile Throwable fetchException = null;
+    private volatile boolean closed = false;
+    private boolean finished = false;
+
+    public PrefetchJournalCursor(JournalCursor cursor, int prefetchNum, ExecutorService fetchExecutor) {
+        this.queue = new ArrayBlockingQueue<>(Math.max(prefetchNum, 1));
+        MetaContext metaContext = MetaContext.get();
+        this.fetchFuture = fetchExecutor.submit(() -> fetch(cursor, metaContext));
+    }
+
+    private void fetch(JournalCursor cursor, MetaContext metaContext) {
+        // the meta version is needed when deserializing journals
+        if (metaContext != null) {
+            metaContext.setThreadLocalInfo();
+        }
+        try {
+            while (!closed) {
+                Pair<Long, JournalEntity> kv = cursor.next();
+                if (kv == null || kv.second == null) {
+                    break;
+                }
+                // the queue is drained when closing, so this put returns even if the consumer has gone
+                queue.put(kv);
+            }
+        } catch (Throwable t) {
+            LOG.warn("failed to prefetch journal, closed: {}", closed, t);
+            fetchException = t;
+        } finally {
+            cursor.close();
+            MetaContext.remove();
+        }
+        if (!closed) {
+            try {
+                queue.put(END);
+            } catch (InterruptedException e) {
+                LOG.warn("journal prefetcher is interrupted", e);
+            }
+        }
+    }
+
+    /**
+     * Return the next prefetched journal, or null at the end of the underlying cursor.
+     * If the underlying cursor failed, the exception is rethrown to the caller
+     * once the journals fetched before it have been consumed.
+     */
+    @Override
+    public Pair<Long, JournalEntity> next() {
+        if (!finished) {
+            try {
+                Pair<Long, JournalEntity> kv = queue.take();
+                if (kv != END) {
+                    return kv;
+                }
+            } catch (InterruptedException e) {
+                LOG.warn("interrupted when waiting for prefetched journal", e);
+            }
+            finished = true;
+        }
+        Throwable t = fetchException;
+        if (t instanceof RuntimeException) {
+            throw (RuntimeException) t;
+        } else if (t instanceof Error) {
+            throw (Error) t;
+        } else if (t != null) {
+            throw new RuntimeException("failed to prefetch journal", t);
+        }
+        return null;
+    }
+
+    public int getPrefetchedNum() {
+        return queue.size();
+    }
+
+    /**
+     * Stop the fetch task and wait for it to close the underlying cursor.
+     * There is a single producer, so one drain after setting the closed flag is enough
+     * to release a blocked put, after which the fetch task sees the flag and exits.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        queue.clear();
+        try {
+            fetchFuture.get();
+        } catch (InterruptedException | ExecutionException e) {
+            LOG.warn("failed to wait for journal prefetcher to stop", e);
+        }
+        queue.clear();
+    }
+}
@@ -18,6 +18,7 @@
 package org.apache.doris.journal.bdbje;
 
 import org.apache.doris.catalog.Env;
+import org.apache.doris.common.Config;
 import org.apache.doris.common.io.DataOutputBuffer;
 import org.apache.doris.common.io.Writable;
 import org.apache.doris.common.util.Util;
@@ -28,6 +29,7 @@ import org.apache.doris.metric.MetricRepo;
 import org.apache.doris.persist.OperationType;
 import org.apache.doris.system.SystemInfoService.HostInfo;
 
+import com.google.common.collect.Lists;
 import com.sleepycat.bind.tuple.TupleBinding;
 import com.sleepycat.je.Database;
 import com.sleepycat.je.DatabaseEntry;
@@ -35,6 +37,7 @@ import com.sleepycat.je.DatabaseException;
 import com.sleepycat.je.DatabaseNotFoundException;
 import com.sleepycat.je.LockMode;
 import com.sleepycat.je.OperationStatus;
+import com.sleepycat.je.Transaction;
 import com.sleepycat.je.rep.InsufficientLogException;
 import com.sleepycat.je.rep.NetworkRestore;
 import com.sleepycat.je.rep.NetworkRestoreConfig;
@@ -47,6 +50,9 @@ import java.io.DataInputStream;
 import java.io.File;
 import java.io.IOException;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.atomic.AtomicLong;
 
 /*
@@ -60,6 +66,9 @@ public class BDBJEJournal implements Journal { // CHECKSTYLE IGNORE THIS LINE: B
     public static final Logger LOG = LogManager.getLogger(BDBJEJournal.class);
     private static final int OUTPUT_BUFFER_INIT_SIZE = 128;
     private static final int RETRY_TIME = 3;
+    // Put into the queue to stop the flusher after the requests before it are flushed.
+    // The flusher is never interrupted, since interrupting a thread in bdb io invalidates the environment.
+    private static final GroupCommitRequest STOP_REQUEST = new GroupCommitRequest((short) -1, null);
 
     private String environmentPath = null;
     private String selfNodeName;
@@ -70,6 +79,25 @@ public class BDBJEJournal implements Journal { // CHECKSTYLE IGNORE THIS LINE: B
     // the next journal's id. start from 1.
     private AtomicLong nextJournalId = new AtomicLong(1);
 
+    // Only used when Config.enable_edit_log_group_commit is true.
+    // Writers put their serialized journal into the queue, and the flusher thread
+    // writes a batch of them into bdb in one transaction.
+    private volatile LinkedBlockingQueue<GroupCommitRequest> groupCommitQueue = null;
+    private Thread groupCommitFlusher = null;
+    private volatile boolean groupCommitStopped = false;
+
+    private static class GroupCommitRequest {
+        private final short op;
+        private final DatabaseEntry data;
+        // completed with the assigned journal id once the batch is durable, or -1 if failed
+        private final CompletableFuture<Long> future = new CompletableFuture<>();
+
+        GroupCommitRequest(short op, DatabaseEntry data) {
+            this.op = op;
+            this.data = data;
+        }
+    }
+
     public BDBJEJournal(String nodeName) {
         initBDBEnv(nodeName);
     }
@@ -120,18 +148,33 @@ public class BDBJEJournal implements Journal { // CHECKSTYLE IGNORE THIS LINE: B
     }
 
     @Override
-    public synchronized long write(short op, Writable writable) throws IOException {
+    public long write(short op, Writable writable) throws IOException {
+        // Serialize the journal in the caller thread, so that concurrent writers do not
+        // serialize each other when group commit is enabled.
+        DatabaseEntry theData = serialize(op, writable);
+        LinkedBlockingQueue<GroupCommitRequest> queue = groupCommitQueue;
+        if (queue == null) {
+            return writeSingle(op, theData);
+        }
+
+        GroupCommitRequest request = new GroupCommitRequest(op, theData);
+        try {
+            queue.put(request);
+            // The flusher may have exited before the request is put, nobody will complete it.
+            if (groupCommitStopped && queue.remove(request)) {
+                throw new IOException("edit log group commit flusher is stopped, op: " + op);
+            }
+            return request.future.get();
+        } catch (InterruptedException | ExecutionException e) {
+            throw new IOException("failed to wait for journal group commit, op: " + op, e);
+        }
+    }
+
+    private DatabaseEntry serialize(short op, Writable writable) throws IOException {
         JournalEntity entity = new JournalEntity();
         entity.setOpCode(op);
         entity.setData(writable);
 
-        // id is the key
-        long id = nextJournalId.getAndIncrement();
-        Long idLong = id;
-        DatabaseEntry theKey = new DatabaseEntry();
-        TupleBinding<Long> idBinding = TupleBinding.getPrimitiveBinding(Long.class);
-        idBinding.objectToEntry(idLong, theKey);
-
         // entity is the value
         DataOutputBuffer buffer = new DataOutputBuffer(OUTPUT_BUFFER_INIT_SIZE);
         entity.write(buffer);
@@ -142,6 +185,21 @@ public class BDBJEJournal implements Journal { // CHECKSTYLE IGNORE THIS LINE: B
             MetricRepo.COUNTER_CURRENT_EDIT_LOG_SIZE_BYTES.increase((long) theData.getSize());
         }
         LOG.debug("opCode = {}, journal size = {}", op, theData.getSize());
+        return theData;
+    }
+
+    private static DatabaseEntry idToKey(long id) {
+        DatabaseEntry theKey = new DatabaseEntry();
+        TupleBinding<Long> idBinding = TupleBinding.getPrimitiveBinding(Long.class);
+        idBinding.objectToEntry(id, theKey);
+        return theKey;
+    }
+
+    private synchronized long writeSingle(short op, DatabaseEntry theData) {
+        // id is the key
+        long id = nextJournalId.getAndIncrement();
+        DatabaseEntry theKey = idToKey(id);
+
         // Write the key value pair to bdb.
         boolean writeSucceed = false;
         for (int i = 0; i < RETRY_TIME; i++) {
@@ -186,6 +244,155 @@ public class BDBJEJournal implements Journal { // CHECKSTYLE IGNORE THIS LINE: B
         return id;
     }
 
+    private void startGroupCommitFlusher() {
+        groupCommitStopped = false;
+        groupCommitQueue = new LinkedBlockingQueue<>();
+        groupCommitFlusher = new Thread(this::runGroupCommitFlusher, "edit-log-group-commit-flusher");
+        groupCommitFlusher.setDaemon(true);
+        groupCommitFlusher.start();
+        LOG.info("edit log group commit is enabled, max batch num: {}", Config.edit_log_group_commit_max_batch_num);
+    }
+
+    private void stopGroupCommitFlusher() {
+        if (groupCommitFlusher == null) {
+            return;
+        }
+        groupCommitStopped = true;
+        LinkedBlockingQueue<GroupCommitRequest> queue = groupCommitQueue;
+        groupCommitQueue = null;
+        queue.add(STOP_REQUEST);
+        try {
+            groupCommitFlusher.join();
+        } catch (InterruptedException e) {
+            LOG.warn("interrupted when waiting for group commit flusher to exit", e);
+        }
+        groupCommitFlusher = null;
+    }
+
+    private void runGroupCommitFlusher() {
+        LinkedBlockingQueue<GroupCommitRequest> queue = groupCommitQueue;
+        List<GroupCommitRequest> batch = Lists.newArrayList();
+        boolean stopped = false;
+        while (!stopped) {
+            try {
+                batch.add(queue.take());
+                queue.drainTo(batch, Math.max(Config.edit_log_group_commit_max_batch_num - 1, 0));
+                int stopIndex = batch.indexOf(STOP_REQUEST);
+                if (stopIndex >= 0) {
+                    // flush the requests before the stop request, and fail the ones after it
+                    stopped = true;
+                    List<GroupCommitRequest> remaining = Lists.newArrayList(batch.subList(stopIndex + 1,
+                            batch.size()));
+                    batch.subList(stopIndex, batch.size()).clear();
+                    failRequests(remaining);
+                }
+                if (!batch.isEmpty()) {
+                    flushBatch(batch);
+                }
+            } catch (InterruptedException e) {
+                LOG.warn("group commit flusher is interrupted unexpectedly", e);
+            } catch (Throwable t) {
+                // Must not leave the writers waiting forever.
+                LOG.error("group commit flusher got unexpected exception", t);
+                for (GroupCommitRequest request : batch) {
+                    request.future.completeExceptionally(t);
+                }
+            } finally {
+                batch.clear();
+            }
+        }
+
+        // fail all the remaining writers
+        List<GroupCommitRequest> remaining = Lists.newArrayList();
+        queue.drainTo(remaining);
+        failRequests(remaining);
+    }
+
+    private static void failRequests(List<GroupCommitRequest> requests) {
+        for (GroupCommitRequest request : requests) {
+            request.future.completeExceptionally(new IOException("edit log group commit flusher is stopped"));
+        }
+    }
+
+    /*
+     * Write all the journals in the batch into bdb with one transaction.
+     * The journal ids are assigned continuously in the order of the batch, and the writers
+     * are notified with their ids only after the transaction is committed.
+     */
+    private synchronized void flushBatch(List<GroupCommitRequest> batch) {
+        long firstId = nextJournalId.get();
+        boolean writeSucceed = false;
+        for (int i = 0; i < RETRY_TIME && !writeSucceed; i++) {
+            Transaction txn = null;
+            try {
+                txn = bdbEnvironment.getReplicatedEnvironment().beginTransaction(null, null);
+                boolean allPut = true;
+                long id = firstId;
+                for (GroupCommitRequest request : batch) {
+                    if (currentJournalDB.put(txn, idToKey(id++), request.data) != OperationStatus.SUCCESS) {
+                        allPut = false;
+                        break;
+                    }
+                }
+                if (allPut) {
+                    txn.commit();
+                    txn = null;
+                    writeSucceed = true;
+                    if (LOG.isDebugEnabled()) {
+                        LOG.debug("master write journal {} to {} finished. db name {}, current time {}",
+                                firstId, id - 1, currentJournalDB.getDatabaseName(), System.currentTimeMillis());
+                    }
+                }
+            } catch (DatabaseException e) {
+                LOG.error("catch an exception when writing to database. sleep and retry. journal id {} to {}",
+                        firstId, firstId + batch.size() - 1, e);
+                try {
+                    Thread.sleep(5 * 1000);
+                } catch (InterruptedException e1) {
+                    LOG.warn("", e1);
+                }
+            } finally {
+                if (txn != null) {
+                    abortQuietly(txn);
+                }
+            }
+        }
+
+        if (!writeSucceed) {
+            boolean allTimestamp = batch.stream().allMatch(r -> r.op == OperationType.OP_TIMESTAMP);
+            if (allTimestamp) {
+                // Same as writeSingle(), do not exit if only OP_TIMESTAMP failed.
+                LOG.warn("master can not achieve quorum. write timestamp fail. but will not exit.");
+                for (GroupCommitRequest request : batch) {
+                    request.future.complete(-1L);
+                }
+                return;
+            }
+            String msg = "write bdb failed. will exit. journalId: " + firstId + " to "
+                    + (firstId + batch.size() - 1) + ", bdb database Name: " + currentJournalDB.getDatabaseName();
+            LOG.error(msg);
+            Util.stdoutWithTime(msg);
+            System.exit(-1);
+        }
+
+        nextJournalId.set(firstId + batch.size());
+        if (MetricRepo.isInit) {
+            MetricRepo.HISTO_EDIT_LOG_GROUP_COMMIT_BATCH_SIZE.update(batch.size());
+        }
+        long id = firstId;
+        for (GroupCommitRequest request : batch) {
+            request.future.complete(id++);
+        }
+    }
+
+    private void abortQuietly(Transaction txn) {
+        try {
+            txn.abort();
+        } catch (DatabaseException e) {
+            LOG.warn("failed to abort bdb transaction {}", txn.getId(), e);
+        }
+    }
+
     @Override
     public JournalEntity read(long journalId) {
         List<Long> dbNames = getDatabaseNames();
@@ -292,6 +499,7 @@ public class BDBJEJournal implements Journal { // CHECKSTYLE IGNORE THIS LINE: B
 
     @Override
     public void close() {
+        stopGroupCommitFlusher();
         bdbEnvironment.close();
         bdbEnvironment = null;
     }
@@ -351,6 +559,9 @@ public class BDBJEJournal implements Journal { // CHECKSTYLE IGNORE THIS LINE: B
                 // set next journal id
                 nextJournalId.set(getMaxJournalId() + 1);
 
+                if (Config.enable_edit_log_group_commit && groupCommitFlusher == null) {
+                    startGroupCommitFlusher();
+                }
                 break;
             } catch (InsufficientLogException insufficientLogEx) {
                 reSetupBdbEnvironment(insufficientLogEx);
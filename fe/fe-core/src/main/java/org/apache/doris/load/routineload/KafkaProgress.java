@@ -77,6 +77,10 @@ public class KafkaProgress extends RoutineLoadProgress {
         return result;
     }
 
+    public Map<Integer, Long> getPartitionIdToOffset() {
+        return partitionIdToOffset;
+    }
+
     public void addPartitionOffset(Pair<Integer, Long> partitionOffset) {
         partitionIdToOffset.put(partitionOffset.first, partitionOffset.second);
     }
@@ -39,6 +39,7 @@ import org.apache.doris.common.util.SmallFileMgr.SmallFile;
 import org.apache.doris.common.util.TimeUtils;
 import org.apache.doris.load.routineload.kafka.KafkaConfiguration;
 import org.apache.doris.load.routineload.kafka.KafkaDataSourceProperties;
+import org.apache.doris.metric.MetricRepo;
 import org.apache.doris.persist.AlterRoutineLoadJobOperationLog;
 import org.apache.doris.thrift.TFileCompressType;
 import org.apache.doris.transaction.TransactionState;
@@ -60,6 +61,7 @@ import java.io.DataInput;
 import java.io.DataOutput;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -97,6 +99,10 @@ public class KafkaRoutineLoadJob extends RoutineLoadJob {
     // Will be updated periodically by calling hasMoreDataToConsume()
     private Map<Integer, Long> cachedPartitionWithLatestOffsets = Maps.newConcurrentMap();
 
+    // The ingest rate (messages per second) of each partition, estimated by the committed tasks.
+    // Only used to adapt the batch of tasks, no need to persist.
+    private Map<Integer, Double> partitionIdToIngestRate = Maps.newConcurrentMap();
+
     // The kafka partition fetch from kafka server.
     // Will be updated periodically by calling updateKafkaPartitions();
     private List<Integer> newCurrentKafkaPartition = Lists.newArrayList();
@@ -280,8 +286,10 @@ public class KafkaRoutineLoadJob extends RoutineLoadJob {
 
     @Override
     protected void updateProgress(RLTaskTxnCommitAttachment attachment) throws UserException {
+        updateIngestRate(attachment);
         super.updateProgress(attachment);
         this.progress.update(attachment);
+        updateLagMetric();
     }
 
     @Override
@@ -293,9 +301,23 @@ public class KafkaRoutineLoadJob extends RoutineLoadJob {
     @Override
     protected RoutineLoadTaskInfo unprotectRenewTask(RoutineLoadTaskInfo routineLoadTaskInfo) {
         KafkaTaskInfo oldKafkaTaskInfo = (KafkaTaskInfo) routineLoadTaskInfo;
+        List<Integer> partitions = oldKafkaTaskInfo.getPartitions();
+        // split the task which is merged by small tasks, if it is not small any more
+        if (routineLoadTaskInfoList.size() < currentTaskConcurrentNum && partitions.size() > 1
+                && needSplitTask(partitions)) {
+            List<Integer> splitPartitions = new ArrayList<>(partitions.subList(partitions.size() / 2,
+                    partitions.size()));
+            partitions = new ArrayList<>(partitions.subList(0, partitions.size() / 2));
+            KafkaTaskInfo splitTaskInfo = new KafkaTaskInfo(oldKafkaTaskInfo,
+                    ((KafkaProgress) progress).getPartitionIdToOffset(splitPartitions), isMultiTable());
+            routineLoadTaskInfoList.add(splitTaskInfo);
+            Env.getCurrentEnv().getRoutineLoadTaskScheduler().addTaskInQueue(splitTaskInfo);
+            LOG.debug("split partitions {} from routine load task {}, job {}",
+                    splitPartitions, DebugUtil.printId(oldKafkaTaskInfo.getId()), id);
+        }
         // add new task
         KafkaTaskInfo kafkaTaskInfo = new KafkaTaskInfo(oldKafkaTaskInfo,
-                ((KafkaProgress) progress).getPartitionIdToOffset(oldKafkaTaskInfo.getPartitions()), isMultiTable());
+                ((KafkaProgress) progress).getPartitionIdToOffset(partitions), isMultiTable());
         // remove old task
         routineLoadTaskInfoList.remove(routineLoadTaskInfo);
         // add new task
@@ -723,6 +745,7 @@ public class KafkaRoutineLoadJob extends RoutineLoadJob {
             for (Pair<Integer, Long> pair : tmp) {
                 cachedPartitionWithLatestOffsets.put(pair.first, pair.second);
             }
+            updateLagMetric();
         } catch (Exception e) {
             LOG.warn("failed to get latest partition offset. {}", e.getMessage(), e);
             return false;
@@ -743,6 +766,159 @@ public class KafkaRoutineLoadJob extends RoutineLoadJob {
         return false;
     }
 
+    @Override
+    public RoutineLoadTaskInfo mergeSmallTasks(RoutineLoadTaskInfo routineLoadTaskInfo,
+                                               List<RoutineLoadTaskInfo> waitingTasks) {
+        if (!Config.enable_routine_load_adaptive_batch) {
+            return routineLoadTaskInfo;
+        }
+        writeLock();
+        try {
+            if (state != JobState.RUNNING || !routineLoadTaskInfoList.contains(routineLoadTaskInfo)) {
+                return routineLoadTaskInfo;
+            }
+            KafkaProgress kafkaProgress = (KafkaProgress) progress;
+            long smallTaskRows = getSmallTaskRows();
+            List<Integer> partitions = ((KafkaTaskInfo) routineLoadTaskInfo).getPartitions();
+            long rows = estimateRowsToConsume(kafkaProgress.getPartitionIdToOffset(partitions));
+            if (rows < 0 || rows >= smallTaskRows) {
+                return routineLoadTaskInfo;
+            }
+            List<RoutineLoadTaskInfo> mergedTasks = Lists.newArrayList(routineLoadTaskInfo);
+            for (RoutineLoadTaskInfo waitingTask : waitingTasks) {
+                if (!routineLoadTaskInfoList.contains(waitingTask)) {
+                    continue;
+                }
+                List<Integer> waitingPartitions = ((KafkaTaskInfo) waitingTask).getPartitions();
+                long waitingRows = estimateRowsToConsume(kafkaProgress.getPartitionIdToOffset(waitingPartitions));
+                if (waitingRows < 0 || rows + waitingRows >= smallTaskRows) {
+                    continue;
+                }
+                rows += waitingRows;
+                partitions.addAll(waitingPartitions);
+                mergedTasks.add(waitingTask);
+            }
+            if (mergedTasks.size() == 1) {
+                return routineLoadTaskInfo;
+            }
+            KafkaTaskInfo mergedTaskInfo = new KafkaTaskInfo(UUID.randomUUID(), id, clusterName,
+                    routineLoadTaskInfo.getTimeoutMs(), routineLoadTaskInfo.getPreviousBeId(),
+                    kafkaProgress.getPartitionIdToOffset(partitions), isMultiTable());
+            routineLoadTaskInfoList.removeAll(mergedTasks);
+            routineLoadTaskInfoList.add(mergedTaskInfo);
+            LOG.debug("merge {} small routine load tasks to task {} with partitions {}, expected rows {}, job {}",
+                    mergedTasks.size(), DebugUtil.printId(mergedTaskInfo.getId()), partitions, rows, id);
+            return mergedTaskInfo;
+        } finally {
+            writeUnlock();
+        }
+    }
+
+    // The batch interval of a small task is extended to consume about 'small task rows' in one txn,
+    // but not more than 'routine_load_max_batch_interval_multiple' times of the max batch interval of job.
+    // The task which consumes lagging partitions or partitions with unknown ingest rate uses the max batch
+    // interval of job.
+    public long getAdaptiveBatchIntervalS(Map<Integer, Long> partitionIdToOffset) {
+        if (!Config.enable_routine_load_adaptive_batch || Config.routine_load_max_batch_interval_multiple <= 1) {
+            return maxBatchIntervalS;
+        }
+        long lag = getLagOfPartitions(partitionIdToOffset);
+        double ingestRate = getIngestRateOfPartitions(partitionIdToOffset.keySet());
+        long smallTaskRows = getSmallTaskRows();
+        if (lag < 0 || ingestRate < 0 || lag + ingestRate * maxBatchIntervalS >= smallTaskRows) {
+            return maxBatchIntervalS;
+        }
+        long maxIntervalS = maxBatchIntervalS * Config.routine_load_max_batch_interval_multiple;
+        if (ingestRate == 0) {
+            return maxIntervalS;
+        }
+        long intervalS = (long) Math.ceil((smallTaskRows - lag) / ingestRate);
+        return Math.max(maxBatchIntervalS, Math.min(intervalS, maxIntervalS));
+    }
+
+    private long getSmallTaskRows() {
+        return (long) (maxBatchRows * Config.routine_load_small_task_rows_ratio);
+    }
+
+    // A merged task is split only if it is expected to consume twice the rows of a small task,
+    // to avoid merging and splitting tasks back and forth when the ingest rate fluctuates.
+    private boolean needSplitTask(List<Integer> partitions) {
+        if (!Config.enable_routine_load_adaptive_batch) {
+            return true;
+        }
+        long rows = estimateRowsToConsume(((KafkaProgress) progress).getPartitionIdToOffset(partitions));
+        return rows < 0 || rows >= 2 * getSmallTaskRows();
+    }
+
+    // the number of messages expected to be consumed from the partitions in the max batch interval of job.
+    // return -1 if it could not be estimated.
+    private long estimateRowsToConsume(Map<Integer, Long> partitionIdToOffset) {
+        long lag = getLagOfPartitions(partitionIdToOffset);
+        double ingestRate = getIngestRateOfPartitions(partitionIdToOffset.keySet());
+        if (lag < 0 || ingestRate < 0) {
+            return -1;
+        }
+        return lag + (long) (ingestRate * maxBatchIntervalS);
+    }
+
+    // return -1 if the latest offset or the offset to be consumed of any partition is unknown
+    private long getLagOfPartitions(Map<Integer, Long> partitionIdToOffset) {
+        long lag = 0;
+        for (Map.Entry<Integer, Long> entry : partitionIdToOffset.entrySet()) {
+            Long latestOffset = cachedPartitionWithLatestOffsets.get(entry.getKey());
+            if (latestOffset == null || entry.getValue() == null || entry.getValue() < 0) {
+                return -1;
+            }
+            lag += Math.max(latestOffset - entry.getValue(), 0);
+        }
+        return lag;
+    }
+
+    // return -1 if the ingest rate of any partition is unknown
+    private double getIngestRateOfPartitions(Collection<Integer> partitions) {
+        double ingestRate = 0;
+        for (Integer partition : partitions) {
+            Double rate = partitionIdToIngestRate.get(partition);
+            if (rate == null) {
+                return -1;
+            }
+            ingestRate += rate;
+        }
+        return ingestRate;
+    }
+
+    // estimate the ingest rate of partitions by the messages consumed by the committed task in its execution time
+    private void updateIngestRate(RLTaskTxnCommitAttachment attachment) {
+        if (!(attachment.getProgress() instanceof KafkaProgress)) {
+            return;
+        }
+        long executionTimeMs = Math.max(attachment.getTaskExecutionTimeMs(), 1);
+        KafkaProgress kafkaProgress = (KafkaProgress) progress;
+        KafkaProgress taskProgress = (KafkaProgress) attachment.getProgress();
+        for (Map.Entry<Integer, Long> entry : taskProgress.getPartitionIdToOffset().entrySet()) {
+            Long offset = kafkaProgress.getOffsetByPartition(entry.getKey());
+            if (offset == null || offset < 0) {
+                // the offset to be consumed is not determined, such as OFFSET_END
+                continue;
+            }
+            // the offset in task progress is the offset of the last consumed message
+            double rate = Math.max(entry.getValue() + 1 - offset, 0) * 1000.0 / executionTimeMs;
+            partitionIdToIngestRate.merge(entry.getKey(), rate, (oldRate, newRate) -> (oldRate + newRate) / 2);
+        }
+    }
+
+    private void updateLagMetric() {
+        // the metric is removed when the job is stopped or cancelled
+        if (!MetricRepo.isInit || state.isFinalState()) {
+            return;
+        }
+        long totalLag = 0;
+        for (Long lag : ((KafkaProgress) progress).getLag(cachedPartitionWithLatestOffsets).values()) {
+            totalLag += Math.max(lag, 0);
+        }
+        MetricRepo.JOB_GAUGE_ROUTINE_LOAD_LAG.getOrAdd(String.valueOf(id)).setValue(totalLag);
+    }
+
     @Override
     protected String getLag() {
         Map<Integer, Long> partitionIdToOffsetLag = ((KafkaProgress) progress).getLag(cachedPartitionWithLatestOffsets);
@@ -45,6 +45,8 @@ public class KafkaTaskInfo extends RoutineLoadTaskInfo {
 
     // <partitionId, offset to be consumed>
     private Map<Integer, Long> partitionIdToOffset;
+    // the max batch interval of this task, -1 means the max batch interval of job
+    private long maxBatchIntervalS = -1;
 
     public KafkaTaskInfo(UUID id, long jobId, String clusterName,
                          long timeoutMs, Map<Integer, Long> partitionIdToOffset, boolean isMultiTable) {
@@ -52,6 +54,12 @@ public class KafkaTaskInfo extends RoutineLoadTaskInfo {
         this.partitionIdToOffset = partitionIdToOffset;
     }
 
+    public KafkaTaskInfo(UUID id, long jobId, String clusterName, long timeoutMs, long previousBeId,
+                         Map<Integer, Long> partitionIdToOffset, boolean isMultiTable) {
+        super(id, jobId, clusterName, timeoutMs, previousBeId, isMultiTable);
+        this.partitionIdToOffset = partitionIdToOffset;
+    }
+
     public KafkaTaskInfo(KafkaTaskInfo kafkaTaskInfo, Map<Integer, Long> partitionIdToOffset, boolean isMultiTable) {
         super(UUID.randomUUID(), kafkaTaskInfo.getJobId(), kafkaTaskInfo.getClusterName(),
                 kafkaTaskInfo.getTimeoutMs(), kafkaTaskInfo.getBeId(), isMultiTable);
@@ -98,7 +106,8 @@ public class KafkaTaskInfo extends RoutineLoadTaskInfo {
                 tRoutineLoadTask.setParams(rePlan(routineLoadJob));
             }
         }
-        tRoutineLoadTask.setMaxIntervalS(routineLoadJob.getMaxBatchIntervalS());
+        tRoutineLoadTask.setMaxIntervalS(maxBatchIntervalS > 0 ? maxBatchIntervalS
+                : routineLoadJob.getMaxBatchIntervalS());
         tRoutineLoadTask.setMaxBatchRows(routineLoadJob.getMaxBatchRows());
         tRoutineLoadTask.setMaxBatchSize(routineLoadJob.getMaxBatchSizeBytes());
         if (!routineLoadJob.getFormat().isEmpty() && routineLoadJob.getFormat().equalsIgnoreCase("json")) {
@@ -121,6 +130,13 @@ public class KafkaTaskInfo extends RoutineLoadTaskInfo {
         return routineLoadJob.hasMoreDataToConsume(id, partitionIdToOffset);
     }
 
+    @Override
+    void adjustBatchInterval() {
+        KafkaRoutineLoadJob routineLoadJob = (KafkaRoutineLoadJob) routineLoadManager.getJob(jobId);
+        maxBatchIntervalS = routineLoadJob.getAdaptiveBatchIntervalS(partitionIdToOffset);
+        timeoutMs = maxBatchIntervalS * 2 * 1000;
+    }
+
     private TExecPlanFragmentParams rePlan(RoutineLoadJob routineLoadJob) throws UserException {
         TUniqueId loadId = new TUniqueId(id.getMostSignificantBits(), id.getLeastSignificantBits());
         // plan for each task, in case table has change(rollup or schema change)
@@ -696,6 +696,13 @@ public abstract class RoutineLoadJob extends AbstractTxnStateChangeCallback impl
 
     abstract void divideRoutineLoadJob(int currentConcurrentTaskNum) throws UserException;
 
+    // merge the waiting small tasks of this job to the given task, so that they are loaded in one txn.
+    // return the merged task which replaces them in this job, or the given task if nothing is merged.
+    public RoutineLoadTaskInfo mergeSmallTasks(RoutineLoadTaskInfo routineLoadTaskInfo,
+                                               List<RoutineLoadTaskInfo> waitingTasks) {
+        return routineLoadTaskInfo;
+    }
+
     public int calculateCurrentConcurrentTaskNum() throws MetaNotFoundException {
         return 0;
     }
@@ -961,6 +968,9 @@ public abstract class RoutineLoadJob extends AbstractTxnStateChangeCallback impl
                 taskBeId = routineLoadTaskInfo.getBeId();
                 executeTaskOnTxnStatusChanged(routineLoadTaskInfo, txnState, TransactionStatus.COMMITTED, null);
                 ++this.jobStatistic.committedTaskNum;
+                if (MetricRepo.isInit && !state.isFinalState()) {
+                    MetricRepo.JOB_COUNTER_ROUTINE_LOAD_COMMITTED_TXN.getOrAdd(String.valueOf(id)).increase(1L);
+                }
                 LOG.debug("routine load task committed. task id: {}, job id: {}", txnState.getLabel(), id);
             }
         } catch (Throwable e) {
@@ -1232,6 +1242,10 @@ public abstract class RoutineLoadJob extends AbstractTxnStateChangeCallback impl
 
         if (state.isFinalState()) {
             Env.getCurrentGlobalTransactionMgr().getCallbackFactory().removeCallback(id);
+            if (MetricRepo.isInit) {
+                MetricRepo.removeLabeledMetrics(MetricRepo.JOB_GAUGE_ROUTINE_LOAD_LAG, String.valueOf(id));
+                MetricRepo.removeLabeledMetrics(MetricRepo.JOB_COUNTER_ROUTINE_LOAD_COMMITTED_TXN, String.valueOf(id));
+            }
         }
 
         if (!isReplay && jobState != JobState.RUNNING) {
@@ -427,7 +427,11 @@ public class RoutineLoadManager implements Writable {
     // return true if it is available. return false if otherwise.
     // throw exception if unrecoverable errors happen.
     public long getAvailableBeForTask(long jobId, long previousBeId, String clusterName) throws LoadException {
-        List<Long> availableBeIds = getAvailableBackendIds(jobId, clusterName);
+        RoutineLoadJob job = getJob(jobId);
+        if (job == null) {
+            throw new LoadException("job " + jobId + " does not exist");
+        }
+        List<Long> availableBeIds = getAvailableBackendIds(job, clusterName);
 
         // check if be has idle slot
         readLock();
@@ -457,6 +461,9 @@ public class RoutineLoadManager implements Writable {
 
             // 2. The given BE id does not have available slots, find a BE with min tasks
             // 3. The previous BE is not in cluster && is not load available, find a new BE with min tasks
+            // If more than one BEs have the most idle slots, choose the one with min tasks of this job,
+            // to spread the tasks of a job across BEs.
+            Map<Long, Integer> jobBeIdToConcurrentTasks = job.getBeCurrentTasksNumMap();
             int idleTaskNum = 0;
             long resultBeId = -1L;
             int maxIdleSlotNum = 0;
@@ -471,7 +478,11 @@ public class RoutineLoadManager implements Writable {
                         LOG.debug("be {} has idle {}, concurrent task {}, max concurrent task {}", beId, idleTaskNum,
                                 beIdToConcurrentTasks.get(beId), beIdToMaxConcurrentTasks.get(beId));
                     }
-                    resultBeId = maxIdleSlotNum < idleTaskNum ? beId : resultBeId;
+                    if (maxIdleSlotNum < idleTaskNum || (idleTaskNum > 0 && idleTaskNum == maxIdleSlotNum
+                            && jobBeIdToConcurrentTasks.getOrDefault(beId, 0)
+                            < jobBeIdToConcurrentTasks.getOrDefault(resultBeId, 0))) {
+                        resultBeId = beId;
+                    }
                     maxIdleSlotNum = Math.max(maxIdleSlotNum, idleTaskNum);
                 }
             }
@@ -487,16 +498,12 @@ public class RoutineLoadManager implements Writable {
      * But in the old version, the routine load job does not have user info, so for compatibility,
      * if there is no user info, we will get tags from replica allocation of the first partition of the table.
      *
-     * @param jobId
+     * @param job
      * @param cluster
      * @return
      * @throws LoadException
      */
-    private List<Long> getAvailableBackendIds(long jobId, String cluster) throws LoadException {
-        RoutineLoadJob job = getJob(jobId);
-        if (job == null) {
-            throw new LoadException("job " + jobId + " does not exist");
-        }
+    private List<Long> getAvailableBackendIds(RoutineLoadJob job, String cluster) throws LoadException {
         Set<Tag> tags;
         if (job.getUserIdentity() == null) {
             // For old job, there may be no user info. So we have to use tags from replica allocation
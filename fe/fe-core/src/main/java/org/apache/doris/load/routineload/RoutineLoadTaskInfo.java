@@ -212,6 +212,11 @@ public abstract class RoutineLoadTaskInfo {
 
     abstract boolean hasMoreDataToConsume();
 
+    // adjust the batch interval of this task to the data to be consumed.
+    // it is called before the txn begins, because the timeout of txn depends on the batch interval.
+    void adjustBatchInterval() {
+    }
+
     @Override
     public boolean equals(Object obj) {
         if (obj instanceof RoutineLoadTaskInfo) {
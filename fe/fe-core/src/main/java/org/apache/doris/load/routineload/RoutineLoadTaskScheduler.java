@@ -44,12 +44,13 @@ import org.apache.logging.log4j.Logger;
 
 import java.util.List;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.stream.Collectors;
 
 /**
  * Routine load task scheduler is a function which allocate task to be.
  * Step1: update backend slot if interval more than BACKEND_SLOT_UPDATE_INTERVAL_MS
- * Step2: submit beIdToBatchTask when queue is empty
- * Step3: take a task from queue and schedule this task
+ * Step2: wait for a slot to be released when there is no idle slot in cluster
+ * Step3: take a task from queue, merge the waiting small tasks of the same job to it and schedule it
  *
  * The scheduler will be blocked in step3 till the queue receive a new task
  */
@@ -62,6 +63,8 @@ public class RoutineLoadTaskScheduler extends MasterDaemon {
 
     private RoutineLoadManager routineLoadManager;
     private LinkedBlockingQueue<RoutineLoadTaskInfo> needScheduleTasksQueue = Queues.newLinkedBlockingQueue();
+    // notified when tasks are added to queue, which happens after the slots of finished tasks are released
+    private final Object taskAddedSignal = new Object();
 
     private long lastBackendSlotUpdateTime = -1;
 
@@ -93,9 +96,12 @@ public class RoutineLoadTaskScheduler extends MasterDaemon {
 
         // if size of queue is zero, tasks will be submitted by batch
         int idleSlotNum = routineLoadManager.getClusterIdleSlotNum();
-        // scheduler will be blocked when there is no slot for task in cluster
+        // scheduler will be blocked when there is no slot for task in cluster,
+        // till a task is finished and renewed, or SLOT_FULL_SLEEP_MS is elapsed
         if (idleSlotNum == 0) {
-            Thread.sleep(SLOT_FULL_SLEEP_MS);
+            synchronized (taskAddedSignal) {
+                taskAddedSignal.wait(SLOT_FULL_SLEEP_MS);
+            }
             return;
         }
 
@@ -134,6 +140,9 @@ public class RoutineLoadTaskScheduler extends MasterDaemon {
             return;
         }
 
+        // merge the waiting small tasks of the same job, to load them in one txn
+        routineLoadTaskInfo = mergeWaitingTasks(routineLoadTaskInfo);
+
         // allocate BE slot for this task.
         // this should be done before txn begin, or the txn may be begun successfully but failed to be allocated.
         try {
@@ -156,6 +165,8 @@ public class RoutineLoadTaskScheduler extends MasterDaemon {
             throw e;
         }
 
+        routineLoadTaskInfo.adjustBatchInterval();
+
         // begin txn
         try {
             if (!routineLoadTaskInfo.beginTxn()) {
@@ -231,6 +242,31 @@ public class RoutineLoadTaskScheduler extends MasterDaemon {
         routineLoadTaskInfo.setExecuteStartTimeMs(System.currentTimeMillis());
     }
 
+    private RoutineLoadTaskInfo mergeWaitingTasks(RoutineLoadTaskInfo routineLoadTaskInfo) {
+        if (!Config.enable_routine_load_adaptive_batch) {
+            return routineLoadTaskInfo;
+        }
+        List<RoutineLoadTaskInfo> waitingTasks = needScheduleTasksQueue.stream()
+                .filter(task -> task.getJobId() == routineLoadTaskInfo.getJobId())
+                .collect(Collectors.toList());
+        RoutineLoadJob routineLoadJob = routineLoadManager.getJob(routineLoadTaskInfo.getJobId());
+        if (waitingTasks.isEmpty() || routineLoadJob == null) {
+            return routineLoadTaskInfo;
+        }
+        RoutineLoadTaskInfo mergedTaskInfo = routineLoadJob.mergeSmallTasks(routineLoadTaskInfo, waitingTasks);
+        if (mergedTaskInfo == routineLoadTaskInfo) {
+            return routineLoadTaskInfo;
+        }
+        // the merged tasks have been removed from job
+        for (RoutineLoadTaskInfo waitingTask : waitingTasks) {
+            if (!routineLoadManager.checkTaskInJob(waitingTask)) {
+                needScheduleTasksQueue.remove(waitingTask);
+            }
+        }
+        mergedTaskInfo.setLastScheduledTime(routineLoadTaskInfo.getLastScheduledTime());
+        return mergedTaskInfo;
+    }
+
     private void updateBackendSlotIfNecessary() {
         long currentTime = System.currentTimeMillis();
         if (lastBackendSlotUpdateTime == -1
@@ -245,11 +281,19 @@ public class RoutineLoadTaskScheduler extends MasterDaemon {
     public void addTaskInQueue(RoutineLoadTaskInfo routineLoadTaskInfo) {
         needScheduleTasksQueue.add(routineLoadTaskInfo);
         LOG.debug("total tasks num in routine load task queue: {}", needScheduleTasksQueue.size());
+        notifyTaskAdded();
     }
 
     public void addTasksInQueue(List<RoutineLoadTaskInfo> routineLoadTaskInfoList) {
         needScheduleTasksQueue.addAll(routineLoadTaskInfoList);
         LOG.debug("total tasks num in routine load task queue: {}", needScheduleTasksQueue.size());
+        notifyTaskAdded();
+    }
+
+    private void notifyTaskAdded() {
+        synchronized (taskAddedSignal) {
+            taskAddedSignal.notifyAll();
+        }
     }
 
     private void submitTask(long beId, TRoutineLoadTask tTask) throws LoadException {
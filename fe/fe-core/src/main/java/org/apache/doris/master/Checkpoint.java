@@ -20,6 +20,7 @@ package org.apache.doris.master;
 import org.apache.doris.catalog.Env;
 import org.apache.doris.common.CheckpointException;
 import org.apache.doris.common.Config;
+import org.apache.doris.common.DdlException;
 import org.apache.doris.common.FeConstants;
 import org.apache.doris.common.util.HttpURLUtil;
 import org.apache.doris.common.util.MasterDaemon;
@@ -31,6 +32,7 @@ import org.apache.doris.monitor.jvm.JvmStats.MemoryPool;
 import org.apache.doris.persist.EditLog;
 import org.apache.doris.persist.MetaCleaner;
 import org.apache.doris.persist.Storage;
+import org.apache.doris.persist.meta.MetaReader;
 import org.apache.doris.qe.VariableMgr;
 import org.apache.doris.system.Frontend;
 
@@ -38,6 +40,7 @@ import com.google.common.base.Strings;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.net.HttpURLConnection;
@@ -144,9 +147,7 @@ public class Checkpoint extends MasterDaemon {
             // Load image to verify if the newly generated image file is valid
             // If success, do all the following jobs
             // If failed, just return
-            env = Env.getCurrentEnv();
-            createStaticFieldForCkpt();
-            env.loadImage(imageDir);
+            verifyImage(latestImageFilePath);
             if (MetricRepo.isInit) {
                 MetricRepo.COUNTER_IMAGE_WRITE_SUCCESS.increase(1L);
             }
@@ -298,6 +299,19 @@ public class Checkpoint extends MasterDaemon {
         }
     }
 
+    // The crc only proves that the bytes on disk are the bytes just written, not that they can be loaded,
+    // so loading the image stays the default. Either way the checkpoint catalog has been destroyed before,
+    // the peak memory is bounded by the checkpoint catalog itself rather than by this verification.
+    private void verifyImage(String imageFilePath) throws IOException, DdlException {
+        if (Config.checkpoint_verify_image_by_crc && MetaReader.verifyBodyCrc(new File(imageFilePath))) {
+            LOG.info("verified image {} by body crc", imageFilePath);
+            return;
+        }
+        env = Env.getCurrentEnv();
+        createStaticFieldForCkpt();
+        env.loadImage(imageDir);
+    }
+
     // Some classes use static variables to store information,
     // and we need to generate new temporary objects for these static variables
     // during the checkpoint process to cope with changes made to these variables
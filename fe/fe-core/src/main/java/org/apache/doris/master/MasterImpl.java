@@ -59,6 +59,7 @@ import org.apache.doris.thrift.TStatus;
 import org.apache.doris.thrift.TStatusCode;
 import org.apache.doris.thrift.TTabletInfo;
 import org.apache.doris.thrift.TTaskType;
+import org.apache.doris.transaction.TransactionState;
 
 import com.google.common.base.Preconditions;
 import org.apache.logging.log4j.LogManager;
@@ -488,6 +489,14 @@ public class MasterImpl {
         AgentTaskQueue.removeTask(publishVersionTask.getBackendId(),
                                   publishVersionTask.getTaskType(),
                                   publishVersionTask.getSignature());
+
+        // finish the transaction as soon as all its publish tasks are finished
+        TransactionState transactionState = Env.getCurrentGlobalTransactionMgr()
+                .getTransactionState(task.getDbId(), publishVersionTask.getTransactionId());
+        if (transactionState != null && transactionState.getPublishVersionTasks().values().stream()
+                .allMatch(publishTask -> publishTask != null && publishTask.isFinished())) {
+            Env.getCurrentEnv().getPublishVersionDaemon().notifyTransaction(transactionState);
+        }
     }
 
     private void finishDropReplica(AgentTask task) {
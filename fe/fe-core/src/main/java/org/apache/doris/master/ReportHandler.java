@@ -37,6 +37,7 @@ import org.apache.doris.catalog.Tablet;
 import org.apache.doris.catalog.Tablet.TabletStatus;
 import org.apache.doris.catalog.TabletInvertedIndex;
 import org.apache.doris.catalog.TabletMeta;
+import org.apache.doris.clone.TabletChecker;
 import org.apache.doris.clone.TabletSchedCtx;
 import org.apache.doris.common.Config;
 import org.apache.doris.common.MetaNotFoundException;
@@ -444,6 +445,12 @@ public class ReportHandler extends Daemon {
                 cooldownConfToPush,
                 cooldownConfToUpdate);
 
+        // the replicas of these tablets are changed by the report
+        TabletChecker tabletChecker = Env.getCurrentEnv().getTabletChecker();
+        tabletChecker.markTabletsDirty(tabletSyncMap.values());
+        tabletChecker.markTabletsDirty(tabletDeleteFromMeta.values());
+        tabletChecker.markTabletsDirty(tabletRecoveryMap.values());
+
         // 2. sync
         if (!tabletSyncMap.isEmpty()) {
             sync(backendTablets, tabletSyncMap, backendId, backendReportVersion);
@@ -72,4 +72,11 @@ public class DorisMetricRegistry {
             metrics = metrics.stream().filter(m -> !(m.getName().equals(name))).collect(Collectors.toList());
         }
     }
+
+    // remove the metric instance, the metrics with the same name but other labels are kept
+    public synchronized void removeMetric(Metric metric) {
+        if (!Env.isCheckpointThread()) {
+            metrics.remove(metric);
+        }
+    }
 }
@@ -32,7 +32,10 @@ import org.apache.doris.load.routineload.RoutineLoadManager;
 import org.apache.doris.metric.Metric.MetricUnit;
 import org.apache.doris.monitor.jvm.JvmService;
 import org.apache.doris.monitor.jvm.JvmStats;
+import org.apache.doris.mysql.MysqlBufferPool;
+import org.apache.doris.nereids.cache.PlanCache;
 import org.apache.doris.persist.EditLog;
+import org.apache.doris.persist.meta.MetaReader;
 import org.apache.doris.qe.QeProcessorImpl;
 import org.apache.doris.service.ExecuteEnv;
 import org.apache.doris.system.Backend;
@@ -78,11 +81,18 @@ public final class MetricRepo {
     public static AutoMappedMetric<LongCounterMetric> BE_COUNTER_QUERY_RPC_ALL;
     public static AutoMappedMetric<LongCounterMetric> BE_COUNTER_QUERY_RPC_FAILED;
     public static AutoMappedMetric<LongCounterMetric> BE_COUNTER_QUERY_RPC_SIZE;
+    public static AutoMappedMetric<GaugeMetricImpl<Long>> WG_GAUGE_QUERY_QUEUE_RUNNING;
+    public static AutoMappedMetric<GaugeMetricImpl<Long>> WG_GAUGE_QUERY_QUEUE_WAITING;
+    public static AutoMappedMetric<Histogram> WG_HISTO_QUERY_QUEUE_WAIT;
+    public static AutoMappedMetric<LongCounterMetric> COUNTER_QUERY_QUEUE_REJECTED;
 
     public static LongCounterMetric COUNTER_CACHE_ADDED_SQL;
     public static LongCounterMetric COUNTER_CACHE_ADDED_PARTITION;
     public static LongCounterMetric COUNTER_CACHE_HIT_SQL;
     public static LongCounterMetric COUNTER_CACHE_HIT_PARTITION;
+    public static LongCounterMetric COUNTER_CACHE_HIT_FE;
+    public static LongCounterMetric COUNTER_PLAN_CACHE_HIT;
+    public static LongCounterMetric COUNTER_PLAN_CACHE_MISS;
 
     public static LongCounterMetric COUNTER_EDIT_LOG_WRITE;
     public static LongCounterMetric COUNTER_EDIT_LOG_READ;
@@ -92,6 +102,8 @@ public final class MetricRepo {
     public static LongCounterMetric COUNTER_EDIT_LOG_CLEAN_SUCCESS;
     public static LongCounterMetric COUNTER_EDIT_LOG_CLEAN_FAILED;
     public static Histogram HISTO_EDIT_LOG_WRITE_LATENCY;
+    public static Histogram HISTO_EDIT_LOG_GROUP_COMMIT_BATCH_SIZE;
+    public static Histogram HISTO_JOURNAL_REPLAY_BATCH_LATENCY;
 
     public static LongCounterMetric COUNTER_IMAGE_WRITE_SUCCESS;
     public static LongCounterMetric COUNTER_IMAGE_WRITE_FAILED;
@@ -112,6 +124,8 @@ public final class MetricRepo {
     public static LongCounterMetric COUNTER_ROUTINE_LOAD_ROWS;
     public static LongCounterMetric COUNTER_ROUTINE_LOAD_RECEIVED_BYTES;
     public static LongCounterMetric COUNTER_ROUTINE_LOAD_ERROR_ROWS;
+    public static AutoMappedMetric<GaugeMetricImpl<Long>> JOB_GAUGE_ROUTINE_LOAD_LAG;
+    public static AutoMappedMetric<LongCounterMetric> JOB_COUNTER_ROUTINE_LOAD_COMMITTED_TXN;
     public static LongCounterMetric COUNTER_HIT_SQL_BLOCK_RULE;
 
     public static AutoMappedMetric<LongCounterMetric> THRIFT_COUNTER_RPC_ALL;
@@ -215,6 +229,56 @@ public final class MetricRepo {
         };
         DORIS_METRIC_REGISTER.addMetrics(connections);
 
+        // buffers of mysql connections
+        for (boolean direct : new boolean[] {false, true}) {
+            MysqlBufferPool pool = direct ? MysqlBufferPool.directPool() : MysqlBufferPool.heapPool();
+            String type = direct ? "direct" : "heap";
+            GaugeMetric<Long> idleBytes = new GaugeMetric<Long>("mysql_buffer_pool_idle_bytes", MetricUnit.BYTES,
+                    "bytes of idle buffers cached by mysql buffer pool") {
+                @Override
+                public Long getValue() {
+                    return pool.getIdleBytes();
+                }
+            };
+            idleBytes.addLabel(new MetricLabel("type", type));
+            DORIS_METRIC_REGISTER.addMetrics(idleBytes);
+            GaugeMetric<Long> borrowNum = new GaugeMetric<Long>("mysql_buffer_pool_borrow", MetricUnit.NOUNIT,
+                    "total number of buffers borrowed from mysql buffer pool") {
+                @Override
+                public Long getValue() {
+                    return pool.getBorrowNum();
+                }
+            };
+            borrowNum.addLabel(new MetricLabel("type", type));
+            DORIS_METRIC_REGISTER.addMetrics(borrowNum);
+            GaugeMetric<Long> allocateNum = new GaugeMetric<Long>("mysql_buffer_pool_allocate", MetricUnit.NOUNIT,
+                    "total number of buffers allocated by mysql buffer pool because no idle buffer is cached") {
+                @Override
+                public Long getValue() {
+                    return pool.getAllocateNum();
+                }
+            };
+            allocateNum.addLabel(new MetricLabel("type", type));
+            DORIS_METRIC_REGISTER.addMetrics(allocateNum);
+            GaugeMetric<Long> inUseBytes = new GaugeMetric<Long>("mysql_buffer_pool_in_use_bytes", MetricUnit.BYTES,
+                    "bytes of buffers borrowed from mysql buffer pool and not released") {
+                @Override
+                public Long getValue() {
+                    return pool.getInUseBytes();
+                }
+            };
+            inUseBytes.addLabel(new MetricLabel("type", type));
+            DORIS_METRIC_REGISTER.addMetrics(inUseBytes);
+        }
+        GaugeMetric<Long> fallbackNum = new GaugeMetric<Long>("mysql_buffer_pool_direct_fallback", MetricUnit.NOUNIT,
+                "total number of heap buffers borrowed instead of direct buffers since the direct limit is reached") {
+            @Override
+            public Long getValue() {
+                return MysqlBufferPool.directPool().getFallbackNum();
+            }
+        };
+        DORIS_METRIC_REGISTER.addMetrics(fallbackNum);
+
         // journal id
         GaugeMetric<Long> maxJournalId = new GaugeMetric<Long>("max_journal_id", MetricUnit.NOUNIT,
                 "max journal id of this frontends") {
@@ -229,6 +293,34 @@ public final class MetricRepo {
         };
         DORIS_METRIC_REGISTER.addMetrics(maxJournalId);
 
+        // journal replay lag
+        GaugeMetric<Long> journalReplayLag = new GaugeMetric<Long>("journal_replay_lag", MetricUnit.NOUNIT,
+                "number of journals which are written to local bdbje but not replayed yet") {
+            @Override
+            public Long getValue() {
+                Env env = Env.getCurrentEnv();
+                EditLog editLog = env.getEditLog();
+                if (editLog == null || env.isMaster()) {
+                    return 0L;
+                }
+                return Math.max(editLog.getMaxJournalId() - env.getReplayedJournalId(), 0L);
+            }
+        };
+        DORIS_METRIC_REGISTER.addMetrics(journalReplayLag);
+
+        // image module load time
+        for (String moduleName : MetaReader.getModuleLoadTimeMs().keySet()) {
+            GaugeMetric<Long> moduleLoadTime = new GaugeMetric<Long>("image_module_load_time_ms",
+                    MetricUnit.MILLISECONDS, "load time of image module when loading the last image") {
+                @Override
+                public Long getValue() {
+                    return MetaReader.getModuleLoadTimeMs().getOrDefault(moduleName, 0L);
+                }
+            };
+            moduleLoadTime.addLabel(new MetricLabel("module", moduleName));
+            DORIS_METRIC_REGISTER.addMetrics(moduleLoadTime);
+        }
+
         // scheduled tablet num
         GaugeMetric<Long> scheduledTabletNum = new GaugeMetric<Long>("scheduled_tablet_num", MetricUnit.NOUNIT,
                 "number of tablets being scheduled") {
@@ -319,6 +411,21 @@ public final class MetricRepo {
         BE_COUNTER_QUERY_RPC_SIZE = addLabeledMetrics("be", () ->
             new LongCounterMetric("query_rpc_size", MetricUnit.BYTES, ""));
 
+        // query queue of workload group
+        WG_GAUGE_QUERY_QUEUE_RUNNING = addLabeledMetrics("workload_group", () ->
+                new GaugeMetricImpl<>("query_queue_running_num", MetricUnit.NOUNIT,
+                "number of running queries admitted by the query queue"));
+        WG_GAUGE_QUERY_QUEUE_WAITING = addLabeledMetrics("workload_group", () ->
+                new GaugeMetricImpl<>("query_queue_waiting_num", MetricUnit.NOUNIT,
+                "number of queries waiting in the query queue"));
+        WG_HISTO_QUERY_QUEUE_WAIT = new AutoMappedMetric<>(name -> {
+            String metricName = MetricRegistry.name("query_queue", "wait", "ms", "workload_group=" + name);
+            return METRIC_REGISTER.histogram(metricName);
+        });
+        COUNTER_QUERY_QUEUE_REJECTED = addLabeledMetrics("reason", () ->
+                new LongCounterMetric("query_queue_rejected", MetricUnit.REQUESTS,
+                "number of queries rejected by the query queue"));
+
         // cache
         COUNTER_CACHE_ADDED_SQL = new LongCounterMetric("cache_added", MetricUnit.REQUESTS,
                 "Number of SQL mode cache added");
@@ -336,6 +443,23 @@ public final class MetricRepo {
                 "total hits query by partition model");
         COUNTER_CACHE_HIT_PARTITION.addLabel(new MetricLabel("type", "partition"));
         DORIS_METRIC_REGISTER.addMetrics(COUNTER_CACHE_HIT_PARTITION);
+        COUNTER_CACHE_HIT_FE = new LongCounterMetric("cache_fe_hit", MetricUnit.REQUESTS,
+                "total hits query by the cache in fe memory");
+        DORIS_METRIC_REGISTER.addMetrics(COUNTER_CACHE_HIT_FE);
+        COUNTER_PLAN_CACHE_HIT = new LongCounterMetric("plan_cache_hit", MetricUnit.REQUESTS,
+                "total hits of nereids plan cache");
+        DORIS_METRIC_REGISTER.addMetrics(COUNTER_PLAN_CACHE_HIT);
+        COUNTER_PLAN_CACHE_MISS = new LongCounterMetric("plan_cache_miss", MetricUnit.REQUESTS,
+                "total misses of nereids plan cache");
+        DORIS_METRIC_REGISTER.addMetrics(COUNTER_PLAN_CACHE_MISS);
+        GaugeMetric<Long> planCacheSize = new GaugeMetric<Long>("plan_cache_size", MetricUnit.NOUNIT,
+                "number of plans in nereids plan cache") {
+            @Override
+            public Long getValue() {
+                return PlanCache.getInstance().size();
+            }
+        };
+        DORIS_METRIC_REGISTER.addMetrics(planCacheSize);
 
         // edit log
         COUNTER_EDIT_LOG_WRITE = new LongCounterMetric("edit_log", MetricUnit.OPERATIONS,
@@ -360,6 +484,10 @@ public final class MetricRepo {
         DORIS_METRIC_REGISTER.addMetrics(COUNTER_CURRENT_EDIT_LOG_SIZE_BYTES);
         HISTO_EDIT_LOG_WRITE_LATENCY = METRIC_REGISTER.histogram(
             MetricRegistry.name("editlog", "write", "latency", "ms"));
+        HISTO_EDIT_LOG_GROUP_COMMIT_BATCH_SIZE = METRIC_REGISTER.histogram(
+            MetricRegistry.name("editlog", "group_commit", "batch", "size"));
+        HISTO_JOURNAL_REPLAY_BATCH_LATENCY = METRIC_REGISTER.histogram(
+            MetricRegistry.name("journal", "replay", "latency", "ms"));
 
         // edit log clean
         COUNTER_EDIT_LOG_CLEAN_SUCCESS = new LongCounterMetric("edit_log_clean", MetricUnit.OPERATIONS,
@@ -450,6 +578,12 @@ public final class MetricRepo {
         COUNTER_ROUTINE_LOAD_ERROR_ROWS = new LongCounterMetric("routine_load_error_rows", MetricUnit.ROWS,
                 "total error rows of routine load");
         DORIS_METRIC_REGISTER.addMetrics(COUNTER_ROUTINE_LOAD_ERROR_ROWS);
+        JOB_GAUGE_ROUTINE_LOAD_LAG = addLabeledMetrics("job_id", () ->
+                new GaugeMetricImpl<>("routine_load_job_lag", MetricUnit.ROWS,
+                "total offset lag of the partitions consumed by routine load job"));
+        JOB_COUNTER_ROUTINE_LOAD_COMMITTED_TXN = addLabeledMetrics("job_id", () ->
+                new LongCounterMetric("routine_load_job_committed_txn", MetricUnit.OPERATIONS,
+                "total committed txns of routine load job"));
 
         COUNTER_HIT_SQL_BLOCK_RULE = new LongCounterMetric("counter_hit_sql_block_rule", MetricUnit.ROWS,
                 "total hit sql block rule query");
@@ -665,6 +799,14 @@ public final class MetricRepo {
         });
     }
 
+    // remove the metric of the label value added by addLabeledMetrics(), e.g. when the labeled object is dropped
+    public static <M extends Metric<?>> void removeLabeledMetrics(AutoMappedMetric<M> metrics, String value) {
+        M m = metrics.remove(value);
+        if (m != null) {
+            MetricRepo.DORIS_METRIC_REGISTER.removeMetric(m);
+        }
+    }
+
     // update some metrics to make a ready to be visited
     private static void updateMetrics() {
         SYSTEM_METRICS.update();
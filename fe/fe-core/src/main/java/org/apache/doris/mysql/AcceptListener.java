@@ -81,11 +81,14 @@ public class AcceptListener implements ChannelListener<AcceptingChannel<StreamCo
                             context.getEnv().getAuth().getQueryTimeout(context.getQualifiedUser()));
                     context.setUserInsertTimeout(
                             context.getEnv().getAuth().getInsertTimeout(context.getQualifiedUser()));
+                    // the connection holds no buffer until the first command is received
+                    context.getMysqlChannel().releaseBuffers();
                     ConnectProcessor processor = new ConnectProcessor(context);
                     context.startAcceptQuery(processor);
                 } catch (AfterConnectedException e) {
                     // do not need to print log for this kind of exception.
                     // just clean up the context;
+                    context.getMysqlChannel().releaseBuffers();
                     context.cleanup();
                 } catch (Throwable e) {
                     // should be unexpected exception, so print warn log
@@ -98,6 +101,7 @@ public class AcceptListener implements ChannelListener<AcceptingChannel<StreamCo
                         // may cause exception, just log it in debug level
                         LOG.debug("connect processor exception because ", e);
                     }
+                    context.getMysqlChannel().releaseBuffers();
                     context.cleanup();
                 } finally {
                     ConnectContext.remove();
@@ -0,0 +1,172 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+package org.apache.doris.mysql;
+
+import org.apache.doris.common.Config;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A pool of byte buffers shared by all mysql channels, so that an idle connection does not hold any
+ * large buffer. A channel borrows a buffer only while a packet is being read or written, and releases
+ * it when the command is finished.
+ *
+ * The buffers are grouped by size classes of power of 2, from 16KB to 2MB. A buffer which is larger than
+ * the largest class is allocated directly and not pooled. A buffer which is not released, e.g. the
+ * connection is closed by exception, is simply garbage collected.
+ *
+ * The bytes of the borrowed direct buffers are limited by mysql_buffer_pool_max_direct_bytes, since direct
+ * memory is not bounded by the heap, a heap buffer is borrowed instead if the limit is reached.
+ *
+ * The pools are only used if enable_mysql_buffer_pool is set, otherwise each channel allocates its own buffers.
+ */
+public class MysqlBufferPool {
+    private static final int MIN_SIZE_SHIFT = 14;
+    private static final int MAX_SIZE_SHIFT = 21;
+
+    public static final int MIN_BUFFER_SIZE = 1 << MIN_SIZE_SHIFT;
+    public static final int MAX_BUFFER_SIZE = 1 << MAX_SIZE_SHIFT;
+
+    // used to read packets, whose backing array is accessed by the protocol parser
+    private static final MysqlBufferPool HEAP_POOL = new MysqlBufferPool(false);
+    // used to send packets, which could be written to the socket without another copy
+    private static final MysqlBufferPool DIRECT_POOL = new MysqlBufferPool(true);
+
+    private final boolean direct;
+    private final ConcurrentLinkedQueue<ByteBuffer>[] freeBuffers;
+    private final AtomicLong idleBytes = new AtomicLong();
+    private final AtomicLong inUseBytes = new AtomicLong();
+    private final AtomicLong borrowNum = new AtomicLong();
+    private final AtomicLong allocateNum = new AtomicLong();
+    private final AtomicLong fallbackNum = new AtomicLong();
+
+    @SuppressWarnings("unchecked")
+    MysqlBufferPool(boolean direct) {
+        this.direct = direct;
+        this.freeBuffers = new ConcurrentLinkedQueue[MAX_SIZE_SHIFT - MIN_SIZE_SHIFT + 1];
+        for (int i = 0; i < freeBuffers.length; i++) {
+            freeBuffers[i] = new ConcurrentLinkedQueue<>();
+        }
+    }
+
+    public static MysqlBufferPool heapPool() {
+        return HEAP_POOL;
+    }
+
+    public static MysqlBufferPool directPool() {
+        return DIRECT_POOL;
+    }
+
+    // return the index of the smallest size class which could hold size bytes, -1 if size is too large.
+    private static int sizeClass(int size) {
+        if (size > MAX_BUFFER_SIZE) {
+            return -1;
+        }
+        if (size <= MIN_BUFFER_SIZE) {
+            return 0;
+        }
+        return 32 - Integer.numberOfLeadingZeros(size - 1) - MIN_SIZE_SHIFT;
+    }
+
+    /**
+     * The capacity of the buffer borrowed for size bytes, which is rounded up to the size class.
+     */
+    public static int capacityOf(int size) {
+        int sizeClass = sizeClass(size);
+        return sizeClass < 0 ? size : 1 << (sizeClass + MIN_SIZE_SHIFT);
+    }
+
+    /**
+     * Borrow a cleared buffer whose capacity is at least size. The direct pool returns a heap buffer
+     * if the borrowed direct buffers would exceed mysql_buffer_pool_max_direct_bytes.
+     */
+    public ByteBuffer borrow(int size) {
+        int capacity = capacityOf(size);
+        if (direct && inUseBytes.addAndGet(capacity) > Config.mysql_buffer_pool_max_direct_bytes) {
+            inUseBytes.addAndGet(-capacity);
+            fallbackNum.incrementAndGet();
+            return HEAP_POOL.borrow(size);
+        }
+        if (!direct) {
+            inUseBytes.addAndGet(capacity);
+        }
+        borrowNum.incrementAndGet();
+        int sizeClass = sizeClass(size);
+        if (sizeClass >= 0) {
+            ByteBuffer buffer = freeBuffers[sizeClass].poll();
+            if (buffer != null) {
+                idleBytes.addAndGet(-buffer.capacity());
+                buffer.clear();
+                return buffer;
+            }
+        }
+        allocateNum.incrementAndGet();
+        return direct ? ByteBuffer.allocateDirect(capacity) : ByteBuffer.allocate(capacity);
+    }
+
+    /**
+     * Return a buffer borrowed from this pool. The buffer must not be used by the caller any more.
+     * It is dropped if the pool is full, or it is not allocated by this pool. A heap buffer borrowed
+     * from the direct pool is returned to the heap pool.
+     */
+    public void release(ByteBuffer buffer) {
+        if (buffer == null) {
+            return;
+        }
+        if (buffer.isDirect() != direct) {
+            if (direct) {
+                HEAP_POOL.release(buffer);
+            }
+            return;
+        }
+        int capacity = buffer.capacity();
+        inUseBytes.addAndGet(-capacity);
+        int sizeClass = sizeClass(capacity);
+        if (sizeClass < 0 || capacity != 1 << (sizeClass + MIN_SIZE_SHIFT)) {
+            return;
+        }
+        if (idleBytes.addAndGet(capacity) > Config.mysql_buffer_pool_max_idle_bytes) {
+            idleBytes.addAndGet(-capacity);
+            return;
+        }
+        buffer.clear();
+        freeBuffers[sizeClass].offer(buffer);
+    }
+
+    public long getIdleBytes() {
+        return idleBytes.get();
+    }
+
+    public long getInUseBytes() {
+        return inUseBytes.get();
+    }
+
+    public long getFallbackNum() {
+        return fallbackNum.get();
+    }
+
+    public long getBorrowNum() {
+        return borrowNum.get();
+    }
+
+    public long getAllocateNum() {
+        return allocateNum.get();
+    }
+}
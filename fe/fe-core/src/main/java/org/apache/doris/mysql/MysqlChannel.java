@@ -17,6 +17,7 @@
 
 package org.apache.doris.mysql;
 
+import org.apache.doris.common.Config;
 import org.apache.doris.qe.ConnectContext;
 import org.apache.doris.qe.ConnectProcessor;
 
@@ -49,12 +50,21 @@ public class MysqlChannel {
     protected static final int PACKET_HEADER_LEN = 4;
     // SSL packet header length
     protected static final int SSL_PACKET_HEADER_LEN = 5;
+    // size of the buffer borrowed to read a packet
+    private static final int READ_BUFFER_SIZE = 16 * 1024;
+    // max size of the buffer borrowed to send packets
+    private static final int SEND_BUFFER_SIZE = MysqlBufferPool.MAX_BUFFER_SIZE;
+    // a packet larger than this is written to the socket together with the send buffer, without being copied
+    private static final int GATHERING_WRITE_THRESHOLD = 64 * 1024;
     // next sequence id to receive or send
     protected int sequenceId;
     // channel connected with client
     private StreamConnection conn;
     // used to receive/send header, avoiding new this many time.
     protected ByteBuffer headerByteBuffer;
+    // the buffers to read and send packets are borrowed from MysqlBufferPool when needed,
+    // and null when the channel is idle. Otherwise they are allocated when the channel is created.
+    private final boolean useBufferPool;
     protected ByteBuffer defaultBuffer;
     protected ByteBuffer sslHeaderByteBuffer;
     protected ByteBuffer tempBuffer;
@@ -80,6 +90,7 @@ public class MysqlChannel {
 
     protected MysqlChannel() {
         // For DummyMysqlChannel
+        this.useBufferPool = false;
     }
 
     public void setClientDeprecatedEOF() {
@@ -108,9 +119,12 @@ public class MysqlChannel {
         }
         // The serializer and buffers should only be created if this is a real MysqlChannel
         this.serializer = MysqlSerializer.newInstance();
-        this.defaultBuffer = ByteBuffer.allocate(16 * 1024);
         this.headerByteBuffer = ByteBuffer.allocate(PACKET_HEADER_LEN);
-        this.sendBuffer = ByteBuffer.allocate(2 * 1024 * 1024);
+        this.useBufferPool = Config.enable_mysql_buffer_pool;
+        if (!useBufferPool) {
+            this.defaultBuffer = ByteBuffer.allocate(READ_BUFFER_SIZE);
+            this.sendBuffer = ByteBuffer.allocate(SEND_BUFFER_SIZE);
+        }
     }
 
     public void initSslBuffer() {
@@ -236,6 +250,9 @@ public class MysqlChannel {
     // if in handshaking mode we return a packet with header otherwise without header.
     public ByteBuffer fetchOnePacket() throws IOException {
         int readLen;
+        if (defaultBuffer == null) {
+            defaultBuffer = MysqlBufferPool.heapPool().borrow(READ_BUFFER_SIZE);
+        }
         ByteBuffer result = defaultBuffer;
         result.clear();
 
@@ -387,24 +404,77 @@ public class MysqlChannel {
         return encryptNetData;
     }
 
+    // Send all the buffered data and return the send buffer to the pool
     public void flush() throws IOException {
-        if (null == sendBuffer || sendBuffer.position() == 0) {
+        if (null == sendBuffer) {
             // Nothing to send
             return;
         }
+        if (!useBufferPool) {
+            sendBuffered();
+            return;
+        }
+        try {
+            sendBuffered();
+        } finally {
+            MysqlBufferPool.directPool().release(sendBuffer);
+            sendBuffer = null;
+        }
+    }
+
+    private void sendBuffered() throws IOException {
+        if (sendBuffer.position() == 0) {
+            return;
+        }
         sendBuffer.flip();
         realNetSend(sendBuffer);
         sendBuffer.clear();
         isSend = true;
     }
 
+    // Send the buffered data and the packet by one gathering write, the packet is not copied to the send buffer.
+    // Only used in non ssl mode, since the data is encrypted by buffer in ssl mode.
+    private void gatheringSend(ByteBuffer packet) throws IOException {
+        sendBuffer.flip();
+        ByteBuffer[] buffers = new ByteBuffer[] {sendBuffer, packet};
+        long bufLen = sendBuffer.remaining() + packet.remaining();
+        long writeLen = Channels.writeBlocking(conn.getSinkChannel(), buffers, 0, buffers.length);
+        if (bufLen != writeLen) {
+            throw new IOException("Write mysql packet failed.[write=" + writeLen
+                    + ", needToWrite=" + bufLen + "]");
+        }
+        Channels.flushBlocking(conn.getSinkChannel());
+        sendBuffer.clear();
+        isSend = true;
+    }
+
+    // Borrow the smallest send buffer which fits the first packet, most commands only send a few small packets.
+    private void borrowSendBuffer(int size) {
+        sendBuffer = MysqlBufferPool.directPool().borrow(Math.min(size, SEND_BUFFER_SIZE));
+    }
+
+    // Called when the send buffer is full and the buffered data has been sent, the command sends many packets,
+    // e.g. a result set, so borrow a buffer of the next size class to send them by fewer writes.
+    private void growSendBuffer(int size) {
+        int capacity = sendBuffer.capacity();
+        if (capacity >= SEND_BUFFER_SIZE) {
+            return;
+        }
+        MysqlBufferPool.directPool().release(sendBuffer);
+        sendBuffer = null;
+        borrowSendBuffer(Math.max(capacity * 2, size));
+    }
+
     private void writeHeader(int length, boolean isSsl) throws IOException {
         if (null == sendBuffer) {
-            return;
+            // the body of a large packet is not copied to the send buffer in non ssl mode, see writeBuffer
+            borrowSendBuffer(isSsl || length < GATHERING_WRITE_THRESHOLD ? PACKET_HEADER_LEN + length
+                    : PACKET_HEADER_LEN);
         }
         long leftLength = sendBuffer.capacity() - sendBuffer.position();
         if (leftLength < 4) {
-            flush();
+            sendBuffered();
+            growSendBuffer(PACKET_HEADER_LEN + length);
         }
 
         long newLen = length;
@@ -417,13 +487,24 @@ public class MysqlChannel {
 
     private void writeBuffer(ByteBuffer buffer, boolean isSsl) throws IOException {
         if (null == sendBuffer) {
-            return;
+            borrowSendBuffer(buffer.remaining());
         }
         long leftLength = sendBuffer.capacity() - sendBuffer.position();
+        int packetLen = buffer.remaining();
+        // A large packet, e.g. a wide row of the result set, is sent together with the buffered data.
+        if (!isSsl && !isSslHandshaking
+                && (leftLength < packetLen || packetLen >= GATHERING_WRITE_THRESHOLD)) {
+            gatheringSend(buffer);
+            if (leftLength < packetLen) {
+                growSendBuffer(0);
+            }
+            return;
+        }
         // If too long for buffer, send buffered data.
         if (leftLength < buffer.remaining()) {
             // Flush data in buffer.
-            flush();
+            sendBuffered();
+            growSendBuffer(buffer.remaining());
         }
         // Send this buffer if large enough
         if (buffer.remaining() > sendBuffer.capacity()) {
@@ -474,6 +555,24 @@ public class MysqlChannel {
         }
     }
 
+    /**
+     * Return the buffers to the pool after a command is finished, the packet returned by fetchOnePacket()
+     * must not be used any more.
+     */
+    public void releaseBuffers() {
+        if (!useBufferPool) {
+            return;
+        }
+        if (defaultBuffer != null) {
+            MysqlBufferPool.heapPool().release(defaultBuffer);
+            defaultBuffer = null;
+        }
+        if (sendBuffer != null) {
+            MysqlBufferPool.directPool().release(sendBuffer);
+            sendBuffer = null;
+        }
+    }
+
     public boolean isSend() {
         return isSend;
     }
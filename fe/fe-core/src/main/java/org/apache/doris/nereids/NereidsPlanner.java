@@ -25,6 +25,8 @@ import org.apache.doris.common.NereidsException;
 import org.apache.doris.common.Pair;
 import org.apache.doris.common.util.DebugUtil;
 import org.apache.doris.nereids.CascadesContext.Lock;
+import org.apache.doris.nereids.cache.PlanCache;
+import org.apache.doris.nereids.cache.PlanCache.PlanCacheKey;
 import org.apache.doris.nereids.exceptions.AnalysisException;
 import org.apache.doris.nereids.glue.LogicalPlanAdapter;
 import org.apache.doris.nereids.glue.translator.PhysicalPlanTranslator;
@@ -44,6 +46,7 @@ import org.apache.doris.nereids.trees.expressions.NamedExpression;
 import org.apache.doris.nereids.trees.plans.AbstractPlan;
 import org.apache.doris.nereids.trees.plans.Plan;
 import org.apache.doris.nereids.trees.plans.commands.ExplainCommand.ExplainLevel;
+import org.apache.doris.nereids.trees.plans.logical.LogicalOlapTableSink;
 import org.apache.doris.nereids.trees.plans.logical.LogicalPlan;
 import org.apache.doris.nereids.trees.plans.physical.PhysicalPlan;
 import org.apache.doris.planner.PlanFragment;
@@ -90,6 +93,9 @@ public class NereidsPlanner extends Planner {
     private PhysicalPlan physicalPlan;
     // The cost of optimized plan
     private double cost = 0;
+    // whether the analyzed plan has nondeterministic or session dependent expressions,
+    // they may be folded to literals by the rewrite, so it is checked before the rewrite
+    private boolean hasUncacheableExpression = false;
 
     public NereidsPlanner(StatementContext statementContext) {
         this.statementContext = statementContext;
@@ -177,6 +183,21 @@ public class NereidsPlanner extends Planner {
         initCascadesContext(plan, requireProperties);
 
         try (Lock lock = new Lock(plan, cascadesContext)) {
+            PlanCacheKey planCacheKey = null;
+            if (explainLevel == ExplainLevel.NONE && !(plan instanceof LogicalOlapTableSink)) {
+                planCacheKey = PlanCache.getInstance().buildKey(statementContext);
+            }
+            if (planCacheKey != null) {
+                Optional<PhysicalPlan> cachedPlan = PlanCache.getInstance().get(planCacheKey, statementContext);
+                if (cachedPlan.isPresent()) {
+                    if (statementContext.getConnectContext().getExecutor() != null) {
+                        statementContext.getConnectContext().getExecutor().getSummaryProfile()
+                                .setQueryAnalysisFinishTime();
+                    }
+                    return postProcess(cachedPlan.get());
+                }
+            }
+
             // resolve column, table and function
 
             Span queryAnalysisSpan =
@@ -208,6 +229,11 @@ public class NereidsPlanner extends Planner {
                 statementContext.getConnectContext().getExecutor().getSummaryProfile().setQueryAnalysisFinishTime();
             }
 
+            hasUncacheableExpression = PlanCache.hasUncacheableExpression(cascadesContext.getRewritePlan());
+            if (hasUncacheableExpression) {
+                planCacheKey = null;
+            }
+
             if (explainLevel == ExplainLevel.ANALYZED_PLAN || explainLevel == ExplainLevel.ALL_PLAN) {
                 analyzedPlan = cascadesContext.getRewritePlan();
                 if (explainLevel == ExplainLevel.ANALYZED_PLAN) {
@@ -239,6 +265,9 @@ public class NereidsPlanner extends Planner {
 
             int nth = cascadesContext.getConnectContext().getSessionVariable().getNthOptimizedPlan();
             PhysicalPlan physicalPlan = chooseNthPlan(getRoot(), requireProperties, nth);
+            if (planCacheKey != null) {
+                PlanCache.getInstance().put(planCacheKey, physicalPlan, cascadesContext.getTables(), statementContext);
+            }
 
             physicalPlan = postProcess(physicalPlan);
             if (cascadesContext.getConnectContext().getSessionVariable().dumpNereidsMemo) {
@@ -492,4 +521,8 @@ public class NereidsPlanner extends Planner {
     public PhysicalPlan getPhysicalPlan() {
         return physicalPlan;
     }
+
+    public boolean hasUncacheableExpression() {
+        return hasUncacheableExpression;
+    }
 }
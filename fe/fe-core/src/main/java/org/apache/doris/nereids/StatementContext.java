@@ -129,6 +129,18 @@ public class StatementContext {
         return objectIdGenerator.getNextId();
     }
 
+    public IdGenerator<ExprId> getExprIdGenerator() {
+        return exprIdGenerator;
+    }
+
+    public IdGenerator<ObjectId> getObjectIdGenerator() {
+        return objectIdGenerator;
+    }
+
+    public IdGenerator<CTEId> getCteIdGenerator() {
+        return cteIdGenerator;
+    }
+
     public void setParsedStatement(StatementBase parsedStatement) {
         this.parsedStatement = parsedStatement;
     }
@@ -0,0 +1,487 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+
+package org.apache.doris.nereids.cache;
+
+import org.apache.doris.analysis.UserIdentity;
+import org.apache.doris.catalog.DatabaseIf;
+import org.apache.doris.catalog.MaterializedIndexMeta;
+import org.apache.doris.catalog.OlapTable;
+import org.apache.doris.catalog.TableIf;
+import org.apache.doris.catalog.View;
+import org.apache.doris.common.Config;
+import org.apache.doris.common.UserException;
+import org.apache.doris.common.util.TimeUtils;
+import org.apache.doris.metric.MetricRepo;
+import org.apache.doris.mysql.privilege.PrivPredicate;
+import org.apache.doris.nereids.StatementContext;
+import org.apache.doris.nereids.trees.expressions.Expression;
+import org.apache.doris.nereids.trees.expressions.Slot;
+import org.apache.doris.nereids.trees.expressions.SubqueryExpr;
+import org.apache.doris.nereids.trees.expressions.functions.Nondeterministic;
+import org.apache.doris.nereids.trees.expressions.functions.scalar.ConnectionId;
+import org.apache.doris.nereids.trees.expressions.functions.scalar.CurrentCatalog;
+import org.apache.doris.nereids.trees.expressions.functions.scalar.CurrentUser;
+import org.apache.doris.nereids.trees.expressions.functions.scalar.Database;
+import org.apache.doris.nereids.trees.expressions.functions.scalar.Random;
+import org.apache.doris.nereids.trees.expressions.functions.scalar.User;
+import org.apache.doris.nereids.trees.plans.AbstractPlan;
+import org.apache.doris.nereids.trees.plans.Plan;
+import org.apache.doris.nereids.trees.plans.physical.PhysicalCTEConsumer;
+import org.apache.doris.nereids.trees.plans.physical.PhysicalEmptyRelation;
+import org.apache.doris.nereids.trees.plans.physical.PhysicalOlapScan;
+import org.apache.doris.nereids.trees.plans.physical.PhysicalOneRowRelation;
+import org.apache.doris.nereids.trees.plans.physical.PhysicalPlan;
+import org.apache.doris.policy.PolicyMgr;
+import org.apache.doris.policy.RowPolicy;
+import org.apache.doris.qe.ConnectContext;
+import org.apache.doris.qe.OriginStatement;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache of the physical plans of the queries planned by nereids.
+ *
+ * A plan is cached with the statement, user, current catalog and database and session variables as the key,
+ * and is reused by a later query with the same key, which skips analyzing, rewriting and optimizing.
+ * A cached plan is only reused if all the tables it reads are still the same objects in catalog,
+ * and their indexes, partitions, partition versions and statistics are not changed since the plan was cached.
+ * Plans depending on the query time or session, such as the ones calling now() or current_user(), are not cached.
+ * The row policies applied to the tables are part of the plan, so the policies matching the user are recorded
+ * with the plan, and the plan is not reused once they are changed. The table and column privileges of the user
+ * are checked again every time the plan is reused.
+ *
+ * The statement is keyed by its original text, which is not normalized. Queries differing only in whitespace,
+ * letter case of keywords or comments are cached as different entries.
+ *
+ * The cached plans are the ones before post processing, because post processors such as runtime filter
+ * generation modify the plan nodes in place. So a copy of the cached plan is returned to every query.
+ */
+public class PlanCache {
+    private static final Logger LOG = LogManager.getLogger(PlanCache.class);
+
+    public static final ImmutableList<String> TITLE_NAMES = new ImmutableList.Builder<String>()
+            .add("Sql").add("User").add("Catalog").add("Database").add("HitCount")
+            .add("CreateTime").add("LastHitTime")
+            .build();
+
+    // functions whose result depends on the session, they are not Nondeterministic but may be folded
+    private static final Set<Class<? extends Expression>> SESSION_DEPENDENT_FUNCTIONS = ImmutableSet.of(
+            ConnectionId.class, CurrentCatalog.class, CurrentUser.class, Database.class, Random.class, User.class);
+
+    private static final PlanCache INSTANCE = new PlanCache();
+
+    private final Cache<PlanCacheKey, PlanCacheEntry> cache = Caffeine.newBuilder()
+            .maximumSize(Config.nereids_plan_cache_max_num)
+            .expireAfterWrite(Duration.ofSeconds(Config.nereids_plan_cache_expire_seconds))
+            .build();
+
+    // table id -> version of the statistics of the table, increased when the statistics are changed
+    private final Map<Long, Long> statisticsVersions = new ConcurrentHashMap<>();
+
+    private PlanCache() {
+    }
+
+    public static PlanCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Build the cache key of the statement, return null if the statement should not use plan cache.
+     */
+    public PlanCacheKey buildKey(StatementContext statementContext) {
+        if (!Config.enable_nereids_plan_cache) {
+            return null;
+        }
+        ConnectContext ctx = statementContext.getConnectContext();
+        OriginStatement originStatement = statementContext.getOriginStatement();
+        if (ctx == null || originStatement == null || ctx.getCurrentUserIdentity() == null
+                || ctx.getCurrentCatalog() == null) {
+            return null;
+        }
+        if (ctx.getSessionVariable().isPlayNereidsDump() || ctx.getSessionVariable().isEnableMinidump()
+                || ctx.getSessionVariable().isEnableNereidsTrace() || ctx.getSessionVariable().dumpNereidsMemo
+                || ctx.getSessionVariable().getNthOptimizedPlan() > 1) {
+            return null;
+        }
+        String sessionVariables;
+        try {
+            sessionVariables = ctx.getSessionVariable().toJson().toString();
+        } catch (IOException e) {
+            LOG.warn("failed to serialize session variables for plan cache", e);
+            return null;
+        }
+        return new PlanCacheKey(originStatement.originStmt, originStatement.idx, ctx.getCurrentUserIdentity(),
+                ctx.getCurrentCatalog().getName(), ctx.getDatabase(), sessionVariables);
+    }
+
+    /**
+     * Get a copy of the cached plan of the key, and reserve the ids used by the plan in the statement context.
+     * Return empty if there is no plan cached or the cached plan is out of date.
+     */
+    public Optional<PhysicalPlan> get(PlanCacheKey key, StatementContext statementContext) {
+        PlanCacheEntry entry = cache.getIfPresent(key);
+        if (entry == null) {
+            increaseMissCounter();
+            return Optional.empty();
+        }
+        if (!entry.isValid()) {
+            cache.asMap().remove(key, entry);
+            increaseMissCounter();
+            return Optional.empty();
+        }
+        // the privileges may be revoked and the row policies may be changed after the plan is cached
+        if (!entry.checkPrivilege(statementContext.getConnectContext())
+                || !entry.checkRowPolicy(statementContext.getConnectContext())) {
+            increaseMissCounter();
+            return Optional.empty();
+        }
+        statementContext.getExprIdGenerator().skipTo(entry.nextExprId);
+        statementContext.getObjectIdGenerator().skipTo(entry.nextObjectId);
+        statementContext.getCteIdGenerator().skipTo(entry.nextCteId);
+        entry.hitCount.incrementAndGet();
+        entry.lastHitTime = System.currentTimeMillis();
+        if (MetricRepo.isInit) {
+            MetricRepo.COUNTER_PLAN_CACHE_HIT.increase(1L);
+        }
+        return Optional.of((PhysicalPlan) copyPlan(entry.plan));
+    }
+
+    /**
+     * Cache the plan of the key if it can be cached.
+     *
+     * @param plan the physical plan before post processing
+     * @param tables the tables locked when planning, including the views
+     */
+    public void put(PlanCacheKey key, PhysicalPlan plan, List<? extends TableIf> tables,
+            StatementContext statementContext) {
+        // use identity map since tables do not override equals
+        // table -> the columns read from it
+        Map<TableIf, Set<String>> allTables = new IdentityHashMap<>();
+        if (tables != null) {
+            tables.forEach(t -> allTables.put(t, Sets.newHashSet()));
+        }
+        boolean[] cacheable = {true};
+        plan.foreach(node -> {
+            if (node instanceof PhysicalOlapScan) {
+                Set<String> columns = allTables.computeIfAbsent(((PhysicalOlapScan) node).getTable(),
+                        t -> Sets.newHashSet());
+                for (Slot slot : ((PhysicalOlapScan) node).getOutput()) {
+                    columns.add(slot.getName());
+                }
+            } else if (((Plan) node).arity() == 0 && !(node instanceof PhysicalOneRowRelation)
+                    && !(node instanceof PhysicalEmptyRelation) && !(node instanceof PhysicalCTEConsumer)) {
+                // external tables and system tables may change without any change in catalog
+                cacheable[0] = false;
+            }
+        });
+        if (!cacheable[0]) {
+            return;
+        }
+        List<TableIf> tableList = new ArrayList<>(allTables.keySet());
+        List<Set<String>> columns = Lists.newArrayListWithCapacity(tableList.size());
+        List<Object> signatures = Lists.newArrayListWithCapacity(tableList.size());
+        List<Set<String>> rowPolicies = Lists.newArrayListWithCapacity(tableList.size());
+        for (TableIf table : tableList) {
+            Object signature = getSignature(table);
+            if (signature == null) {
+                return;
+            }
+            columns.add(allTables.get(table));
+            signatures.add(signature);
+            rowPolicies.add(getRowPolicies(statementContext.getConnectContext(), table));
+        }
+        cache.put(key, new PlanCacheEntry(key, (PhysicalPlan) copyPlan(plan), tableList, columns, signatures,
+                rowPolicies, statementContext));
+    }
+
+    /**
+     * Called when the statistics of the table are changed, the cached plans reading the table become out of date.
+     */
+    public void invalidateStatistics(long tableId) {
+        statisticsVersions.merge(tableId, 1L, Long::sum);
+    }
+
+    public void clear() {
+        cache.invalidateAll();
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    /**
+     * Get the information of the cached plans, used by SHOW PLAN CACHE.
+     */
+    public List<List<String>> getInfos() {
+        List<List<String>> infos = Lists.newArrayList();
+        for (PlanCacheEntry entry : cache.asMap().values()) {
+            List<String> info = Lists.newArrayList();
+            info.add(entry.key.sql);
+            info.add(entry.key.user.getQualifiedUser());
+            info.add(entry.key.catalog);
+            info.add(Objects.toString(entry.key.database, ""));
+            info.add(String.valueOf(entry.hitCount.get()));
+            info.add(TimeUtils.longToTimeString(entry.createTime));
+            info.add(TimeUtils.longToTimeString(entry.lastHitTime));
+            infos.add(info);
+        }
+        return infos;
+    }
+
+    /**
+     * Return true if the analyzed plan contains any expression whose value depends on the query time or session.
+     * Such expressions may be folded to constants when rewriting, so the plan can not be reused.
+     */
+    public static boolean hasUncacheableExpression(Plan plan) {
+        return plan.anyMatch(node -> ((Plan) node).getExpressions().stream()
+                .anyMatch(PlanCache::isUncacheableExpression));
+    }
+
+    private static boolean isUncacheableExpression(Expression expression) {
+        return expression.anyMatch(expr -> expr instanceof Nondeterministic
+                || SESSION_DEPENDENT_FUNCTIONS.contains(expr.getClass())
+                || (expr instanceof SubqueryExpr && hasUncacheableExpression(((SubqueryExpr) expr).getQueryPlan())));
+    }
+
+    /**
+     * Copy the plan tree, so that the nodes modified in place by post processors are not shared between queries.
+     * The expressions are immutable, so they are shared.
+     */
+    private static Plan copyPlan(Plan plan) {
+        if (plan.arity() == 0) {
+            return ((PhysicalPlan) plan).withPhysicalPropertiesAndStats(
+                    ((PhysicalPlan) plan).getPhysicalProperties(), ((AbstractPlan) plan).getStats());
+        }
+        List<Plan> children = Lists.newArrayListWithCapacity(plan.arity());
+        for (Plan child : plan.children()) {
+            children.add(copyPlan(child));
+        }
+        return plan.withChildren(children);
+    }
+
+    /**
+     * The signature of the table, which is changed when the table is changed in a way that may change the plan.
+     * Return null if the plans reading the table can not be cached.
+     */
+    private Object getSignature(TableIf table) {
+        if (table instanceof View) {
+            return ((View) table).getInlineViewDef();
+        }
+        if (!(table instanceof OlapTable)) {
+            return null;
+        }
+        OlapTable olapTable = (OlapTable) table;
+        List<Long> signature = Lists.newArrayList();
+        signature.add(statisticsVersions.getOrDefault(olapTable.getId(), 0L));
+        olapTable.readLock();
+        try {
+            List<Long> indexIds = new ArrayList<>(olapTable.getIndexIdToMeta().keySet());
+            Collections.sort(indexIds);
+            for (Long indexId : indexIds) {
+                MaterializedIndexMeta indexMeta = olapTable.getIndexMetaByIndexId(indexId);
+                signature.add(indexId);
+                signature.add((long) indexMeta.getSchemaVersion());
+                signature.add((long) indexMeta.getSchemaHash());
+            }
+            // the empty partitions are pruned, so the visible versions are included,
+            // and the plans are not reused once data is loaded into them
+            List<Long> partitionIds = olapTable.getPartitionIds();
+            Collections.sort(partitionIds);
+            for (Long partitionId : partitionIds) {
+                signature.add(partitionId);
+                signature.add(olapTable.getPartition(partitionId).getVisibleVersion());
+            }
+        } finally {
+            olapTable.readUnlock();
+        }
+        return signature;
+    }
+
+    /**
+     * The row policies of the user on the table, which are embedded in the plan as filters.
+     * Same as LogicalCheckPolicy, no policy is applied to root and admin.
+     */
+    private static Set<String> getRowPolicies(ConnectContext ctx, TableIf table) {
+        Set<String> policies = new TreeSet<>();
+        UserIdentity user = ctx.getCurrentUserIdentity();
+        if (!(table instanceof OlapTable) || user.isRootUser() || user.isAdminUser()) {
+            return policies;
+        }
+        PolicyMgr policyMgr = ctx.getEnv().getPolicyMgr();
+        if (!policyMgr.existPolicy(ctx.getQualifiedUser())) {
+            return policies;
+        }
+        DatabaseIf<?> db = table.getDatabase();
+        if (db == null) {
+            return policies;
+        }
+        for (RowPolicy policy : policyMgr.getMatchRowPolicy(db.getId(), table.getId(), user)) {
+            policies.add(policy.getId() + ":" + policy.getOriginStmt());
+        }
+        return policies;
+    }
+
+    private static void increaseMissCounter() {
+        if (MetricRepo.isInit) {
+            MetricRepo.COUNTER_PLAN_CACHE_MISS.increase(1L);
+        }
+    }
+
+    /**
+     * The key of plan cache.
+     */
+    public static class PlanCacheKey {
+        private final String sql;
+        private final int stmtIdx;
+        private final UserIdentity user;
+        private final String catalog;
+        private final String database;
+        private final String sessionVariables;
+
+        private PlanCacheKey(String sql, int stmtIdx, UserIdentity user, String catalog, String database,
+                String sessionVariables) {
+            this.sql = sql;
+            this.stmtIdx = stmtIdx;
+            this.user = user;
+            this.catalog = catalog;
+            this.database = database;
+            this.sessionVariables = sessionVariables;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            PlanCacheKey that = (PlanCacheKey) o;
+            return stmtIdx == that.stmtIdx && sql.equals(that.sql) && user.equals(that.user)
+                    && catalog.equals(that.catalog) && Objects.equals(database, that.database)
+                    && sessionVariables.equals(that.sessionVariables);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(sql, stmtIdx, user, catalog, database, sessionVariables);
+        }
+    }
+
+    private class PlanCacheEntry {
+        private final PlanCacheKey key;
+        private final PhysicalPlan plan;
+        private final List<TableIf> tables;
+        // the columns read from each table
+        private final List<Set<String>> columns;
+        private final List<Object> signatures;
+        // the row policies of each table applied in the plan
+        private final List<Set<String>> rowPolicies;
+        // the ids used by the plan, the statement reusing the plan should generate ids after them
+        private final int nextExprId;
+        private final int nextObjectId;
+        private final int nextCteId;
+        private final long createTime = System.currentTimeMillis();
+        private final AtomicLong hitCount = new AtomicLong(0);
+        private volatile long lastHitTime = -1;
+
+        private PlanCacheEntry(PlanCacheKey key, PhysicalPlan plan, List<TableIf> tables, List<Set<String>> columns,
+                List<Object> signatures, List<Set<String>> rowPolicies, StatementContext statementContext) {
+            this.key = key;
+            this.plan = plan;
+            this.tables = tables;
+            this.columns = columns;
+            this.signatures = signatures;
+            this.rowPolicies = rowPolicies;
+            this.nextExprId = statementContext.getExprIdGenerator().peekNextId();
+            this.nextObjectId = statementContext.getObjectIdGenerator().peekNextId();
+            this.nextCteId = statementContext.getCteIdGenerator().peekNextId();
+        }
+
+        private boolean isValid() {
+            for (int i = 0; i < tables.size(); i++) {
+                TableIf table = tables.get(i);
+                // the table may be dropped, or replaced by another table with the same name
+                DatabaseIf<?> db = table.getDatabase();
+                if (db == null || db.getTableNullable(table.getId()) != table) {
+                    return false;
+                }
+                if (!Objects.equals(signatures.get(i), getSignature(table))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private boolean checkPrivilege(ConnectContext ctx) {
+            for (int i = 0; i < tables.size(); i++) {
+                TableIf table = tables.get(i);
+                DatabaseIf<?> db = table.getDatabase();
+                if (db == null) {
+                    return false;
+                }
+                String ctl = db.getCatalog().getName();
+                if (!ctx.getEnv().getAccessManager().checkTblPriv(ctx, ctl, db.getFullName(), table.getName(),
+                        PrivPredicate.SELECT)) {
+                    return false;
+                }
+                if (columns.get(i).isEmpty()) {
+                    continue;
+                }
+                try {
+                    ctx.getEnv().getAccessManager().checkColumnsPriv(ctx.getCurrentUserIdentity(), ctl,
+                            db.getFullName(), table.getName(), columns.get(i), PrivPredicate.SELECT);
+                } catch (UserException e) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private boolean checkRowPolicy(ConnectContext ctx) {
+            for (int i = 0; i < tables.size(); i++) {
+                if (!rowPolicies.get(i).equals(getRowPolicies(ctx, tables.get(i)))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -301,13 +301,30 @@ public class GroupExpression {
             return false;
         }
         GroupExpression that = (GroupExpression) o;
-        return children.equals(that.children) && plan.equals(that.plan)
-                && plan.getLogicalProperties().equals(that.plan.getLogicalProperties());
+        return matches(that.plan, that.children);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(children, plan);
+        return hashCode(plan, children);
+    }
+
+    /**
+     * The hash code of a group expression which references the plan and the children groups, it is the same as
+     * Objects.hash(children, plan) without allocating the varargs array. It is also used to find a group expression
+     * in memo before creating it.
+     */
+    static int hashCode(Plan plan, List<Group> children) {
+        return 31 * (31 + children.hashCode()) + plan.hashCode();
+    }
+
+    /**
+     * Whether this group expression is equal to a group expression which references the plan and the children
+     * groups, the same as {@link #equals(Object)} without creating the other group expression.
+     */
+    boolean matches(Plan otherPlan, List<Group> otherChildren) {
+        return children.equals(otherChildren) && plan.equals(otherPlan)
+                && plan.getLogicalProperties().equals(otherPlan.getLogicalProperties());
     }
 
     public Statistics childStatistics(int idx) {
@@ -68,7 +68,9 @@ public class Memo {
             EventChannel.getDefaultChannel().addConsumers(new LogConsumer(GroupMergeEvent.class, EventChannel.LOG)));
     private static long stateId = 0;
     private final IdGenerator<GroupId> groupIdGenerator = GroupId.createGenerator();
-    private final Map<GroupId, Group> groups = Maps.newLinkedHashMap();
+    // indexed by the id of group, the slot of a merged or recycled group is null.
+    private final List<Group> groups = Lists.newArrayList();
+    private int groupNum = 0;
     // we could not use Set, because Set does not have get method.
     private final Map<GroupExpression, GroupExpression> groupExpressions = Maps.newHashMap();
     private Group root;
@@ -99,11 +101,40 @@ public class Memo {
     }
 
     public List<Group> getGroups() {
-        return ImmutableList.copyOf(groups.values());
+        ImmutableList.Builder<Group> builder = ImmutableList.builderWithExpectedSize(groupNum);
+        for (Group group : groups) {
+            if (group != null) {
+                builder.add(group);
+            }
+        }
+        return builder.build();
+    }
+
+    public int getGroupsSize() {
+        return groupNum;
     }
 
     public Group getGroup(GroupId groupId) {
-        return groups.get(groupId);
+        int index = groupId.asInt();
+        return index < groups.size() ? groups.get(index) : null;
+    }
+
+    private void addGroup(Group group) {
+        int index = group.getGroupId().asInt();
+        while (groups.size() <= index) {
+            groups.add(null);
+        }
+        if (groups.set(index, group) == null) {
+            groupNum++;
+        }
+    }
+
+    private void removeGroup(Group group) {
+        int index = group.getGroupId().asInt();
+        if (index < groups.size() && groups.get(index) == group) {
+            groups.set(index, null);
+            groupNum--;
+        }
     }
 
     public Map<GroupExpression, GroupExpression> getGroupExpressions() {
@@ -114,11 +145,19 @@ public class Memo {
         return groupExpressions.size();
     }
 
+    /**
+     * Get the group expression in memo which references the plan and the children groups, without creating a
+     * group expression to look up.
+     */
+    private GroupExpression getGroupExpression(Plan plan, List<Group> childrenGroups) {
+        return groupExpressions.get(new GroupExpressionKey(plan, childrenGroups));
+    }
+
     /** just keep LogicalExpression in Memo. */
     public void removePhysicalExpression() {
         groupExpressions.entrySet().removeIf(entry -> entry.getValue().getPlan() instanceof PhysicalPlan);
 
-        for (Group group : groups.values()) {
+        for (Group group : getGroups()) {
             group.clearPhysicalExpressions();
             group.clearLowestCostPlans();
             group.removeParentPhysicalExpressions();
@@ -291,7 +330,7 @@ public class Memo {
         GroupExpression newGroupExpression = new GroupExpression(plan, childrenGroups);
         Group group = new Group(groupIdGenerator.getNextId(), newGroupExpression, plan.getLogicalProperties());
 
-        groups.put(group.getGroupId(), group);
+        addGroup(group);
         if (groupExpressions.containsKey(newGroupExpression)) {
             throw new IllegalStateException("groupExpression already exists in memo, maybe a bug");
         }
@@ -350,17 +389,14 @@ public class Memo {
         List<Group> childrenGroups = rewriteChildrenPlansToGroups(plan, targetGroup);
         plan = replaceChildrenToGroupPlan(plan, childrenGroups);
 
-        // try to create a new group expression
-        GroupExpression newGroupExpression = new GroupExpression(plan, childrenGroups);
-
         // slow check the groupExpression/plan whether exists in the memo
-        GroupExpression existedExpression = groupExpressions.get(newGroupExpression);
+        GroupExpression existedExpression = getGroupExpression(plan, childrenGroups);
         if (existedExpression == null) {
             // case 2 or case 3
-            return rewriteByNewGroupExpression(targetGroup, plan, newGroupExpression);
+            return rewriteByNewGroupExpression(targetGroup, plan, new GroupExpression(plan, childrenGroups));
         } else {
             // case 4 or case 5
-            return rewriteByExistedGroupExpression(targetGroup, plan, existedExpression, newGroupExpression);
+            return rewriteByExistedGroupExpression(targetGroup, plan, childrenGroups, existedExpression);
         }
     }
 
@@ -400,8 +436,7 @@ public class Memo {
             }
         }
         plan = replaceChildrenToGroupPlan(plan, childrenGroups);
-        GroupExpression newGroupExpression = new GroupExpression(plan, childrenGroups);
-        return insertGroupExpression(newGroupExpression, targetGroup, plan.getLogicalProperties());
+        return insertGroupExpression(plan, childrenGroups, targetGroup, plan.getLogicalProperties());
         // TODO: need to derive logical property if generate new group. currently we not copy logical plan into
     }
 
@@ -435,33 +470,34 @@ public class Memo {
     }
 
     /**
-     * Insert groupExpression to target group.
+     * Insert groupExpression of the plan and children groups to target group.
      * If group expression is already in memo and target group is not null, we merge two groups.
      * If target is null, generate new group.
      * If target is not null, add group expression to target group
      *
-     * @param groupExpression groupExpression to insert
+     * @param plan plan of the groupExpression to insert, its children are GroupPlan of childrenGroups
+     * @param childrenGroups children groups of the groupExpression to insert
      * @param target target group to insert groupExpression
      * @return a pair, in which the first element is true if a newly generated groupExpression added into memo,
      *         and the second element is a reference of node in Memo
      */
-    private CopyInResult insertGroupExpression(
-            GroupExpression groupExpression, Group target, LogicalProperties logicalProperties) {
-        GroupExpression existedGroupExpression = groupExpressions.get(groupExpression);
+    private CopyInResult insertGroupExpression(Plan plan, List<Group> childrenGroups,
+            Group target, LogicalProperties logicalProperties) {
+        // The group expression is created only if it does not exist, since a group expression registers itself
+        // to the children groups and copies the plan when it is created.
+        GroupExpression existedGroupExpression = getGroupExpression(plan, childrenGroups);
         if (existedGroupExpression != null) {
             if (target != null && !target.getGroupId().equals(existedGroupExpression.getOwnerGroup().getGroupId())) {
                 mergeGroup(existedGroupExpression.getOwnerGroup(), target);
             }
-            // When we create a GroupExpression, we will add it into ParentExpression of childGroup.
-            // But if it already exists, we should remove it from ParentExpression of childGroup.
-            groupExpression.children().forEach(childGroup -> childGroup.removeParentExpression(groupExpression));
             return CopyInResult.of(false, existedGroupExpression);
         }
+        GroupExpression groupExpression = new GroupExpression(plan, childrenGroups);
         if (target != null) {
             target.addGroupExpression(groupExpression);
         } else {
             Group group = new Group(groupIdGenerator.getNextId(), groupExpression, logicalProperties);
-            groups.put(group.getGroupId(), group);
+            addGroup(group);
         }
         groupExpressions.put(groupExpression, groupExpression);
         return CopyInResult.of(true, groupExpression);
@@ -523,7 +559,7 @@ public class Memo {
             }
         }
         source.mergeTo(destination);
-        groups.remove(source.getGroupId());
+        removeGroup(source);
     }
 
     /**
@@ -550,7 +586,7 @@ public class Memo {
 
     public Group newGroup(LogicalProperties logicalProperties) {
         Group group = new Group(groupIdGenerator.getNextId(), logicalProperties);
-        groups.put(group.getGroupId(), group);
+        addGroup(group);
         return group;
     }
 
@@ -559,7 +595,7 @@ public class Memo {
     public Group copyInGroupExpression(GroupExpression newGroupExpression) {
         Group newGroup = new Group(groupIdGenerator.getNextId(), newGroupExpression,
                 newGroupExpression.getPlan().getLogicalProperties());
-        groups.put(newGroup.getGroupId(), newGroup);
+        addGroup(newGroup);
         groupExpressions.put(newGroupExpression, newGroupExpression);
         return newGroup;
     }
@@ -572,7 +608,7 @@ public class Memo {
             // then create new group with the newGroupExpression
             Group newGroup = new Group(groupIdGenerator.getNextId(), newGroupExpression,
                     newPlan.getLogicalProperties());
-            groups.put(newGroup.getGroupId(), newGroup);
+            addGroup(newGroup);
             groupExpressions.put(newGroupExpression, newGroupExpression);
         } else {
             // case 3:
@@ -590,9 +626,12 @@ public class Memo {
     }
 
     private CopyInResult rewriteByExistedGroupExpression(Group targetGroup, Plan transformedPlan,
-            GroupExpression existedExpression, GroupExpression newExpression) {
+            List<Group> childrenGroups, GroupExpression existedExpression) {
         if (targetGroup != null && !targetGroup.equals(existedExpression.getOwnerGroup())) {
             // case 4:
+            // note: create newExpression before recycle existedExpression, so the children groups are still
+            //       referenced by newExpression and would not be recycled
+            GroupExpression newExpression = new GroupExpression(transformedPlan, childrenGroups);
             existedExpression.propagateApplied(newExpression);
             moveParentExpressionsReference(existedExpression.getOwnerGroup(), targetGroup);
             recycleGroup(existedExpression.getOwnerGroup());
@@ -606,9 +645,7 @@ public class Memo {
         } else {
             // case 5:
             // if targetGroup is null or targetGroup equal to the existedExpression's ownerGroup,
-            // then recycle the temporary new group expression
-            // No ownerGroup, don't need ownerGroup.removeChild()
-            recycleExpression(newExpression);
+            // then use the existedExpression, and no temporary new group expression is created
             return CopyInResult.of(false, existedExpression);
         }
     }
@@ -693,9 +730,7 @@ public class Memo {
      */
     private void recycleGroup(Group group) {
         // recycle in memo.
-        if (groups.get(group.getGroupId()) == group) {
-            groups.remove(group.getGroupId());
-        }
+        removeGroup(group);
 
         // recycle children GroupExpression
         recycleLogicalAndPhysicalExpressions(group);
@@ -729,11 +764,38 @@ public class Memo {
         groupExpression.setOwnerGroup(null);
     }
 
+    /**
+     * The key to look up a group expression in memo by its plan and children groups. HashMap compares the key
+     * with the group expressions in it by the equals of the key, so it is equal to the group expression which
+     * references the same plan and children groups.
+     */
+    private static class GroupExpressionKey {
+        private final Plan plan;
+        private final List<Group> children;
+        private final int hashCode;
+
+        GroupExpressionKey(Plan plan, List<Group> children) {
+            this.plan = plan;
+            this.children = children;
+            this.hashCode = GroupExpression.hashCode(plan, children);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof GroupExpression && ((GroupExpression) o).matches(plan, children);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+
     @Override
     public String toString() {
         StringBuilder builder = new StringBuilder();
         builder.append("root:").append(getRoot()).append("\n");
-        for (Group group : groups.values()) {
+        for (Group group : getGroups()) {
             builder.append("\n\n").append(group);
             builder.append("  stats=").append(group.getStatistics()).append("\n");
             Statistics stats = group.getStatistics();
@@ -42,6 +42,7 @@ import org.apache.doris.nereids.trees.plans.algebra.EmptyRelation;
 import org.apache.doris.nereids.trees.plans.algebra.Filter;
 import org.apache.doris.nereids.trees.plans.algebra.Generate;
 import org.apache.doris.nereids.trees.plans.algebra.Limit;
+import org.apache.doris.nereids.trees.plans.algebra.OlapScan;
 import org.apache.doris.nereids.trees.plans.algebra.PartitionTopN;
 import org.apache.doris.nereids.trees.plans.algebra.Project;
 import org.apache.doris.nereids.trees.plans.algebra.Repeat;
@@ -132,6 +133,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.OptionalLong;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -555,6 +557,28 @@ public class StatsCalculator extends DefaultPlanVisitor<Statistics, Void> {
         }
     }
 
+    /**
+     * If the partitions of the scan are pruned, the ndv of the column in the selected partitions is estimated by
+     * merging the ndv sketches of the partitions, which is more accurate than the ndv of the whole table.
+     */
+    private ColumnStatistic getPrunedPartitionsColumnStatistic(OlapScan olapScan, String colName,
+            ColumnStatistic cache) {
+        if (!Config.enable_stats_ndv_sketch) {
+            return cache;
+        }
+        List<Long> selectedPartitionIds = olapScan.getSelectedPartitionIds();
+        if (selectedPartitionIds.isEmpty()
+                || selectedPartitionIds.size() >= olapScan.getTable().getPartitionIds().size()) {
+            return cache;
+        }
+        OptionalLong ndv = Env.getCurrentEnv().getStatisticsCache()
+                .getNdv(olapScan.getTable().getId(), -1, colName, selectedPartitionIds);
+        if (!ndv.isPresent() || ndv.getAsLong() >= cache.ndv) {
+            return cache;
+        }
+        return new ColumnStatisticBuilder(cache).setNdv(Math.max(ndv.getAsLong(), 1)).build();
+    }
+
     private Histogram getColumnHistogram(TableIf table, String colName) {
         if (totalHistogramMap.get(table.getName() + colName) != null) {
             return totalHistogramMap.get(table.getName() + colName);
@@ -608,6 +632,9 @@ public class StatsCalculator extends DefaultPlanVisitor<Statistics, Void> {
                 continue;
             }
             rowCount = Math.max(rowCount, cache.count);
+            if (scan instanceof OlapScan && !isPlayNereidsDump) {
+                cache = getPrunedPartitionsColumnStatistic((OlapScan) scan, colName, cache);
+            }
             Histogram histogram = getColumnHistogram(table, colName);
             if (histogram != null) {
                 ColumnStatisticBuilder columnStatisticBuilder =
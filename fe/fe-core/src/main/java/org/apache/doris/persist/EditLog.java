@@ -1103,13 +1103,26 @@ public class EditLog {
     /**
      * Write an operation to the edit log. Do not sync to persistent store yet.
      */
-    private synchronized long logEdit(short op, Writable writable) {
+    private long logEdit(short op, Writable writable) {
+        if (Config.enable_edit_log_group_commit) {
+            // The journal batches concurrent writes by itself, so do not serialize the writers here.
+            long start = System.currentTimeMillis();
+            long logId = writeJournal(op, writable);
+            return afterLogEdit(op, start, logId);
+        }
+        synchronized (this) {
+            long start = System.currentTimeMillis();
+            long logId = writeJournal(op, writable);
+            return afterLogEdit(op, start, logId);
+        }
+    }
+
+    private long writeJournal(short op, Writable writable) {
         if (this.getNumEditStreams() == 0) {
             LOG.error("Fatal Error : no editLog stream", new Exception());
             throw new Error("Fatal Error : no editLog stream");
         }
 
-        long start = System.currentTimeMillis();
         long logId = -1;
         try {
             logId = journal.write(op, writable);
@@ -1119,7 +1132,10 @@ public class EditLog {
             LOG.error("Fatal Error : write stream Exception", t);
             System.exit(-1);
         }
+        return logId;
+    }
 
+    private synchronized long afterLogEdit(short op, long start, long logId) {
         // get a new transactionId
         txId++;
 
@@ -36,6 +36,7 @@ import java.util.List;
  * | | - index b                   |      |
  * | | ...                         |      |
  * | |-----------------------------|      |
+ * | - Body CRC32 (8 bytes, optional)     |
  * | - other value(undecided)             |
  * |--------------------------------------|
  * - Footer Length (8 bytes)
@@ -47,6 +48,7 @@ public class MetaFooter {
 
     public static final long FOOTER_LENGTH_SIZE = 8L;
     private static final long CHECKSUM_LENGTH_SIZE = 8L;
+    public static final long NO_BODY_CRC = -1L;
 
     // checksum
     public long checksum;
@@ -54,6 +56,8 @@ public class MetaFooter {
     public long length;
     // meta indices
     public List<MetaIndex> metaIndices;
+    // crc32 of the image body, NO_BODY_CRC if the image is written by an old version
+    public long bodyCrc = NO_BODY_CRC;
 
     public static MetaFooter read(File imageFile) throws IOException {
         try (RandomAccessFile raf = new RandomAccessFile(imageFile, "r")) {
@@ -81,12 +85,19 @@ public class MetaFooter {
                 MetaIndex index = MetaIndex.read(raf);
                 metaIndices.add(index);
             }
-            LOG.info("Image footer length: {}, indices: {}", footerLength, metaIndices.toArray());
-            return new MetaFooter(metaIndices, checksum, footerLength);
+            MetaFooter metaFooter = new MetaFooter(metaIndices, checksum, footerLength);
+            // body crc is appended after indices, old image does not have it
+            if (raf.getFilePointer() + CHECKSUM_LENGTH_SIZE <= footerLengthIndex) {
+                metaFooter.bodyCrc = raf.readLong();
+            }
+            LOG.info("Image footer length: {}, body crc: {}, indices: {}", footerLength, metaFooter.bodyCrc,
+                    metaIndices.toArray());
+            return metaFooter;
         }
     }
 
-    public static void write(File imageFile, List<MetaIndex> metaIndices, long checksum) throws IOException {
+    public static void write(File imageFile, List<MetaIndex> metaIndices, long checksum, long bodyCrc)
+            throws IOException {
         try (RandomAccessFile raf = new RandomAccessFile(imageFile, "rw")) {
             long startIndex = raf.length();
             raf.seek(startIndex);
@@ -95,6 +106,7 @@ public class MetaFooter {
             for (MetaIndex metaIndex : metaIndices) {
                 MetaIndex.write(raf, metaIndex);
             }
+            raf.writeLong(bodyCrc);
             long endIndex = raf.length();
             raf.writeLong(endIndex - startIndex);
             MetaMagicNumber.write(raf);
@@ -113,6 +125,7 @@ public class MetaFooter {
         StringBuilder sb = new StringBuilder();
         sb.append("checksum: ").append(checksum);
         sb.append("\nlength: ").append(length);
+        sb.append("\nbody crc: ").append(bodyCrc);
         sb.append("\nindices:");
         for (MetaIndex metaIndex : metaIndices) {
             sb.append("\n\t").append(metaIndex.toString());
@@ -18,9 +18,15 @@
 package org.apache.doris.persist.meta;
 
 import org.apache.doris.catalog.Env;
+import org.apache.doris.common.Config;
 import org.apache.doris.common.DdlException;
+import org.apache.doris.common.ThreadPoolManager;
+import org.apache.doris.meta.MetaContext;
 
 import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Maps;
 import org.apache.commons.io.IOUtils;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -31,6 +37,13 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.lang.reflect.InvocationTargetException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
 
 /**
  * Image Format:
@@ -67,12 +80,25 @@ import java.lang.reflect.InvocationTargetException;
 public class MetaReader {
     private static final Logger LOG = LogManager.getLogger(MetaReader.class);
 
+    // module name -> load time in ms of the last loaded image
+    private static final Map<String, Long> moduleLoadTimeMs = new ConcurrentHashMap<>();
+
     public static void read(File imageFile, Env env) throws IOException, DdlException {
         LOG.info("start load image from {}. is ckpt: {}", imageFile.getAbsolutePath(), Env.isCheckpointThread());
         long loadImageStartTime = System.currentTimeMillis();
         MetaHeader metaHeader = MetaHeader.read(imageFile);
         MetaFooter metaFooter = MetaFooter.read(imageFile);
 
+        // Env.getCurrentEnv() relies on the identity of checkpoint thread,
+        // so only load modules concurrently when loading image at startup.
+        ExecutorService loadPool = null;
+        if (Config.enable_parallel_image_loading && !Env.isCheckpointThread()) {
+            loadPool = ThreadPoolManager.newDaemonFixedThreadPool(Math.max(Config.image_loading_parallelism, 1),
+                    PersistMetaModules.MODULE_NAMES.size(), "image-module-loader", false);
+        }
+        // module name -> the task loading it
+        Map<String, Future<Long>> parallelLoadTasks = Maps.newLinkedHashMap();
+
         long checksum = 0;
         long footerIndex = imageFile.length()
                 - metaFooter.length - MetaFooter.FOOTER_LENGTH_SIZE - MetaMagicNumber.MAGIC_STR.length();
@@ -81,6 +107,7 @@ public class MetaReader {
             IOUtils.skipFully(dis, metaHeader.getEnd());
             // 2. Read meta header first
             checksum = env.loadHeader(dis, metaHeader, checksum);
+            MetaContext metaContext = MetaContext.get();
             // 3. Read other meta modules
             // Modules must be read in the order in which the metadata was written
             for (int i = 0; i < metaFooter.metaIndices.size(); ++i) {
@@ -113,16 +140,121 @@ public class MetaReader {
                     throw new IOException("Unknown meta module: " + metaIndex.name + ". Known modules: "
                             + PersistMetaModules.MODULE_NAMES);
                 }
+                // wait for the modules loading concurrently which this module depends on
+                for (String dependency : PersistMetaModules.PARALLEL_LOADING_DEPENDENCIES.getOrDefault(
+                        metaIndex.name, ImmutableSet.of())) {
+                    Future<Long> task = parallelLoadTasks.remove(dependency);
+                    if (task != null) {
+                        checksum ^= task.get();
+                    }
+                }
+                if (loadPool != null && PersistMetaModules.PARALLEL_LOADABLE_MODULE_NAMES.contains(metaIndex.name)) {
+                    // Load this module with its own stream, and skip it in the main stream.
+                    long moduleEnd = i < metaFooter.metaIndices.size() - 1
+                            ? metaFooter.metaIndices.get(i + 1).offset : footerIndex;
+                    IOUtils.skipFully(dis, moduleEnd - metaIndex.offset);
+                    parallelLoadTasks.put(metaIndex.name, loadPool.submit(
+                            () -> loadModule(imageFile, env, persistMethod, metaIndex.offset, metaContext)));
+                    continue;
+                }
+                long moduleStartTime = System.currentTimeMillis();
                 checksum = (long) persistMethod.readMethod.invoke(env, dis, checksum);
+                moduleLoadTimeMs.put(metaIndex.name, System.currentTimeMillis() - moduleStartTime);
+            }
+
+            // The checksum of each module is combined by xor, so the modules loaded concurrently
+            // can be loaded from 0 and merged here in any order.
+            for (Future<Long> task : parallelLoadTasks.values()) {
+                checksum ^= task.get();
             }
         } catch (InvocationTargetException | IllegalAccessException e) {
             throw new IOException(e);
+        } catch (InterruptedException e) {
+            throw new IOException("interrupted when loading image modules", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause() instanceof InvocationTargetException
+                    ? ((InvocationTargetException) e.getCause()).getTargetException() : e.getCause();
+            if (cause instanceof DdlException) {
+                throw (DdlException) cause;
+            }
+            throw new IOException(cause);
+        } finally {
+            if (loadPool != null) {
+                loadPool.shutdownNow();
+            }
         }
 
         long remoteChecksum = metaFooter.checksum;
         Preconditions.checkState(remoteChecksum == checksum, remoteChecksum + " vs. " + checksum);
 
         long loadImageEndTime = System.currentTimeMillis();
-        LOG.info("finished to load image in " + (loadImageEndTime - loadImageStartTime) + " ms");
+        LOG.info("finished to load image in " + (loadImageEndTime - loadImageStartTime) + " ms. module load time: "
+                + moduleLoadTimeMs);
+    }
+
+    private static long loadModule(File imageFile, Env env, MetaPersistMethod persistMethod, long offset,
+            MetaContext metaContext) throws Exception {
+        // the meta version is needed when reading modules
+        if (metaContext != null) {
+            metaContext.setThreadLocalInfo();
+        }
+        long moduleStartTime = System.currentTimeMillis();
+        try (DataInputStream dis = new DataInputStream(new BufferedInputStream(new FileInputStream(imageFile)))) {
+            IOUtils.skipFully(dis, offset);
+            long checksum = (long) persistMethod.readMethod.invoke(env, dis, 0L);
+            moduleLoadTimeMs.put(persistMethod.name, System.currentTimeMillis() - moduleStartTime);
+            return checksum;
+        } finally {
+            MetaContext.remove();
+        }
+    }
+
+    /**
+     * Verify the image file by the crc32 of its body and the layout of its indices,
+     * without loading it into an Env.
+     * Return false if the image does not have body crc, which means it must be verified by loading.
+     */
+    public static boolean verifyBodyCrc(File imageFile) throws IOException {
+        MetaHeader metaHeader = MetaHeader.read(imageFile);
+        MetaFooter metaFooter = MetaFooter.read(imageFile);
+        if (metaFooter.bodyCrc == MetaFooter.NO_BODY_CRC) {
+            return false;
+        }
+
+        long bodyStart = metaHeader.getEnd();
+        long footerIndex = imageFile.length()
+                - metaFooter.length - MetaFooter.FOOTER_LENGTH_SIZE - MetaMagicNumber.MAGIC_STR.length();
+        long lastOffset = bodyStart;
+        for (MetaIndex metaIndex : metaFooter.metaIndices) {
+            if (metaIndex.offset < lastOffset || metaIndex.offset > footerIndex) {
+                throw new IOException("invalid offset of meta module " + metaIndex.name + ": " + metaIndex.offset
+                        + ", body range: [" + bodyStart + ", " + footerIndex + ")");
+            }
+            lastOffset = metaIndex.offset;
+        }
+
+        CRC32 crc = new CRC32();
+        try (FileInputStream fis = new FileInputStream(imageFile)) {
+            IOUtils.skipFully(fis, bodyStart);
+            CheckedInputStream cis = new CheckedInputStream(new BufferedInputStream(fis), crc);
+            byte[] buffer = new byte[64 * 1024];
+            long remaining = footerIndex - bodyStart;
+            while (remaining > 0) {
+                int read = cis.read(buffer, 0, (int) Math.min(buffer.length, remaining));
+                if (read < 0) {
+                    throw new IOException("unexpected end of image file " + imageFile.getAbsolutePath());
+                }
+                remaining -= read;
+            }
+        }
+        if (crc.getValue() != metaFooter.bodyCrc) {
+            throw new IOException("body crc of image file " + imageFile.getAbsolutePath() + " mismatch. expected: "
+                    + metaFooter.bodyCrc + ", actual: " + crc.getValue());
+        }
+        return true;
+    }
+
+    public static Map<String, Long> getModuleLoadTimeMs() {
+        return ImmutableMap.copyOf(moduleLoadTimeMs);
     }
 }
@@ -31,6 +31,8 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.lang.reflect.InvocationTargetException;
 import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
 
 /**
  * Image Format:
@@ -103,8 +105,9 @@ public class MetaWriter {
         long startPosition = MetaHeader.write(imageFile);
         List<MetaIndex> metaIndices = Lists.newArrayList();
         FileOutputStream imageFileOut = new FileOutputStream(imageFile, true);
-        try (CountingDataOutputStream dos = new CountingDataOutputStream(new BufferedOutputStream(imageFileOut),
-                startPosition)) {
+        CRC32 bodyCrc = new CRC32();
+        try (CountingDataOutputStream dos = new CountingDataOutputStream(
+                new BufferedOutputStream(new CheckedOutputStream(imageFileOut, bodyCrc)), startPosition)) {
             writer.setDelegate(dos, metaIndices);
             long replayedJournalId = env.getReplayedJournalId();
             // 1. write header first
@@ -124,7 +127,7 @@ public class MetaWriter {
             // 3. force sync to disk
             imageFileOut.getChannel().force(true);
         }
-        MetaFooter.write(imageFile, metaIndices, checksum.getRef());
+        MetaFooter.write(imageFile, metaIndices, checksum.getRef(), bodyCrc.getValue());
 
         long saveImageEndTime = System.currentTimeMillis();
         LOG.info("finished save image {} in {} ms. checksum is {}", imageFile.getAbsolutePath(),
@@ -18,6 +18,8 @@
 package org.apache.doris.persist.meta;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 
@@ -41,6 +43,19 @@ public class PersistMetaModules {
             "plugins", "deleteHandler", "sqlBlockRule", "policy", "mtmvJobManager", "globalFunction", "workloadGroups",
             "binlogs", "resourceGroups", "AnalysisMgr");
 
+    // Modules in this list only depend on the modules before them in MODULE_NAMES, and no other module
+    // depends on them, except the ones in PARALLEL_LOADING_DEPENDENCIES, so they can be loaded concurrently
+    // with each other when loading image.
+    // See Config.enable_parallel_image_loading.
+    public static final ImmutableSet<String> PARALLEL_LOADABLE_MODULE_NAMES = ImmutableSet.of(
+            "exportJob", "syncJob", "paloAuth", "transactionState", "smallFiles", "sqlBlockRule",
+            "policy", "mtmvJobManager", "globalFunction", "workloadGroups", "AnalysisMgr");
+
+    // module name -> the modules in PARALLEL_LOADABLE_MODULE_NAMES which must be loaded before it.
+    // The load jobs look up their transactions when being loaded.
+    public static final ImmutableMap<String, ImmutableSet<String>> PARALLEL_LOADING_DEPENDENCIES = ImmutableMap.of(
+            "loadJobV2", ImmutableSet.of("transactionState"));
+
     // Modules in this list is deprecated and will not be saved in meta file. (also should not be in MODULE_NAMES)
     public static final ImmutableList<String> DEPRECATED_MODULE_NAMES = ImmutableList.of(
             "loadJob", "cooldownJob");
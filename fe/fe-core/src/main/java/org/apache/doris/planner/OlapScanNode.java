@@ -540,7 +540,7 @@ public class OlapScanNode extends ScanNode {
 
         filterDeletedRows(analyzer);
         // lazy evaluation, since stmt is a prepared statment
-        isFromPrepareStmt = analyzer.getPrepareStmt() != null;
+        isFromPrepareStmt = analyzer.getPrepareStmt() != null && analyzer.getPrepareStmt().isPointQuery();
         if (!isFromPrepareStmt) {
             computeColumnFilter();
             computePartitionInfo();
@@ -1135,6 +1135,30 @@ public class OlapScanNode extends ScanNode {
         return scanRangeLocations;
     }
 
+    /**
+     * Recompute partition and tablet pruning when the plan is reused by a prepared statement,
+     * since the conjuncts refer to the placeholders and new values are bound to them.
+     */
+    public void reEvaluateRangeLocations() throws UserException {
+        columnFilters.clear();
+        columnNameToRange.clear();
+        computeColumnFilter();
+        computePartitionInfo();
+        scanBackendIds.clear();
+        scanTabletIds.clear();
+        scanReplicaIds.clear();
+        tabletId2BucketSeq.clear();
+        bucketSeq2locations.clear();
+        totalTabletsNum = 0;
+        selectedTabletsNum = 0;
+        totalBytes = 0;
+        try {
+            createScanRangeLocations();
+        } catch (AnalysisException e) {
+            throw new UserException(e.getMessage());
+        }
+    }
+
     public void setDescTable(DescriptorTable descTable) {
         this.descTable = descTable;
     }
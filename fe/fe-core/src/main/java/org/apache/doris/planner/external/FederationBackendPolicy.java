@@ -31,6 +31,7 @@ import org.apache.doris.thrift.TScanRangeLocations;
 
 import com.google.common.base.Preconditions;
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 import com.google.common.hash.Funnel;
 import com.google.common.hash.Hashing;
@@ -39,14 +40,21 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.nio.charset.StandardCharsets;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 public class FederationBackendPolicy {
     private static final Logger LOG = LogManager.getLogger(FederationBackendPolicy.class);
     private final List<Backend> backends = Lists.newArrayList();
     private ConsistentHash<TScanRangeLocations, Backend> consistentHash;
+    // backend id -> the weight of the backend, and the bytes of the scan ranges assigned to it
+    private final Map<Long, Integer> weights = Maps.newHashMap();
+    private final Map<Long, Long> assignedBytes = Maps.newHashMap();
+    private long totalWeight = 0;
+    private long totalAssignedBytes = 0;
 
     private int nextBe = 0;
     private boolean initialized = false;
@@ -83,10 +91,38 @@ public class FederationBackendPolicy {
     }
 
     public void init(BeSelectionPolicy policy) throws UserException {
-        backends.addAll(policy.getCandidateBackends(Env.getCurrentSystemInfo().getIdToBackend().values()));
+        List<Backend> candidates = policy.getCandidateBackends(Env.getCurrentSystemInfo().getIdToBackend().values());
+        Map<Long, Integer> backendWeights = Maps.newHashMap();
+        if (Config.external_split_weight_by_cpu_cores) {
+            Backend.BeInfoCollector beinfoCollector = Backend.getBeInfoCollector();
+            for (Backend backend : candidates) {
+                int numCores = beinfoCollector.getNumCores(backend.getId());
+                if (numCores <= 0) {
+                    // the number of cores is not reported yet, all backends have the same weight
+                    LOG.debug("number of cores of backend {} is unknown", backend.getId());
+                    backendWeights.clear();
+                    break;
+                }
+                backendWeights.put(backend.getId(), numCores);
+            }
+        }
+        init(candidates, backendWeights);
+    }
+
+    /**
+     * Init with the candidate backends and their weights, the weight of a backend is 1 if it is not given.
+     */
+    public void init(Collection<Backend> candidates, Map<Long, Integer> backendWeights) throws UserException {
+        backends.addAll(candidates);
         if (backends.isEmpty()) {
             throw new UserException("No available backends");
         }
+        for (Backend backend : backends) {
+            int weight = Math.max(backendWeights.getOrDefault(backend.getId(), 1), 1);
+            weights.put(backend.getId(), weight);
+            assignedBytes.putIfAbsent(backend.getId(), 0L);
+        }
+        totalWeight = weights.values().stream().mapToLong(Integer::longValue).sum();
         int virtualNumber = Math.max(Math.min(512 / backends.size(), 32), 2);
         consistentHash = new ConsistentHash<>(Hashing.murmur3_128(), new ScanRangeHash(),
                 new BackendHash(), backends, virtualNumber);
@@ -102,6 +138,56 @@ public class FederationBackendPolicy {
         return consistentHash.getNode(scanRangeLocations);
     }
 
+    /**
+     * Select the backend for a scan range of the given bytes, balancing the total bytes of scan ranges
+     * assigned to each backend by its weight.
+     * If consistent is true, the scan range is assigned to the first backend on the consistent hash ring
+     * whose assigned bytes are under external_split_max_load_factor times of its fair share, so the same
+     * scan range is assigned to the same backend among queries in most cases, and the file cache of
+     * the backend could be reused. Otherwise, it is assigned to the least loaded backend.
+     */
+    public Backend getNextBalancedBe(TScanRangeLocations scanRangeLocations, long bytes, boolean consistent) {
+        double maxLoadFactor = Config.external_split_max_load_factor;
+        // a scan range has at least one byte, so the empty ones are balanced by count
+        long cost = Math.max(bytes, 1);
+        Backend selectedBackend = null;
+        if (maxLoadFactor < 1) {
+            selectedBackend = consistent ? getNextConsistentBe(scanRangeLocations) : getNextBe();
+        } else if (consistent) {
+            double share = maxLoadFactor * (totalAssignedBytes + cost) / totalWeight;
+            selectedBackend = consistentHash.getNode(scanRangeLocations,
+                    backend -> assignedBytes.get(backend.getId()) < share * weights.get(backend.getId()));
+        }
+        if (selectedBackend == null) {
+            selectedBackend = getLeastLoadedBe(cost);
+        }
+        assignedBytes.merge(selectedBackend.getId(), cost, Long::sum);
+        totalAssignedBytes += cost;
+        return selectedBackend;
+    }
+
+    // Get the backend with the least weighted load after the scan range is assigned to it.
+    // The backends with the same load are selected by round robin.
+    private Backend getLeastLoadedBe(long cost) {
+        int selected = -1;
+        double minLoad = Double.MAX_VALUE;
+        for (int i = 0; i < backends.size(); i++) {
+            int index = (nextBe + i) % backends.size();
+            long backendId = backends.get(index).getId();
+            double load = (double) (assignedBytes.get(backendId) + cost) / weights.get(backendId);
+            if (load < minLoad) {
+                minLoad = load;
+                selected = index;
+            }
+        }
+        nextBe = (selected + 1) % backends.size();
+        return backends.get(selected);
+    }
+
+    public Map<Long, Long> getAssignedBytes() {
+        return assignedBytes;
+    }
+
     public int numBackends() {
         return backends.size();
     }
@@ -222,110 +222,143 @@ public abstract class FileQueryScanNode extends FileScanNode {
         params.setColumnIdxs(columnIdxs);
     }
 
+    /**
+     * The source which enumerates the splits of the scan batch by batch.
+     * The default source returns all splits of {@link #getSplits()} in one batch.
+     */
+    protected SplitSource getSplitSource() throws UserException {
+        return SplitSource.of(getSplits());
+    }
+
     @Override
     public void createScanRangeLocations() throws UserException {
         long start = System.currentTimeMillis();
-        List<Split> inputSplits = getSplits();
-        this.inputSplitsNum = inputSplits.size();
-        if (inputSplits.isEmpty()) {
-            return;
-        }
-        TFileFormatType fileFormatType = getFileFormatType();
-        params.setFormatType(fileFormatType);
-        List<String> pathPartitionKeys = getPathPartitionKeys();
-        for (Split split : inputSplits) {
-            TFileScanRangeParams scanRangeParams = new TFileScanRangeParams(params);
-            FileSplit fileSplit = (FileSplit) split;
-            TFileType locationType = getLocationType(fileSplit.getPath().toString());
-            scanRangeParams.setFileType(locationType);
-            TFileCompressType fileCompressType = getFileCompressType(fileSplit);
-            scanRangeParams.setCompressType(fileCompressType);
-            boolean isCsvOrJson = Util.isCsvFormat(fileFormatType) || fileFormatType == TFileFormatType.FORMAT_JSON;
-            if (isCsvOrJson) {
-                scanRangeParams.setFileAttributes(getFileAttributes());
-            }
-
-            // set hdfs params for hdfs file type.
-            Map<String, String> locationProperties = getLocationProperties();
-            if (fileFormatType == TFileFormatType.FORMAT_JNI) {
-                scanRangeParams.setProperties(locationProperties);
-            } else if (locationType == TFileType.FILE_HDFS || locationType == TFileType.FILE_BROKER) {
-                String fsName = getFsName(fileSplit);
-                THdfsParams tHdfsParams = HdfsResource.generateHdfsParam(locationProperties);
-                tHdfsParams.setFsName(fsName);
-                scanRangeParams.setHdfsParams(tHdfsParams);
-
-                if (locationType == TFileType.FILE_BROKER) {
-                    FsBroker broker = Env.getCurrentEnv().getBrokerMgr().getAnyAliveBroker();
-                    if (broker == null) {
-                        throw new UserException("No alive broker.");
+        TFileFormatType fileFormatType = null;
+        List<String> pathPartitionKeys = null;
+        this.inputSplitsNum = 0;
+        // With a limit and no predicate to evaluate, every non-empty file returns at least one row,
+        // so the splits of the remaining files are not needed once there are as many files as the limit.
+        boolean stopOnLimit = limit > 0 && conjuncts.isEmpty();
+        long nonEmptyFileNum = 0;
+        try (SplitSource splitSource = getSplitSource()) {
+            // The splits of a batch are assigned to backends and released before the next batch is enumerated.
+            for (List<Split> batch = splitSource.nextBatch(); !batch.isEmpty(); batch = splitSource.nextBatch()) {
+                if (fileFormatType == null) {
+                    fileFormatType = getFileFormatType();
+                    params.setFormatType(fileFormatType);
+                    pathPartitionKeys = getPathPartitionKeys();
+                }
+                this.inputSplitsNum += batch.size();
+                for (Split split : batch) {
+                    createScanRangeLocation(split, fileFormatType, pathPartitionKeys);
+                    FileSplit fileSplit = (FileSplit) split;
+                    if (fileSplit.getStart() == 0 && fileSplit.getLength() > 0) {
+                        nonEmptyFileNum++;
                     }
-                    scanRangeParams.addToBrokerAddresses(new TNetworkAddress(broker.host, broker.port));
                 }
-            } else if (locationType == TFileType.FILE_S3) {
-                scanRangeParams.setProperties(locationProperties);
+                if (stopOnLimit && nonEmptyFileNum >= limit) {
+                    LOG.debug("stop enumerating splits since {} files are enough for limit {}",
+                            nonEmptyFileNum, limit);
+                    break;
+                }
             }
+        }
+        LOG.debug("create #{} ScanRangeLocations cost: {} ms",
+                scanRangeLocations.size(), (System.currentTimeMillis() - start));
+    }
 
-            TScanRangeLocations curLocations = newLocations(scanRangeParams);
+    private void createScanRangeLocation(Split split, TFileFormatType fileFormatType,
+            List<String> pathPartitionKeys) throws UserException {
+        TFileScanRangeParams scanRangeParams = new TFileScanRangeParams(params);
+        FileSplit fileSplit = (FileSplit) split;
+        TFileType locationType = getLocationType(fileSplit.getPath().toString());
+        scanRangeParams.setFileType(locationType);
+        TFileCompressType fileCompressType = getFileCompressType(fileSplit);
+        scanRangeParams.setCompressType(fileCompressType);
+        boolean isCsvOrJson = Util.isCsvFormat(fileFormatType) || fileFormatType == TFileFormatType.FORMAT_JSON;
+        if (isCsvOrJson) {
+            scanRangeParams.setFileAttributes(getFileAttributes());
+        }
 
-            // If fileSplit has partition values, use the values collected from hive partitions.
-            // Otherwise, use the values in file path.
-            boolean isACID = false;
-            if (fileSplit instanceof HiveSplit) {
-                HiveSplit hiveSplit = (HiveSplit) split;
-                isACID = hiveSplit.isACID();
-            }
-            List<String> partitionValuesFromPath = fileSplit.getPartitionValues() == null
-                    ? BrokerUtil.parseColumnsFromPath(fileSplit.getPath().toString(), pathPartitionKeys, false, isACID)
-                    : fileSplit.getPartitionValues();
-
-            TFileRangeDesc rangeDesc = createFileRangeDesc(fileSplit, partitionValuesFromPath, pathPartitionKeys,
-                    locationType);
-            if (isACID) {
-                HiveSplit hiveSplit = (HiveSplit) split;
-                hiveSplit.setTableFormatType(TableFormatType.TRANSACTIONAL_HIVE);
-                TTableFormatFileDesc tableFormatFileDesc = new TTableFormatFileDesc();
-                tableFormatFileDesc.setTableFormatType(hiveSplit.getTableFormatType().value());
-                AcidInfo acidInfo = (AcidInfo) hiveSplit.getInfo();
-                TTransactionalHiveDesc transactionalHiveDesc = new TTransactionalHiveDesc();
-                transactionalHiveDesc.setPartition(acidInfo.getPartitionLocation());
-                List<TTransactionalHiveDeleteDeltaDesc> deleteDeltaDescs = new ArrayList<>();
-                for (DeleteDeltaInfo deleteDeltaInfo : acidInfo.getDeleteDeltas()) {
-                    TTransactionalHiveDeleteDeltaDesc deleteDeltaDesc = new TTransactionalHiveDeleteDeltaDesc();
-                    deleteDeltaDesc.setDirectoryLocation(deleteDeltaInfo.getDirectoryLocation());
-                    deleteDeltaDesc.setFileNames(deleteDeltaInfo.getFileNames());
-                    deleteDeltaDescs.add(deleteDeltaDesc);
+        // set hdfs params for hdfs file type.
+        Map<String, String> locationProperties = getLocationProperties();
+        if (fileFormatType == TFileFormatType.FORMAT_JNI) {
+            scanRangeParams.setProperties(locationProperties);
+        } else if (locationType == TFileType.FILE_HDFS || locationType == TFileType.FILE_BROKER) {
+            String fsName = getFsName(fileSplit);
+            THdfsParams tHdfsParams = HdfsResource.generateHdfsParam(locationProperties);
+            tHdfsParams.setFsName(fsName);
+            scanRangeParams.setHdfsParams(tHdfsParams);
+
+            if (locationType == TFileType.FILE_BROKER) {
+                FsBroker broker = Env.getCurrentEnv().getBrokerMgr().getAnyAliveBroker();
+                if (broker == null) {
+                    throw new UserException("No alive broker.");
                 }
-                transactionalHiveDesc.setDeleteDeltas(deleteDeltaDescs);
-                tableFormatFileDesc.setTransactionalHiveParams(transactionalHiveDesc);
-                rangeDesc.setTableFormatParams(tableFormatFileDesc);
-            }
-            // external data lake table
-            if (fileSplit instanceof IcebergSplit) {
-                // TODO: extract all data lake split to factory
-                IcebergScanNode.setIcebergParams(rangeDesc, (IcebergSplit) fileSplit);
-            } else if (fileSplit instanceof PaimonSplit) {
-                PaimonScanNode.setPaimonParams(rangeDesc, (PaimonSplit) fileSplit);
-            } else if (fileSplit instanceof HudiSplit) {
-                HudiScanNode.setHudiParams(rangeDesc, (HudiSplit) fileSplit);
+                scanRangeParams.addToBrokerAddresses(new TNetworkAddress(broker.host, broker.port));
             }
+        } else if (locationType == TFileType.FILE_S3) {
+            scanRangeParams.setProperties(locationProperties);
+        }
+
+        TScanRangeLocations curLocations = newLocations(scanRangeParams);
 
-            curLocations.getScanRange().getExtScanRange().getFileScanRange().addToRanges(rangeDesc);
-            TScanRangeLocation location = new TScanRangeLocation();
-            // Use consistent hash to assign the same scan range into the same backend among different queries
-            Backend selectedBackend = ConnectContext.get().getSessionVariable().enableFileCache
-                    ? backendPolicy.getNextConsistentBe(curLocations) : backendPolicy.getNextBe();
-            location.setBackendId(selectedBackend.getId());
-            location.setServer(new TNetworkAddress(selectedBackend.getHost(), selectedBackend.getBePort()));
-            curLocations.addToLocations(location);
-            LOG.debug("assign to backend {} with table split: {} ({}, {}), location: {}",
-                    curLocations.getLocations().get(0).getBackendId(), fileSplit.getPath(), fileSplit.getStart(),
-                    fileSplit.getLength(), Joiner.on("|").join(fileSplit.getHosts()));
-            scanRangeLocations.add(curLocations);
-            this.totalFileSize += fileSplit.getLength();
+        // If fileSplit has partition values, use the values collected from hive partitions.
+        // Otherwise, use the values in file path.
+        boolean isACID = false;
+        if (fileSplit instanceof HiveSplit) {
+            HiveSplit hiveSplit = (HiveSplit) split;
+            isACID = hiveSplit.isACID();
         }
-        LOG.debug("create #{} ScanRangeLocations cost: {} ms",
-                scanRangeLocations.size(), (System.currentTimeMillis() - start));
+        List<String> partitionValuesFromPath = fileSplit.getPartitionValues() == null
+                ? BrokerUtil.parseColumnsFromPath(fileSplit.getPath().toString(), pathPartitionKeys, false, isACID)
+                : fileSplit.getPartitionValues();
+
+        TFileRangeDesc rangeDesc = createFileRangeDesc(fileSplit, partitionValuesFromPath, pathPartitionKeys,
+                locationType);
+        if (isACID) {
+            HiveSplit hiveSplit = (HiveSplit) split;
+            hiveSplit.setTableFormatType(TableFormatType.TRANSACTIONAL_HIVE);
+            TTableFormatFileDesc tableFormatFileDesc = new TTableFormatFileDesc();
+            tableFormatFileDesc.setTableFormatType(hiveSplit.getTableFormatType().value());
+            AcidInfo acidInfo = (AcidInfo) hiveSplit.getInfo();
+            TTransactionalHiveDesc transactionalHiveDesc = new TTransactionalHiveDesc();
+            transactionalHiveDesc.setPartition(acidInfo.getPartitionLocation());
+            List<TTransactionalHiveDeleteDeltaDesc> deleteDeltaDescs = new ArrayList<>();
+            for (DeleteDeltaInfo deleteDeltaInfo : acidInfo.getDeleteDeltas()) {
+                TTransactionalHiveDeleteDeltaDesc deleteDeltaDesc = new TTransactionalHiveDeleteDeltaDesc();
+                deleteDeltaDesc.setDirectoryLocation(deleteDeltaInfo.getDirectoryLocation());
+                deleteDeltaDesc.setFileNames(deleteDeltaInfo.getFileNames());
+                deleteDeltaDescs.add(deleteDeltaDesc);
+            }
+            transactionalHiveDesc.setDeleteDeltas(deleteDeltaDescs);
+            tableFormatFileDesc.setTransactionalHiveParams(transactionalHiveDesc);
+            rangeDesc.setTableFormatParams(tableFormatFileDesc);
+        }
+        // external data lake table
+        if (fileSplit instanceof IcebergSplit) {
+            // TODO: extract all data lake split to factory
+            IcebergScanNode.setIcebergParams(rangeDesc, (IcebergSplit) fileSplit);
+        } else if (fileSplit instanceof PaimonSplit) {
+            PaimonScanNode.setPaimonParams(rangeDesc, (PaimonSplit) fileSplit);
+        } else if (fileSplit instanceof HudiSplit) {
+            HudiScanNode.setHudiParams(rangeDesc, (HudiSplit) fileSplit);
+        }
+
+        curLocations.getScanRange().getExtScanRange().getFileScanRange().addToRanges(rangeDesc);
+        TScanRangeLocation location = new TScanRangeLocation();
+        // Balance the bytes of scan ranges among backends. If file cache is enabled, use consistent hash to
+        // assign the same scan range into the same backend among different queries.
+        Backend selectedBackend = backendPolicy.getNextBalancedBe(curLocations, fileSplit.getLength(),
+                ConnectContext.get().getSessionVariable().enableFileCache);
+        location.setBackendId(selectedBackend.getId());
+        location.setServer(new TNetworkAddress(selectedBackend.getHost(), selectedBackend.getBePort()));
+        curLocations.addToLocations(location);
+        LOG.debug("assign to backend {} with table split: {} ({}, {}), location: {}",
+                curLocations.getLocations().get(0).getBackendId(), fileSplit.getPath(), fileSplit.getStart(),
+                fileSplit.getLength(), Joiner.on("|").join(fileSplit.getHosts()));
+        scanRangeLocations.add(curLocations);
+        this.totalFileSize += fileSplit.getLength();
     }
 
     private TScanRangeLocations newLocations(TFileScanRangeParams params) {
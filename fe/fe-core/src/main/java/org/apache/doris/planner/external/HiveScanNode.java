@@ -28,6 +28,7 @@ import org.apache.doris.catalog.TableIf;
 import org.apache.doris.catalog.Type;
 import org.apache.doris.catalog.external.HMSExternalTable;
 import org.apache.doris.common.AnalysisException;
+import org.apache.doris.common.Config;
 import org.apache.doris.common.DdlException;
 import org.apache.doris.common.UserException;
 import org.apache.doris.common.util.DebugUtil;
@@ -57,7 +58,9 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.io.IOException;
+import java.util.ArrayDeque;
 import java.util.Collection;
+import java.util.Deque;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -152,6 +155,8 @@ public class HiveScanNode extends FileQueryScanNode {
             HivePartition dummyPartition = new HivePartition(hmsTable.getDbName(), hmsTable.getName(), true,
                     hmsTable.getRemoteTable().getSd().getInputFormat(),
                     hmsTable.getRemoteTable().getSd().getLocation(), null);
+            dummyPartition.setLastDdlTime(
+                    HiveMetaStoreCache.getLastDdlTime(hmsTable.getRemoteTable().getParameters()));
             this.totalPartitionNum = 1;
             this.readPartitionNum = 1;
             return Lists.newArrayList(dummyPartition);
@@ -161,25 +166,40 @@ public class HiveScanNode extends FileQueryScanNode {
     @Override
     protected List<Split> getSplits() throws UserException {
         long start = System.currentTimeMillis();
+        List<Split> allFiles = getSplitSource().getAllSplits();
+        LOG.debug("get #{} files for table: {}.{}, cost: {} ms",
+                allFiles.size(), hmsTable.getDbName(), hmsTable.getName(), (System.currentTimeMillis() - start));
+        return allFiles;
+    }
+
+    @Override
+    protected SplitSource getSplitSource() throws UserException {
         try {
             HiveMetaStoreCache cache = Env.getCurrentEnv().getExtMetaCacheMgr()
                     .getMetaStoreCache((HMSExternalCatalog) hmsTable.getCatalog());
             boolean useSelfSplitter = hmsTable.getCatalog().useSelfSplitter();
-            List<Split> allFiles = Lists.newArrayList();
-            getFileSplitByPartitions(cache, getPartitions(), allFiles, useSelfSplitter);
-            LOG.debug("get #{} files for table: {}.{}, cost: {} ms",
-                    allFiles.size(), hmsTable.getDbName(), hmsTable.getName(), (System.currentTimeMillis() - start));
-            return allFiles;
+            List<HivePartition> partitions = getPartitions();
+            if (hiveTransaction != null) {
+                // The valid write ids are got for all the partitions at once.
+                List<Split> allFiles = Lists.newArrayList();
+                getFileSplitByPartitions(cache, partitions, allFiles, useSelfSplitter);
+                return SplitSource.of(allFiles);
+            }
+            return new HiveSplitSource(cache, partitions, useSelfSplitter);
         } catch (Throwable t) {
-            LOG.warn("get file split failed for table: {}", hmsTable.getName(), t);
-            throw new UserException(
-                "get file split failed for table: " + hmsTable.getName() + ", err: " + Util.getRootCauseMessage(t),
-                t);
+            throw getFileSplitException(t);
         }
     }
 
+    private UserException getFileSplitException(Throwable t) {
+        LOG.warn("get file split failed for table: {}", hmsTable.getName(), t);
+        return new UserException(
+            "get file split failed for table: " + hmsTable.getName() + ", err: " + Util.getRootCauseMessage(t),
+            t);
+    }
+
     private void getFileSplitByPartitions(HiveMetaStoreCache cache, List<HivePartition> partitions,
-                                          List<Split> allFiles, boolean useSelfSplitter) throws IOException {
+                                          Collection<Split> allFiles, boolean useSelfSplitter) throws IOException {
         List<FileCacheValue> fileCaches;
         if (hiveTransaction != null) {
             fileCaches = getFileSplitByTransaction(cache, partitions);
@@ -203,6 +223,50 @@ public class HiveScanNode extends FileQueryScanNode {
         }
     }
 
+    /**
+     * Lists the files of the partitions batch by batch, and returns the splits of the files in batches of at most
+     * max_external_split_batch_size splits. The files of the next partitions are listed only when the splits of
+     * the listed partitions are all returned.
+     * The partitions of one listing batch are listed in parallel by the file listing pool of the catalog, so a
+     * batch has at least max_external_file_listing_thread_pool_size partitions to keep the pool busy.
+     */
+    private class HiveSplitSource implements SplitSource {
+        private final HiveMetaStoreCache cache;
+        private final List<HivePartition> partitions;
+        private final boolean useSelfSplitter;
+        private final Deque<Split> pendingSplits = new ArrayDeque<>();
+        private int nextPartitionIdx = 0;
+
+        HiveSplitSource(HiveMetaStoreCache cache, List<HivePartition> partitions, boolean useSelfSplitter) {
+            this.cache = cache;
+            this.partitions = partitions;
+            this.useSelfSplitter = useSelfSplitter;
+        }
+
+        @Override
+        public List<Split> nextBatch() throws UserException {
+            int batchSize = Math.max(1, Config.max_external_split_batch_size);
+            int partitionBatchSize = Math.max(Config.max_hive_list_file_partition_batch_size,
+                    Config.max_external_file_listing_thread_pool_size);
+            partitionBatchSize = Math.max(1, partitionBatchSize);
+            while (pendingSplits.size() < batchSize && nextPartitionIdx < partitions.size()) {
+                int end = Math.min(partitions.size(), nextPartitionIdx + partitionBatchSize);
+                try {
+                    getFileSplitByPartitions(cache, partitions.subList(nextPartitionIdx, end), pendingSplits,
+                            useSelfSplitter);
+                } catch (Throwable t) {
+                    throw getFileSplitException(t);
+                }
+                nextPartitionIdx = end;
+            }
+            List<Split> splits = Lists.newArrayListWithCapacity(Math.min(batchSize, pendingSplits.size()));
+            while (splits.size() < batchSize && !pendingSplits.isEmpty()) {
+                splits.add(pendingSplits.poll());
+            }
+            return splits;
+        }
+    }
+
     private List<FileCacheValue> getFileSplitByTransaction(HiveMetaStoreCache cache, List<HivePartition> partitions) {
         for (HivePartition partition : partitions) {
             if (partition.getPartitionValues() == null || partition.getPartitionValues().isEmpty()) {
@@ -0,0 +1,82 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+package org.apache.doris.planner.external;
+
+import org.apache.doris.common.UserException;
+import org.apache.doris.spi.Split;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+
+import java.util.List;
+
+/**
+ * Enumerate the splits of a file scan batch by batch. The scan node assigns the splits of a batch to backends
+ * before the next batch is enumerated, so listing files, creating splits and assigning them are done
+ * incrementally, and only the split objects of one batch are held on the heap. Note that the scan range
+ * locations created from the splits are still collected into one list of the scan node, which is sent to
+ * the backends as a whole, so the memory used by them is not bounded by the batch size.
+ */
+public interface SplitSource extends AutoCloseable {
+    /**
+     * Get the next batch of splits.
+     *
+     * @return the next batch of splits, or an empty list if all splits are enumerated.
+     */
+    List<Split> nextBatch() throws UserException;
+
+    /**
+     * Release the resources held by the source, it is called even if not all splits are enumerated.
+     */
+    @Override
+    default void close() {
+    }
+
+    /**
+     * Enumerate all the remaining splits of the source.
+     */
+    default List<Split> getAllSplits() throws UserException {
+        List<Split> splits = Lists.newArrayList();
+        try {
+            for (List<Split> batch = nextBatch(); !batch.isEmpty(); batch = nextBatch()) {
+                splits.addAll(batch);
+            }
+        } finally {
+            close();
+        }
+        return splits;
+    }
+
+    /**
+     * A source of the splits which are already enumerated, all of them are returned in one batch.
+     */
+    static SplitSource of(List<Split> splits) {
+        return new SplitSource() {
+            private boolean enumerated = false;
+
+            @Override
+            public List<Split> nextBatch() {
+                if (enumerated) {
+                    return ImmutableList.of();
+                }
+                enumerated = true;
+                return splits;
+            }
+        };
+    }
+}
@@ -22,11 +22,13 @@ import org.apache.doris.catalog.HiveMetaStoreClientHelper;
 import org.apache.doris.catalog.HudiUtils;
 import org.apache.doris.catalog.external.ExternalTable;
 import org.apache.doris.common.AnalysisException;
+import org.apache.doris.common.Config;
 import org.apache.doris.common.UserException;
 import org.apache.doris.datasource.hive.HivePartition;
 import org.apache.doris.planner.PlanNodeId;
 import org.apache.doris.planner.external.FileSplit;
 import org.apache.doris.planner.external.HiveScanNode;
+import org.apache.doris.planner.external.SplitSource;
 import org.apache.doris.planner.external.TableFormatType;
 import org.apache.doris.spi.Split;
 import org.apache.doris.statistics.StatisticalType;
@@ -54,6 +56,7 @@ import org.apache.hudi.common.util.Option;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
@@ -139,6 +142,11 @@ public class HudiScanNode extends HiveScanNode {
 
     @Override
     public List<Split> getSplits() throws UserException {
+        return getSplitSource().getAllSplits();
+    }
+
+    @Override
+    protected SplitSource getSplitSource() throws UserException {
         HoodieTableMetaClient hudiClient = HiveMetaStoreClientHelper.getHudiClient(hmsTable);
         hudiClient.reloadActiveTimeline();
         String basePath = hmsTable.getRemoteTable().getSd().getLocation();
@@ -158,7 +166,6 @@ public class HudiScanNode extends HiveScanNode {
         List<FieldSchema> allFields = hmsTable.getRemoteTable().getSd().getCols();
         allFields.addAll(hmsTable.getRemoteTable().getPartitionKeys());
 
-        List<Split> splits = new ArrayList<>();
         for (Schema.Field hudiField : hudiSchema.getFields()) {
             String columnName = hudiField.name().toLowerCase(Locale.ROOT);
             // keep hive metastore column in hudi avro schema.
@@ -175,71 +182,88 @@ public class HudiScanNode extends HiveScanNode {
         HoodieTimeline timeline = hudiClient.getCommitsAndCompactionTimeline().filterCompletedInstants();
         Option<HoodieInstant> latestInstant = timeline.lastInstant();
         if (!latestInstant.isPresent()) {
-            return new ArrayList<>();
+            return SplitSource.of(new ArrayList<>());
         }
         String queryInstant = latestInstant.get().getTimestamp();
         // Non partition table will get one dummy partition
         List<HivePartition> partitions = getPartitions();
-        try {
-            for (HivePartition partition : partitions) {
-                String globPath;
-                String partitionName = "";
-                if (partition.isDummyPartition()) {
-                    globPath = hudiClient.getBasePathV2().toString() + "/*";
-                } else {
-                    partitionName = FSUtils.getRelativePartitionPath(hudiClient.getBasePathV2(),
-                            new Path(partition.getPath()));
-                    globPath = String.format("%s/%s/*", hudiClient.getBasePathV2().toString(), partitionName);
+        return new SplitSource() {
+            private int nextPartitionIdx = 0;
+
+            // The files of partitions are listed until the splits of them reach the batch size.
+            @Override
+            public List<Split> nextBatch() throws UserException {
+                int batchSize = Math.max(1, Config.max_external_split_batch_size);
+                List<Split> splits = new ArrayList<>();
+                while (splits.size() < batchSize && nextPartitionIdx < partitions.size()) {
+                    try {
+                        getPartitionSplits(partitions.get(nextPartitionIdx++), hudiClient, timeline, queryInstant,
+                                inputFormat, serdeLib, basePath, columnNames, columnTypes, splits);
+                    } catch (Exception e) {
+                        String errorMsg = String.format("Failed to get hudi info on basePath: %s", basePath);
+                        LOG.error(errorMsg, e);
+                        throw new UserException(errorMsg, e);
+                    }
                 }
-                List<FileStatus> statuses = FSUtils.getGlobStatusExcludingMetaFolder(hudiClient.getRawFs(),
-                        new Path(globPath));
-                HoodieTableFileSystemView fileSystemView = new HoodieTableFileSystemView(hudiClient,
-                        timeline, statuses.toArray(new FileStatus[0]));
-
-                if (isCowTable) {
-                    fileSystemView.getLatestBaseFilesBeforeOrOn(partitionName, queryInstant).forEach(baseFile -> {
-                        noLogsSplitNum++;
-                        String filePath = baseFile.getPath();
-                        long fileSize = baseFile.getFileSize();
-                        FileSplit split = new FileSplit(new Path(filePath), 0, fileSize, fileSize, new String[0],
-                                partition.getPartitionValues());
+                return splits;
+            }
+        };
+    }
+
+    private void getPartitionSplits(HivePartition partition, HoodieTableMetaClient hudiClient,
+            HoodieTimeline timeline, String queryInstant, String inputFormat, String serdeLib, String basePath,
+            List<String> columnNames, List<String> columnTypes, List<Split> splits) throws IOException {
+        String globPath;
+        String partitionName = "";
+        if (partition.isDummyPartition()) {
+            globPath = hudiClient.getBasePathV2().toString() + "/*";
+        } else {
+            partitionName = FSUtils.getRelativePartitionPath(hudiClient.getBasePathV2(),
+                    new Path(partition.getPath()));
+            globPath = String.format("%s/%s/*", hudiClient.getBasePathV2().toString(), partitionName);
+        }
+        List<FileStatus> statuses = FSUtils.getGlobStatusExcludingMetaFolder(hudiClient.getRawFs(),
+                new Path(globPath));
+        HoodieTableFileSystemView fileSystemView = new HoodieTableFileSystemView(hudiClient,
+                timeline, statuses.toArray(new FileStatus[0]));
+
+        if (isCowTable) {
+            fileSystemView.getLatestBaseFilesBeforeOrOn(partitionName, queryInstant).forEach(baseFile -> {
+                noLogsSplitNum++;
+                String filePath = baseFile.getPath();
+                long fileSize = baseFile.getFileSize();
+                FileSplit split = new FileSplit(new Path(filePath), 0, fileSize, fileSize, new String[0],
+                        partition.getPartitionValues());
+                splits.add(split);
+            });
+        } else {
+            fileSystemView.getLatestMergedFileSlicesBeforeOrOn(partitionName, queryInstant)
+                    .forEach(fileSlice -> {
+                        Optional<HoodieBaseFile> baseFile = fileSlice.getBaseFile().toJavaOptional();
+                        String filePath = baseFile.map(BaseFile::getPath).orElse("");
+                        long fileSize = baseFile.map(BaseFile::getFileSize).orElse(0L);
+
+                        List<String> logs = fileSlice.getLogFiles().map(HoodieLogFile::getPath)
+                                .map(Path::toString)
+                                .collect(Collectors.toList());
+                        if (logs.isEmpty()) {
+                            noLogsSplitNum++;
+                        }
+
+                        HudiSplit split = new HudiSplit(new Path(filePath), 0, fileSize, fileSize,
+                                new String[0], partition.getPartitionValues());
+                        split.setTableFormatType(TableFormatType.HUDI);
+                        split.setDataFilePath(filePath);
+                        split.setHudiDeltaLogs(logs);
+                        split.setInputFormat(inputFormat);
+                        split.setSerde(serdeLib);
+                        split.setBasePath(basePath);
+                        split.setHudiColumnNames(columnNames);
+                        split.setHudiColumnTypes(columnTypes);
+                        split.setInstantTime(queryInstant);
                         splits.add(split);
                     });
-                } else {
-                    fileSystemView.getLatestMergedFileSlicesBeforeOrOn(partitionName, queryInstant)
-                            .forEach(fileSlice -> {
-                                Optional<HoodieBaseFile> baseFile = fileSlice.getBaseFile().toJavaOptional();
-                                String filePath = baseFile.map(BaseFile::getPath).orElse("");
-                                long fileSize = baseFile.map(BaseFile::getFileSize).orElse(0L);
-
-                                List<String> logs = fileSlice.getLogFiles().map(HoodieLogFile::getPath)
-                                        .map(Path::toString)
-                                        .collect(Collectors.toList());
-                                if (logs.isEmpty()) {
-                                    noLogsSplitNum++;
-                                }
-
-                                HudiSplit split = new HudiSplit(new Path(filePath), 0, fileSize, fileSize,
-                                        new String[0], partition.getPartitionValues());
-                                split.setTableFormatType(TableFormatType.HUDI);
-                                split.setDataFilePath(filePath);
-                                split.setHudiDeltaLogs(logs);
-                                split.setInputFormat(inputFormat);
-                                split.setSerde(serdeLib);
-                                split.setBasePath(basePath);
-                                split.setHudiColumnNames(columnNames);
-                                split.setHudiColumnTypes(columnTypes);
-                                split.setInstantTime(queryInstant);
-                                splits.add(split);
-                            });
-                }
-            }
-        } catch (Exception e) {
-            String errorMsg = String.format("Failed to get hudi info on basePath: %s", basePath);
-            LOG.error(errorMsg, e);
-            throw new IllegalArgumentException(errorMsg, e);
         }
-        return splits;
     }
 
     @Override
@@ -24,6 +24,7 @@ import org.apache.doris.catalog.TableIf;
 import org.apache.doris.catalog.external.ExternalTable;
 import org.apache.doris.catalog.external.HMSExternalTable;
 import org.apache.doris.catalog.external.IcebergExternalTable;
+import org.apache.doris.common.Config;
 import org.apache.doris.common.DdlException;
 import org.apache.doris.common.UserException;
 import org.apache.doris.common.util.S3Util;
@@ -32,6 +33,7 @@ import org.apache.doris.datasource.iceberg.IcebergExternalCatalog;
 import org.apache.doris.external.iceberg.util.IcebergUtils;
 import org.apache.doris.planner.PlanNodeId;
 import org.apache.doris.planner.external.FileQueryScanNode;
+import org.apache.doris.planner.external.SplitSource;
 import org.apache.doris.planner.external.TableFormatType;
 import org.apache.doris.qe.ConnectContext;
 import org.apache.doris.spi.Split;
@@ -57,11 +59,16 @@ import org.apache.iceberg.Table;
 import org.apache.iceberg.TableScan;
 import org.apache.iceberg.exceptions.NotFoundException;
 import org.apache.iceberg.expressions.Expression;
+import org.apache.iceberg.io.CloseableIterable;
 import org.apache.iceberg.types.Conversions;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 
+import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -69,6 +76,7 @@ import java.util.OptionalLong;
 import java.util.stream.Collectors;
 
 public class IcebergScanNode extends FileQueryScanNode {
+    private static final Logger LOG = LogManager.getLogger(IcebergScanNode.class);
 
     public static final int MIN_DELETE_FILE_SUPPORT_VERSION = 2;
 
@@ -149,6 +157,11 @@ public class IcebergScanNode extends FileQueryScanNode {
 
     @Override
     public List<Split> getSplits() throws UserException {
+        return getSplitSource().getAllSplits();
+    }
+
+    @Override
+    protected SplitSource getSplitSource() throws UserException {
         List<Expression> expressions = new ArrayList<>();
         org.apache.iceberg.Table table = source.getIcebergTable();
         for (Expr conjunct : conjuncts) {
@@ -175,26 +188,45 @@ public class IcebergScanNode extends FileQueryScanNode {
         for (Expression predicate : expressions) {
             scan = scan.filter(predicate);
         }
-        List<Split> splits = new ArrayList<>();
         int formatVersion = ((BaseTable) table).operations().current().formatVersion();
         // Min split size is DEFAULT_SPLIT_SIZE(128MB).
         long splitSize = Math.max(ConnectContext.get().getSessionVariable().getFileSplitSize(), DEFAULT_SPLIT_SIZE);
-        for (FileScanTask task : scan.planFiles()) {
-            long fileSize = task.file().fileSizeInBytes();
-            for (FileScanTask splitTask : task.split(splitSize)) {
-                String dataFilePath = splitTask.file().path().toString();
-                Path finalDataFilePath = S3Util.toScanRangeLocation(dataFilePath);
-                IcebergSplit split = new IcebergSplit(finalDataFilePath, splitTask.start(),
-                        splitTask.length(), fileSize, new String[0]);
-                split.setFormatVersion(formatVersion);
-                if (formatVersion >= MIN_DELETE_FILE_SUPPORT_VERSION) {
-                    split.setDeleteFileFilters(getDeleteFileFilters(splitTask));
+        // The manifests are read lazily while iterating the tasks, so the files are planned batch by batch.
+        CloseableIterable<FileScanTask> tasks = scan.planFiles();
+        Iterator<FileScanTask> taskIterator = tasks.iterator();
+        return new SplitSource() {
+            @Override
+            public List<Split> nextBatch() {
+                int batchSize = Math.max(1, Config.max_external_split_batch_size);
+                List<Split> splits = new ArrayList<>();
+                while (splits.size() < batchSize && taskIterator.hasNext()) {
+                    FileScanTask task = taskIterator.next();
+                    long fileSize = task.file().fileSizeInBytes();
+                    for (FileScanTask splitTask : task.split(splitSize)) {
+                        String dataFilePath = splitTask.file().path().toString();
+                        Path finalDataFilePath = S3Util.toScanRangeLocation(dataFilePath);
+                        IcebergSplit split = new IcebergSplit(finalDataFilePath, splitTask.start(),
+                                splitTask.length(), fileSize, new String[0]);
+                        split.setFormatVersion(formatVersion);
+                        if (formatVersion >= MIN_DELETE_FILE_SUPPORT_VERSION) {
+                            split.setDeleteFileFilters(getDeleteFileFilters(splitTask));
+                        }
+                        split.setTableFormatType(TableFormatType.ICEBERG);
+                        splits.add(split);
+                    }
                 }
-                split.setTableFormatType(TableFormatType.ICEBERG);
-                splits.add(split);
+                return splits;
             }
-        }
-        return splits;
+
+            @Override
+            public void close() {
+                try {
+                    tasks.close();
+                } catch (IOException e) {
+                    LOG.warn("failed to close file scan tasks of iceberg table {}", table.name(), e);
+                }
+            }
+        };
     }
 
     private long getSnapshotIdAsOfTime(List<HistoryEntry> historyEntries, long asOfTimestamp) {
@@ -289,6 +289,10 @@ public class ConnectContext {
         return this.preparedStmtCtxs.get(stmtName);
     }
 
+    public void invalidatePreparedStmtPlans() {
+        preparedStmtCtxs.values().forEach(PrepareStmtContext::invalidatePlan);
+    }
+
     public List<Table> getTables() {
         return tables;
     }
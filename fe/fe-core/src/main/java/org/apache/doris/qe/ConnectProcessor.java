@@ -801,24 +801,30 @@ public class ConnectProcessor {
         // reset sequence id of MySQL protocol
         final MysqlChannel channel = ctx.getMysqlChannel();
         channel.setSequenceId(0);
-        // read packet from channel
         try {
-            packetBuf = channel.fetchOnePacket();
-            if (packetBuf == null) {
-                LOG.warn("Null packet received from network. remote: {}", channel.getRemoteHostPortString());
-                throw new IOException("Error happened when receiving packet.");
-            }
-        } catch (AsynchronousCloseException e) {
-            // when this happened, timeout checker close this channel
-            // killed flag in ctx has been already set, just return
-            return;
-        }
-
-        // dispatch
-        dispatch();
-        // finalize
-        finalizeCommand();
+            // read packet from channel
+            try {
+                packetBuf = channel.fetchOnePacket();
+                if (packetBuf == null) {
+                    LOG.warn("Null packet received from network. remote: {}", channel.getRemoteHostPortString());
+                    throw new IOException("Error happened when receiving packet.");
+                }
+            } catch (AsynchronousCloseException e) {
+                // when this happened, timeout checker close this channel
+                // killed flag in ctx has been already set, just return
+                return;
+            }
 
+            // dispatch
+            dispatch();
+            // finalize
+            finalizeCommand();
+        } finally {
+            // the connection holds no buffer while it is idle, the borrowed bytes are returned even if
+            // the command fails, since the direct bytes borrowed by all connections are limited
+            packetBuf = null;
+            channel.releaseBuffers();
+        }
         ctx.setCommand(MysqlCommand.COM_SLEEP);
     }
 
@@ -27,8 +27,10 @@ import org.apache.doris.common.Config;
 import org.apache.doris.common.Pair;
 import org.apache.doris.common.Reference;
 import org.apache.doris.common.Status;
+import org.apache.doris.common.ThreadPoolManager;
 import org.apache.doris.common.UserException;
 import org.apache.doris.common.profile.ExecutionProfile;
+import org.apache.doris.common.profile.SummaryProfile;
 import org.apache.doris.common.telemetry.ScopedSpan;
 import org.apache.doris.common.telemetry.Telemetry;
 import org.apache.doris.common.util.DebugUtil;
@@ -63,6 +65,7 @@ import org.apache.doris.planner.UnionNode;
 import org.apache.doris.planner.external.ExternalScanNode;
 import org.apache.doris.planner.external.FileScanNode;
 import org.apache.doris.proto.InternalService;
+import org.apache.doris.proto.InternalService.PExecPlanFragmentRequest;
 import org.apache.doris.proto.InternalService.PExecPlanFragmentResult;
 import org.apache.doris.proto.InternalService.PExecPlanFragmentStartRequest;
 import org.apache.doris.proto.Types;
@@ -137,8 +140,12 @@ import java.util.Map.Entry;
 import java.util.Optional;
 import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.locks.Lock;
@@ -153,6 +160,11 @@ public class Coordinator {
     // Random is used to shuffle instances of partitioned
     private static final Random instanceRandom = new Random();
 
+    // used to serialize the fragment params of different backends in parallel,
+    // see Config.enable_parallel_serialize_fragments
+    private static final ExecutorService fragmentSerializePool = ThreadPoolManager.newDaemonFixedThreadPool(
+            Config.serialize_fragments_thread_num, 1024, "fragment-serialize-pool", true);
+
     // Overall status of the entire query; set to the first reported fragment error
     // status or to CANCELLED, if Cancel() is called.
     Status queryStatus = new Status();
@@ -295,7 +307,7 @@ public class Coordinator {
             }
         }
         PrepareStmt prepareStmt = analyzer == null ? null : analyzer.getPrepareStmt();
-        if (prepareStmt != null) {
+        if (prepareStmt != null && prepareStmt.getDescTable() != null) {
             // Used cached or better performance
             this.descTable = prepareStmt.getDescTable();
             if (pointExec != null) {
@@ -726,10 +738,17 @@ public class Coordinator {
             } // end for fragments
 
             // 4. send and wait fragments rpc
+            SummaryProfile summaryProfile = getSummaryProfile();
+            if (summaryProfile != null) {
+                summaryProfile.setFragmentSendBeginTime();
+            }
             List<Triple<BackendExecStates, BackendServiceProxy, Future<InternalService.PExecPlanFragmentResult>>>
                     futures = Lists.newArrayList();
+            List<BackendExecStates> statesList = Lists.newArrayList(beToExecStates.values());
+            List<Callable<Future<PExecPlanFragmentResult>>> senders = Lists.newArrayList();
+            BackendServiceProxy proxy = BackendServiceProxy.getInstance();
             Context parentSpanContext = Context.current();
-            for (BackendExecStates states : beToExecStates.values()) {
+            for (BackendExecStates states : statesList) {
                 Span span = Telemetry.getNoopSpan();
                 if (ConnectContext.get() != null) {
                     span = ConnectContext.get().getTracer().spanBuilder("execRemoteFragmentsAsync")
@@ -737,10 +756,19 @@ public class Coordinator {
                 }
                 states.scopedSpan = new ScopedSpan(span);
                 states.unsetFields();
-                BackendServiceProxy proxy = BackendServiceProxy.getInstance();
-                futures.add(ImmutableTriple.of(states, proxy, states.execRemoteFragmentsAsync(proxy)));
+                senders.add(() -> states.execRemoteFragmentsAsync(proxy));
+            }
+            List<Future<PExecPlanFragmentResult>> rpcFutures = execRemoteFragments(senders, fragmentSerializePool);
+            for (int i = 0; i < statesList.size(); i++) {
+                futures.add(ImmutableTriple.of(statesList.get(i), proxy, rpcFutures.get(i)));
+            }
+            if (summaryProfile != null) {
+                summaryProfile.setFragmentSerializeFinishTime();
             }
             waitRpc(futures, this.timeoutDeadline - System.currentTimeMillis(), "send fragments");
+            if (summaryProfile != null) {
+                summaryProfile.setFragmentPrepareRpcFinishTime();
+            }
 
             if (twoPhaseExecution) {
                 // 5. send and wait execution start rpc
@@ -752,10 +780,12 @@ public class Coordinator {
                                 .setParent(parentSpanContext).setSpanKind(SpanKind.CLIENT).startSpan();
                     }
                     states.scopedSpan = new ScopedSpan(span);
-                    BackendServiceProxy proxy = BackendServiceProxy.getInstance();
                     futures.add(ImmutableTriple.of(states, proxy, states.execPlanFragmentStartAsync(proxy)));
                 }
                 waitRpc(futures, this.timeoutDeadline - System.currentTimeMillis(), "send execution start");
+                if (summaryProfile != null) {
+                    summaryProfile.setFragmentStartRpcFinishTime();
+                }
             }
 
             attachInstanceProfileToFragmentProfile();
@@ -847,10 +877,17 @@ public class Coordinator {
             } // end for fragments
 
             // 4. send and wait fragments rpc
+            SummaryProfile summaryProfile = getSummaryProfile();
+            if (summaryProfile != null) {
+                summaryProfile.setFragmentSendBeginTime();
+            }
             List<Triple<PipelineExecContexts, BackendServiceProxy, Future<InternalService.PExecPlanFragmentResult>>>
                     futures = Lists.newArrayList();
+            List<PipelineExecContexts> ctxsList = Lists.newArrayList(beToPipelineExecCtxs.values());
+            List<Callable<Future<PExecPlanFragmentResult>>> senders = Lists.newArrayList();
+            BackendServiceProxy proxy = BackendServiceProxy.getInstance();
             Context parentSpanContext = Context.current();
-            for (PipelineExecContexts ctxs : beToPipelineExecCtxs.values()) {
+            for (PipelineExecContexts ctxs : ctxsList) {
                 Span span = Telemetry.getNoopSpan();
                 if (ConnectContext.get() != null) {
                     span = ConnectContext.get().getTracer().spanBuilder("execRemoteFragmentsAsync")
@@ -858,10 +895,19 @@ public class Coordinator {
                 }
                 ctxs.scopedSpan = new ScopedSpan(span);
                 ctxs.unsetFields();
-                BackendServiceProxy proxy = BackendServiceProxy.getInstance();
-                futures.add(ImmutableTriple.of(ctxs, proxy, ctxs.execRemoteFragmentsAsync(proxy)));
+                senders.add(() -> ctxs.execRemoteFragmentsAsync(proxy));
+            }
+            List<Future<PExecPlanFragmentResult>> rpcFutures = execRemoteFragments(senders, fragmentSerializePool);
+            for (int i = 0; i < ctxsList.size(); i++) {
+                futures.add(ImmutableTriple.of(ctxsList.get(i), proxy, rpcFutures.get(i)));
+            }
+            if (summaryProfile != null) {
+                summaryProfile.setFragmentSerializeFinishTime();
             }
             waitPipelineRpc(futures, this.timeoutDeadline - System.currentTimeMillis(), "send fragments");
+            if (summaryProfile != null) {
+                summaryProfile.setFragmentPrepareRpcFinishTime();
+            }
 
             if (twoPhaseExecution) {
                 // 5. send and wait execution start rpc
@@ -873,10 +919,12 @@ public class Coordinator {
                                 .setParent(parentSpanContext).setSpanKind(SpanKind.CLIENT).startSpan();
                     }
                     ctxs.scopedSpan = new ScopedSpan(span);
-                    BackendServiceProxy proxy = BackendServiceProxy.getInstance();
                     futures.add(ImmutableTriple.of(ctxs, proxy, ctxs.execPlanFragmentStartAsync(proxy)));
                 }
                 waitPipelineRpc(futures, this.timeoutDeadline - System.currentTimeMillis(), "send execution start");
+                if (summaryProfile != null) {
+                    summaryProfile.setFragmentStartRpcFinishTime();
+                }
             }
 
             attachInstanceProfileToFragmentProfile();
@@ -885,6 +933,79 @@ public class Coordinator {
         }
     }
 
+    /**
+     * Run the senders, each of which serializes the fragments of one backend and sends them by an async rpc.
+     * If enable_parallel_serialize_fragments is true, the senders run in parallel, and the rpc of a backend
+     * is sent as soon as its fragments are serialized, without waiting for the other backends.
+     * If the pool rejects a sender, it runs in current thread instead.
+     * Returns the rpc futures in the same order as the senders.
+     */
+    static List<Future<PExecPlanFragmentResult>> execRemoteFragments(
+            List<Callable<Future<PExecPlanFragmentResult>>> senders, ExecutorService serializePool)
+            throws TException {
+        List<Future<PExecPlanFragmentResult>> rpcFutures = Lists.newArrayListWithCapacity(senders.size());
+        if (!Config.enable_parallel_serialize_fragments || senders.size() <= 1) {
+            for (Callable<Future<PExecPlanFragmentResult>> sender : senders) {
+                rpcFutures.add(callSender(sender));
+            }
+            return rpcFutures;
+        }
+
+        List<Future<Future<PExecPlanFragmentResult>>> sendFutures = Lists.newArrayListWithCapacity(senders.size());
+        for (Callable<Future<PExecPlanFragmentResult>> sender : senders) {
+            try {
+                sendFutures.add(serializePool.submit(sender));
+            } catch (RejectedExecutionException e) {
+                // the pool is saturated, run the sender in current thread instead of failing the query
+                // while the senders already submitted are still sending rpcs.
+                FutureTask<Future<PExecPlanFragmentResult>> task = new FutureTask<>(sender);
+                task.run();
+                sendFutures.add(task);
+            }
+        }
+        // wait for all senders even if some of them failed,
+        // so that no rpc is sent after this method returns.
+        TException firstException = null;
+        for (Future<Future<PExecPlanFragmentResult>> sendFuture : sendFutures) {
+            try {
+                rpcFutures.add(sendFuture.get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                if (firstException == null) {
+                    firstException = new TException("interrupted when serializing fragments", e);
+                }
+            } catch (ExecutionException e) {
+                if (firstException == null) {
+                    firstException = e.getCause() instanceof TException
+                            ? (TException) e.getCause() : new TException(e.getCause());
+                }
+            }
+        }
+        if (firstException != null) {
+            throw firstException;
+        }
+        return rpcFutures;
+    }
+
+    private static Future<PExecPlanFragmentResult> callSender(Callable<Future<PExecPlanFragmentResult>> sender)
+            throws TException {
+        try {
+            return sender.call();
+        } catch (TException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new TException(e);
+        }
+    }
+
+    private SummaryProfile getSummaryProfile() {
+        ConnectContext ctx = ConnectContext.get();
+        if (ctx == null || ctx.getExecutor() == null) {
+            return null;
+        }
+        return ctx.getExecutor().getSummaryProfile();
+    }
+
     private void waitRpc(List<Triple<BackendExecStates, BackendServiceProxy, Future<PExecPlanFragmentResult>>> futures,
                          long leftTimeMs,
             String operation) throws RpcException, UserException {
@@ -2892,10 +3013,15 @@ public class Coordinator {
             try {
                 TExecPlanFragmentParamsList paramsList = new TExecPlanFragmentParamsList();
                 for (BackendExecState state : states) {
-                    state.initiated = true;
                     paramsList.addToParamsList(state.rpcParams);
                 }
-                return proxy.execPlanFragmentsAsync(brpcAddr, paramsList, twoPhaseExecution);
+                // VERSION 2 means we send TExecPlanFragmentParamsList, not single TExecPlanFragmentParams
+                PExecPlanFragmentRequest request = BackendServiceProxy.buildExecPlanFragmentRequest(paramsList,
+                        InternalService.PFragmentRequestVersion.VERSION_2);
+                for (BackendExecState state : states) {
+                    state.initiated = true;
+                }
+                return proxy.execPlanFragmentsAsync(brpcAddr, request, twoPhaseExecution);
             } catch (RpcException e) {
                 // DO NOT throw exception here, return a complete future with error code,
                 // so that the following logic will cancel the fragment.
@@ -2989,10 +3115,15 @@ public class Coordinator {
             try {
                 TPipelineFragmentParamsList paramsList = new TPipelineFragmentParamsList();
                 for (PipelineExecContext cts : ctxs) {
-                    cts.initiated = true;
                     paramsList.addToParamsList(cts.rpcParams);
                 }
-                return proxy.execPlanFragmentsAsync(brpcAddr, paramsList, twoPhaseExecution);
+                // VERSION 3 means we send TPipelineFragmentParamsList
+                PExecPlanFragmentRequest request = BackendServiceProxy.buildExecPlanFragmentRequest(paramsList,
+                        InternalService.PFragmentRequestVersion.VERSION_3);
+                for (PipelineExecContext cts : ctxs) {
+                    cts.initiated = true;
+                }
+                return proxy.execPlanFragmentsAsync(brpcAddr, request, twoPhaseExecution);
             } catch (RpcException e) {
                 // DO NOT throw exception here, return a complete future with error code,
                 // so that the following logic will cancel the fragment.
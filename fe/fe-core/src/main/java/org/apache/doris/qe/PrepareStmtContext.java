@@ -18,27 +18,292 @@
 package org.apache.doris.qe;
 
 import org.apache.doris.analysis.Analyzer;
+import org.apache.doris.analysis.Expr;
+import org.apache.doris.analysis.InlineViewRef;
+import org.apache.doris.analysis.OrderByElement;
+import org.apache.doris.analysis.PlaceHolderExpr;
 import org.apache.doris.analysis.PrepareStmt;
+import org.apache.doris.analysis.QueryStmt;
+import org.apache.doris.analysis.SelectStmt;
+import org.apache.doris.analysis.SetOperationStmt;
+import org.apache.doris.analysis.StatementBase;
+import org.apache.doris.analysis.Subquery;
+import org.apache.doris.analysis.TableRef;
+import org.apache.doris.catalog.DatabaseIf;
+import org.apache.doris.catalog.MaterializedIndexMeta;
+import org.apache.doris.catalog.OlapTable;
+import org.apache.doris.catalog.TableIf;
+import org.apache.doris.catalog.Type;
+import org.apache.doris.catalog.View;
+import org.apache.doris.common.Config;
+import org.apache.doris.common.UserException;
+import org.apache.doris.common.util.MetaLockUtils;
+import org.apache.doris.mysql.privilege.PrivPredicate;
+import org.apache.doris.planner.OlapScanNode;
 import org.apache.doris.planner.OriginalPlanner;
 import org.apache.doris.planner.Planner;
+import org.apache.doris.planner.ScanNode;
 
 import com.google.common.base.Preconditions;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 
 public class PrepareStmtContext {
+    private static final Logger LOG = LogManager.getLogger(PrepareStmtContext.class);
     public PrepareStmt stmt;
     public ConnectContext ctx;
     public Planner planner;
     public Analyzer analyzer;
     public String stmtString;
 
+    // Whether the plan of a stmt which is not a point query could be reused by the following executions.
+    private boolean planReusable = false;
+    // The tables read by the plan, and their definitions when the plan is created.
+    private final List<TableIf> tables = Lists.newArrayList();
+    private final List<Object> signatures = Lists.newArrayList();
+    // The partitions selected by each olap scan node when the plan is created.
+    private final Map<OlapScanNode, Collection<Long>> plannedPartitionIds = Maps.newLinkedHashMap();
+    // The tables scanned by more than one olap scan node.
+    private final Set<Long> sharedTableIds = Sets.newHashSet();
+    // The types of the values bound to the placeholders when the plan is created. The analyzer may add
+    // casts for these types around the placeholders, so the plan is only reused for values of the same types.
+    private final List<Type> placeholderTypes = Lists.newArrayList();
+
     public PrepareStmtContext(PrepareStmt stmt, ConnectContext ctx, Planner planner,
                                     Analyzer analyzer, String stmtString) {
         this.stmt = stmt;
         this.ctx = ctx;
         this.planner = planner;
-        // Only support OriginalPlanner for now
-        Preconditions.checkState(planner instanceof OriginalPlanner);
+        // Only support OriginalPlanner for now, a stmt which is not a point query is planned
+        // when it is executed for the first time
+        Preconditions.checkState(planner == null || planner instanceof OriginalPlanner);
         this.analyzer = analyzer;
         this.stmtString = stmtString;
     }
+
+    /**
+     * Called after the stmt is analyzed and planned again with the values of the current execution.
+     * The plan of a stmt which is not a point query is kept for the following executions, unless
+     * it depends on the values of the current execution in a way which could not be recomputed.
+     */
+    public void updatePlan(Planner planner, Analyzer analyzer, StatementBase analyzedStmt, List<TableIf> tableList) {
+        this.planner = planner;
+        this.analyzer = analyzer;
+        this.analyzer.setPrepareStmt(stmt);
+        planReusable = false;
+        tables.clear();
+        signatures.clear();
+        plannedPartitionIds.clear();
+        sharedTableIds.clear();
+        placeholderTypes.clear();
+        if (stmt.isPointQuery() || !Config.enable_prepared_stmt_plan_reuse) {
+            return;
+        }
+        // The stmt is rewritten to a new one, or the result of a function like now() is folded to a constant
+        if (analyzedStmt != stmt.getInnerStmt() || analyzer.containsNondeterministicFn()) {
+            return;
+        }
+        // A placeholder may be replaced by a constant computed from its current value by the expr rewrite
+        // rules, the plan could only be reused if it still refers to all placeholders.
+        Set<Expr> placeholders = Collections.newSetFromMap(new IdentityHashMap<>());
+        collectPlaceHolders((QueryStmt) analyzedStmt, placeholders);
+        for (PlaceHolderExpr placeholder : stmt.placeholders()) {
+            if (!placeholders.contains(placeholder)) {
+                LOG.debug("plan of prepared stmt {} is not reusable, since placeholder is folded", stmtString);
+                return;
+            }
+        }
+
+        List<TableIf> planTables = Lists.newArrayList(tableList);
+        Set<Long> scannedTableIds = Sets.newHashSet();
+        for (ScanNode scanNode : planner.getScanNodes()) {
+            // only the scan ranges of olap tables are recomputed when the plan is reused
+            if (!(scanNode instanceof OlapScanNode)) {
+                return;
+            }
+            OlapScanNode olapScanNode = (OlapScanNode) scanNode;
+            plannedPartitionIds.put(olapScanNode, Lists.newArrayList(olapScanNode.getSelectedPartitionIds()));
+            OlapTable olapTable = olapScanNode.getOlapTable();
+            if (!scannedTableIds.add(olapTable.getId())) {
+                sharedTableIds.add(olapTable.getId());
+            }
+            if (planTables.stream().noneMatch(table -> table == olapTable)) {
+                planTables.add(olapTable);
+            }
+        }
+        for (TableIf table : planTables) {
+            Object signature = getSignature(table);
+            if (signature == null) {
+                return;
+            }
+            tables.add(table);
+            signatures.add(signature);
+        }
+        for (PlaceHolderExpr placeholder : stmt.placeholders()) {
+            placeholderTypes.add(placeholder.getType());
+        }
+        planReusable = true;
+    }
+
+    /**
+     * Called when the session is changed by SET or USE stmt, the plan is created again on next execution.
+     */
+    public void invalidatePlan() {
+        planReusable = false;
+    }
+
+    /**
+     * Check whether the plan could be used by the current execution, after the values are bound to the
+     * placeholders. The scan ranges of the plan are recomputed for the new values.
+     * If the plan could not be used, the stmt is reset to be analyzed and planned again.
+     */
+    public boolean reusePlan() throws UserException {
+        if (planner == null) {
+            return false;
+        }
+        if (stmt.isPointQuery()) {
+            return !stmt.needReAnalyze();
+        }
+        if (planReusable && Config.enable_prepared_stmt_plan_reuse && isPlaceholderTypesSame() && isPlanValid()
+                && reEvaluateScanRanges()) {
+            LOG.debug("reuse plan of prepared stmt {}", stmtString);
+            return true;
+        }
+        stmt.reset();
+        return false;
+    }
+
+    private boolean isPlaceholderTypesSame() {
+        List<PlaceHolderExpr> placeholders = stmt.placeholders();
+        for (int i = 0; i < placeholders.size(); i++) {
+            if (!placeholders.get(i).getType().equals(placeholderTypes.get(i))) {
+                LOG.debug("plan of prepared stmt {} is not reused, since type of placeholder {} is changed from {}"
+                        + " to {}", stmtString, i, placeholderTypes.get(i), placeholders.get(i).getType());
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean isPlanValid() {
+        for (int i = 0; i < tables.size(); i++) {
+            TableIf table = tables.get(i);
+            // the table may be dropped, or replaced by another table with the same name
+            DatabaseIf<?> db = table.getDatabase();
+            if (db == null || db.getTableNullable(table.getId()) != table) {
+                return false;
+            }
+            if (!Objects.equals(signatures.get(i), getSignature(table))) {
+                return false;
+            }
+            // the privilege is checked when the stmt is analyzed, if it is denied now, analyze the stmt
+            // again to report the error
+            if (!ctx.getEnv().getAccessManager().checkTblPriv(ctx, db.getFullName(), table.getName(),
+                    PrivPredicate.SELECT)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean reEvaluateScanRanges() throws UserException {
+        List<OlapTable> scanTables = Lists.newArrayList();
+        for (OlapScanNode scanNode : plannedPartitionIds.keySet()) {
+            if (!scanTables.contains(scanNode.getOlapTable())) {
+                scanTables.add(scanNode.getOlapTable());
+            }
+        }
+        scanTables.sort(Comparator.comparing(OlapTable::getId));
+        MetaLockUtils.readLockTables(scanTables);
+        try {
+            for (Map.Entry<OlapScanNode, Collection<Long>> entry : plannedPartitionIds.entrySet()) {
+                OlapScanNode scanNode = entry.getKey();
+                scanNode.reEvaluateRangeLocations();
+                Collection<Long> planned = entry.getValue();
+                Collection<Long> selected = scanNode.getSelectedPartitionIds();
+                // The index selection and the colocate or bucket shuffle join depend on whether none,
+                // one or more partitions are selected, so the plan could not be reused if it is changed.
+                if (Math.min(selected.size(), 2) != Math.min(planned.size(), 2)) {
+                    return false;
+                }
+                // The scans of the same table on the same single partition are joined as colocate.
+                if (selected.size() == 1 && sharedTableIds.contains(scanNode.getOlapTable().getId())
+                        && !selected.containsAll(planned)) {
+                    return false;
+                }
+            }
+        } finally {
+            MetaLockUtils.readUnlockTables(scanTables);
+        }
+        return true;
+    }
+
+    private static Object getSignature(TableIf table) {
+        if (table instanceof View) {
+            return ((View) table).getInlineViewDef();
+        }
+        if (!(table instanceof OlapTable)) {
+            return null;
+        }
+        OlapTable olapTable = (OlapTable) table;
+        Map<Long, Integer> signature = Maps.newTreeMap();
+        olapTable.readLock();
+        try {
+            for (Map.Entry<Long, MaterializedIndexMeta> entry : olapTable.getIndexIdToMeta().entrySet()) {
+                signature.put(entry.getKey(), entry.getValue().getSchemaVersion());
+            }
+        } finally {
+            olapTable.readUnlock();
+        }
+        return signature;
+    }
+
+    private static void collectPlaceHolders(QueryStmt queryStmt, Set<Expr> placeholders) {
+        List<Expr> exprs = Lists.newArrayList(queryStmt.getResultExprs());
+        if (queryStmt.getOrderByElements() != null) {
+            for (OrderByElement orderByElement : queryStmt.getOrderByElements()) {
+                exprs.add(orderByElement.getExpr());
+            }
+        }
+        if (queryStmt instanceof SelectStmt) {
+            SelectStmt selectStmt = (SelectStmt) queryStmt;
+            exprs.add(selectStmt.getWhereClause());
+            exprs.add(selectStmt.getHavingPred());
+            if (selectStmt.getGroupByClause() != null && selectStmt.getGroupByClause().getGroupingExprs() != null) {
+                exprs.addAll(selectStmt.getGroupByClause().getGroupingExprs());
+            }
+            for (TableRef tableRef : selectStmt.getTableRefs()) {
+                exprs.add(tableRef.getOnClause());
+                if (tableRef instanceof InlineViewRef) {
+                    collectPlaceHolders(((InlineViewRef) tableRef).getViewStmt(), placeholders);
+                }
+            }
+        } else if (queryStmt instanceof SetOperationStmt) {
+            for (SetOperationStmt.SetOperand operand : ((SetOperationStmt) queryStmt).getOperands()) {
+                collectPlaceHolders(operand.getQueryStmt(), placeholders);
+            }
+        }
+        List<Subquery> subqueries = Lists.newArrayList();
+        for (Expr expr : exprs) {
+            if (expr != null) {
+                expr.collect(PlaceHolderExpr.class, placeholders);
+                expr.collect(Subquery.class, subqueries);
+            }
+        }
+        for (Subquery subquery : subqueries) {
+            collectPlaceHolders(subquery.getStatement(), placeholders);
+        }
+    }
 }
@@ -355,6 +355,8 @@ public class SessionVariable implements Serializable, Writable {
 
     public static final String ENABLE_STRONG_CONSISTENCY = "enable_strong_consistency_read";
 
+    public static final String QUERY_QUEUE_PRIORITY = "query_queue_priority";
+
     public static final String CBO_CPU_WEIGHT = "cbo_cpu_weight";
 
     public static final String CBO_MEM_WEIGHT = "cbo_mem_weight";
@@ -1033,6 +1035,14 @@ public class SessionVariable implements Serializable, Writable {
     })
     public boolean enableStrongConsistencyRead = false;
 
+    @VariableMgr.VarAttr(name = QUERY_QUEUE_PRIORITY, description = {"查询在 workload group 排队队列中的优先级，"
+            + "值越大越先被执行，优先级相同时，正在执行的查询更少的用户的查询先被执行。",
+            "The priority of the query in the queue of workload group, the query with a larger value is admitted "
+                    + "first. For the same priority, the query of the user with fewer running queries "
+                    + "is admitted first."
+    })
+    public int queryQueuePriority = 0;
+
     // If this fe is in fuzzy mode, then will use initFuzzyModeVariables to generate some variables,
     // not the default value set in the code.
     public void initFuzzyModeVariables() {
@@ -2355,6 +2365,10 @@ public class SessionVariable implements Serializable, Writable {
         return enablePipelineEngine;
     }
 
+    public int getQueryQueuePriority() {
+        return queryQueuePriority;
+    }
+
     public static boolean enablePipelineEngine() {
         ConnectContext connectContext = ConnectContext.get();
         if (connectContext == null) {
@@ -70,6 +70,7 @@ import org.apache.doris.analysis.ShowMTMVJobStmt;
 import org.apache.doris.analysis.ShowMTMVTaskStmt;
 import org.apache.doris.analysis.ShowPartitionIdStmt;
 import org.apache.doris.analysis.ShowPartitionsStmt;
+import org.apache.doris.analysis.ShowPlanCacheStmt;
 import org.apache.doris.analysis.ShowPluginsStmt;
 import org.apache.doris.analysis.ShowPolicyStmt;
 import org.apache.doris.analysis.ShowProcStmt;
@@ -188,6 +189,7 @@ import org.apache.doris.mtmv.MTMVJobManager;
 import org.apache.doris.mtmv.metadata.MTMVJob;
 import org.apache.doris.mtmv.metadata.MTMVTask;
 import org.apache.doris.mysql.privilege.PrivPredicate;
+import org.apache.doris.nereids.cache.PlanCache;
 import org.apache.doris.statistics.AnalysisInfo;
 import org.apache.doris.statistics.ColumnStatistic;
 import org.apache.doris.statistics.Histogram;
@@ -355,6 +357,8 @@ public class ShowExecutor {
             handleShowRoles();
         } else if (stmt instanceof ShowTrashStmt) {
             handleShowTrash();
+        } else if (stmt instanceof ShowPlanCacheStmt) {
+            handleShowPlanCache();
         } else if (stmt instanceof ShowTrashDiskStmt) {
             handleShowTrashDisk();
         } else if (stmt instanceof AdminShowReplicaStatusStmt) {
@@ -1975,6 +1979,11 @@ public class ShowExecutor {
         resultSet = new ShowResultSet(showStmt.getMetaData(), infos);
     }
 
+    private void handleShowPlanCache() {
+        ShowPlanCacheStmt showStmt = (ShowPlanCacheStmt) stmt;
+        resultSet = new ShowResultSet(showStmt.getMetaData(), PlanCache.getInstance().getInfos());
+    }
+
     private void handleShowTrashDisk() {
         ShowTrashDiskStmt showStmt = (ShowTrashDiskStmt) stmt;
         List<List<String>> infos = Lists.newArrayList();
@@ -138,6 +138,7 @@ import org.apache.doris.qe.cache.Cache;
 import org.apache.doris.qe.cache.CacheAnalyzer;
 import org.apache.doris.qe.cache.CacheAnalyzer.CacheMode;
 import org.apache.doris.resource.workloadgroup.QueryQueue;
+import org.apache.doris.resource.workloadgroup.QueryResource;
 import org.apache.doris.resource.workloadgroup.QueueOfferToken;
 import org.apache.doris.rewrite.ExprRewriter;
 import org.apache.doris.rewrite.mvrewrite.MVSelectFailedException;
@@ -567,8 +568,12 @@ public class StmtExecutor {
         if (!parsedStmt.isExplain() && Config.enable_workload_group && Config.enable_query_queue
                 && context.getSessionVariable().getEnablePipelineEngine()) {
             this.queryQueue = context.getEnv().getWorkloadGroupMgr().getWorkloadGroupQueryQueue(context);
+            QueryResource queryResource = QueryResource.estimate(planner);
+            LOG.debug("query (id={}) is estimated to use {}", DebugUtil.printId(queryId), queryResource);
             try {
-                this.offerRet = queryQueue.offer();
+                this.offerRet = queryQueue.offer(context.getQualifiedUser(),
+                        context.getSessionVariable().getQueryQueuePriority(), queryResource);
+                queryQueue.await(offerRet);
             } catch (InterruptedException e) {
                 // this Exception means try lock/await failed, so no need to handle offer result
                 LOG.error("error happens when offer queue, query id=" + DebugUtil.printId(queryId) + " ", e);
@@ -615,7 +620,7 @@ public class StmtExecutor {
             }
         } finally {
             if (offerRet.isOfferSuccess()) {
-                queryQueue.poll();
+                queryQueue.poll(offerRet);
             }
         }
     }
@@ -864,10 +869,10 @@ public class StmtExecutor {
             planner = preparedStmtCtx.planner;
             analyzer = preparedStmtCtx.analyzer;
             prepareStmt = preparedStmtCtx.stmt;
-            Preconditions.checkState(parsedStmt.isAnalyzed());
             LOG.debug("already prepared stmt: {}", preparedStmtCtx.stmtString);
             isExecuteStmt = true;
-            if (!preparedStmtCtx.stmt.needReAnalyze()) {
+            if (preparedStmtCtx.reusePlan()) {
+                Preconditions.checkState(parsedStmt.isAnalyzed());
                 // Return directly to bypass analyze and plan
                 return;
             }
@@ -896,6 +901,10 @@ public class StmtExecutor {
             prepareStmt.analyze(analyzer);
             // Need analyze inner statement
             parsedStmt = prepareStmt.getInnerStmt();
+            if (!prepareStmt.isPointQuery()) {
+                // analyze and plan it when executed, since the plan depends on the values of placeholders
+                return;
+            }
         }
 
         // Convert show statement to select statement here
@@ -920,6 +929,7 @@ public class StmtExecutor {
             }
         }
 
+        List<TableIf> tables = Collections.emptyList();
         if (parsedStmt instanceof QueryStmt
                 || (parsedStmt instanceof InsertStmt && !((InsertStmt) parsedStmt).needLoadManager())
                 || parsedStmt instanceof CreateTableAsSelectStmt
@@ -943,7 +953,7 @@ public class StmtExecutor {
                 insertStmt.getTables(analyzer, tableMap, parentViewNameSet);
             }
             // table id in tableList is in ascending order because that table map is a sorted map
-            List<TableIf> tables = Lists.newArrayList(tableMap.values());
+            tables = Lists.newArrayList(tableMap.values());
             int analyzeTimes = 2;
             for (int i = 1; i <= analyzeTimes; i++) {
                 MetaLockUtils.readLockTables(tables);
@@ -983,10 +993,8 @@ public class StmtExecutor {
         }
         if (preparedStmtReanalyzed) {
             LOG.debug("update planner and analyzer after prepared statement reanalyzed");
-            preparedStmtCtx.planner = planner;
-            preparedStmtCtx.analyzer = analyzer;
             Preconditions.checkNotNull(preparedStmtCtx.stmt);
-            preparedStmtCtx.analyzer.setPrepareStmt(preparedStmtCtx.stmt);
+            preparedStmtCtx.updatePlan(planner, analyzer, parsedStmt, tables);
         }
     }
 
@@ -1181,6 +1189,7 @@ public class StmtExecutor {
             SetStmt setStmt = (SetStmt) parsedStmt;
             SetExecutor executor = new SetExecutor(context, setStmt);
             executor.execute();
+            context.invalidatePreparedStmtPlans();
         } catch (DdlException e) {
             LOG.warn("", e);
             // Return error message to client.
@@ -1195,7 +1204,7 @@ public class StmtExecutor {
     // the meta fields must be sent right before the first batch of data(or eos flag).
     // so if it has data(or eos is true), this method must return true.
     private boolean sendCachedValues(MysqlChannel channel, List<InternalService.PCacheValue> cacheValues,
-            SelectStmt selectStmt, boolean isSendFields, boolean isEos)
+            Queriable selectStmt, boolean isSendFields, boolean isEos)
             throws Exception {
         RowBatch batch = null;
         boolean isSend = isSendFields;
@@ -1235,13 +1244,13 @@ public class StmtExecutor {
     }
 
     /**
-     * Handle the SelectStmt via Cache.
+     * Handle the SelectStmt or the query planned by nereids via Cache.
      */
-    private void handleCacheStmt(CacheAnalyzer cacheAnalyzer, MysqlChannel channel, SelectStmt selectStmt)
+    private void handleCacheStmt(CacheAnalyzer cacheAnalyzer, MysqlChannel channel, Queriable selectStmt)
             throws Exception {
         InternalService.PFetchCacheResult cacheResult = cacheAnalyzer.getCacheData();
         CacheMode mode = cacheAnalyzer.getCacheMode();
-        SelectStmt newSelectStmt = selectStmt;
+        Queriable newSelectStmt = selectStmt;
         boolean isSendFields = false;
         if (cacheResult != null) {
             isCached = true;
@@ -1255,16 +1264,17 @@ public class StmtExecutor {
                     isSendFields = sendCachedValues(channel, cacheResult.getValuesList(),
                             newSelectStmt, isSendFields, false);
                 }
-                newSelectStmt = cacheAnalyzer.getRewriteStmt();
-                newSelectStmt.reset();
+                SelectStmt rewriteStmt = cacheAnalyzer.getRewriteStmt();
+                rewriteStmt.reset();
                 analyzer = new Analyzer(context.getEnv(), context);
-                newSelectStmt.analyze(analyzer);
+                rewriteStmt.analyze(analyzer);
                 if (parsedStmt instanceof LogicalPlanAdapter) {
                     planner = new NereidsPlanner(statementContext);
                 } else {
                     planner = new OriginalPlanner(analyzer);
                 }
-                planner.plan(newSelectStmt, context.getSessionVariable().toThrift());
+                planner.plan(rewriteStmt, context.getSessionVariable().toThrift());
+                newSelectStmt = rewriteStmt;
             }
         }
         sendResult(false, isSendFields, newSelectStmt, channel, cacheAnalyzer, cacheResult);
@@ -1337,8 +1347,9 @@ public class StmtExecutor {
 
         // Sql and PartitionCache
         CacheAnalyzer cacheAnalyzer = new CacheAnalyzer(context, parsedStmt, planner);
-        if (cacheAnalyzer.enableCache() && !isOutfileQuery && queryStmt instanceof SelectStmt) {
-            handleCacheStmt(cacheAnalyzer, channel, (SelectStmt) queryStmt);
+        if (cacheAnalyzer.enableCache() && !isOutfileQuery
+                && (queryStmt instanceof SelectStmt || queryStmt instanceof LogicalPlanAdapter)) {
+            handleCacheStmt(cacheAnalyzer, channel, queryStmt);
             return;
         }
 
@@ -1438,8 +1449,7 @@ public class StmtExecutor {
             if (cacheAnalyzer != null) {
                 if (cacheResult != null && cacheAnalyzer.getHitRange() == Cache.HitRange.Right) {
                     isSendFields =
-                            sendCachedValues(channel, cacheResult.getValuesList(), (SelectStmt) queryStmt, isSendFields,
-                                    false);
+                            sendCachedValues(channel, cacheResult.getValuesList(), queryStmt, isSendFields, false);
                 }
 
                 cacheAnalyzer.updateCache();
@@ -1954,6 +1964,7 @@ public class StmtExecutor {
                 context.getEnv().changeCatalog(context, useStmt.getCatalogName());
             }
             context.getEnv().changeDb(context, useStmt.getDatabase());
+            context.invalidatePreparedStmtPlans();
         } catch (DdlException e) {
             LOG.warn("", e);
             context.getState().setError(e.getMysqlErrorCode(), e.getMessage());
@@ -39,6 +39,8 @@ import org.apache.doris.common.Config;
 import org.apache.doris.common.Status;
 import org.apache.doris.common.util.DebugUtil;
 import org.apache.doris.metric.MetricRepo;
+import org.apache.doris.nereids.NereidsPlanner;
+import org.apache.doris.nereids.glue.LogicalPlanAdapter;
 import org.apache.doris.planner.OlapScanNode;
 import org.apache.doris.planner.Planner;
 import org.apache.doris.planner.ScanNode;
@@ -87,6 +89,7 @@ public class CacheAnalyzer {
     private StatementBase parsedStmt;
     private SelectStmt selectStmt;
     private List<ScanNode> scanNodes;
+    private Planner planner;
     private OlapTable olapTable;
     private RangePartitionInfo partitionInfo;
     private Column partColumn;
@@ -102,6 +105,7 @@ public class CacheAnalyzer {
         this.context = context;
         this.queryId = context.queryId();
         this.parsedStmt = parsedStmt;
+        this.planner = planner;
         scanNodes = planner.getScanNodes();
         latestTable = new CacheTable();
         allViewStmtSet = new HashSet<>();
@@ -193,6 +197,9 @@ public class CacheAnalyzer {
             LOG.debug("cache is disabled. queryid {}", DebugUtil.printId(queryId));
             return CacheMode.NoNeed;
         }
+        if (parsedStmt instanceof LogicalPlanAdapter) {
+            return innerCheckNereidsCacheMode(now);
+        }
         if (!(parsedStmt instanceof SelectStmt) || scanNodes.size() == 0) {
             LOG.debug("not a select stmt or no scan node. queryid {}", DebugUtil.printId(queryId));
             return CacheMode.NoNeed;
@@ -288,6 +295,55 @@ public class CacheAnalyzer {
         return CacheMode.Partition;
     }
 
+    /**
+     * Only sql mode is supported for the queries planned by nereids, the result is cached with the
+     * normalized plan instead of the sql, see NereidsSqlCache.
+     */
+    private CacheMode innerCheckNereidsCacheMode(long now) {
+        if (!enableSqlCache() || scanNodes.isEmpty() || !(planner instanceof NereidsPlanner)) {
+            LOG.debug("sql cache is disabled or no scan node. queryid {}", DebugUtil.printId(queryId));
+            return CacheMode.NoNeed;
+        }
+        MetricRepo.COUNTER_QUERY_TABLE.increase(1L);
+
+        // the nondeterministic expressions like now() may be folded to literals in the physical plan,
+        // so check the analyzed plan recorded by the planner
+        NereidsPlanner nereidsPlanner = (NereidsPlanner) planner;
+        if (nereidsPlanner.getPhysicalPlan() == null || nereidsPlanner.hasUncacheableExpression()) {
+            LOG.debug("query contains nondeterministic expression. queryid {}", DebugUtil.printId(queryId));
+            return CacheMode.None;
+        }
+        List<CacheTable> tblTimeList = Lists.newArrayList();
+        for (ScanNode node : scanNodes) {
+            if (!(node instanceof OlapScanNode)) {
+                LOG.debug("query contains non-olap table. queryid {}", DebugUtil.printId(queryId));
+                return CacheMode.None;
+            }
+            tblTimeList.add(getSelectedPartitionLastUpdateTime((OlapScanNode) node));
+        }
+        MetricRepo.COUNTER_QUERY_OLAP_TABLE.increase(1L);
+        Collections.sort(tblTimeList);
+        latestTable = tblTimeList.get(0);
+        latestTable.debug();
+
+        if (now == 0) {
+            now = nowtime();
+        }
+        if ((now - latestTable.latestTime) < Config.cache_last_version_interval_second * 1000L) {
+            LOG.debug("the time of table is newer than {} s, queryid {}",
+                    Config.cache_last_version_interval_second, DebugUtil.printId(queryId));
+            return CacheMode.None;
+        }
+        String cacheKey = NereidsSqlCache.buildCacheKey(planner, scanNodes, context);
+        if (cacheKey == null) {
+            return CacheMode.None;
+        }
+        cache = new NereidsSqlCache(this.queryId, cacheKey);
+        ((SqlCache) cache).setCacheInfo(this.latestTable, "");
+        MetricRepo.COUNTER_CACHE_ADDED_SQL.increase(1L);
+        return CacheMode.Sql;
+    }
+
     public InternalService.PFetchCacheResult getCacheData() {
         cacheMode = innerCheckCacheMode(0);
         if (cacheMode == CacheMode.NoNeed) {
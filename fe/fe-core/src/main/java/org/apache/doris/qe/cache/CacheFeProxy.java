@@ -0,0 +1,109 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+package org.apache.doris.qe.cache;
+
+import org.apache.doris.common.Config;
+import org.apache.doris.common.Status;
+import org.apache.doris.proto.InternalService;
+import org.apache.doris.proto.Types;
+import org.apache.doris.thrift.TStatusCode;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Keep the small query results in the memory of fe, so that a hit is returned without any rpc to be.
+ * The results are weighed by their serialized size, and the least used ones are evicted
+ * when the total size exceeds Config.cache_fe_max_bytes.
+ */
+public class CacheFeProxy extends CacheProxy {
+    private static final Logger LOG = LogManager.getLogger(CacheFeProxy.class);
+
+    private static final CacheFeProxy INSTANCE = new CacheFeProxy();
+
+    private final Cache<Types.PUniqueId, InternalService.PUpdateCacheRequest> cache = Caffeine.newBuilder()
+            .maximumWeight(Config.cache_fe_max_bytes)
+            .weigher((Types.PUniqueId key, InternalService.PUpdateCacheRequest value) -> value.getSerializedSize())
+            .build();
+
+    private CacheFeProxy() {
+    }
+
+    public static CacheFeProxy getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Whether the result of the request could be cached in fe, the larger one should be cached in be.
+     */
+    public static boolean canCache(InternalService.PUpdateCacheRequest request) {
+        return request.getSerializedSize() <= Config.cache_fe_result_max_bytes;
+    }
+
+    @Override
+    public void updateCache(InternalService.PUpdateCacheRequest request, int timeoutMs, Status status) {
+        if (!canCache(request)) {
+            status.setStatus(InternalService.PCacheStatus.SIZE_OVER_LIMIT.toString());
+            return;
+        }
+        cache.put(request.getSqlKey(), request);
+        status.setStatus(new Status(TStatusCode.OK, "CACHE_OK"));
+    }
+
+    @Override
+    public InternalService.PFetchCacheResult fetchCache(InternalService.PFetchCacheRequest request,
+                                                        int timeoutMs, Status status) {
+        InternalService.PUpdateCacheRequest cached = cache.getIfPresent(request.getSqlKey());
+        if (cached == null) {
+            return InternalService.PFetchCacheResult.newBuilder()
+                    .setStatus(InternalService.PCacheStatus.NO_SQL_KEY).build();
+        }
+        // the same as be, the data is overdue if any partition is updated after it is cached
+        for (InternalService.PCacheParam param : request.getParamsList()) {
+            boolean matched = cached.getValuesList().stream().anyMatch(value ->
+                    value.getParam().getPartitionKey() == param.getPartitionKey()
+                            && value.getParam().getLastVersion() == param.getLastVersion()
+                            && value.getParam().getLastVersionTime() == param.getLastVersionTime());
+            if (!matched) {
+                cache.asMap().remove(request.getSqlKey(), cached);
+                return InternalService.PFetchCacheResult.newBuilder()
+                        .setStatus(InternalService.PCacheStatus.DATA_OVERDUE).build();
+            }
+        }
+        return InternalService.PFetchCacheResult.newBuilder()
+                .setStatus(InternalService.PCacheStatus.CACHE_OK)
+                .addAllValues(cached.getValuesList())
+                .build();
+    }
+
+    @Override
+    public void clearCache(InternalService.PClearCacheRequest request) {
+        if (request.getClearType() == InternalService.PClearType.CLEAR_ALL || !request.hasSqlKey()) {
+            LOG.info("clear all fe cache, size {}", cache.estimatedSize());
+            cache.invalidateAll();
+        } else {
+            cache.invalidate(request.getSqlKey());
+        }
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+}
@@ -0,0 +1,98 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+package org.apache.doris.qe.cache;
+
+import org.apache.doris.catalog.Partition;
+import org.apache.doris.planner.OlapScanNode;
+import org.apache.doris.planner.PlanFragment;
+import org.apache.doris.planner.Planner;
+import org.apache.doris.planner.ScanNode;
+import org.apache.doris.qe.ConnectContext;
+import org.apache.doris.thrift.TUniqueId;
+
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.thrift.TException;
+import org.apache.thrift.TSerializer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.TreeMap;
+
+/**
+ * Sql cache of the queries planned by nereids.
+ * The result is cached with the plan executed by be and the visible versions of the partitions it reads
+ * as the key, so the queries with the same normalized plan share the result, no matter how they are written.
+ */
+public class NereidsSqlCache extends SqlCache {
+    private static final Logger LOG = LogManager.getLogger(NereidsSqlCache.class);
+
+    private final String cacheKey;
+
+    public NereidsSqlCache(TUniqueId queryId, String cacheKey) {
+        super(queryId, null);
+        this.cacheKey = cacheKey;
+    }
+
+    @Override
+    public String getSqlWithViewStmt() {
+        return cacheKey;
+    }
+
+    /**
+     * Build the cache key from the fragments and descriptor table translated from the physical plan,
+     * the session variables sent to be, and the visible versions of the scanned partitions.
+     * The ids of slots and tuples are generated in the same order for the same plan, so they are stable.
+     * Return null if the plan could not be serialized.
+     */
+    public static String buildCacheKey(Planner planner, List<ScanNode> scanNodes, ConnectContext context) {
+        Hasher hasher = Hashing.sha256().newHasher();
+        try {
+            TSerializer serializer = new TSerializer();
+            for (PlanFragment fragment : planner.getFragments()) {
+                hasher.putBytes(serializer.serialize(fragment.toThrift()));
+            }
+            hasher.putBytes(serializer.serialize(planner.getDescTable().toThrift()));
+            hasher.putBytes(serializer.serialize(context.getSessionVariable().toThrift()));
+        } catch (TException e) {
+            LOG.warn("failed to serialize the plan for sql cache, queryid {}", context.queryId(), e);
+            return null;
+        }
+        hasher.putString(context.getSessionVariable().getTimeZone(), StandardCharsets.UTF_8);
+        hasher.putLong(context.getSessionVariable().getSqlMode());
+
+        StringBuilder key = new StringBuilder(hasher.hash().toString());
+        for (ScanNode scanNode : scanNodes) {
+            OlapScanNode olapScanNode = (OlapScanNode) scanNode;
+            TreeMap<Long, Long> partitionVersions = new TreeMap<>();
+            for (Long partitionId : olapScanNode.getSelectedPartitionIds()) {
+                Partition partition = olapScanNode.getOlapTable().getPartition(partitionId);
+                if (partition == null) {
+                    return null;
+                }
+                partitionVersions.put(partitionId, partition.getVisibleVersion());
+            }
+            key.append('|').append(olapScanNode.getOlapTable().getId())
+                    .append(':').append(olapScanNode.getSelectedIndexId())
+                    .append(':').append(partitionVersions);
+        }
+        return key.toString();
+    }
+}
@@ -53,7 +53,16 @@ public class SqlCache extends Cache {
                         .setLastVersionTime(latestTable.latestTime))
                 .build();
 
-        InternalService.PFetchCacheResult cacheResult = proxy.fetchCache(request, 10000, status);
+        // the small results are cached in fe, try it first to avoid the rpc to be
+        InternalService.PFetchCacheResult cacheResult = CacheProxy.getCacheProxy(CacheProxy.CacheProxyType.FE)
+                .fetchCache(request, CacheProxy.FETCH_TIMEOUT, status);
+        if (cacheResult.getStatus() == InternalService.PCacheStatus.CACHE_OK) {
+            if (MetricRepo.isInit) {
+                MetricRepo.COUNTER_CACHE_HIT_FE.increase(1L);
+            }
+        } else {
+            cacheResult = proxy.fetchCache(request, 10000, status);
+        }
         if (status.ok() && cacheResult != null && cacheResult.getStatus() == InternalService.PCacheStatus.CACHE_OK) {
             cacheResult = cacheResult.toBuilder().setAllCount(1).build();
             MetricRepo.COUNTER_CACHE_HIT_SQL.increase(1L);
@@ -82,7 +91,8 @@ public class SqlCache extends Cache {
                 rowBatchBuilder.buildSqlUpdateRequest(getSqlWithViewStmt(), latestTable.latestPartitionId,
                         latestTable.latestVersion, latestTable.latestTime);
         if (updateRequest.getValuesCount() > 0) {
-            CacheBeProxy proxy = new CacheBeProxy();
+            CacheProxy proxy = CacheFeProxy.canCache(updateRequest)
+                    ? CacheProxy.getCacheProxy(CacheProxy.CacheProxyType.FE) : new CacheBeProxy();
             Status status = new Status();
             proxy.updateCache(updateRequest, CacheProxy.UPDATE_TIMEOUT, status);
             int rowCount = 0;
@@ -91,8 +101,9 @@ public class SqlCache extends Cache {
                 rowCount += value.getRowsCount();
                 dataSize += value.getDataSize();
             }
-            LOG.info("update cache model {}, queryid {}, sqlkey {}, value count {}, row count {}, data size {}",
-                    CacheAnalyzer.CacheMode.Sql, DebugUtil.printId(queryId),
+            LOG.info("update cache model {}, in {}, queryid {}, sqlkey {}, value count {}, row count {}, data size {}",
+                    CacheAnalyzer.CacheMode.Sql, proxy instanceof CacheFeProxy ? "fe" : "be",
+                    DebugUtil.printId(queryId),
                     DebugUtil.printId(updateRequest.getSqlKey()),
                     updateRequest.getValuesCount(), rowCount, dataSize);
         }
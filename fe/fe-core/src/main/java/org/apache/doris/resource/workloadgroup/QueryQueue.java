@@ -17,31 +17,59 @@
 
 package org.apache.doris.resource.workloadgroup;
 
+import org.apache.doris.metric.MetricRepo;
+
 import com.google.common.base.Preconditions;
+import com.google.common.collect.Maps;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
-import java.util.concurrent.TimeUnit;
-import java.util.concurrent.locks.Condition;
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.Map;
+import java.util.TreeMap;
 import java.util.concurrent.locks.ReentrantLock;
 
 // note(wb) refer java BlockingQueue, but support altering capacity
 // todo(wb) add wait time to profile
+//
+// A query is admitted if the running queries are fewer than maxConcurrency, and the total estimated memory
+// and scan bytes of the running queries do not exceed the limits after it is admitted.
+// Otherwise it waits in queue, no thread is parked on the queue lock. When a query finishes, the waiting queries
+// are admitted in the order of priority, then the user with fewer running queries, then the arrival.
+// The admission is strictly in this order: if the next query does not fit, no query behind it is admitted even if
+// it fits, so that a large query is not starved by the small ones arriving after it.
 public class QueryQueue {
 
     private static final Logger LOG = LogManager.getLogger(QueryQueue.class);
-    // note(wb) used unfair by default, need more test later
+
+    public static final String REJECT_QUEUE_FULL = "queue_full";
+    public static final String REJECT_TIMEOUT = "timeout";
+    public static final String REJECT_INTERRUPTED = "interrupted";
+
+    // the lock is never held while waiting
     private final ReentrantLock queueLock = new ReentrantLock();
-    private final Condition queueLockCond = queueLock.newCondition();
+    private final String name;
     // resource group property
     private int maxConcurrency;
     private int maxQueueSize;
     private int queueTimeout; // ms
+    private long maxRunningMemory; // 0 means no limit
+    private long maxRunningScanBytes; // 0 means no limit
     // running property
     private int currentRunningQueryNum;
     private int currentWaitingQueryNum;
+    private long currentRunningMemory;
+    private long currentRunningScanBytes;
+    private final Map<String, Integer> userRunningQueryNum = Maps.newHashMap();
+    // priority -> user -> waiting queries of the user in the order of arrival, the higher priority first
+    private final TreeMap<Integer, Map<String, Deque<QueueOfferToken>>> waitingQueries =
+            new TreeMap<>(Comparator.reverseOrder());
+    private long nextSeq = 0;
 
-    public QueryQueue(int maxConcurrency, int maxQueueSize, int queueTimeout) {
+    public QueryQueue(String name, int maxConcurrency, int maxQueueSize, int queueTimeout) {
+        this.name = name;
         this.maxConcurrency = maxConcurrency;
         this.maxQueueSize = maxQueueSize;
         this.queueTimeout = queueTimeout;
@@ -49,69 +77,218 @@ public class QueryQueue {
 
     public String debugString() {
         return "maxConcurrency=" + maxConcurrency + ", maxQueueSize=" + maxQueueSize + ", queueTimeout=" + queueTimeout
+                + ", maxRunningMemory=" + maxRunningMemory + ", maxRunningScanBytes=" + maxRunningScanBytes
                 + ", currentRunningQueryNum=" + currentRunningQueryNum + ", currentWaitingQueryNum="
-                + currentWaitingQueryNum;
+                + currentWaitingQueryNum + ", currentRunningMemory=" + currentRunningMemory
+                + ", currentRunningScanBytes=" + currentRunningScanBytes;
     }
 
-    public QueueOfferToken offer() throws InterruptedException {
-        // to prevent hang
-        // the lock shouldn't be hold for too long
-        // we should catch the case when it happens
-        queueLock.tryLock(5, TimeUnit.SECONDS);
+    /**
+     * Offer a query to the queue without waiting. The returned token is admitted or rejected already,
+     * or is waiting in queue, call await() to wait for the result.
+     */
+    public QueueOfferToken offer(String user, int priority, QueryResource resource) {
+        QueueOfferToken token = new QueueOfferToken(user, priority, resource);
+        queueLock.lock();
         try {
-            // currentRunningQueryNum may bigger than maxRunningQueryNum
-            // because maxRunningQueryNum can be altered
-            if (currentRunningQueryNum >= maxConcurrency) {
-                if (currentWaitingQueryNum >= maxQueueSize) {
-                    LOG.debug(this.debugString());
-                    return new QueueOfferToken(false, "query waiting queue is full, queue length=" + maxQueueSize);
-                }
+            // the waiting queries are admitted first, so that a large query is not starved by the small ones
+            if (currentWaitingQueryNum == 0 && canRun(token)) {
+                run(token);
+                return token;
+            }
+            if (currentWaitingQueryNum >= maxQueueSize) {
+                LOG.debug(this.debugString());
+                reject(token, REJECT_QUEUE_FULL, "query waiting queue is full, queue length=" + maxQueueSize);
+                return token;
+            }
+            token.setSeq(nextSeq++);
+            waitingQueries.computeIfAbsent(priority, k -> Maps.newLinkedHashMap())
+                    .computeIfAbsent(user, k -> new ArrayDeque<>()).add(token);
+            currentWaitingQueryNum++;
+            return token;
+        } finally {
+            updateMetrics();
+            queueLock.unlock();
+        }
+    }
 
-                currentWaitingQueryNum++;
-                boolean ret;
-                try {
-                    ret = queueLockCond.await(queueTimeout, TimeUnit.MILLISECONDS);
-                } finally {
-                    currentWaitingQueryNum--;
-                }
-                if (!ret) {
-                    LOG.debug(this.debugString());
-                    return new QueueOfferToken(false, "query wait timeout " + queueTimeout + " ms");
+    /**
+     * Wait until the query is admitted or rejected, the query is rejected if it waits longer than queueTimeout.
+     * Return true if the query is admitted, and poll() must be called after it finishes.
+     */
+    public boolean await(QueueOfferToken token) throws InterruptedException {
+        boolean interrupted = true;
+        try {
+            token.await(queueTimeout);
+            interrupted = false;
+        } finally {
+            queueLock.lock();
+            try {
+                if (!token.isDone()) {
+                    removeWaitingQuery(token);
+                    if (interrupted) {
+                        reject(token, REJECT_INTERRUPTED, "query wait interrupted");
+                    } else {
+                        LOG.debug(this.debugString());
+                        reject(token, REJECT_TIMEOUT, "query wait timeout " + queueTimeout + " ms");
+                    }
+                } else if (interrupted) {
+                    // the query is admitted but will not run
+                    release(token);
+                    dispatch();
                 }
+            } finally {
+                updateMetrics();
+                queueLock.unlock();
             }
-            currentRunningQueryNum++;
-            return new QueueOfferToken(true, "offer success");
+        }
+        if (token.isOfferSuccess() && MetricRepo.isInit) {
+            MetricRepo.WG_HISTO_QUERY_QUEUE_WAIT.getOrAdd(name).update(token.getWaitTimeMs());
+        }
+        return token.isOfferSuccess();
+    }
+
+    public void poll(QueueOfferToken token) {
+        queueLock.lock();
+        try {
+            release(token);
+            dispatch();
         } finally {
+            updateMetrics();
             queueLock.unlock();
         }
     }
 
-    public void poll() throws InterruptedException {
-        queueLock.tryLock(5, TimeUnit.SECONDS);
+    public void resetQueueProperty(int maxConcurrency, int maxQueueSize, int queryWaitTimeout) {
+        queueLock.lock();
         try {
-            currentRunningQueryNum--;
-            Preconditions.checkArgument(currentRunningQueryNum >= 0);
-            // maybe only when currentWaitingQueryNum != 0 need to signal
-            queueLockCond.signal();
+            this.maxConcurrency = maxConcurrency;
+            this.maxQueueSize = maxQueueSize;
+            this.queueTimeout = queryWaitTimeout;
+            dispatch();
         } finally {
+            updateMetrics();
             queueLock.unlock();
         }
     }
 
-    public void resetQueueProperty(int maxConcurrency, int maxQueueSize, int queryWaitTimeout) {
+    public void resetResourceLimit(long maxRunningMemory, long maxRunningScanBytes) {
+        queueLock.lock();
         try {
-            queueLock.tryLock(5, TimeUnit.SECONDS);
-            try {
-                this.maxConcurrency = maxConcurrency;
-                this.maxQueueSize = maxQueueSize;
-                this.queueTimeout = queryWaitTimeout;
-            } finally {
-                queueLock.unlock();
+            this.maxRunningMemory = maxRunningMemory;
+            this.maxRunningScanBytes = maxRunningScanBytes;
+            dispatch();
+        } finally {
+            updateMetrics();
+            queueLock.unlock();
+        }
+    }
+
+    private boolean canRun(QueueOfferToken token) {
+        // currentRunningQueryNum may bigger than maxRunningQueryNum
+        // because maxRunningQueryNum can be altered
+        if (currentRunningQueryNum >= maxConcurrency) {
+            return false;
+        }
+        // a query exceeding the limits could only run alone
+        if (currentRunningQueryNum == 0) {
+            return true;
+        }
+        QueryResource resource = token.getResource();
+        return fits(currentRunningMemory, resource.getMemoryBytes(), maxRunningMemory)
+                && fits(currentRunningScanBytes, resource.getScanBytes(), maxRunningScanBytes);
+    }
+
+    private static boolean fits(long current, long required, long limit) {
+        return limit <= 0 || required <= limit - current;
+    }
+
+    private void run(QueueOfferToken token) {
+        currentRunningQueryNum++;
+        currentRunningMemory += token.getResource().getMemoryBytes();
+        currentRunningScanBytes += token.getResource().getScanBytes();
+        if (token.getUser() != null) {
+            userRunningQueryNum.merge(token.getUser(), 1, Integer::sum);
+        }
+        token.complete(true, "offer success");
+    }
+
+    private void reject(QueueOfferToken token, String reason, String detail) {
+        token.complete(false, detail);
+        if (MetricRepo.isInit) {
+            MetricRepo.COUNTER_QUERY_QUEUE_REJECTED.getOrAdd(reason).increase(1L);
+        }
+    }
+
+    private void release(QueueOfferToken token) {
+        if (!token.isOfferSuccess() || !token.release()) {
+            return;
+        }
+        currentRunningQueryNum--;
+        Preconditions.checkArgument(currentRunningQueryNum >= 0);
+        currentRunningMemory -= token.getResource().getMemoryBytes();
+        currentRunningScanBytes -= token.getResource().getScanBytes();
+        if (token.getUser() != null) {
+            userRunningQueryNum.computeIfPresent(token.getUser(), (user, num) -> num > 1 ? num - 1 : null);
+        }
+    }
+
+    // admit the waiting queries in order until the next one could not run, the queries behind it are not skipped
+    private void dispatch() {
+        while (currentWaitingQueryNum > 0) {
+            QueueOfferToken next = peekWaitingQuery();
+            if (!canRun(next)) {
+                return;
             }
-        } catch (InterruptedException e) {
-            LOG.error("reset queue property failed, ", e);
-            throw new RuntimeException("reset queue property failed, reason=" + e.getMessage());
+            removeWaitingQuery(next);
+            run(next);
         }
     }
 
+    // the first query of the user with the fewest running queries, in the highest priority
+    private QueueOfferToken peekWaitingQuery() {
+        QueueOfferToken next = null;
+        int nextUserRunningNum = 0;
+        for (Deque<QueueOfferToken> userQueries : waitingQueries.firstEntry().getValue().values()) {
+            QueueOfferToken token = userQueries.peekFirst();
+            int userRunningNum = userRunningQueryNum.getOrDefault(token.getUser(), 0);
+            if (next == null || userRunningNum < nextUserRunningNum
+                    || (userRunningNum == nextUserRunningNum && token.getSeq() < next.getSeq())) {
+                next = token;
+                nextUserRunningNum = userRunningNum;
+            }
+        }
+        return next;
+    }
+
+    private void removeWaitingQuery(QueueOfferToken token) {
+        Map<String, Deque<QueueOfferToken>> priorityQueries = waitingQueries.get(token.getPriority());
+        Deque<QueueOfferToken> userQueries = priorityQueries == null ? null : priorityQueries.get(token.getUser());
+        if (userQueries == null || !userQueries.remove(token)) {
+            return;
+        }
+        if (userQueries.isEmpty()) {
+            priorityQueries.remove(token.getUser());
+            if (priorityQueries.isEmpty()) {
+                waitingQueries.remove(token.getPriority());
+            }
+        }
+        currentWaitingQueryNum--;
+    }
+
+    private void updateMetrics() {
+        if (!MetricRepo.isInit) {
+            return;
+        }
+        MetricRepo.WG_GAUGE_QUERY_QUEUE_RUNNING.getOrAdd(name).setValue((long) currentRunningQueryNum);
+        MetricRepo.WG_GAUGE_QUERY_QUEUE_WAITING.getOrAdd(name).setValue((long) currentWaitingQueryNum);
+    }
+
+    int getCurrentRunningQueryNum() {
+        return currentRunningQueryNum;
+    }
+
+    int getCurrentWaitingQueryNum() {
+        return currentWaitingQueryNum;
+    }
 }
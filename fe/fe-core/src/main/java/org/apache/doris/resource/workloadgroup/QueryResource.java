@@ -0,0 +1,94 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+package org.apache.doris.resource.workloadgroup;
+
+import org.apache.doris.nereids.NereidsPlanner;
+import org.apache.doris.nereids.trees.plans.AbstractPlan;
+import org.apache.doris.nereids.trees.plans.Plan;
+import org.apache.doris.nereids.trees.plans.physical.PhysicalHashAggregate;
+import org.apache.doris.nereids.trees.plans.physical.PhysicalHashJoin;
+import org.apache.doris.nereids.trees.plans.physical.PhysicalPlan;
+import org.apache.doris.nereids.trees.plans.physical.PhysicalQuickSort;
+import org.apache.doris.nereids.trees.plans.physical.PhysicalRelation;
+import org.apache.doris.nereids.trees.plans.physical.PhysicalTopN;
+import org.apache.doris.planner.Planner;
+import org.apache.doris.statistics.Statistics;
+
+/**
+ * The resources a query is estimated to use, which are weighed by the query queue of workload group.
+ * The estimation comes from the statistics of the physical plan of nereids:
+ * the scan bytes are the output size of all the relations,
+ * and the memory is the total size of the hash tables and the sorted data.
+ * The queries planned by the legacy planner are estimated to use nothing, so they are only limited by count.
+ */
+public class QueryResource {
+    public static final QueryResource EMPTY = new QueryResource(0, 0);
+
+    private final long memoryBytes;
+    private final long scanBytes;
+
+    public QueryResource(long memoryBytes, long scanBytes) {
+        this.memoryBytes = memoryBytes;
+        this.scanBytes = scanBytes;
+    }
+
+    public long getMemoryBytes() {
+        return memoryBytes;
+    }
+
+    public long getScanBytes() {
+        return scanBytes;
+    }
+
+    public static QueryResource estimate(Planner planner) {
+        if (!(planner instanceof NereidsPlanner) || ((NereidsPlanner) planner).getPhysicalPlan() == null) {
+            return EMPTY;
+        }
+        PhysicalPlan physicalPlan = ((NereidsPlanner) planner).getPhysicalPlan();
+        double[] memoryBytes = {0};
+        double[] scanBytes = {0};
+        physicalPlan.foreach(node -> {
+            Plan plan = (Plan) node;
+            if (plan instanceof PhysicalRelation) {
+                scanBytes[0] += dataSize(plan);
+            } else if (plan instanceof PhysicalHashJoin) {
+                // the hash table is built from the right child
+                memoryBytes[0] += dataSize(plan.child(1));
+            } else if (plan instanceof PhysicalHashAggregate || plan instanceof PhysicalTopN) {
+                memoryBytes[0] += dataSize(plan);
+            } else if (plan instanceof PhysicalQuickSort) {
+                memoryBytes[0] += dataSize(plan.child(0));
+            }
+        });
+        return new QueryResource((long) memoryBytes[0], (long) scanBytes[0]);
+    }
+
+    private static double dataSize(Plan plan) {
+        Statistics stats = ((AbstractPlan) plan).getStats();
+        if (stats == null) {
+            return 0;
+        }
+        double size = stats.computeSize();
+        return Double.isFinite(size) && size > 0 ? size : 0;
+    }
+
+    @Override
+    public String toString() {
+        return "memoryBytes=" + memoryBytes + ", scanBytes=" + scanBytes;
+    }
+}
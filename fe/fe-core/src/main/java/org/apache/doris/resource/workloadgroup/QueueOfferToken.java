@@ -17,30 +17,106 @@
 
 package org.apache.doris.resource.workloadgroup;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
 // used to mark QueryQueue offer result
 // if offer failed, then need to cancel query
 // and return failed reason to user client
+// the query waiting in queue has no result until it is admitted or rejected by QueryQueue
 public class QueueOfferToken {
 
-    private Boolean offerResult;
+    private volatile Boolean offerResult;
+
+    private volatile String offerResultDetail;
 
-    private String offerResultDetail;
+    private final String user;
+    private final int priority;
+    private final QueryResource resource;
+    private final long offerTimeMs = System.currentTimeMillis();
+    // the order of arrival in queue
+    private long seq;
+    private boolean released = false;
+    private final CompletableFuture<Boolean> future = new CompletableFuture<>();
 
     public QueueOfferToken(Boolean offerResult) {
-        this.offerResult = offerResult;
+        this(offerResult, null);
     }
 
     public QueueOfferToken(Boolean offerResult, String offerResultDetail) {
-        this.offerResult = offerResult;
-        this.offerResultDetail = offerResultDetail;
+        this(null, 0, QueryResource.EMPTY);
+        complete(offerResult, offerResultDetail);
+    }
+
+    QueueOfferToken(String user, int priority, QueryResource resource) {
+        this.user = user;
+        this.priority = priority;
+        this.resource = resource;
     }
 
     public Boolean isOfferSuccess() {
-        return offerResult;
+        return offerResult != null && offerResult;
     }
 
     public String getOfferResultDetail() {
         return offerResultDetail;
     }
 
+    public boolean isDone() {
+        return future.isDone();
+    }
+
+    public long getWaitTimeMs() {
+        return System.currentTimeMillis() - offerTimeMs;
+    }
+
+    String getUser() {
+        return user;
+    }
+
+    int getPriority() {
+        return priority;
+    }
+
+    QueryResource getResource() {
+        return resource;
+    }
+
+    long getSeq() {
+        return seq;
+    }
+
+    void setSeq(long seq) {
+        this.seq = seq;
+    }
+
+    void complete(Boolean offerResult, String offerResultDetail) {
+        this.offerResult = offerResult;
+        this.offerResultDetail = offerResultDetail;
+        future.complete(offerResult);
+    }
+
+    // return false if the token is released already
+    boolean release() {
+        if (released) {
+            return false;
+        }
+        released = true;
+        return true;
+    }
+
+    // wait until the query is admitted or rejected, return false if timeout
+    boolean await(long timeoutMs) throws InterruptedException {
+        try {
+            future.get(timeoutMs, TimeUnit.MILLISECONDS);
+            return true;
+        } catch (TimeoutException e) {
+            return false;
+        } catch (ExecutionException e) {
+            // never happens, the future is never completed exceptionally
+            return true;
+        }
+    }
 }
@@ -55,12 +55,17 @@ public class WorkloadGroup implements Writable, GsonPostProcessable {
 
     public static final String QUEUE_TIMEOUT = "queue_timeout";
 
+    // the max total estimated memory and scan bytes of the running queries, 0 means no limit
+    public static final String MAX_RUNNING_MEMORY = "max_running_memory";
+
+    public static final String MAX_RUNNING_SCAN_BYTES = "max_running_scan_bytes";
+
     private static final ImmutableSet<String> REQUIRED_PROPERTIES_NAME = new ImmutableSet.Builder<String>().add(
             CPU_SHARE).add(MEMORY_LIMIT).build();
 
     private static final ImmutableSet<String> ALL_PROPERTIES_NAME = new ImmutableSet.Builder<String>()
             .add(CPU_SHARE).add(MEMORY_LIMIT).add(ENABLE_MEMORY_OVERCOMMIT).add(MAX_CONCURRENCY)
-            .add(MAX_QUEUE_SIZE).add(QUEUE_TIMEOUT).build();
+            .add(MAX_QUEUE_SIZE).add(QUEUE_TIMEOUT).add(MAX_RUNNING_MEMORY).add(MAX_RUNNING_SCAN_BYTES).build();
 
     @SerializedName(value = "id")
     private long id;
@@ -81,6 +86,8 @@ public class WorkloadGroup implements Writable, GsonPostProcessable {
     private int maxConcurrency = Integer.MAX_VALUE;
     private int maxQueueSize = 0;
     private int queueTimeout = 0;
+    private long maxRunningMemory = 0;
+    private long maxRunningScanBytes = 0;
 
     private WorkloadGroup(long id, String name, Map<String, String> properties) {
         this(id, name, properties, 0);
@@ -102,13 +109,15 @@ public class WorkloadGroup implements Writable, GsonPostProcessable {
     public void initQueryQueue() {
         resetQueueProperty(properties);
         // if query queue property is not set, when use default value
-        this.queryQueue = new QueryQueue(maxConcurrency, maxQueueSize, queueTimeout);
+        this.queryQueue = new QueryQueue(name, maxConcurrency, maxQueueSize, queueTimeout);
+        this.queryQueue.resetResourceLimit(maxRunningMemory, maxRunningScanBytes);
     }
 
     void resetQueryQueue(QueryQueue queryQueue) {
         resetQueueProperty(properties);
         this.queryQueue = queryQueue;
         this.queryQueue.resetQueueProperty(this.maxConcurrency, this.maxQueueSize, this.queueTimeout);
+        this.queryQueue.resetResourceLimit(this.maxRunningMemory, this.maxRunningScanBytes);
 
     }
 
@@ -131,6 +140,9 @@ public class WorkloadGroup implements Writable, GsonPostProcessable {
             this.queueTimeout = 0;
             properties.put(QUEUE_TIMEOUT, String.valueOf(queueTimeout));
         }
+        // the resource limits are optional, and are not shown if not set
+        this.maxRunningMemory = Long.parseLong(properties.getOrDefault(MAX_RUNNING_MEMORY, "0"));
+        this.maxRunningScanBytes = Long.parseLong(properties.getOrDefault(MAX_RUNNING_SCAN_BYTES, "0"));
     }
 
     public QueryQueue getQueryQueue() {
@@ -231,6 +243,17 @@ public class WorkloadGroup implements Writable, GsonPostProcessable {
                 throw new DdlException(QUEUE_TIMEOUT + " requires a positive integer");
             }
         }
+        for (String propertyName : new String[] {MAX_RUNNING_MEMORY, MAX_RUNNING_SCAN_BYTES}) {
+            if (properties.containsKey(propertyName)) {
+                try {
+                    if (Long.parseLong(properties.get(propertyName)) < 0) {
+                        throw new DdlException(propertyName + " requires a positive integer");
+                    }
+                } catch (NumberFormatException e) {
+                    throw new DdlException(propertyName + " requires a positive integer");
+                }
+            }
+        }
     }
 
     public long getId() {
@@ -73,6 +73,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Objects;
 import java.util.Set;
 import java.util.StringJoiner;
 import java.util.TreeMap;
@@ -100,6 +101,8 @@ public class AnalysisManager extends Daemon implements Writable {
 
     private final ConcurrentMap<ConnectContext, SyncTaskCollection> ctxToSyncTask = new ConcurrentHashMap<>();
 
+    private final PartitionUpdateTracker partitionUpdateTracker = new PartitionUpdateTracker();
+
     public AnalysisManager() {
         super(TimeUnit.SECONDS.toMillis(StatisticConstants.ANALYZE_MANAGER_INTERVAL_IN_SECS));
         if (!Env.isCheckpointThread()) {
@@ -218,6 +221,7 @@ public class AnalysisManager extends Daemon implements Writable {
         }
 
         boolean isSync = stmt.isSync();
+        resetPartitionUpdates(jobInfo);
         Map<Long, BaseAnalysisTask> analysisTaskInfos = new HashMap<>();
         createTaskForEachColumns(jobInfo, analysisTaskInfos, isSync);
         createTaskForMVIdx(jobInfo, analysisTaskInfos, isSync);
@@ -252,6 +256,7 @@ public class AnalysisManager extends Daemon implements Writable {
             return;
         }
 
+        resetPartitionUpdates(jobInfo);
         Map<Long, BaseAnalysisTask> analysisTaskInfos = new HashMap<>();
         createTaskForEachColumns(jobInfo, analysisTaskInfos, false);
         createTaskForMVIdx(jobInfo, analysisTaskInfos, false);
@@ -268,6 +273,32 @@ public class AnalysisManager extends Daemon implements Writable {
         analysisTaskInfos.values().forEach(taskScheduler::schedule);
     }
 
+    public PartitionUpdateTracker getPartitionUpdateTracker() {
+        return partitionUpdateTracker;
+    }
+
+    // The rows loaded into the partitions before they are analyzed are not tracked any more.
+    private void resetPartitionUpdates(AnalysisInfo jobInfo) {
+        if (jobInfo.analysisType == AnalysisType.HISTOGRAM) {
+            return;
+        }
+        try {
+            TableIf table = StatisticsUtil.findTable(jobInfo.catalogName, jobInfo.dbName, jobInfo.tblName);
+            if (!(table instanceof OlapTable)) {
+                return;
+            }
+            Set<Long> partitionIds = jobInfo.colToPartitions.values().stream()
+                    .flatMap(Collection::stream)
+                    .map(table::getPartition)
+                    .filter(Objects::nonNull)
+                    .map(Partition::getId)
+                    .collect(Collectors.toSet());
+            partitionUpdateTracker.reset(table.getId(), partitionIds);
+        } catch (Throwable e) {
+            LOG.warn("Failed to reset the updated rows of table {}", jobInfo.tblName, e);
+        }
+    }
+
     private void sendJobId(List<AnalysisInfo> analysisInfos, boolean proxy) {
         List<Column> columns = new ArrayList<>();
         columns.add(new Column("Catalog_Name", ScalarType.createVarchar(1024)));
@@ -525,6 +556,10 @@ public class AnalysisManager extends Daemon implements Writable {
     private void createTaskForEachColumns(AnalysisInfo jobInfo, Map<Long, BaseAnalysisTask> analysisTasks,
             boolean isSync) throws DdlException {
         Map<String, Set<String>> columnToPartitions = jobInfo.colToPartitions;
+        if (isBatchAnalyze(jobInfo)) {
+            createTaskForColumnBatches(jobInfo, analysisTasks, isSync);
+            return;
+        }
         for (Entry<String, Set<String>> entry : columnToPartitions.entrySet()) {
             long indexId = -1;
             long taskId = Env.getCurrentEnv().getNextId();
@@ -550,6 +585,56 @@ public class AnalysisManager extends Daemon implements Writable {
         }
     }
 
+    private boolean isBatchAnalyze(AnalysisInfo jobInfo) {
+        if (Config.analyze_batch_column_num <= 1 || jobInfo.analysisType == AnalysisType.HISTOGRAM) {
+            return false;
+        }
+        try {
+            TableIf table = StatisticsUtil.findTable(jobInfo.catalogName, jobInfo.dbName, jobInfo.tblName);
+            return table instanceof OlapTable;
+        } catch (Throwable e) {
+            LOG.warn("Failed to find table {}", jobInfo.tblName, e);
+            return false;
+        }
+    }
+
+    /**
+     * The columns to be analyzed on the same partitions are grouped into batches of analyze_batch_column_num,
+     * and each batch is analyzed by one task, which scans each partition only once for all the columns.
+     */
+    private void createTaskForColumnBatches(AnalysisInfo jobInfo, Map<Long, BaseAnalysisTask> analysisTasks,
+            boolean isSync) throws DdlException {
+        Map<Set<String>, List<String>> partitionsToColumns = new HashMap<>();
+        for (Entry<String, Set<String>> entry : jobInfo.colToPartitions.entrySet()) {
+            partitionsToColumns.computeIfAbsent(entry.getValue(), k -> new ArrayList<>()).add(entry.getKey());
+        }
+        for (Entry<Set<String>, List<String>> entry : partitionsToColumns.entrySet()) {
+            List<String> colNames = entry.getValue();
+            for (int i = 0; i < colNames.size(); i += Config.analyze_batch_column_num) {
+                List<String> batch = colNames.subList(i, Math.min(i + Config.analyze_batch_column_num,
+                        colNames.size()));
+                Map<String, Set<String>> colToPartitions = new HashMap<>();
+                batch.forEach(colName -> colToPartitions.put(colName, entry.getKey()));
+                long taskId = Env.getCurrentEnv().getNextId();
+                AnalysisInfo analysisInfo = new AnalysisInfoBuilder(jobInfo)
+                        .setAnalysisType(AnalysisType.FUNDAMENTALS)
+                        .setColToPartitions(colToPartitions)
+                        .setColName(String.join(",", batch))
+                        .setIndexId(-1L)
+                        .setTaskId(taskId).build();
+                analysisTasks.put(taskId, createTask(analysisInfo));
+                if (isSync || jobInfo.jobType.equals(JobType.SYSTEM)) {
+                    continue;
+                }
+                try {
+                    logCreateAnalysisTask(analysisInfo);
+                } catch (Exception e) {
+                    throw new DdlException("Failed to create analysis task", e);
+                }
+            }
+        }
+    }
+
     private void logCreateAnalysisTask(AnalysisInfo analysisInfo) {
         analysisTaskInfoMap.put(analysisInfo.taskId, analysisInfo);
         Env.getCurrentEnv().getEditLog().logCreateAnalysisTasks(analysisInfo);
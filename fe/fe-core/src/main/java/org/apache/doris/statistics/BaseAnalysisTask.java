@@ -20,19 +20,31 @@ package org.apache.doris.statistics;
 import org.apache.doris.catalog.Column;
 import org.apache.doris.catalog.DatabaseIf;
 import org.apache.doris.catalog.Env;
+import org.apache.doris.catalog.OlapTable;
 import org.apache.doris.catalog.PrimitiveType;
 import org.apache.doris.catalog.TableIf;
+import org.apache.doris.common.Config;
+import org.apache.doris.common.io.Hll;
 import org.apache.doris.datasource.CatalogIf;
 import org.apache.doris.qe.StmtExecutor;
 import org.apache.doris.statistics.AnalysisInfo.AnalysisMethod;
 import org.apache.doris.statistics.AnalysisInfo.AnalysisType;
+import org.apache.doris.statistics.util.StatisticsUtil;
 
 import com.google.common.annotations.VisibleForTesting;
+import org.apache.commons.text.StringSubstitutor;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 public abstract class BaseAnalysisTask {
 
@@ -146,6 +158,10 @@ public abstract class BaseAnalysisTask {
         if (info.externalTableLevelTask) {
             return;
         }
+        // The columns of a batch task are checked when the task is executed.
+        if (OlapBatchAnalysisTask.isBatchTask(info)) {
+            return;
+        }
         if (info.analysisType != null && (info.analysisType.equals(AnalysisType.FUNDAMENTALS)
                 || info.analysisType.equals(AnalysisType.HISTOGRAM))) {
             col = tbl.getColumn(info.colName);
@@ -188,7 +204,86 @@ public abstract class BaseAnalysisTask {
         return "COUNT(1) * " + column.getType().getSlotSize();
     }
 
-    private boolean isUnsupportedType(PrimitiveType type) {
+    /**
+     * The ndv of a column merged from the stats of its partitions and its previous stats, which are selected from
+     * the statistics table, so the table is not scanned again if only some partitions are analyzed.
+     * The values of a partition column in different partitions are disjoint, so the ndv is the sum of the ndv of
+     * partitions. Otherwise, the ndv is the max ndv of partitions or the previous ndv of the column.
+     */
+    protected String getMergedNdvExpression(Column column) {
+        if (tbl instanceof OlapTable
+                && ((OlapTable) tbl).getPartitionInfo().getPartitionColumns().contains(column)) {
+            return "SUM(CASE WHEN part_id IS NOT NULL THEN ndv ELSE 0 END)";
+        }
+        return "GREATEST(MAX(CASE WHEN part_id IS NOT NULL THEN ndv ELSE 0 END), "
+                + "MAX(CASE WHEN part_id IS NULL THEN ndv ELSE 0 END))";
+    }
+
+    /**
+     * Collect the ndv sketches of the columns in the analyzed partitions of an olap table, and estimate the ndv
+     * of each column by merging the sketches of all partitions, so the table is not scanned again for the ndv.
+     * The sketches of all the columns in a partition are aggregated by one scan, and persisted in batches.
+     * The ndv of a column is empty if the sketch of any partition is not collected, e.g. the partition is only
+     * analyzed by sample.
+     */
+    protected List<OptionalLong> collectNdvSketches(List<Column> columns, Map<String, Long> partitions) {
+        List<OptionalLong> ndvs = new ArrayList<>(Collections.nCopies(columns.size(), OptionalLong.empty()));
+        if (!Config.enable_stats_ndv_sketch) {
+            return ndvs;
+        }
+        List<String> colNames = columns.stream().map(Column::getName).collect(Collectors.toList());
+        Map<String, String> params = new HashMap<>();
+        params.put("catalogId", String.valueOf(catalog.getId()));
+        params.put("dbId", String.valueOf(db.getId()));
+        params.put("tblId", String.valueOf(tbl.getId()));
+        params.put("idxId", String.valueOf(info.indexId));
+        params.put("dbName", info.dbName);
+        params.put("tblName", info.tblName);
+        params.put("hashExprs", PartitionNdvSketches.getHashExprs(colNames));
+        params.put("colNum", String.valueOf(colNames.size()));
+        try {
+            List<Map<String, String>> sketchParams = new ArrayList<>();
+            for (Map.Entry<String, Long> entry : partitions.entrySet()) {
+                if (killed) {
+                    return ndvs;
+                }
+                params.put("partName", entry.getKey());
+                List<Hll> sketches = PartitionNdvSketches.fromRegisters(StatisticsUtil.execStatisticQuery(
+                        new StringSubstitutor(params).replace(PartitionNdvSketches.REGISTERS_TEMPLATE)),
+                        colNames.size());
+                for (int i = 0; i < colNames.size(); i++) {
+                    Map<String, String> sketchParam = new HashMap<>(params);
+                    sketchParam.put("colId", colNames.get(i));
+                    sketchParam.put("partId", String.valueOf(entry.getValue()));
+                    sketchParam.put("id", StatisticsUtil.constructId(tbl.getId(), info.indexId, colNames.get(i),
+                            entry.getValue()));
+                    sketchParam.put("sketch", PartitionNdvSketches.serialize(sketches.get(i)));
+                    sketchParams.add(sketchParam);
+                }
+                if (sketchParams.size() >= StatisticConstants.INSERT_MERGE_ITEM_COUNT) {
+                    StatisticsRepository.persistNdvSketches(sketchParams);
+                    sketchParams.clear();
+                }
+            }
+            StatisticsRepository.persistNdvSketches(sketchParams);
+            List<Long> partitionIds;
+            tbl.readLock();
+            try {
+                partitionIds = ((OlapTable) tbl).getPartitionIds();
+            } finally {
+                tbl.readUnlock();
+            }
+            for (int i = 0; i < colNames.size(); i++) {
+                ndvs.set(i, StatisticsRepository.fetchNdvSketches(tbl.getId(), info.indexId, colNames.get(i))
+                        .estimateNdv(partitionIds));
+            }
+        } catch (Exception e) {
+            LOG.warn("Failed to collect the ndv sketches of columns {} of table {}", colNames, info.tblName, e);
+        }
+        return ndvs;
+    }
+
+    protected boolean isUnsupportedType(PrimitiveType type) {
         return unsupportedType.contains(type);
     }
 
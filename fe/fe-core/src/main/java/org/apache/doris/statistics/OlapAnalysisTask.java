@@ -24,15 +24,18 @@ import org.apache.doris.qe.AutoCloseConnectContext;
 import org.apache.doris.qe.QueryState;
 import org.apache.doris.qe.QueryState.MysqlStateType;
 import org.apache.doris.qe.StmtExecutor;
+import org.apache.doris.statistics.AnalysisInfo.AnalysisMethod;
 import org.apache.doris.statistics.util.StatisticsUtil;
 
 import com.google.common.annotations.VisibleForTesting;
 import org.apache.commons.text.StringSubstitutor;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.OptionalLong;
 import java.util.Set;
 
 /**
@@ -44,12 +47,20 @@ public class OlapAnalysisTask extends BaseAnalysisTask {
             + "FROM `${dbName}`.`${tblName}` "
             + "PARTITION ${partName} ${sampleExpr}";
 
-    // TODO Currently, NDV is computed for the full table; in fact,
-    //  NDV should only be computed for the relevant partition.
+    // Used if the ndv sketch of any partition is not collected.
     private static final String ANALYZE_COLUMN_SQL_TEMPLATE = INSERT_COL_STATISTICS
             + "     (SELECT NDV(`${colName}`) AS ndv "
             + "     FROM `${dbName}`.`${tblName}` ${sampleExpr}) t2\n";
 
+    private static final String SKETCH_COLUMN_SQL_TEMPLATE = INSERT_COL_STATISTICS
+            + "     (SELECT ${ndv} AS ndv) t2\n";
+
+    private static final String MERGE_COLUMN_SQL_TEMPLATE = INSERT_COL_STATISTICS
+            + "     (SELECT ${mergedNdvExpr} AS ndv "
+            + "     FROM ${internalDB}.${columnStatTbl} "
+            + "     WHERE db_id = '${dbId}' AND tbl_id = '${tblId}' AND col_id = '${colId}' "
+            + "     AND idx_id = '${idxId}') t2\n";
+
     @VisibleForTesting
     public OlapAnalysisTask() {
         super();
@@ -74,15 +85,19 @@ public class OlapAnalysisTask extends BaseAnalysisTask {
         params.put("tblName", String.valueOf(info.tblName));
         params.put("sampleExpr", getSampleExpression());
         List<String> partitionAnalysisSQLs = new ArrayList<>();
+        Map<String, Long> partitionIds = new HashMap<>();
+        boolean allPartitionsAnalyzed;
         try {
             tbl.readLock();
             Set<String> partNames = info.colToPartitions.get(info.colName);
+            allPartitionsAnalyzed = partNames.containsAll(tbl.getPartitionNames());
             for (String partName : partNames) {
                 Partition part = tbl.getPartition(partName);
                 if (part == null) {
                     continue;
                 }
                 params.put("partId", String.valueOf(tbl.getPartition(partName).getId()));
+                partitionIds.put(partName, part.getId());
                 // Avoid error when get the default partition
                 params.put("partName", "`" + partName + "`");
                 StringSubstitutor stringSubstitutor = new StringSubstitutor(params);
@@ -94,8 +109,20 @@ public class OlapAnalysisTask extends BaseAnalysisTask {
         execSQLs(partitionAnalysisSQLs);
         params.remove("partId");
         params.put("type", col.getType().toString());
-        StringSubstitutor stringSubstitutor = new StringSubstitutor(params);
-        String sql = stringSubstitutor.replace(ANALYZE_COLUMN_SQL_TEMPLATE);
+        OptionalLong sketchNdv = info.analysisMethod == AnalysisMethod.FULL
+                ? collectNdvSketches(Collections.singletonList(col), partitionIds).get(0) : OptionalLong.empty();
+        String sql;
+        if (sketchNdv.isPresent()) {
+            params.put("ndv", String.valueOf(sketchNdv.getAsLong()));
+            sql = new StringSubstitutor(params).replace(SKETCH_COLUMN_SQL_TEMPLATE);
+        } else if (allPartitionsAnalyzed) {
+            sql = new StringSubstitutor(params).replace(ANALYZE_COLUMN_SQL_TEMPLATE);
+        } else {
+            // Only some partitions are analyzed, merge their stats into the stats of the column
+            // instead of scanning the table again.
+            params.put("mergedNdvExpr", getMergedNdvExpression(col));
+            sql = new StringSubstitutor(params).replace(MERGE_COLUMN_SQL_TEMPLATE);
+        }
         execSQL(sql);
         Env.getCurrentEnv().getStatisticsCache().refreshColStatsSync(tbl.getId(), -1, col.getName());
     }
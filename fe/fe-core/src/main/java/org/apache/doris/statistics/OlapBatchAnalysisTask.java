@@ -0,0 +1,364 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+package org.apache.doris.statistics;
+
+import org.apache.doris.catalog.Column;
+import org.apache.doris.catalog.Env;
+import org.apache.doris.catalog.OlapTable;
+import org.apache.doris.catalog.Partition;
+import org.apache.doris.common.FeConstants;
+import org.apache.doris.qe.AutoCloseConnectContext;
+import org.apache.doris.qe.QueryState;
+import org.apache.doris.qe.QueryState.MysqlStateType;
+import org.apache.doris.qe.StmtExecutor;
+import org.apache.doris.statistics.AnalysisInfo.AnalysisMethod;
+import org.apache.doris.statistics.AnalysisInfo.AnalysisType;
+import org.apache.doris.statistics.util.InternalQueryResult.ResultRow;
+import org.apache.doris.statistics.util.StatisticsUtil;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.Lists;
+import org.apache.commons.text.StringSubstitutor;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.Random;
+import java.util.Set;
+import java.util.StringJoiner;
+
+/**
+ * Analyze a batch of columns of an olap table. The statistics of all the columns are collected by one scan
+ * of each partition, and written to the statistics table in bulk.
+ * For sample analysis, only some tablets of each partition are scanned, and the row count, null count and
+ * data size are scaled by the ratio of tablets.
+ */
+public class OlapBatchAnalysisTask extends BaseAnalysisTask {
+
+    private static final String ANALYZE_PARTITION_SQL_TEMPLATE = "SELECT COUNT(1) AS row_count${aggExprs} "
+            + "FROM `${dbName}`.`${tblName}` PARTITION `${partName}` ${tabletExpr}";
+
+    private static final String ANALYZE_PARTITION_COLUMN_EXPRS = ", NDV(`${colName}`), "
+            + "SUM(CASE WHEN `${colName}` IS NULL THEN 1 ELSE 0 END), "
+            + "MIN(`${colName}`), "
+            + "MAX(`${colName}`), "
+            + "${dataSizeFunction}";
+
+    private static final String ANALYZE_NDV_SQL_TEMPLATE = "SELECT COUNT(1) AS row_count${aggExprs} "
+            + "FROM `${dbName}`.`${tblName}` ${tabletExpr}";
+
+    private static final String ANALYZE_NDV_COLUMN_EXPRS = ", NDV(`${colName}`), COUNT(`${colName}`)";
+
+    private static final String INSERT_TEMPLATE = "INSERT INTO ${internalDB}.${columnStatTbl} ";
+
+    // Aggregate the stats of partitions to the stats of a column, like INSERT_COL_STATISTICS,
+    // the columns are unioned, so min and max are cast to string. The previous stats of the column
+    // are selected too, which may be used to merge the ndv.
+    private static final String SELECT_COL_STATISTICS_TEMPLATE = "SELECT "
+            + "CONCAT(${tblId}, '-', ${idxId}, '-', '${colId}') AS id, "
+            + "${catalogId} AS catalog_id, "
+            + "${dbId} AS db_id, "
+            + "${tblId} AS tbl_id, "
+            + "${idxId} AS idx_id, "
+            + "'${colId}' AS col_id, "
+            + "NULL AS part_id, "
+            + "SUM(CASE WHEN part_id IS NOT NULL THEN count END) AS row_count, "
+            + "${ndv} AS ndv, "
+            + "SUM(CASE WHEN part_id IS NOT NULL THEN null_count END) AS null_count, "
+            + "CAST(MIN(CASE WHEN part_id IS NOT NULL THEN CAST(min AS ${type}) END) AS STRING) AS min, "
+            + "CAST(MAX(CASE WHEN part_id IS NOT NULL THEN CAST(max AS ${type}) END) AS STRING) AS max, "
+            + "SUM(CASE WHEN part_id IS NOT NULL THEN data_size_in_bytes END) AS data_size, "
+            + "NOW() AS update_time "
+            + "FROM ${internalDB}.${columnStatTbl} "
+            + "WHERE db_id = '${dbId}' AND tbl_id = '${tblId}' AND col_id = '${colId}' "
+            + "AND idx_id = '${idxId}'";
+
+    // The ndv of a sample is scaled only if the values are almost unique in the sample, since the ndv of
+    // a column with many duplicate values is usually reached by a sample already.
+    private static final double UNIQUE_NDV_RATIO = 0.9;
+
+    private final List<Column> columns = new ArrayList<>();
+
+    private final List<String> valuesBuffer = new ArrayList<>();
+
+    @VisibleForTesting
+    public OlapBatchAnalysisTask() {
+        super();
+    }
+
+    public OlapBatchAnalysisTask(AnalysisInfo info) {
+        super(info);
+    }
+
+    /**
+     * Whether the task analyzes a batch of columns of an olap table.
+     */
+    public static boolean isBatchTask(AnalysisInfo info) {
+        return info.analysisType == AnalysisType.FUNDAMENTALS && info.colToPartitions != null
+                && info.colToPartitions.size() > 1;
+    }
+
+    public void execute() throws Exception {
+        OlapTable olapTable = (OlapTable) tbl;
+        Map<String, String> params = new HashMap<>();
+        params.put("internalDB", FeConstants.INTERNAL_DB_NAME);
+        params.put("columnStatTbl", StatisticConstants.STATISTIC_TBL_NAME);
+        params.put("catalogId", String.valueOf(catalog.getId()));
+        params.put("dbId", String.valueOf(db.getId()));
+        params.put("tblId", String.valueOf(tbl.getId()));
+        params.put("idxId", String.valueOf(info.indexId));
+        params.put("dbName", info.dbName);
+        params.put("tblName", String.valueOf(info.tblName));
+
+        Set<String> partNames = null;
+        StringBuilder partitionAggExprs = new StringBuilder();
+        StringBuilder ndvAggExprs = new StringBuilder();
+        for (Map.Entry<String, Set<String>> entry : info.colToPartitions.entrySet()) {
+            Column column = tbl.getColumn(entry.getKey());
+            if (column == null) {
+                throw new RuntimeException(String.format("Column with name %s not exists", entry.getKey()));
+            }
+            if (isUnsupportedType(column.getType().getPrimitiveType())) {
+                throw new RuntimeException(String.format("Column with type %s is not supported",
+                        column.getType().toString()));
+            }
+            columns.add(column);
+            // the columns of a batch are analyzed on the same partitions
+            partNames = entry.getValue();
+            Map<String, String> colParams = Collections.singletonMap("colName", column.getName());
+            StringSubstitutor colSubstitutor = new StringSubstitutor(colParams);
+            partitionAggExprs.append(colSubstitutor.replace(ANALYZE_PARTITION_COLUMN_EXPRS
+                    .replace("${dataSizeFunction}", getDataSizeFunction(column))));
+            ndvAggExprs.append(colSubstitutor.replace(ANALYZE_NDV_COLUMN_EXPRS));
+        }
+
+        double sampleRatio = getSampleRatio(olapTable);
+        Map<String, List<Long>> partitionSampleTablets = new HashMap<>();
+        Map<String, Long> partitionIds = new HashMap<>();
+        Map<String, Integer> partitionTabletNums = new HashMap<>();
+        List<Long> allSampleTablets = new ArrayList<>();
+        long totalTabletNum = 0;
+        boolean allPartitionsAnalyzed;
+        olapTable.readLock();
+        try {
+            allPartitionsAnalyzed = partNames.containsAll(olapTable.getPartitionNames());
+            for (Partition partition : olapTable.getPartitions()) {
+                List<Long> sampleTablets = getSampleTablets(partition, sampleRatio);
+                int tabletNum = partition.getBaseIndex().getTabletIdsInOrder().size();
+                totalTabletNum += tabletNum;
+                allSampleTablets.addAll(sampleTablets);
+                if (partNames.contains(partition.getName())) {
+                    partitionSampleTablets.put(partition.getName(), sampleTablets);
+                    partitionIds.put(partition.getName(), partition.getId());
+                    partitionTabletNums.put(partition.getName(), tabletNum);
+                }
+            }
+        } finally {
+            olapTable.readUnlock();
+        }
+
+        params.put("aggExprs", partitionAggExprs.toString());
+        for (Map.Entry<String, Long> entry : partitionIds.entrySet()) {
+            List<Long> sampleTablets = partitionSampleTablets.get(entry.getKey());
+            params.put("partName", entry.getKey());
+            params.put("tabletExpr", getTabletExpression(sampleTablets));
+            List<ResultRow> rows = executeQuery(new StringSubstitutor(params).replace(ANALYZE_PARTITION_SQL_TEMPLATE));
+            if (killed) {
+                return;
+            }
+            double scale = sampleTablets.isEmpty() ? 1
+                    : (double) partitionTabletNums.get(entry.getKey()) / sampleTablets.size();
+            appendPartitionStats(params, entry.getValue(), rows.get(0), scale);
+        }
+        flushBuffer(params);
+
+        // The ndv of a column is merged from the ndv sketches of all partitions if they are collected.
+        // Otherwise, if only some partitions are analyzed, merge their stats into the stats of the columns
+        // instead of scanning the table again.
+        List<OptionalLong> sketchNdvs = info.analysisMethod == AnalysisMethod.FULL
+                ? collectNdvSketches(columns, partitionIds)
+                : Collections.nCopies(columns.size(), OptionalLong.empty());
+        if (killed) {
+            return;
+        }
+        List<String> ndvs = new ArrayList<>();
+        if (sketchNdvs.stream().allMatch(OptionalLong::isPresent)) {
+            sketchNdvs.forEach(ndv -> ndvs.add(String.valueOf(ndv.getAsLong())));
+        } else if (allPartitionsAnalyzed) {
+            params.put("aggExprs", ndvAggExprs.toString());
+            params.put("tabletExpr", getTabletExpression(allSampleTablets));
+            List<ResultRow> rows = executeQuery(new StringSubstitutor(params).replace(ANALYZE_NDV_SQL_TEMPLATE));
+            if (killed) {
+                return;
+            }
+            double scale = allSampleTablets.isEmpty() ? 1 : (double) totalTabletNum / allSampleTablets.size();
+            for (int i = 0; i < columns.size(); i++) {
+                long ndv = parseLong(rows.get(0).getValues().get(1 + i * 2));
+                long nonNullCount = parseLong(rows.get(0).getValues().get(2 + i * 2));
+                ndvs.add(String.valueOf(scaleNdv(ndv, nonNullCount, scale)));
+            }
+        } else {
+            for (int i = 0; i < columns.size(); i++) {
+                OptionalLong sketchNdv = sketchNdvs.get(i);
+                ndvs.add(sketchNdv.isPresent() ? String.valueOf(sketchNdv.getAsLong())
+                        : getMergedNdvExpression(columns.get(i)));
+            }
+        }
+        StringJoiner selectColStats = new StringJoiner(" UNION ALL ");
+        for (int i = 0; i < columns.size(); i++) {
+            Column column = columns.get(i);
+            params.put("colId", column.getName());
+            params.put("type", column.getType().toString());
+            params.put("ndv", ndvs.get(i));
+            selectColStats.add(new StringSubstitutor(params).replace(SELECT_COL_STATISTICS_TEMPLATE));
+        }
+        execSQL(new StringSubstitutor(params).replace(INSERT_TEMPLATE) + selectColStats);
+        for (Column column : columns) {
+            Env.getCurrentEnv().getStatisticsCache().refreshColStatsSync(tbl.getId(), -1, column.getName());
+        }
+    }
+
+    private double getSampleRatio(OlapTable olapTable) {
+        if (info.analysisMethod != AnalysisMethod.SAMPLE) {
+            return 1;
+        }
+        if (info.samplePercent > 0) {
+            return Math.min(info.samplePercent / 100.0, 1);
+        }
+        long rowCount = olapTable.getRowCount();
+        if (info.sampleRows <= 0 || rowCount <= 0) {
+            return 1;
+        }
+        return Math.min((double) info.sampleRows / rowCount, 1);
+    }
+
+    /**
+     * Sample tablets of the base index of the partition, the tablets are selected by a random generator with
+     * the partition id as seed, so the same tablets are selected by each analysis if the partition is not changed.
+     * Return an empty list if all the tablets should be scanned.
+     */
+    @VisibleForTesting
+    public static List<Long> getSampleTablets(Partition partition, double sampleRatio) {
+        List<Long> tabletIds = partition.getBaseIndex().getTabletIdsInOrder();
+        int sampleNum = (int) Math.max(Math.ceil(tabletIds.size() * sampleRatio), 1);
+        if (sampleNum >= tabletIds.size()) {
+            return Collections.emptyList();
+        }
+        List<Long> shuffled = Lists.newArrayList(tabletIds);
+        Collections.shuffle(shuffled, new Random(partition.getId()));
+        return shuffled.subList(0, sampleNum);
+    }
+
+    private static String getTabletExpression(List<Long> sampleTablets) {
+        if (sampleTablets.isEmpty()) {
+            return "";
+        }
+        return "TABLET(" + StatisticsUtil.joinElementsToString(sampleTablets, ", ") + ")";
+    }
+
+    private void appendPartitionStats(Map<String, String> params, long partId, ResultRow row, double scale)
+            throws Exception {
+        List<String> values = row.getValues();
+        long rowCount = parseLong(values.get(0));
+        for (int i = 0; i < columns.size(); i++) {
+            String colName = columns.get(i).getName();
+            int offset = 1 + i * 5;
+            long ndv = parseLong(values.get(offset));
+            long nullCount = parseLong(values.get(offset + 1));
+            StringJoiner tuple = new StringJoiner(", ", "(", ")");
+            tuple.add(quote(StatisticsUtil.constructId(tbl.getId(), info.indexId, colName, partId)));
+            tuple.add(quote(String.valueOf(catalog.getId())));
+            tuple.add(quote(String.valueOf(db.getId())));
+            tuple.add(quote(String.valueOf(tbl.getId())));
+            tuple.add(quote(String.valueOf(info.indexId)));
+            tuple.add(quote(colName));
+            tuple.add(quote(String.valueOf(partId)));
+            tuple.add(String.valueOf(Math.round(rowCount * scale)));
+            tuple.add(String.valueOf(scaleNdv(ndv, rowCount - nullCount, scale)));
+            tuple.add(String.valueOf(Math.round(nullCount * scale)));
+            tuple.add(quote(values.get(offset + 2)));
+            tuple.add(quote(values.get(offset + 3)));
+            tuple.add(String.valueOf(Math.round(parseLong(values.get(offset + 4)) * scale)));
+            tuple.add("NOW()");
+            valuesBuffer.add(tuple.toString());
+        }
+        if (valuesBuffer.size() >= StatisticConstants.INSERT_MERGE_ITEM_COUNT) {
+            flushBuffer(params);
+        }
+    }
+
+    private void flushBuffer(Map<String, String> params) throws Exception {
+        if (valuesBuffer.isEmpty()) {
+            return;
+        }
+        String sql = new StringSubstitutor(params).replace(INSERT_TEMPLATE)
+                + "VALUES " + String.join(", ", valuesBuffer);
+        valuesBuffer.clear();
+        execSQL(sql);
+    }
+
+    @VisibleForTesting
+    public static long scaleNdv(long ndv, long nonNullCount, double scale) {
+        if (scale <= 1 || ndv < nonNullCount * UNIQUE_NDV_RATIO) {
+            return ndv;
+        }
+        return Math.round(Math.min(ndv * scale, nonNullCount * scale));
+    }
+
+    private static long parseLong(String value) {
+        return value == null ? 0 : (long) Double.parseDouble(value);
+    }
+
+    private static String quote(String value) {
+        if (value == null) {
+            return "NULL";
+        }
+        return "'" + value.replace("\\", "\\\\").replace("'", "\\'") + "'";
+    }
+
+    private List<ResultRow> executeQuery(String sql) {
+        if (killed) {
+            return Collections.emptyList();
+        }
+        try (AutoCloseConnectContext r = StatisticsUtil.buildConnectContext()) {
+            stmtExecutor = new StmtExecutor(r.connectContext, sql);
+            r.connectContext.setExecutor(stmtExecutor);
+            return stmtExecutor.executeInternalQuery();
+        }
+    }
+
+    private void execSQL(String sql) throws Exception {
+        if (killed) {
+            return;
+        }
+        try (AutoCloseConnectContext r = StatisticsUtil.buildConnectContext()) {
+            r.connectContext.getSessionVariable().disableNereidsPlannerOnce();
+            stmtExecutor = new StmtExecutor(r.connectContext, sql);
+            r.connectContext.setExecutor(stmtExecutor);
+            stmtExecutor.execute();
+            QueryState queryState = r.connectContext.getState();
+            if (queryState.getStateType().equals(MysqlStateType.ERR)) {
+                throw new RuntimeException(String.format("Failed to analyze %s.%s.%s, error: %s sql: %s",
+                        info.catalogName, info.dbName, info.colName, queryState.getErrorMessage(), sql));
+            }
+        }
+    }
+}
@@ -0,0 +1,147 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+package org.apache.doris.statistics;
+
+import org.apache.doris.common.io.Hll;
+import org.apache.doris.statistics.util.InternalQueryResult.ResultRow;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The ndv sketches of a column in each partition. The ndv of the column in any subset of partitions is
+ * estimated by merging the sketches of the partitions, which could not be derived from the ndv of partitions.
+ * A sketch is a {@link Hll} built from the registers aggregated by BE, see {@link #REGISTERS_TEMPLATE}.
+ * A full sketch has {@link Hll#HLL_REGISTERS_COUNT} one byte registers, it is about 22KB if base64 encoded, so
+ * the sketches are gzip compressed before encoding, the registers are small numbers and compress to 7~10KB.
+ */
+public class PartitionNdvSketches {
+
+    // Aggregate the hash values of the columns in a partition to the registers of a hll of each column, the
+    // partition is scanned once for all the columns, each row is exploded to one row per column, and the position
+    // of the column is selected by ${hashExprs}, see getHashExprs. The register of a hash value is its low bits,
+    // and the value is the position of the first one bit of the remaining bits, which is computed by the lowest
+    // one bit of the remaining bits, keep consistent with Hll.
+    public static final String REGISTERS_TEMPLATE = "SELECT pos, "
+            + "BITAND(h, " + (Hll.HLL_REGISTERS_COUNT - 1) + ") AS idx, "
+            + "MAX(CASE WHEN r = 0 THEN " + (Hll.HLL_ZERO_COUNT_BITS + 1) + " "
+            + "ELSE ROUND(LOG2(ABS(CAST(BITAND(r, 0 - r) AS DOUBLE)))) - " + (Hll.HLL_COLUMN_PRECISION - 1)
+            + " END) AS val "
+            + "FROM (SELECT pos, h, BITAND(h, " + (-Hll.HLL_REGISTERS_COUNT) + ") AS r "
+            + "FROM (SELECT pos, CASE pos${hashExprs} END AS h "
+            + "FROM `${dbName}`.`${tblName}` PARTITION `${partName}` "
+            + "LATERAL VIEW EXPLODE_NUMBERS(${colNum}) t0 AS pos) t1 "
+            + "WHERE h IS NOT NULL) t2 "
+            + "GROUP BY pos, BITAND(h, " + (Hll.HLL_REGISTERS_COUNT - 1) + ")";
+
+    private final Map<Long, Hll> partitionToSketch;
+
+    public PartitionNdvSketches(Map<Long, Hll> partitionToSketch) {
+        this.partitionToSketch = partitionToSketch;
+    }
+
+    public int size() {
+        return partitionToSketch.size();
+    }
+
+    /**
+     * Estimate the ndv of the column in the partitions, return empty if the sketch of any partition
+     * is not collected.
+     */
+    public OptionalLong estimateNdv(Collection<Long> partitionIds) {
+        Hll merged = new Hll();
+        for (Long partitionId : partitionIds) {
+            Hll sketch = partitionToSketch.get(partitionId);
+            if (sketch == null) {
+                return OptionalLong.empty();
+            }
+            merged.merge(sketch);
+        }
+        return OptionalLong.of(merged.estimateCardinality());
+    }
+
+    /**
+     * The hash expression of each column in {@link #REGISTERS_TEMPLATE}, the hash function is murmur_hash3_64
+     * of BE on the string value.
+     */
+    public static String getHashExprs(List<String> colNames) {
+        StringBuilder hashExprs = new StringBuilder();
+        for (int i = 0; i < colNames.size(); i++) {
+            hashExprs.append(" WHEN ").append(i)
+                    .append(" THEN MURMUR_HASH3_64(CAST(`").append(colNames.get(i)).append("` AS STRING))");
+        }
+        return hashExprs.toString();
+    }
+
+    /**
+     * Build the sketches of the columns from the rows of {@link #REGISTERS_TEMPLATE}, the sketch of a column
+     * with only null values is empty.
+     */
+    public static List<Hll> fromRegisters(List<ResultRow> rows, int colNum) {
+        List<Hll> sketches = new ArrayList<>(colNum);
+        for (int i = 0; i < colNum; i++) {
+            sketches.add(new Hll());
+        }
+        if (rows == null) {
+            return sketches;
+        }
+        for (ResultRow row : rows) {
+            List<String> values = row.getValues();
+            sketches.get(Integer.parseInt(values.get(0))).updateRegister(Integer.parseInt(values.get(1)),
+                    (byte) Double.parseDouble(values.get(2)));
+        }
+        return sketches;
+    }
+
+    public static String serialize(Hll sketch) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (DataOutputStream dataOutput = new DataOutputStream(new GZIPOutputStream(output))) {
+            sketch.serialize(dataOutput);
+        }
+        return Base64.getEncoder().encodeToString(output.toByteArray());
+    }
+
+    public static Hll deserialize(String sketchStr) throws IOException {
+        Hll sketch = new Hll();
+        byte[] bytes = Base64.getDecoder().decode(sketchStr);
+        InputStream input = new ByteArrayInputStream(bytes);
+        // the sketches persisted before compression are not gzipped, the first byte is the type of the hll
+        if (bytes.length > 1 && (bytes[0] & 0xff) == (GZIPInputStream.GZIP_MAGIC & 0xff)
+                && (bytes[1] & 0xff) == (GZIPInputStream.GZIP_MAGIC >>> 8)) {
+            input = new GZIPInputStream(input);
+        }
+        try (DataInputStream dataInput = new DataInputStream(input)) {
+            if (!sketch.deserialize(dataInput)) {
+                throw new IOException("Invalid ndv sketch");
+            }
+        }
+        return sketch;
+    }
+}
@@ -0,0 +1,93 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+package org.apache.doris.statistics;
+
+import org.apache.doris.load.loadv2.LoadJobFinalOperation;
+import org.apache.doris.load.routineload.RLTaskTxnCommitAttachment;
+import org.apache.doris.task.LoadEtlTask;
+import org.apache.doris.transaction.TransactionState;
+import org.apache.doris.transaction.TxnCommitAttachment;
+
+import org.apache.commons.lang3.math.NumberUtils;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Track the rows loaded into each partition of olap tables since the partition is analyzed last time.
+ * The rows are recorded when a transaction becomes visible, and StatisticsAutoAnalyzer only re-analyzes
+ * the partitions whose change ratio exceeds the threshold.
+ * The records are only kept in memory, after FE restarts, the change of a partition is estimated by
+ * the difference of its row count and the row count in its statistics.
+ */
+public class PartitionUpdateTracker {
+
+    // table id -> partition id -> updated rows
+    private final Map<Long, Map<Long, Long>> tableToUpdatedRows = new ConcurrentHashMap<>();
+
+    /**
+     * Record the rows loaded by a visible transaction, the rows of a transaction which loads several
+     * partitions are divided evenly to them, since the rows of each partition are not known by FE.
+     */
+    public void recordLoad(TransactionState transactionState, Map<Long, Collection<Long>> tableToPartitions) {
+        long loadedRows = getLoadedRows(transactionState.getTxnCommitAttachment());
+        int partitionNum = tableToPartitions.values().stream().mapToInt(Collection::size).sum();
+        if (loadedRows <= 0 || partitionNum == 0) {
+            return;
+        }
+        long rowsPerPartition = Math.max(loadedRows / partitionNum, 1);
+        tableToPartitions.forEach((tableId, partitionIds) -> {
+            Map<Long, Long> updatedRows = tableToUpdatedRows.computeIfAbsent(tableId,
+                    k -> new ConcurrentHashMap<>());
+            partitionIds.forEach(partitionId -> updatedRows.merge(partitionId, rowsPerPartition, Long::sum));
+        });
+    }
+
+    public long getUpdatedRows(long tableId, long partitionId) {
+        Map<Long, Long> updatedRows = tableToUpdatedRows.get(tableId);
+        return updatedRows == null ? 0 : updatedRows.getOrDefault(partitionId, 0L);
+    }
+
+    public long getUpdatedRows(long tableId) {
+        Map<Long, Long> updatedRows = tableToUpdatedRows.get(tableId);
+        return updatedRows == null ? 0 : updatedRows.values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    /**
+     * Called when the partitions are going to be analyzed, the rows loaded after that are tracked again.
+     */
+    public void reset(long tableId, Collection<Long> partitionIds) {
+        Map<Long, Long> updatedRows = tableToUpdatedRows.get(tableId);
+        if (updatedRows != null) {
+            partitionIds.forEach(updatedRows::remove);
+        }
+    }
+
+    // Return -1 if the loaded rows of the transaction is unknown.
+    private static long getLoadedRows(TxnCommitAttachment attachment) {
+        if (attachment instanceof RLTaskTxnCommitAttachment) {
+            return ((RLTaskTxnCommitAttachment) attachment).getLoadedRows();
+        }
+        if (attachment instanceof LoadJobFinalOperation) {
+            Map<String, String> counters = ((LoadJobFinalOperation) attachment).getLoadingStatus().getCounters();
+            return counters == null ? -1 : NumberUtils.toLong(counters.get(LoadEtlTask.DPP_NORMAL_ALL), -1);
+        }
+        return -1;
+    }
+}
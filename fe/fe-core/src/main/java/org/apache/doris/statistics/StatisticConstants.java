@@ -32,6 +32,8 @@ public class StatisticConstants {
 
     public static final String HISTOGRAM_TBL_NAME = "histogram_statistics";
 
+    public static final String NDV_SKETCH_TBL_NAME = "ndv_sketch_statistics";
+
     public static final String ANALYSIS_JOB_TABLE = "analysis_jobs";
 
     public static final int MAX_NAME_LEN = 64;
@@ -74,6 +76,11 @@ public class StatisticConstants {
 
     public static final int HISTOGRAM_MAX_BUCKET_NUM = 128;
 
+    /**
+     * The max number of rows written to the statistics table by one insert of a batch analysis task.
+     */
+    public static final int INSERT_MERGE_ITEM_COUNT = 200;
+
     /**
      * The health of the table indicates the health of the table statistics, rang in [0, 100].
      * Below this threshold will automatically re-collect statistics. TODO make it in fe.conf
@@ -25,6 +25,7 @@ import org.apache.doris.catalog.TableIf;
 import org.apache.doris.common.Config;
 import org.apache.doris.common.DdlException;
 import org.apache.doris.common.util.MasterDaemon;
+import org.apache.doris.statistics.AnalysisInfo.AnalysisMode;
 import org.apache.doris.statistics.AnalysisInfo.JobType;
 import org.apache.doris.statistics.util.StatisticsUtil;
 
@@ -150,7 +151,9 @@ public class StatisticsAutoAnalyzer extends MasterDaemon {
 
     private boolean needReanalyzeTable(TableIf table, TableStatistic tblStats) {
         long rowCount = table.getRowCount();
-        long updateRows = Math.abs(rowCount - tblStats.rowCount);
+        // the rows are updated without changing the row count if they are deleted and loaded again
+        long updateRows = Math.max(Math.abs(rowCount - tblStats.rowCount), getPartitionUpdateTracker()
+                .getUpdatedRows(table.getId()));
         int tblHealth = StatisticsUtil.getTableHealth(rowCount, updateRows);
         return tblHealth < StatisticConstants.TABLE_STATS_HEALTH_THRESHOLD;
     }
@@ -170,19 +173,21 @@ public class StatisticsAutoAnalyzer extends MasterDaemon {
             if (partitionStats == TableStatistic.UNKNOWN) {
                 continue;
             }
-            if (needReanalyzePartition(lastExecTimeInMs, partition, partitionStats)) {
+            if (needReanalyzePartition(lastExecTimeInMs, table, partition, partitionStats)) {
                 needRunPartitions.add(partition.getName());
             }
         }
     }
 
-    private boolean needReanalyzePartition(long lastExecTimeInMs, Partition partition, TableStatistic partStats) {
+    private boolean needReanalyzePartition(long lastExecTimeInMs, TableIf table, Partition partition,
+            TableStatistic partStats) {
         long partUpdateTime = partition.getVisibleVersionTime();
         if (partUpdateTime < lastExecTimeInMs) {
             return false;
         }
         long pRowCount = partition.getBaseIndex().getRowCount();
-        long pUpdateRows = Math.abs(pRowCount - partStats.rowCount);
+        long pUpdateRows = Math.max(Math.abs(pRowCount - partStats.rowCount), getPartitionUpdateTracker()
+                .getUpdatedRows(table.getId(), partition.getId()));
         int partHealth = StatisticsUtil.getTableHealth(pRowCount, pUpdateRows);
         return partHealth < StatisticConstants.TABLE_STATS_HEALTH_THRESHOLD;
     }
@@ -209,7 +214,15 @@ public class StatisticsAutoAnalyzer extends MasterDaemon {
                 newColToPartitions.put(colName, needRunPartitions);
             }
         });
+        // Only the changed partitions are analyzed, the stats of the table are merged from the stats
+        // of the partitions.
         return new AnalysisInfoBuilder(jobInfo)
+                .setAnalysisMode(AnalysisMode.FULL)
+                .setPartitionNames(needRunPartitions)
                 .setColToPartitions(newColToPartitions).build();
     }
+
+    private PartitionUpdateTracker getPartitionUpdateTracker() {
+        return Env.getCurrentEnv().getAnalysisManager().getPartitionUpdateTracker();
+    }
 }
@@ -19,6 +19,7 @@ package org.apache.doris.statistics;
 
 import org.apache.doris.common.Config;
 import org.apache.doris.common.ThreadPoolManager;
+import org.apache.doris.nereids.cache.PlanCache;
 import org.apache.doris.qe.ConnectContext;
 import org.apache.doris.statistics.util.InternalQueryResult.ResultRow;
 import org.apache.doris.statistics.util.StatisticsUtil;
@@ -30,8 +31,10 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.time.Duration;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.OptionalLong;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ThreadPoolExecutor;
@@ -52,6 +55,7 @@ public class StatisticsCache {
     private final ColumnStatisticsCacheLoader columnStatisticsCacheLoader = new ColumnStatisticsCacheLoader();
     private final HistogramCacheLoader histogramCacheLoader = new HistogramCacheLoader();
     private final TableStatisticsCacheLoader tableStatisticsCacheLoader = new TableStatisticsCacheLoader();
+    private final NdvSketchCacheLoader ndvSketchCacheLoader = new NdvSketchCacheLoader();
 
     private final AsyncLoadingCache<StatisticsCacheKey, Optional<ColumnStatistic>> columnStatisticsCache =
             Caffeine.newBuilder()
@@ -76,6 +80,16 @@ public class StatisticsCache {
                     .executor(threadPool)
                     .buildAsync(tableStatisticsCacheLoader);
 
+    // Weighted by the number of partition sketches.
+    private final AsyncLoadingCache<StatisticsCacheKey, Optional<PartitionNdvSketches>> ndvSketchCache =
+            Caffeine.newBuilder()
+                    .maximumWeight(Config.stats_ndv_sketch_cache_size)
+                    .weigher((StatisticsCacheKey k, Optional<PartitionNdvSketches> v) ->
+                            v.map(PartitionNdvSketches::size).orElse(1))
+                    .expireAfterAccess(Duration.ofHours(StatisticConstants.STATISTICS_CACHE_VALID_DURATION_IN_HOURS))
+                    .executor(threadPool)
+                    .buildAsync(ndvSketchCacheLoader);
+
     {
         threadPool.submit(() -> {
             while (true) {
@@ -83,6 +97,7 @@ public class StatisticsCache {
                     columnStatisticsCacheLoader.removeExpiredInProgressing();
                     histogramCacheLoader.removeExpiredInProgressing();
                     tableStatisticsCacheLoader.removeExpiredInProgressing();
+                    ndvSketchCacheLoader.removeExpiredInProgressing();
                 } catch (Throwable t) {
                     // IGNORE
                 }
@@ -152,20 +167,46 @@ public class StatisticsCache {
         return Optional.empty();
     }
 
+    /**
+     * Estimate the ndv of a column in the partitions by merging the ndv sketches of the partitions.
+     * Return empty if the sketches are disabled or not loaded yet, or the sketch of any partition is not collected.
+     */
+    public OptionalLong getNdv(long tblId, long idxId, String colName, Collection<Long> partitionIds) {
+        ConnectContext ctx = ConnectContext.get();
+        if (!Config.enable_stats_ndv_sketch || ctx != null && ctx.getSessionVariable().internalSession) {
+            return OptionalLong.empty();
+        }
+        StatisticsCacheKey k = new StatisticsCacheKey(tblId, idxId, colName);
+        try {
+            CompletableFuture<Optional<PartitionNdvSketches>> f = ndvSketchCache.get(k);
+            if (f.isDone() && f.get().isPresent()) {
+                return f.get().get().estimateNdv(partitionIds);
+            }
+        } catch (Exception e) {
+            LOG.warn("Unexpected exception while returning ndv sketches", e);
+        }
+        return OptionalLong.empty();
+    }
+
     public void invalidate(long tblId, long idxId, String colName) {
         columnStatisticsCache.synchronous().invalidate(new StatisticsCacheKey(tblId, idxId, colName));
+        PlanCache.getInstance().invalidateStatistics(tblId);
     }
 
     public void updateColStatsCache(long tblId, long idxId, String colName, ColumnStatistic statistic) {
         columnStatisticsCache.synchronous().put(new StatisticsCacheKey(tblId, idxId, colName), Optional.of(statistic));
+        PlanCache.getInstance().invalidateStatistics(tblId);
     }
 
     public void refreshColStatsSync(long tblId, long idxId, String colName) {
         columnStatisticsCache.synchronous().refresh(new StatisticsCacheKey(tblId, idxId, colName));
+        ndvSketchCache.synchronous().invalidate(new StatisticsCacheKey(tblId, idxId, colName));
+        PlanCache.getInstance().invalidateStatistics(tblId);
     }
 
     public void refreshHistogramSync(long tblId, long idxId, String colName) {
         histogramCache.synchronous().refresh(new StatisticsCacheKey(tblId, idxId, colName));
+        PlanCache.getInstance().invalidateStatistics(tblId);
     }
 
     public void preHeat() {
@@ -54,6 +54,7 @@ public class StatisticsCleaner extends MasterDaemon {
 
     private OlapTable colStatsTbl;
     private OlapTable histStatsTbl;
+    private OlapTable ndvSketchTbl;
 
     private Map<Long, CatalogIf> idToCatalog;
 
@@ -84,6 +85,9 @@ public class StatisticsCleaner extends MasterDaemon {
         }
         clearStats(colStatsTbl);
         clearStats(histStatsTbl);
+        if (ndvSketchTbl != null) {
+            clearStats(ndvSketchTbl);
+        }
     }
 
     private void clearStats(OlapTable statsTbl) {
@@ -109,6 +113,12 @@ public class StatisticsCleaner extends MasterDaemon {
                             .findTable(InternalCatalog.INTERNAL_CATALOG_NAME,
                                     dbName,
                                     StatisticConstants.HISTOGRAM_TBL_NAME);
+            ndvSketchTbl = Config.enable_stats_ndv_sketch
+                    ? (OlapTable) StatisticsUtil
+                            .findTable(InternalCatalog.INTERNAL_CATALOG_NAME,
+                                    dbName,
+                                    StatisticConstants.NDV_SKETCH_TBL_NAME)
+                    : null;
         } catch (Throwable t) {
             LOG.warn("Failed to init stats cleaner", t);
             return false;
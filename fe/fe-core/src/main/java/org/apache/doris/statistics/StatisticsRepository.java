@@ -27,6 +27,7 @@ import org.apache.doris.common.AnalysisException;
 import org.apache.doris.common.Config;
 import org.apache.doris.common.DdlException;
 import org.apache.doris.common.FeConstants;
+import org.apache.doris.common.io.Hll;
 import org.apache.doris.statistics.util.DBObjects;
 import org.apache.doris.statistics.util.InternalQueryResult.ResultRow;
 import org.apache.doris.statistics.util.StatisticsUtil;
@@ -100,6 +101,16 @@ public class StatisticsRepository {
             + " WHERE tbl_id = ${tblId}"
             + " AND part_id IS NOT NULL";
 
+    private static final String PERSIST_NDV_SKETCHES_TEMPLATE = "INSERT INTO "
+            + FeConstants.INTERNAL_DB_NAME + "." + StatisticConstants.NDV_SKETCH_TBL_NAME + " VALUES ";
+
+    private static final String NDV_SKETCH_VALUES_TEMPLATE = "('${id}', '${catalogId}', '${dbId}', '${tblId}',"
+            + " '${idxId}', '${colId}', '${partId}', '${sketch}', NOW())";
+
+    private static final String FETCH_NDV_SKETCHES_TEMPLATE = "SELECT part_id, sketch FROM "
+            + FeConstants.INTERNAL_DB_NAME + "." + StatisticConstants.NDV_SKETCH_TBL_NAME
+            + " WHERE tbl_id = '${tblId}' AND idx_id = '${idxId}' AND col_id = '${colId}'";
+
     private static final String PERSIST_TABLE_STATS_TEMPLATE = "INSERT INTO "
             + FeConstants.INTERNAL_DB_NAME + "." + StatisticConstants.ANALYSIS_TBL_NAME
             + " VALUES('${id}', ${catalogId}, ${dbId}, ${tblId}, ${indexId}, ${partId}, ${rowCount},"
@@ -195,11 +206,13 @@ public class StatisticsRepository {
     public static void dropStatistics(Set<Long> partIds) throws DdlException {
         dropStatisticsByPartId(partIds, StatisticConstants.ANALYSIS_TBL_NAME);
         dropStatisticsByPartId(partIds, StatisticConstants.STATISTIC_TBL_NAME);
+        dropStatisticsByPartId(partIds, StatisticConstants.NDV_SKETCH_TBL_NAME);
     }
 
     public static void dropStatistics(long tblId, Set<String> colNames) throws DdlException {
         dropStatisticsByColName(tblId, colNames, StatisticConstants.STATISTIC_TBL_NAME);
         dropStatisticsByColName(tblId, colNames, StatisticConstants.HISTOGRAM_TBL_NAME);
+        dropStatisticsByColName(tblId, colNames, StatisticConstants.NDV_SKETCH_TBL_NAME);
     }
 
     public static void dropStatisticsByColName(long tblId, Set<String> colNames, String statsTblName)
@@ -323,6 +336,39 @@ public class StatisticsRepository {
         return StatisticsUtil.execStatisticQuery(new StringSubstitutor(params).replace(FETCH_STATS_FULL_NAME));
     }
 
+    /**
+     * Persist the ndv sketches by one insert, each element of sketchParams is the params of a sketch.
+     */
+    public static void persistNdvSketches(List<Map<String, String>> sketchParams) throws Exception {
+        if (sketchParams.isEmpty()) {
+            return;
+        }
+        StringJoiner values = new StringJoiner(", ");
+        for (Map<String, String> params : sketchParams) {
+            values.add(new StringSubstitutor(params).replace(NDV_SKETCH_VALUES_TEMPLATE));
+        }
+        StatisticsUtil.execUpdate(PERSIST_NDV_SKETCHES_TEMPLATE + values);
+    }
+
+    public static PartitionNdvSketches fetchNdvSketches(long tblId, long idxId, String colName) {
+        Map<String, String> params = new HashMap<>();
+        params.put("tblId", String.valueOf(tblId));
+        params.put("idxId", String.valueOf(idxId));
+        params.put("colId", colName);
+        List<ResultRow> resultRows = StatisticsUtil.execStatisticQuery(
+                new StringSubstitutor(params).replace(FETCH_NDV_SKETCHES_TEMPLATE));
+        Map<Long, Hll> partitionToSketch = new HashMap<>();
+        for (ResultRow row : resultRows) {
+            try {
+                partitionToSketch.put(Long.parseLong(row.getColumnValue("part_id")),
+                        PartitionNdvSketches.deserialize(row.getColumnValue("sketch")));
+            } catch (Exception e) {
+                LOG.warn("Failed to deserialize the ndv sketch of column {} of table {}", colName, tblId, e);
+            }
+        }
+        return new PartitionNdvSketches(partitionToSketch);
+    }
+
     public static Map<String, Set<Long>> fetchColAndPartsForStats(long tblId) {
         Map<String, String> params = Maps.newHashMap();
         params.put("tblId", String.valueOf(tblId));
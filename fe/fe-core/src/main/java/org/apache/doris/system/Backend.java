@@ -769,6 +769,12 @@ public class Backend implements Writable {
             Info.remove(beId);
         }
 
+        // Return the number of cores of the backend, 0 if it is not reported.
+        public int getNumCores(long beId) {
+            BeInfoCollector beinfo = Info.get(beId);
+            return beinfo == null ? 0 : beinfo.getNumCores();
+        }
+
         public int getMinNumCores() {
             int minNumCores = Integer.MAX_VALUE;
             for (BeInfoCollector beinfo : Info.values()) {
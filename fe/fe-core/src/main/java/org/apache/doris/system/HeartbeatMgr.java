@@ -166,7 +166,11 @@ public class HeartbeatMgr extends MasterDaemon {
                 BackendHbResponse hbResponse = (BackendHbResponse) response;
                 Backend be = nodeMgr.getBackend(hbResponse.getBeId());
                 if (be != null) {
+                    boolean wasAlive = be.isAlive();
                     boolean isChanged = be.handleHbResponse(hbResponse, isReplay);
+                    if (!isReplay && wasAlive != be.isAlive()) {
+                        Env.getCurrentEnv().getTabletChecker().markBackendDirty(be.getId());
+                    }
                     if (hbResponse.getStatus() != HbStatus.OK) {
                         // invalid all connections cached in ClientPool
                         ClientPool.backendPool.clearPool(new TNetworkAddress(be.getHost(), be.getBePort()));
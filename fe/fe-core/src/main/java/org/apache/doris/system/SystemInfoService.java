@@ -274,6 +274,7 @@ public class SystemInfoService {
         // log
         Env.getCurrentEnv().getEditLog().logDropBackend(droppedBackend);
         LOG.info("finished to drop {}", droppedBackend);
+        Env.getCurrentEnv().getTabletChecker().markBackendDirty(droppedBackend.getId());
 
         // backends is changed, regenerated tablet number metrics
         MetricRepo.generateBackendsTabletMetrics();
@@ -924,6 +925,8 @@ public class SystemInfoService {
             if (shouldModify) {
                 Env.getCurrentEnv().getEditLog().logModifyBackend(be);
                 LOG.info("finished to modify backend {} ", be);
+                // the tag of backend decides where the replicas should be
+                Env.getCurrentEnv().getTabletChecker().markBackendDirty(be.getId());
             }
         }
     }
@@ -50,6 +50,7 @@ import org.apache.doris.mysql.privilege.PrivPredicate;
 import org.apache.doris.persist.BatchRemoveTransactionsOperationV2;
 import org.apache.doris.persist.EditLog;
 import org.apache.doris.qe.ConnectContext;
+import org.apache.doris.statistics.AnalysisManager;
 import org.apache.doris.task.AgentBatchTask;
 import org.apache.doris.task.AgentTaskExecutor;
 import org.apache.doris.task.ClearTransactionTask;
@@ -79,6 +80,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.stream.Collectors;
 
@@ -97,6 +99,8 @@ public class DatabaseTransactionMgr {
     // the max number of txn that can be remove per round.
     // set it to avoid holding lock too long when removing too many txns per round.
     private static final int MAX_REMOVE_TXN_PER_ROUND = 10000;
+    // the number of locks to serialize the state transforms of transactions
+    private static final int TXN_LOCK_NUM = 64;
 
     private final long dbId;
 
@@ -104,8 +108,20 @@ public class DatabaseTransactionMgr {
     // no other locks should be inside this lock
     private final ReentrantReadWriteLock transactionLock = new ReentrantReadWriteLock(true);
 
+    // The lock is used to serialize the state transforms of a transaction, and is striped by transaction id.
+    // If edit log group commit is enabled, the edit log of a COMMITTED or PRECOMMITTED transaction is written
+    // holding only this lock, so that the transactions on different tables of the database could be committed
+    // concurrently. The transactions on the same table are still serialized by the table locks held by the caller.
+    // The lock order is: table locks -> txn lock -> transactionLock.
+    private final ReentrantLock[] txnLocks = new ReentrantLock[TXN_LOCK_NUM];
+
+    // The transactions whose state transform is being persisted without holding transactionLock.
+    // They are not published until the edit log is written. Protected by transactionLock.
+    private final Set<Long> persistingTxnIds = Sets.newHashSet();
+
     // transactionId -> running TransactionState
-    private final Map<Long, TransactionState> idToRunningTransactionState = Maps.newHashMap();
+    // The two maps are modified with transactionLock held, but could be read without lock.
+    private final Map<Long, TransactionState> idToRunningTransactionState = Maps.newConcurrentMap();
 
     /**
      * the multi table ids that are in transaction, used to check whether a table is in transaction
@@ -116,7 +132,7 @@ public class DatabaseTransactionMgr {
             new ConcurrentHashMap<>();
 
     // transactionId -> final status TransactionState
-    private final Map<Long, TransactionState> idToFinalStatusTransactionState = Maps.newHashMap();
+    private final Map<Long, TransactionState> idToFinalStatusTransactionState = Maps.newConcurrentMap();
 
     // The following 2 queues are to store transactionStates with final status
     // These queues are mainly used to avoid traversing all txns and speed up the cleaning time
@@ -179,26 +195,84 @@ public class DatabaseTransactionMgr {
         this.env = env;
         this.idGenerator = idGenerator;
         this.editLog = env.getEditLog();
+        for (int i = 0; i < TXN_LOCK_NUM; i++) {
+            txnLocks[i] = new ReentrantLock();
+        }
     }
 
     public long getDbId() {
         return dbId;
     }
 
-    public TransactionState getTransactionState(Long transactionId) {
-        readLock();
+    private ReentrantLock getTxnLock(long transactionId) {
+        return txnLocks[(int) Math.floorMod(transactionId, (long) TXN_LOCK_NUM)];
+    }
+
+    // Hide the transaction from publishing before its state is changed, the caller should hold the txn lock.
+    private void beginPersistTransactionState(long transactionId) {
+        writeLock();
         try {
-            TransactionState transactionState = idToRunningTransactionState.get(transactionId);
-            if (transactionState != null) {
-                return transactionState;
-            } else {
-                return idToFinalStatusTransactionState.get(transactionId);
+            persistingTxnIds.add(transactionId);
+        } finally {
+            writeUnlock();
+        }
+    }
+
+    // Called after the edit log of a non final state transform is written, the caller should hold the txn lock.
+    // The indexes are not updated if the transaction is not transformed, e.g. it is aborted by timeout after
+    // its status is checked by the committer.
+    private void finishPersistTransactionState(TransactionState transactionState, TransactionStatus targetStatus) {
+        writeLock();
+        try {
+            persistingTxnIds.remove(transactionState.getTransactionId());
+            if (transactionState.getTransactionStatus() == targetStatus) {
+                unprotectUpdateTransactionState(transactionState);
             }
         } finally {
-            readUnlock();
+            writeUnlock();
+        }
+    }
+
+    // Run the transform of the transaction to a non final status, which writes the edit log, then update the
+    // indexes of the transaction. With edit log group commit, the edit logs of different transactions are
+    // written concurrently, so only the txn lock is held while writing, see txnLocks. Otherwise
+    // EditLog.logEdit() is synchronized and writes one edit log at a time anyway, so the edit log is written
+    // holding transactionLock as before, instead of locking transactionLock twice.
+    private void persistTransactionState(TransactionState transactionState, TransactionStatus targetStatus,
+            Runnable stateTransform) {
+        long transactionId = transactionState.getTransactionId();
+        ReentrantLock txnLock = getTxnLock(transactionId);
+        txnLock.lock();
+        try {
+            if (!Config.enable_edit_log_group_commit) {
+                writeLock();
+                try {
+                    stateTransform.run();
+                    if (transactionState.getTransactionStatus() == targetStatus) {
+                        unprotectUpdateTransactionState(transactionState);
+                    }
+                } finally {
+                    writeUnlock();
+                }
+                return;
+            }
+            beginPersistTransactionState(transactionId);
+            try {
+                stateTransform.run();
+            } finally {
+                finishPersistTransactionState(transactionState, targetStatus);
+            }
+        } finally {
+            txnLock.unlock();
         }
     }
 
+    // A transaction is never missed by a lookup without lock, because it is put into
+    // idToFinalStatusTransactionState before it is removed from idToRunningTransactionState.
+    public TransactionState getTransactionState(Long transactionId) {
+        return unprotectedGetTransactionState(transactionId);
+    }
+
     private TransactionState unprotectedGetTransactionState(Long transactionId) {
         TransactionState transactionState = idToRunningTransactionState.get(transactionId);
         if (transactionState != null) {
@@ -388,13 +462,7 @@ public class DatabaseTransactionMgr {
         // check status
         // the caller method already own db lock, we do not obtain db lock here
         Database db = env.getInternalCatalog().getDbOrMetaException(dbId);
-        TransactionState transactionState;
-        readLock();
-        try {
-            transactionState = unprotectedGetTransactionState(transactionId);
-        } finally {
-            readUnlock();
-        }
+        TransactionState transactionState = getTransactionState(transactionId);
         if (transactionState == null
                 || transactionState.getTransactionStatus() == TransactionStatus.ABORTED) {
             throw new TransactionCommitFailedException(
@@ -423,8 +491,9 @@ public class DatabaseTransactionMgr {
         checkCommitStatus(tableList, transactionState, tabletCommitInfos, txnCommitAttachment, errorReplicaIds,
                           tableToPartition, totalInvolvedBackends);
 
-        unprotectedPreCommitTransaction2PC(transactionState, errorReplicaIds, tableToPartition,
-                totalInvolvedBackends, db);
+        persistTransactionState(transactionState, TransactionStatus.PRECOMMITTED,
+                () -> unprotectedPreCommitTransaction2PC(transactionState, errorReplicaIds, tableToPartition,
+                        totalInvolvedBackends, db));
         LOG.info("transaction:[{}] successfully pre-committed", transactionState);
     }
 
@@ -604,13 +673,7 @@ public class DatabaseTransactionMgr {
         // check status
         // the caller method already own tables' write lock
         Database db = env.getInternalCatalog().getDbOrMetaException(dbId);
-        TransactionState transactionState;
-        readLock();
-        try {
-            transactionState = unprotectedGetTransactionState(transactionId);
-        } finally {
-            readUnlock();
-        }
+        TransactionState transactionState = getTransactionState(transactionId);
 
         if (transactionState == null) {
             LOG.debug("transaction not found: {}", transactionId);
@@ -658,17 +721,17 @@ public class DatabaseTransactionMgr {
         transactionState.beforeStateTransform(TransactionStatus.COMMITTED);
         // transaction state transform
         boolean txnOperated = false;
-        writeLock();
         try {
-            if (is2PC) {
-                unprotectedCommitTransaction2PC(transactionState, db);
-            } else {
-                unprotectedCommitTransaction(transactionState, errorReplicaIds,
-                        tableToPartition, totalInvolvedBackends, db);
-            }
+            persistTransactionState(transactionState, TransactionStatus.COMMITTED, () -> {
+                if (is2PC) {
+                    unprotectedCommitTransaction2PC(transactionState, db);
+                } else {
+                    unprotectedCommitTransaction(transactionState, errorReplicaIds,
+                            tableToPartition, totalInvolvedBackends, db);
+                }
+            });
             txnOperated = true;
         } finally {
-            writeUnlock();
             // after state transform
             transactionState.afterStateTransform(TransactionStatus.COMMITTED, txnOperated);
         }
@@ -676,17 +739,14 @@ public class DatabaseTransactionMgr {
         // update nextVersion because of the failure of persistent transaction resulting in error version
         updateCatalogAfterCommitted(transactionState, db);
         LOG.info("transaction:[{}] successfully committed", transactionState);
+        if (txnOperated) {
+            Env.getCurrentEnv().getPublishVersionDaemon().notifyTransaction(transactionState);
+        }
     }
 
     public boolean waitForTransactionFinished(DatabaseIf db, long transactionId, long timeoutMillis)
             throws TransactionCommitFailedException {
-        TransactionState transactionState = null;
-        readLock();
-        try {
-            transactionState = unprotectedGetTransactionState(transactionId);
-        } finally {
-            readUnlock();
-        }
+        TransactionState transactionState = getTransactionState(transactionId);
 
         switch (transactionState.getTransactionStatus()) {
             case COMMITTED:
@@ -819,7 +879,8 @@ public class DatabaseTransactionMgr {
             // only send task to preCommitted transaction
             return idToRunningTransactionState.values().stream()
                     .filter(transactionState
-                            -> (transactionState.getTransactionStatus() == TransactionStatus.PRECOMMITTED))
+                            -> (transactionState.getTransactionStatus() == TransactionStatus.PRECOMMITTED)
+                            && !persistingTxnIds.contains(transactionState.getTransactionId()))
                     .sorted(Comparator.comparing(TransactionState::getPreCommitTime))
                     .collect(Collectors.toList());
         } finally {
@@ -831,9 +892,11 @@ public class DatabaseTransactionMgr {
         readLock();
         try {
             // only send task to committed transaction
+            // the transaction whose edit log is being written should not be published
             return idToRunningTransactionState.values().stream()
                     .filter(transactionState ->
-                            (transactionState.getTransactionStatus() == TransactionStatus.COMMITTED))
+                            (transactionState.getTransactionStatus() == TransactionStatus.COMMITTED)
+                            && !persistingTxnIds.contains(transactionState.getTransactionId()))
                     .sorted(Comparator.comparing(TransactionState::getCommitTime))
                     .collect(Collectors.toList());
         } finally {
@@ -842,13 +905,7 @@ public class DatabaseTransactionMgr {
     }
 
     public void finishTransaction(long transactionId, Set<Long> errorReplicaIds) throws UserException {
-        TransactionState transactionState = null;
-        readLock();
-        try {
-            transactionState = unprotectedGetTransactionState(transactionId);
-        } finally {
-            readUnlock();
-        }
+        TransactionState transactionState = getTransactionState(transactionId);
         // add all commit errors and publish errors to a single set
         if (errorReplicaIds == null) {
             errorReplicaIds = Sets.newHashSet();
@@ -1014,6 +1071,7 @@ public class DatabaseTransactionMgr {
         LOG.info("finish transaction {} successfully", transactionState);
     }
 
+    // called by persistTransactionState()
     protected void unprotectedPreCommitTransaction2PC(TransactionState transactionState, Set<Long> errorReplicaIds,
                                                 Map<Long, Set<Long>> tableToPartition, Set<Long> totalInvolvedBackends,
                                                 Database db) {
@@ -1033,8 +1091,8 @@ public class DatabaseTransactionMgr {
             }
             transactionState.putIdToTableCommitInfo(tableId, tableCommitInfo);
         }
-        // persist transactionState
-        unprotectUpsertTransactionState(transactionState, false);
+        // persist transactionState, the indexes are updated by persistTransactionState()
+        logTransactionState(transactionState);
 
         // add publish version tasks. set task to null as a placeholder.
         // tasks will be created when publishing version.
@@ -1043,6 +1101,7 @@ public class DatabaseTransactionMgr {
         }
     }
 
+    // called by persistTransactionState()
     protected void unprotectedCommitTransaction(TransactionState transactionState, Set<Long> errorReplicaIds,
                                                 Map<Long, Set<Long>> tableToPartition, Set<Long> totalInvolvedBackends,
                                                 Database db) {
@@ -1070,8 +1129,8 @@ public class DatabaseTransactionMgr {
             }
             transactionState.putIdToTableCommitInfo(tableId, tableCommitInfo);
         }
-        // persist transactionState
-        unprotectUpsertTransactionState(transactionState, false);
+        // persist transactionState, the indexes are updated by persistTransactionState()
+        logTransactionState(transactionState);
 
         // add publish version tasks. set task to null as a placeholder.
         // tasks will be created when publishing version.
@@ -1080,6 +1139,7 @@ public class DatabaseTransactionMgr {
         }
     }
 
+    // called by persistTransactionState()
     protected void unprotectedCommitTransaction2PC(TransactionState transactionState, Database db) {
         // transaction state is modified during check if the transaction could committed
         if (transactionState.getTransactionStatus() != TransactionStatus.PRECOMMITTED) {
@@ -1131,15 +1191,26 @@ public class DatabaseTransactionMgr {
     protected void unprotectUpsertTransactionState(TransactionState transactionState, boolean isReplay) {
         // if this is a replay operation, we should not log it
         if (!isReplay) {
-            if (transactionState.getTransactionStatus() != TransactionStatus.PREPARE
-                    || transactionState.getSourceType() == TransactionState.LoadJobSourceType.FRONTEND) {
-                // if this is a prepare txn, and load source type is not FRONTEND
-                // no need to persist it. if prepare txn lost, the following commit will just be failed.
-                // user only need to retry this txn.
-                // The FRONTEND type txn is committed and running asynchronously, so we have to persist it.
-                editLog.logInsertTransactionState(transactionState);
-            }
+            logTransactionState(transactionState);
+        }
+        unprotectUpdateTransactionState(transactionState);
+    }
+
+    private void logTransactionState(TransactionState transactionState) {
+        if (transactionState.getTransactionStatus() != TransactionStatus.PREPARE
+                || transactionState.getSourceType() == TransactionState.LoadJobSourceType.FRONTEND) {
+            // if this is a prepare txn, and load source type is not FRONTEND
+            // no need to persist it. if prepare txn lost, the following commit will just be failed.
+            // user only need to retry this txn.
+            // The FRONTEND type txn is committed and running asynchronously, so we have to persist it.
+            editLog.logInsertTransactionState(transactionState);
         }
+    }
+
+    // Update the indexes of transaction states. The final status transactions are appended to the deques
+    // with transactionLock held since their edit logs are written, so that the order of the deques is the
+    // same as the edit logs, which is relied on by replayBatchRemoveTransaction().
+    private void unprotectUpdateTransactionState(TransactionState transactionState) {
         if (!transactionState.getTransactionStatus().isFinalStatus()) {
             if (idToRunningTransactionState.put(transactionState.getTransactionId(), transactionState) == null) {
                 if (transactionState.getSourceType() == TransactionState.LoadJobSourceType.ROUTINE_LOAD_TASK) {
@@ -1149,6 +1220,8 @@ public class DatabaseTransactionMgr {
                 }
             }
         } else {
+            // put into the final status map first, see getTransactionState()
+            idToFinalStatusTransactionState.put(transactionState.getTransactionId(), transactionState);
             if (idToRunningTransactionState.remove(transactionState.getTransactionId()) != null) {
                 if (transactionState.getSourceType() == TransactionState.LoadJobSourceType.ROUTINE_LOAD_TASK) {
                     runningRoutineLoadTxnNums--;
@@ -1156,7 +1229,6 @@ public class DatabaseTransactionMgr {
                     runningTxnNums--;
                 }
             }
-            idToFinalStatusTransactionState.put(transactionState.getTransactionId(), transactionState);
             if (transactionState.isShortTxn()) {
                 finalStatusTransactionStateDequeShort.add(transactionState);
             } else {
@@ -1217,13 +1289,7 @@ public class DatabaseTransactionMgr {
                     + " ignore abort operation", transactionId);
             return;
         }
-        TransactionState transactionState = null;
-        readLock();
-        try {
-            transactionState = idToRunningTransactionState.get(transactionId);
-        } finally {
-            readUnlock();
-        }
+        TransactionState transactionState = idToRunningTransactionState.get(transactionId);
         if (transactionState == null) {
             throw new TransactionNotFoundException("transaction not found", transactionId);
         }
@@ -1236,11 +1302,14 @@ public class DatabaseTransactionMgr {
         // before state transform
         transactionState.beforeStateTransform(TransactionStatus.ABORTED);
         boolean txnOperated = false;
+        ReentrantLock txnLock = getTxnLock(transactionId);
+        txnLock.lock();
         writeLock();
         try {
             txnOperated = unprotectAbortTransaction(transactionId, reason);
         } finally {
             writeUnlock();
+            txnLock.unlock();
             transactionState.afterStateTransform(TransactionStatus.ABORTED, txnOperated, reason);
         }
 
@@ -1263,13 +1332,7 @@ public class DatabaseTransactionMgr {
                     + " ignore abort operation", transactionId);
             return;
         }
-        TransactionState transactionState;
-        readLock();
-        try {
-            transactionState = unprotectedGetTransactionState(transactionId);
-        } finally {
-            readUnlock();
-        }
+        TransactionState transactionState = getTransactionState(transactionId);
 
         if (transactionState == null) {
             throw new TransactionNotFoundException("transaction [" + transactionId + "] not found");
@@ -1278,11 +1341,14 @@ public class DatabaseTransactionMgr {
         // before state transform
         transactionState.beforeStateTransform(TransactionStatus.ABORTED);
         boolean txnOperated = false;
+        ReentrantLock txnLock = getTxnLock(transactionId);
+        txnLock.lock();
         writeLock();
         try {
             txnOperated = unprotectAbortTransaction(transactionId, "User Abort");
         } finally {
             writeUnlock();
+            txnLock.unlock();
             transactionState.afterStateTransform(TransactionStatus.ABORTED, txnOperated, "User Abort");
         }
 
@@ -1607,6 +1673,7 @@ public class DatabaseTransactionMgr {
 
     private boolean updateCatalogAfterVisible(TransactionState transactionState, Database db) {
         Set<Long> errorReplicaIds = transactionState.getErrorReplicas();
+        Map<Long, Collection<Long>> tableToPartitions = Maps.newHashMap();
         for (TableCommitInfo tableCommitInfo : transactionState.getIdToTableCommitInfos().values()) {
             long tableId = tableCommitInfo.getTableId();
             OlapTable table = (OlapTable) db.getTableNullable(tableId);
@@ -1659,6 +1726,10 @@ public class DatabaseTransactionMgr {
                                     lastFailedVersion = newCommitVersion;
                                 }
                             }
+                            if (lastFailedVersion != replica.getLastFailedVersion()) {
+                                // the replica falls behind, let tablet checker find it
+                                Env.getCurrentEnv().getTabletChecker().markTabletDirty(tablet.getId());
+                            }
                             replica.updateVersionWithFailedInfo(newVersion, lastFailedVersion, lastSuccessVersion);
                         }
                     }
@@ -1666,12 +1737,18 @@ public class DatabaseTransactionMgr {
                 long version = partitionCommitInfo.getVersion();
                 long versionTime = partitionCommitInfo.getVersionTime();
                 partition.updateVisibleVersionAndTime(version, versionTime);
+                tableToPartitions.computeIfAbsent(tableId, k -> Lists.newArrayList()).add(partitionId);
                 if (LOG.isDebugEnabled()) {
                     LOG.debug("transaction state {} set partition {}'s version to [{}]",
                             transactionState, partition.getId(), version);
                 }
             }
         }
+        // track the loaded rows of partitions for the incremental analysis of statistics
+        AnalysisManager analysisManager = Env.getCurrentEnv().getAnalysisManager();
+        if (analysisManager != null) {
+            analysisManager.getPartitionUpdateTracker().recordLoad(transactionState, tableToPartitions);
+        }
         return true;
     }
 
@@ -37,19 +37,30 @@ import org.apache.doris.thrift.TPartitionVersionInfo;
 import org.apache.doris.thrift.TTaskType;
 
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 public class PublishVersionDaemon extends MasterDaemon {
 
     private static final Logger LOG = LogManager.getLogger(PublishVersionDaemon.class);
 
+    // The transactions notified by events, which are just committed, or whose publish tasks are all finished.
+    // They are handled in the next cycle without checking all committed transactions.
+    private final Map<Long, TransactionState> notifiedTransactions = Maps.newConcurrentMap();
+    // The transactions whose publish tasks are all finished but which are not visible yet, e.g. they are waiting
+    // for the previous version of a partition to be visible. Only accessed by the daemon thread.
+    private final Map<Long, TransactionState> waitingTransactions = Maps.newHashMap();
+    private long lastCheckAllTime = 0;
+
     public PublishVersionDaemon() {
         super("PUBLISH_VERSION", Config.publish_version_interval_ms);
     }
@@ -57,10 +68,48 @@ public class PublishVersionDaemon extends MasterDaemon {
     @Override
     protected void runAfterCatalogReady() {
         try {
-            publishVersion();
+            publishVersion(getTransactionsToPublish());
         } catch (Throwable t) {
             LOG.error("errors while publish version to all backends", t);
         }
+        setInterval(Config.enable_event_driven_publish_version
+                ? Config.publish_version_check_interval_ms : Config.publish_version_interval_ms);
+    }
+
+    /**
+     * Called after the transaction is committed, or all its publish tasks are finished.
+     */
+    public void notifyTransaction(TransactionState transactionState) {
+        if (!Config.enable_event_driven_publish_version) {
+            return;
+        }
+        notifiedTransactions.put(transactionState.getTransactionId(), transactionState);
+        wakeup();
+    }
+
+    private List<TransactionState> getTransactionsToPublish() {
+        long now = System.currentTimeMillis();
+        if (!Config.enable_event_driven_publish_version
+                || now - lastCheckAllTime >= Config.publish_version_check_interval_ms) {
+            lastCheckAllTime = now;
+            // clear them before getting all committed transactions, so that no event is lost
+            notifiedTransactions.clear();
+            waitingTransactions.clear();
+            return Env.getCurrentGlobalTransactionMgr().getReadyToPublishTransactions();
+        }
+        Map<Long, TransactionState> transactions = Maps.newHashMap(waitingTransactions);
+        for (Long transactionId : notifiedTransactions.keySet()) {
+            TransactionState transactionState = notifiedTransactions.remove(transactionId);
+            if (transactionState != null) {
+                transactions.put(transactionId, transactionState);
+            }
+        }
+        // finish the transactions in the order they are committed, as the versions of a partition are
+        // made visible one by one
+        return transactions.values().stream()
+                .filter(transactionState -> transactionState.getTransactionStatus() == TransactionStatus.COMMITTED)
+                .sorted(Comparator.comparing(TransactionState::getCommitTime))
+                .collect(Collectors.toList());
     }
 
     private boolean isAllBackendsOfUnfinishedTasksDead(List<PublishVersionTask> unfinishedTasks) {
@@ -72,9 +121,8 @@ public class PublishVersionDaemon extends MasterDaemon {
         return true;
     }
 
-    private void publishVersion() {
+    private void publishVersion(List<TransactionState> readyTransactionStates) {
         GlobalTransactionMgr globalTransactionMgr = Env.getCurrentGlobalTransactionMgr();
-        List<TransactionState> readyTransactionStates = globalTransactionMgr.getReadyToPublishTransactions();
         if (readyTransactionStates.isEmpty()) {
             return;
         }
@@ -250,10 +298,13 @@ public class PublishVersionDaemon extends MasterDaemon {
                     transactionState.updateSendTaskTime();
                     LOG.debug("publish version for transaction {} failed, has {} error replicas during publish",
                             transactionState, publishErrorReplicaIds.size());
+                    // retry it in the following cycles, no more event will be notified for it
+                    waitingTransactions.put(transactionState.getTransactionId(), transactionState);
                 }
             }
 
             if (transactionState.getTransactionStatus() == TransactionStatus.VISIBLE) {
+                waitingTransactions.remove(transactionState.getTransactionId());
                 for (PublishVersionTask task : transactionState.getPublishVersionTasks().values()) {
                     AgentTaskQueue.removeTask(task.getBackendId(), TTaskType.PUBLISH_VERSION, task.getSignature());
                 }
@@ -31,12 +31,12 @@ import org.apache.doris.transaction.TransactionState;
 import mockit.Mock;
 import mockit.MockUp;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class FakeEditLog extends MockUp<EditLog> {
 
-    private Map<Long, TransactionState> allTransactionState = new HashMap<>();
+    private Map<Long, TransactionState> allTransactionState = new ConcurrentHashMap<>();
 
     @Mock
     public void $init(String nodeName) { // CHECKSTYLE IGNORE THIS LINE
@@ -0,0 +1,256 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+package org.apache.doris.catalog;
+
+import org.apache.doris.catalog.Replica.ReplicaState;
+import org.apache.doris.common.Config;
+import org.apache.doris.thrift.TPartitionVersionInfo;
+import org.apache.doris.thrift.TStorageMedium;
+import org.apache.doris.thrift.TTablet;
+import org.apache.doris.thrift.TTabletInfo;
+import org.apache.doris.thrift.TTabletMetaInfo;
+import org.apache.doris.transaction.GlobalTransactionMgr;
+import org.apache.doris.transaction.PartitionCommitInfo;
+import org.apache.doris.transaction.TableCommitInfo;
+import org.apache.doris.transaction.TransactionState;
+import org.apache.doris.transaction.TransactionState.LoadJobSourceType;
+import org.apache.doris.transaction.TransactionStatus;
+
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ListMultimap;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import mockit.Delegate;
+import mockit.Expectations;
+import mockit.Mock;
+import mockit.MockUp;
+import mockit.Mocked;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public class TabletInvertedIndexTest {
+    private static final long TABLET_ID_BASE = 10000L;
+    private static final long REPLICA_ID_BASE = 100000L;
+    private static final int TABLET_NUM = 5000;
+    private static final int REPLICA_NUM = 3;
+
+    @Mocked
+    private GlobalTransactionMgr globalTransactionMgr;
+
+    private static long replicaId(int tablet, int replica) {
+        return REPLICA_ID_BASE + (long) tablet * REPLICA_NUM + replica;
+    }
+
+    private static TabletInvertedIndex createIndex() {
+        TabletInvertedIndex invertedIndex = new TabletInvertedIndex();
+        for (int i = 0; i < TABLET_NUM; i++) {
+            long tabletId = TABLET_ID_BASE + i;
+            // 10 tablets per index, so that the tablet meta table is shared
+            TabletMeta tabletMeta = new TabletMeta(1L, 2L, 3L + i / 10, 4L + i / 10, 0, TStorageMedium.HDD);
+            invertedIndex.addTablet(tabletId, tabletMeta);
+            for (int j = 0; j < REPLICA_NUM; j++) {
+                invertedIndex.addReplica(tabletId, new Replica(replicaId(i, j), j, 0, ReplicaState.NORMAL));
+            }
+        }
+        return invertedIndex;
+    }
+
+    @Test
+    public void testAddTabletAndReplica() {
+        TabletInvertedIndex invertedIndex = createIndex();
+        for (int i = 0; i < TABLET_NUM; i++) {
+            long tabletId = TABLET_ID_BASE + i;
+            Assert.assertEquals(3L + i / 10, invertedIndex.getTabletMeta(tabletId).getPartitionId());
+            for (int j = 0; j < REPLICA_NUM; j++) {
+                Assert.assertEquals(tabletId, (long) invertedIndex.getTabletIdByReplica(replicaId(i, j)));
+                Assert.assertEquals(replicaId(i, j), invertedIndex.getReplica(tabletId, j).getId());
+            }
+        }
+        Assert.assertNull(invertedIndex.getTabletMeta(TABLET_ID_BASE + TABLET_NUM));
+        Assert.assertNull(invertedIndex.getTabletIdByReplica(REPLICA_ID_BASE - 1));
+        Assert.assertEquals(TABLET_NUM, invertedIndex.getTabletMetaMap().size());
+        Assert.assertEquals(TABLET_NUM * REPLICA_NUM, invertedIndex.getReplicaToTabletMap().size());
+        Assert.assertEquals(TABLET_NUM, invertedIndex.getTabletNumByBackendId(0));
+    }
+
+    @Test
+    public void testDeleteTabletAndReplica() {
+        TabletInvertedIndex invertedIndex = createIndex();
+        // delete the even tablets, and the last replica of the odd ones
+        for (int i = 0; i < TABLET_NUM; i++) {
+            long tabletId = TABLET_ID_BASE + i;
+            if (i % 2 == 0) {
+                invertedIndex.deleteTablet(tabletId);
+            } else {
+                invertedIndex.deleteReplica(tabletId, REPLICA_NUM - 1);
+            }
+        }
+
+        for (int i = 0; i < TABLET_NUM; i++) {
+            long tabletId = TABLET_ID_BASE + i;
+            if (i % 2 == 0) {
+                Assert.assertNull(invertedIndex.getTabletMeta(tabletId));
+                for (int j = 0; j < REPLICA_NUM; j++) {
+                    Assert.assertNull(invertedIndex.getTabletIdByReplica(replicaId(i, j)));
+                }
+            } else {
+                Assert.assertNotNull(invertedIndex.getTabletMeta(tabletId));
+                Assert.assertEquals(tabletId, (long) invertedIndex.getTabletIdByReplica(replicaId(i, 0)));
+                Assert.assertNull(invertedIndex.getTabletIdByReplica(replicaId(i, REPLICA_NUM - 1)));
+            }
+        }
+        Map<Long, Long> replicaToTablet = invertedIndex.getReplicaToTabletMap();
+        Assert.assertEquals(TABLET_NUM / 2 * (REPLICA_NUM - 1), replicaToTablet.size());
+        Assert.assertEquals(TABLET_NUM / 2, invertedIndex.getTabletMetaMap().size());
+        Assert.assertEquals(0, invertedIndex.getTabletNumByBackendId(REPLICA_NUM - 1));
+
+        // add the deleted tablets back
+        for (int i = 0; i < TABLET_NUM; i += 2) {
+            long tabletId = TABLET_ID_BASE + i;
+            invertedIndex.addTablet(tabletId, new TabletMeta(1L, 2L, 3L, 4L, 0, TStorageMedium.HDD));
+            invertedIndex.addReplica(tabletId, new Replica(replicaId(i, 0), 0, 0, ReplicaState.NORMAL));
+            Assert.assertEquals(tabletId, (long) invertedIndex.getTabletIdByReplica(replicaId(i, 0)));
+        }
+        Assert.assertEquals(TABLET_NUM, invertedIndex.getTabletMetaMap().size());
+    }
+
+    // The diff of a tablet report from backend 0
+    private static class TabletReportDiff {
+        private final ListMultimap<Long, Long> tabletSyncMap = ArrayListMultimap.create();
+        private final ListMultimap<Long, Long> tabletDeleteFromMeta = ArrayListMultimap.create();
+        private final Set<Long> tabletFoundInMeta = Sets.newHashSet();
+        private final ListMultimap<TStorageMedium, Long> tabletMigrationMap = ArrayListMultimap.create();
+        private final Map<Long, ListMultimap<Long, TPartitionVersionInfo>> transactionsToPublish = Maps.newHashMap();
+        private final ListMultimap<Long, Long> transactionsToClear = ArrayListMultimap.create();
+        private final ListMultimap<Long, Long> tabletRecoveryMap = ArrayListMultimap.create();
+        private final List<TTabletMetaInfo> tabletToUpdate = Lists.newArrayList();
+
+        private TabletReportDiff(TabletInvertedIndex invertedIndex, Map<Long, TTablet> backendTablets,
+                HashMap<Long, TStorageMedium> storageMediumMap) {
+            invertedIndex.tabletReport(0, backendTablets, storageMediumMap, tabletSyncMap, tabletDeleteFromMeta,
+                    tabletFoundInMeta, tabletMigrationMap, transactionsToPublish, transactionsToClear,
+                    tabletRecoveryMap, tabletToUpdate, Lists.newArrayList(), Lists.newArrayList());
+        }
+    }
+
+    private static long partitionId(int tablet) {
+        return 3L + tablet / 10;
+    }
+
+    // The report of backend 0, which holds the first replica of every tablet:
+    // every 7th tablet is missing, every 3rd tablet has a newer version, every 5th tablet has
+    // a transaction which is visible if the tablet is even and unknown otherwise,
+    // and every 11th tablet reports a stale replica id.
+    private static Map<Long, TTablet> createTabletReport() {
+        Map<Long, TTablet> backendTablets = Maps.newHashMap();
+        for (int i = 0; i < TABLET_NUM; i++) {
+            if (i % 7 == 0) {
+                continue;
+            }
+            long tabletId = TABLET_ID_BASE + i;
+            TTabletInfo tabletInfo = new TTabletInfo();
+            tabletInfo.setTabletId(tabletId);
+            tabletInfo.setSchemaHash(0);
+            tabletInfo.setVersion(i % 3 == 0 ? 5 : -1);
+            tabletInfo.setReplicaId(i % 11 == 0 ? replicaId(i, 0) + 1 : replicaId(i, 0));
+            tabletInfo.setPartitionId(partitionId(i));
+            tabletInfo.setIsInMemory(false);
+            tabletInfo.setStorageMedium(TStorageMedium.HDD);
+            if (i % 5 == 0) {
+                tabletInfo.setTransactionIds(Lists.newArrayList(20000L + i));
+            }
+            backendTablets.put(tabletId, new TTablet(Lists.newArrayList(tabletInfo)));
+        }
+        return backendTablets;
+    }
+
+    @Test
+    public void testShardedTabletReport() {
+        new MockUp<Env>() {
+            @Mock
+            public GlobalTransactionMgr getCurrentGlobalTransactionMgr() {
+                return globalTransactionMgr;
+            }
+        };
+        new Expectations() {
+            {
+                globalTransactionMgr.getTransactionState(anyLong, anyLong);
+                minTimes = 0;
+                result = new Delegate() {
+                    TransactionState getTransactionState(long dbId, long transactionId) {
+                        if (transactionId % 2 != 0) {
+                            return null;
+                        }
+                        int tablet = (int) (transactionId - 20000L);
+                        TransactionState txnState = new TransactionState(dbId, Lists.newArrayList(2L),
+                                transactionId, "label_" + transactionId, null, LoadJobSourceType.FRONTEND,
+                                null, -1, 1000);
+                        txnState.setTransactionStatus(TransactionStatus.VISIBLE);
+                        TableCommitInfo tableCommitInfo = new TableCommitInfo(2L);
+                        tableCommitInfo.addPartitionCommitInfo(new PartitionCommitInfo(partitionId(tablet), 6, 0));
+                        txnState.putIdToTableCommitInfo(2L, tableCommitInfo);
+                        return txnState;
+                    }
+                };
+            }
+        };
+
+        Map<Long, TTablet> backendTablets = createTabletReport();
+        // migrate the even partitions to ssd
+        HashMap<Long, TStorageMedium> storageMediumMap = Maps.newHashMap();
+        for (int i = 0; i < TABLET_NUM; i++) {
+            if (partitionId(i) % 2 == 0) {
+                storageMediumMap.put(partitionId(i), TStorageMedium.SSD);
+            }
+        }
+
+        int shardNum = Config.tablet_report_diff_shard_num;
+        try {
+            Config.tablet_report_diff_shard_num = 1;
+            TabletReportDiff singleShardDiff = new TabletReportDiff(createIndex(), backendTablets, storageMediumMap);
+            Config.tablet_report_diff_shard_num = 16;
+            TabletReportDiff shardedDiff = new TabletReportDiff(createIndex(), backendTablets, storageMediumMap);
+
+            // make sure every kind of diff is covered
+            Assert.assertFalse(singleShardDiff.tabletSyncMap.isEmpty());
+            Assert.assertFalse(singleShardDiff.tabletDeleteFromMeta.isEmpty());
+            Assert.assertEquals(backendTablets.size(), singleShardDiff.tabletFoundInMeta.size());
+            Assert.assertFalse(singleShardDiff.tabletMigrationMap.isEmpty());
+            Assert.assertFalse(singleShardDiff.transactionsToPublish.isEmpty());
+            Assert.assertFalse(singleShardDiff.transactionsToClear.isEmpty());
+            Assert.assertFalse(singleShardDiff.tabletToUpdate.isEmpty());
+
+            Assert.assertEquals(singleShardDiff.tabletSyncMap, shardedDiff.tabletSyncMap);
+            Assert.assertEquals(singleShardDiff.tabletDeleteFromMeta, shardedDiff.tabletDeleteFromMeta);
+            Assert.assertEquals(singleShardDiff.tabletFoundInMeta, shardedDiff.tabletFoundInMeta);
+            Assert.assertEquals(singleShardDiff.tabletMigrationMap, shardedDiff.tabletMigrationMap);
+            Assert.assertEquals(singleShardDiff.transactionsToPublish, shardedDiff.transactionsToPublish);
+            Assert.assertEquals(singleShardDiff.transactionsToClear, shardedDiff.transactionsToClear);
+            Assert.assertEquals(singleShardDiff.tabletRecoveryMap, shardedDiff.tabletRecoveryMap);
+            Assert.assertEquals(singleShardDiff.tabletToUpdate, shardedDiff.tabletToUpdate);
+        } finally {
+            Config.tablet_report_diff_shard_num = shardNum;
+        }
+    }
+}
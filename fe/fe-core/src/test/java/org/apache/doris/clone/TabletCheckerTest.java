@@ -0,0 +1,83 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+package org.apache.doris.clone;
+
+import org.apache.doris.analysis.AdminSetReplicaStatusStmt;
+import org.apache.doris.catalog.Database;
+import org.apache.doris.catalog.Env;
+import org.apache.doris.catalog.MaterializedIndex.IndexExtState;
+import org.apache.doris.catalog.OlapTable;
+import org.apache.doris.catalog.Partition;
+import org.apache.doris.catalog.Replica;
+import org.apache.doris.catalog.Tablet;
+import org.apache.doris.common.Config;
+import org.apache.doris.common.FeConstants;
+import org.apache.doris.utframe.TestWithFeService;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class TabletCheckerTest extends TestWithFeService {
+
+    @Override
+    protected int backendNum() {
+        return 3;
+    }
+
+    @Override
+    protected void beforeCluster() {
+        FeConstants.runningUnitTest = true;
+    }
+
+    @Override
+    protected void beforeCreatingConnectContext() throws Exception {
+        FeConstants.default_scheduler_interval_millisecond = 1000;
+        FeConstants.tablet_checker_interval_ms = 1000;
+        Config.tablet_repair_delay_factor_second = 1;
+        Config.allow_replica_on_same_host = true;
+        // make sure the tablet is only found by the dirty tablets check
+        Config.enable_incremental_tablet_check = true;
+        Config.tablet_checker_full_check_interval_second = 3600;
+    }
+
+    @Test
+    public void testRepairDirtyTablet() throws Exception {
+        createDatabase("db1");
+        createTable("create table db1.tbl1(k1 int) distributed by hash(k1) buckets 1"
+                + " properties('replication_num' = '2');");
+
+        Database db = Env.getCurrentInternalCatalog().getDbOrMetaException("db1");
+        OlapTable tbl = (OlapTable) db.getTableOrMetaException("tbl1");
+        Partition partition = tbl.getPartitions().iterator().next();
+        Tablet tablet = partition.getMaterializedIndices(IndexExtState.VISIBLE).get(0).getTablets().get(0);
+        Replica badReplica = tablet.getReplicas().get(0);
+
+        String adminStmt = "admin set replica status properties ('tablet_id' = '" + tablet.getId()
+                + "', 'backend_id' = '" + badReplica.getBackendId() + "', 'status' = 'bad');";
+        Env.getCurrentEnv().setReplicaStatus((AdminSetReplicaStatusStmt) parseAndAnalyzeStmt(adminStmt));
+        Assertions.assertTrue(badReplica.isBad());
+
+        // the bad replica is replaced by a new one on another backend
+        long startTime = System.currentTimeMillis();
+        while (System.currentTimeMillis() - startTime < 60000 && tablet.getReplicaById(badReplica.getId()) != null) {
+            Thread.sleep(1000);
+        }
+        Assertions.assertNull(tablet.getReplicaById(badReplica.getId()));
+        Assertions.assertEquals(2, tablet.getReplicas().size());
+    }
+}
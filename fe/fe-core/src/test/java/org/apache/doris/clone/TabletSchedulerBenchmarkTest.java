@@ -0,0 +1,125 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+package org.apache.doris.clone;
+
+import org.apache.doris.catalog.Database;
+import org.apache.doris.catalog.Env;
+import org.apache.doris.catalog.MaterializedIndex.IndexExtState;
+import org.apache.doris.catalog.OlapTable;
+import org.apache.doris.catalog.Partition;
+import org.apache.doris.catalog.Tablet;
+import org.apache.doris.common.Config;
+import org.apache.doris.common.FeConstants;
+import org.apache.doris.system.Backend;
+import org.apache.doris.utframe.TestWithFeService;
+
+import com.google.common.collect.Lists;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+/**
+ * Replay the loss of a backend, and report the number of tablets repaired per minute by tablet scheduler.
+ * The number of scheduling shards can be set by system property "tablet_scheduler_shard_num".
+ * It is disabled in the normal suite, run it manually.
+ */
+public class TabletSchedulerBenchmarkTest extends TestWithFeService {
+    private static final Logger LOG = LogManager.getLogger(TabletSchedulerBenchmarkTest.class);
+    private static final int TABLE_NUM = 4;
+    private static final int BUCKET_NUM = 32;
+    private static final int REPLICATION_NUM = 3;
+
+    @Override
+    protected int backendNum() {
+        return 5;
+    }
+
+    @Override
+    protected void beforeCluster() {
+        FeConstants.runningUnitTest = true;
+        Config.tablet_scheduler_shard_num = Integer.getInteger("tablet_scheduler_shard_num",
+                Config.tablet_scheduler_shard_num);
+    }
+
+    @Override
+    protected void beforeCreatingConnectContext() throws Exception {
+        FeConstants.default_scheduler_interval_millisecond = 1000;
+        FeConstants.tablet_checker_interval_ms = 1000;
+        Config.tablet_repair_delay_factor_second = 1;
+        Config.allow_replica_on_same_host = true;
+        Config.disable_balance = true;
+    }
+
+    @Test
+    @Disabled
+    public void testRepairAfterBackendLoss() throws Exception {
+        createDatabase("db1");
+        List<Tablet> tablets = Lists.newArrayList();
+        Database db = Env.getCurrentInternalCatalog().getDbOrMetaException("db1");
+        for (int i = 0; i < TABLE_NUM; i++) {
+            createTable("create table db1.tbl" + i + "(k1 int) distributed by hash(k1) buckets " + BUCKET_NUM
+                    + " properties('replication_num' = '" + REPLICATION_NUM + "');");
+            OlapTable tbl = (OlapTable) db.getTableOrMetaException("tbl" + i);
+            for (Partition partition : tbl.getPartitions()) {
+                tablets.addAll(partition.getMaterializedIndices(IndexExtState.VISIBLE).get(0).getTablets());
+            }
+        }
+
+        // lose the backend with most replicas
+        Backend lostBackend = null;
+        int lostReplicaNum = 0;
+        for (Backend backend : Env.getCurrentSystemInfo().getIdToBackend().values()) {
+            int replicaNum = Env.getCurrentInvertedIndex().getTabletIdsByBackendId(backend.getId()).size();
+            if (replicaNum > lostReplicaNum) {
+                lostBackend = backend;
+                lostReplicaNum = replicaNum;
+            }
+        }
+        Assertions.assertNotNull(lostBackend);
+        long lostBackendId = lostBackend.getId();
+        List<Tablet> lostTablets = Lists.newArrayList();
+        for (Tablet tablet : tablets) {
+            if (tablet.getReplicaByBackendId(lostBackendId) != null) {
+                lostTablets.add(tablet);
+            }
+        }
+        Env.getCurrentSystemInfo().dropBackend(lostBackendId);
+
+        long startTime = System.currentTimeMillis();
+        int repairedNum = 0;
+        while (System.currentTimeMillis() - startTime < 300000 && repairedNum < lostTablets.size()) {
+            Thread.sleep(100);
+            repairedNum = 0;
+            for (Tablet tablet : lostTablets) {
+                if (tablet.getReplicaByBackendId(lostBackendId) == null
+                        && tablet.getReplicas().size() == REPLICATION_NUM) {
+                    repairedNum++;
+                }
+            }
+        }
+        long costMs = Math.max(1, System.currentTimeMillis() - startTime);
+        LOG.info("shards: {}, repaired {}/{} tablets in {} ms, {} tablets per minute",
+                Config.tablet_scheduler_shard_num, repairedNum, lostTablets.size(), costMs,
+                repairedNum * 60000L / costMs);
+        Assertions.assertEquals(lostTablets.size(), repairedNum);
+    }
+}
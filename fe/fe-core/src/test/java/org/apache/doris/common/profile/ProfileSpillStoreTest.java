@@ -0,0 +1,104 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+package org.apache.doris.common.profile;
+
+import org.apache.doris.common.profile.ProfileSpillStore.SpilledProfile;
+
+import com.google.common.collect.ImmutableMap;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public class ProfileSpillStoreTest {
+    @TempDir
+    File dir;
+
+    @Test
+    public void testSpillAndReopen() throws Exception {
+        ProfileSpillStore store = new ProfileSpillStore(dir.getAbsolutePath());
+        Assertions.assertTrue(store.open().isEmpty());
+        Map<String, String> infoStrings = ImmutableMap.of("Query ID", "q1", "Sql Statement", "select 1");
+        SpilledProfile p1 = store.spill("q1", infoStrings, "profile of q1");
+        SpilledProfile p2 = store.spill("q2", ImmutableMap.of(), "profile of q2");
+        Assertions.assertEquals("profile of q1", store.read(p1));
+        Assertions.assertEquals("profile of q2", store.read(p2));
+        store.clear();
+        Assertions.assertNull(store.read(p1));
+
+        store = new ProfileSpillStore(dir.getAbsolutePath());
+        store.open();
+        store.spill("q1", infoStrings, "profile of q1");
+        store.spill("q2", ImmutableMap.of(), "profile of q2");
+
+        // the profiles are loaded in the order they are spilled
+        store = new ProfileSpillStore(dir.getAbsolutePath());
+        List<SpilledProfile> profiles = store.open();
+        Assertions.assertEquals(2, profiles.size());
+        Assertions.assertEquals("q1", profiles.get(0).id);
+        Assertions.assertEquals(infoStrings, profiles.get(0).infoStrings);
+        Assertions.assertEquals("profile of q1", store.read(profiles.get(0)));
+        Assertions.assertEquals("q2", profiles.get(1).id);
+        Assertions.assertEquals("profile of q2", store.read(profiles.get(1)));
+    }
+
+    @Test
+    public void testTruncateIncompleteProfile() throws Exception {
+        ProfileSpillStore store = new ProfileSpillStore(dir.getAbsolutePath());
+        store.open();
+        store.spill("q1", ImmutableMap.of(), "profile of q1");
+        store.spill("q2", ImmutableMap.of(), "profile of q2");
+        File segment = new File(dir, "profile.0");
+        try (RandomAccessFile raf = new RandomAccessFile(segment, "rw")) {
+            raf.setLength(raf.length() - 3);
+        }
+
+        store = new ProfileSpillStore(dir.getAbsolutePath());
+        List<SpilledProfile> profiles = store.open();
+        Assertions.assertEquals(1, profiles.size());
+        Assertions.assertEquals("profile of q1", store.read(profiles.get(0)));
+        // new profiles are appended to a new segment
+        SpilledProfile p3 = store.spill("q3", ImmutableMap.of(), "profile of q3");
+        Assertions.assertEquals(1, p3.getSegmentId());
+        Assertions.assertEquals("profile of q3", store.read(p3));
+    }
+
+    @Test
+    public void testPurge() throws Exception {
+        ProfileSpillStore store = new ProfileSpillStore(dir.getAbsolutePath());
+        store.open();
+        store.spill("q1", ImmutableMap.of(), "profile of q1");
+        store = new ProfileSpillStore(dir.getAbsolutePath());
+        SpilledProfile p1 = store.open().get(0);
+        SpilledProfile p2 = store.spill("q2", ImmutableMap.of(), "profile of q2");
+
+        Assertions.assertTrue(store.purge(Long.MAX_VALUE).isEmpty());
+        // the segment being written is never deleted
+        Set<Long> deleted = store.purge(0);
+        Assertions.assertEquals(1, deleted.size());
+        Assertions.assertTrue(deleted.contains(p1.getSegmentId()));
+        Assertions.assertNull(store.read(p1));
+        Assertions.assertEquals("profile of q2", store.read(p2));
+        Assertions.assertTrue(store.purge(0).isEmpty());
+    }
+}
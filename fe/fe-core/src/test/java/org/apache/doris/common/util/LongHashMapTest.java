@@ -0,0 +1,111 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+package org.apache.doris.common.util;
+
+import com.google.common.collect.Maps;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Map;
+import java.util.Random;
+
+public class LongHashMapTest {
+
+    @Test
+    public void testLongLongHashMap() {
+        LongLongHashMap map = new LongLongHashMap();
+        Assert.assertTrue(map.isEmpty());
+        Assert.assertEquals(-1L, map.get(1L, -1L));
+
+        map.put(0L, 10L);
+        map.put(1L, 11L);
+        map.put(-1L, 12L);
+        Assert.assertEquals(3, map.size());
+        Assert.assertEquals(10L, map.get(0L, -1L));
+        Assert.assertEquals(11L, map.get(1L, -1L));
+        Assert.assertEquals(12L, map.get(-1L, -1L));
+
+        map.put(1L, 21L);
+        Assert.assertEquals(3, map.size());
+        Assert.assertEquals(21L, map.get(1L, -1L));
+
+        Assert.assertTrue(map.remove(0L));
+        Assert.assertFalse(map.remove(0L));
+        Assert.assertFalse(map.containsKey(0L));
+        Assert.assertEquals(2, map.size());
+
+        map.clear();
+        Assert.assertTrue(map.isEmpty());
+        Assert.assertFalse(map.containsKey(1L));
+    }
+
+    @Test
+    public void testLongObjectHashMap() {
+        LongObjectHashMap<String> map = new LongObjectHashMap<>();
+        Assert.assertNull(map.get(1L));
+        Assert.assertEquals("default", map.getOrDefault(1L, "default"));
+
+        Assert.assertNull(map.put(0L, "zero"));
+        Assert.assertNull(map.put(1L, "one"));
+        Assert.assertEquals("one", map.put(1L, "ONE"));
+        Assert.assertEquals(2, map.size());
+        Assert.assertEquals("zero", map.get(0L));
+        Assert.assertEquals("ONE", map.get(1L));
+
+        Assert.assertEquals("zero", map.remove(0L));
+        Assert.assertNull(map.remove(0L));
+        Assert.assertEquals(1, map.size());
+
+        Map<Long, String> copy = Maps.newHashMap();
+        map.forEach(copy::put);
+        Assert.assertEquals(1, copy.size());
+        Assert.assertEquals("ONE", copy.get(1L));
+    }
+
+    @Test
+    public void testRandomOperationsAgainstHashMap() {
+        LongLongHashMap longMap = new LongLongHashMap();
+        LongObjectHashMap<Long> objectMap = new LongObjectHashMap<>();
+        Map<Long, Long> expected = Maps.newHashMap();
+        Random random = new Random(12345);
+        for (int i = 0; i < 200000; i++) {
+            // small key range to get many collisions, updates and removals
+            long key = random.nextInt(5000) - 100;
+            if (random.nextInt(3) == 0) {
+                boolean existed = expected.remove(key) != null;
+                Assert.assertEquals(existed, longMap.remove(key));
+                Assert.assertEquals(existed, objectMap.remove(key) != null);
+            } else {
+                long value = random.nextLong();
+                expected.put(key, value);
+                longMap.put(key, value);
+                objectMap.put(key, value);
+            }
+        }
+        Assert.assertEquals(expected.size(), longMap.size());
+        Assert.assertEquals(expected.size(), objectMap.size());
+        for (long key = -100; key < 4900; key++) {
+            Long value = expected.get(key);
+            Assert.assertEquals(value != null, longMap.containsKey(key));
+            Assert.assertEquals(value, objectMap.get(key));
+            if (value != null) {
+                Assert.assertEquals((long) value, longMap.get(key, -1L));
+            }
+        }
+    }
+}
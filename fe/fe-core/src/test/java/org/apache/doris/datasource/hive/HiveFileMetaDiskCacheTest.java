@@ -0,0 +1,144 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+package org.apache.doris.datasource.hive;
+
+import org.apache.doris.fs.remote.RemoteFile;
+
+import com.google.common.collect.Lists;
+import org.apache.hadoop.fs.BlockLocation;
+import org.apache.hadoop.fs.Path;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+public class HiveFileMetaDiskCacheTest {
+    private static final String LOCATION = "hdfs://127.0.0.1:8020/user/hive/warehouse/db.db/tbl/dt=2023-01-01";
+
+    private java.nio.file.Path dir;
+    private HiveFileMetaDiskCache diskCache;
+
+    @Before
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("hive_file_meta_cache").resolve("10001");
+        diskCache = new HiveFileMetaDiskCache(dir.toString());
+    }
+
+    @After
+    public void tearDown() {
+        diskCache.clear();
+        dir.getParent().toFile().delete();
+    }
+
+    private static List<RemoteFile> createFiles() {
+        BlockLocation[] blockLocations = new BlockLocation[] {
+                new BlockLocation(new String[] {"host1", "host2"}, new String[] {"host1", "host2"}, 0, 128),
+                new BlockLocation(new String[] {"host3"}, new String[] {"host3"}, 128, 72)};
+        return Lists.newArrayList(
+                new RemoteFile(new Path(LOCATION + "/000000_0"), false, 200, 128, 1000L, blockLocations),
+                new RemoteFile(new Path(LOCATION + "/000001_0"), false, 0, 128, 2000L, null));
+    }
+
+    private java.nio.file.Path getPersistedFile() throws IOException {
+        try (Stream<java.nio.file.Path> paths = Files.walk(dir)) {
+            return paths.filter(Files::isRegularFile).findFirst().orElse(null);
+        }
+    }
+
+    @Test
+    public void testRoundTrip() {
+        Assert.assertNull(diskCache.get(LOCATION, 1L, -1));
+        List<RemoteFile> files = createFiles();
+        diskCache.put(LOCATION, 1L, files);
+
+        List<RemoteFile> persisted = diskCache.get(LOCATION, 1L, -1);
+        Assert.assertNotNull(persisted);
+        Assert.assertEquals(files.size(), persisted.size());
+        for (int i = 0; i < files.size(); i++) {
+            RemoteFile expected = files.get(i);
+            RemoteFile actual = persisted.get(i);
+            Assert.assertEquals(expected.getPath(), actual.getPath());
+            Assert.assertEquals(expected.getSize(), actual.getSize());
+            Assert.assertEquals(expected.getBlockSize(), actual.getBlockSize());
+            Assert.assertEquals(expected.getModificationTime(), actual.getModificationTime());
+        }
+        BlockLocation[] blockLocations = persisted.get(0).getBlockLocations();
+        Assert.assertEquals(2, blockLocations.length);
+        Assert.assertEquals(128, blockLocations[1].getOffset());
+        Assert.assertEquals(72, blockLocations[1].getLength());
+        Assert.assertEquals(0, persisted.get(1).getBlockLocations().length);
+    }
+
+    @Test
+    public void testStaleVersion() {
+        diskCache.put(LOCATION, 1L, createFiles());
+        // files are added to the location after they are persisted
+        Assert.assertNull(diskCache.get(LOCATION, 2L, -1));
+        // the location with the same hash prefix but different path is not mixed up
+        Assert.assertNull(diskCache.get(LOCATION + "/sub", 1L, -1));
+
+        diskCache.put(LOCATION, 2L, createFiles().subList(0, 1));
+        Assert.assertEquals(1, diskCache.get(LOCATION, 2L, -1).size());
+        Assert.assertNull(diskCache.get(LOCATION, 1L, -1));
+    }
+
+    @Test
+    public void testTtl() throws InterruptedException {
+        diskCache.put(LOCATION, 1L, createFiles());
+        Assert.assertNotNull(diskCache.get(LOCATION, 1L, 60_000L));
+        Thread.sleep(20);
+        Assert.assertNull(diskCache.get(LOCATION, 1L, 10L));
+        // the stale entry is kept, it is still valid without ttl
+        Assert.assertNotNull(diskCache.get(LOCATION, 1L, -1));
+    }
+
+    @Test
+    public void testCorruptFile() throws IOException {
+        diskCache.put(LOCATION, 1L, createFiles());
+        java.nio.file.Path file = getPersistedFile();
+        Assert.assertNotNull(file);
+        // truncate the file in the middle of the file list
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length / 2), StandardOpenOption.TRUNCATE_EXISTING);
+
+        Assert.assertNull(diskCache.get(LOCATION, 1L, -1));
+        // the corrupt file is removed, so it is listed and persisted again
+        Assert.assertFalse(Files.exists(file));
+        diskCache.put(LOCATION, 1L, createFiles());
+        Assert.assertEquals(2, diskCache.get(LOCATION, 1L, -1).size());
+    }
+
+    @Test
+    public void testClear() {
+        diskCache.put(LOCATION, 1L, createFiles());
+        diskCache.put(LOCATION + "2", 1L, createFiles());
+        Assert.assertTrue(new File(dir.toString()).exists());
+        diskCache.clear();
+        // the directory of the catalog is removed as well
+        Assert.assertFalse(new File(dir.toString()).exists());
+        Assert.assertNull(diskCache.get(LOCATION, 1L, -1));
+    }
+}
@@ -0,0 +1,159 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+package org.apache.doris.journal;
+
+import org.apache.doris.catalog.Env;
+import org.apache.doris.common.FeMetaVersion;
+import org.apache.doris.meta.MetaContext;
+import org.apache.doris.persist.EditLog;
+import org.apache.doris.persist.OperationType;
+import org.apache.doris.transaction.TransactionState;
+import org.apache.doris.transaction.TransactionState.LoadJobSourceType;
+
+import com.google.common.collect.Lists;
+import mockit.Mock;
+import mockit.MockUp;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class ParallelJournalApplierTest {
+    private ParallelJournalApplier applier;
+    // the ids of the applied journals, in the order of being applied
+    private final List<Long> appliedJournals = Collections.synchronizedList(Lists.newArrayList());
+    // db id -> the ids of the applied journals of the db
+    private final Map<Long, List<Long>> dbToAppliedJournals = new ConcurrentHashMap<>();
+    // db id -> the meta version seen when applying the journals of the db
+    private final Map<Long, Integer> dbToMetaVersion = new ConcurrentHashMap<>();
+    private final CountDownLatch otherDbApplied = new CountDownLatch(1);
+    private volatile boolean appliedConcurrently = false;
+
+    @Before
+    public void setUp() {
+        MetaContext metaContext = new MetaContext();
+        metaContext.setMetaVersion(FeMetaVersion.VERSION_CURRENT);
+        metaContext.setThreadLocalInfo();
+        applier = new ParallelJournalApplier(4, 100);
+
+        new MockUp<EditLog>() {
+            @Mock
+            public void loadJournal(Env env, Long logId, JournalEntity journal) throws InterruptedException {
+                long dbId = ((TransactionState) journal.getData()).getDbId();
+                if (logId == 1) {
+                    // journal 2 belongs to another db, so it can be applied before journal 1 finishes
+                    appliedConcurrently = otherDbApplied.await(10, TimeUnit.SECONDS);
+                } else if (logId == 2) {
+                    otherDbApplied.countDown();
+                }
+                // make the journals of the same db overlap if they are applied concurrently
+                Thread.sleep(10);
+                dbToMetaVersion.put(dbId, MetaContext.get().getMetaVersion());
+                dbToAppliedJournals.computeIfAbsent(dbId, k -> Collections.synchronizedList(Lists.newArrayList()))
+                        .add(logId);
+                appliedJournals.add(logId);
+            }
+        };
+    }
+
+    @After
+    public void tearDown() {
+        applier.shutdown();
+        MetaContext.remove();
+    }
+
+    private static JournalEntity createTxnJournal(long dbId, long txnId) {
+        TransactionState txnState = new TransactionState(dbId, Lists.newArrayList(10L), txnId, "label_" + txnId,
+                null, LoadJobSourceType.FRONTEND, null, -1, 1000);
+        JournalEntity entity = new JournalEntity();
+        entity.setOpCode(OperationType.OP_UPSERT_TRANSACTION_STATE);
+        entity.setData(txnState);
+        return entity;
+    }
+
+    @Test
+    public void testCanApplyInParallel() {
+        Assert.assertTrue(applier.canApplyInParallel(createTxnJournal(1, 1)));
+
+        JournalEntity entity = new JournalEntity();
+        entity.setOpCode(OperationType.OP_DELETE_TRANSACTION_STATE);
+        Assert.assertFalse(applier.canApplyInParallel(entity));
+        entity.setOpCode(OperationType.OP_BATCH_REMOVE_TXNS);
+        Assert.assertFalse(applier.canApplyInParallel(entity));
+        entity.setOpCode(OperationType.OP_TIMESTAMP);
+        Assert.assertFalse(applier.canApplyInParallel(entity));
+    }
+
+    @Test
+    public void testGroupByDb() {
+        // db 1: 1, 3, 5, 8; db 2: 2, 4, 6; db 3: 7
+        long[] dbIds = {1, 2, 1, 2, 1, 2, 3, 1};
+        for (int i = 0; i < dbIds.length; i++) {
+            applier.add(i + 1, createTxnJournal(dbIds[i], 1000 + i));
+        }
+        Assert.assertEquals(dbIds.length, applier.getPendingNum());
+
+        Assert.assertEquals(dbIds.length, applier.flush(null));
+        Assert.assertEquals(0, applier.getPendingNum());
+        Assert.assertTrue(appliedConcurrently);
+        // the journals of the same db are applied in order
+        Assert.assertEquals(Lists.newArrayList(1L, 3L, 5L, 8L), dbToAppliedJournals.get(1L));
+        Assert.assertEquals(Lists.newArrayList(2L, 4L, 6L), dbToAppliedJournals.get(2L));
+        Assert.assertEquals(Lists.newArrayList(7L), dbToAppliedJournals.get(3L));
+        // the apply threads see the meta version of the replay thread
+        for (int metaVersion : dbToMetaVersion.values()) {
+            Assert.assertEquals(FeMetaVersion.VERSION_CURRENT, metaVersion);
+        }
+        // nothing left to apply
+        Assert.assertEquals(0, applier.flush(null));
+    }
+
+    @Test
+    public void testBarrier() {
+        // the replay thread flushes the pending journals before applying the others,
+        // so all the journals before the barrier must have been applied when flush returns
+        for (long logId = 1; logId <= 6; logId++) {
+            applier.add(logId, createTxnJournal(logId % 3 + 1, logId));
+        }
+        Assert.assertEquals(6, applier.flush(null));
+        Assert.assertEquals(6, appliedJournals.size());
+        // the barrier itself
+        appliedJournals.add(7L);
+
+        for (long logId = 8; logId <= 10; logId++) {
+            applier.add(logId, createTxnJournal(logId % 3 + 1, logId));
+        }
+        Assert.assertEquals(3, applier.flush(null));
+        Assert.assertEquals(10, appliedJournals.size());
+        // the journals after the barrier are applied after it
+        Assert.assertEquals(7L, (long) appliedJournals.get(6));
+        for (int i = 0; i < 6; i++) {
+            Assert.assertTrue(appliedJournals.get(i) < 7);
+        }
+        for (int i = 7; i < 10; i++) {
+            Assert.assertTrue(appliedJournals.get(i) > 7);
+        }
+    }
+}
@@ -0,0 +1,143 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+package org.apache.doris.journal;
+
+import org.apache.doris.common.Pair;
+import org.apache.doris.persist.OperationType;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+public class PrefetchJournalCursorTest {
+    private ExecutorService fetchExecutor;
+
+    @Before
+    public void setUp() {
+        fetchExecutor = Executors.newSingleThreadExecutor();
+    }
+
+    @After
+    public void tearDown() {
+        fetchExecutor.shutdownNow();
+    }
+
+    private static class MockJournalCursor implements JournalCursor {
+        private final long toKey;
+        private final long failKey;
+        private long currentKey;
+        private volatile boolean closed = false;
+
+        MockJournalCursor(long fromKey, long toKey) {
+            this(fromKey, toKey, -1);
+        }
+
+        MockJournalCursor(long fromKey, long toKey, long failKey) {
+            this.currentKey = fromKey;
+            this.toKey = toKey;
+            this.failKey = failKey;
+        }
+
+        @Override
+        public Pair<Long, JournalEntity> next() {
+            if (currentKey > toKey) {
+                return null;
+            }
+            if (currentKey == failKey) {
+                throw new IllegalStateException("failed to read journal " + currentKey);
+            }
+            JournalEntity entity = new JournalEntity();
+            entity.setOpCode(OperationType.OP_TIMESTAMP);
+            return Pair.of(currentKey++, entity);
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+
+    @Test
+    public void testReadAll() {
+        MockJournalCursor mockCursor = new MockJournalCursor(1, 100);
+        PrefetchJournalCursor cursor = new PrefetchJournalCursor(mockCursor, 8, fetchExecutor);
+        long expectedKey = 1;
+        Pair<Long, JournalEntity> kv;
+        while ((kv = cursor.next()) != null) {
+            Assert.assertEquals(expectedKey++, (long) kv.first);
+            Assert.assertEquals(OperationType.OP_TIMESTAMP, kv.second.getOpCode());
+        }
+        Assert.assertEquals(101, expectedKey);
+        // keep returning null after the end
+        Assert.assertNull(cursor.next());
+        cursor.close();
+    }
+
+    @Test
+    public void testCloseBeforeEnd() throws InterruptedException {
+        MockJournalCursor mockCursor = new MockJournalCursor(1, Long.MAX_VALUE);
+        PrefetchJournalCursor cursor = new PrefetchJournalCursor(mockCursor, 4, fetchExecutor);
+        Assert.assertEquals(1L, (long) cursor.next().first);
+        // wait for the fetcher blocking on the full queue
+        for (int i = 0; i < 100 && cursor.getPrefetchedNum() < 4; i++) {
+            Thread.sleep(10);
+        }
+        // close waits for the fetcher to release the underlying cursor without interrupting it
+        cursor.close();
+        Assert.assertTrue(mockCursor.closed);
+        Assert.assertEquals(0, cursor.getPrefetchedNum());
+        Assert.assertFalse(Thread.interrupted());
+    }
+
+    @Test
+    public void testReadException() {
+        MockJournalCursor mockCursor = new MockJournalCursor(1, 100, 6);
+        PrefetchJournalCursor cursor = new PrefetchJournalCursor(mockCursor, 8, fetchExecutor);
+        // the journals fetched before the failure are returned first
+        for (long expectedKey = 1; expectedKey <= 5; expectedKey++) {
+            Assert.assertEquals(expectedKey, (long) cursor.next().first);
+        }
+        // then the exception is rethrown in the consuming thread instead of ending the cursor
+        for (int i = 0; i < 2; i++) {
+            try {
+                cursor.next();
+                Assert.fail("the read exception should be rethrown");
+            } catch (IllegalStateException e) {
+                Assert.assertTrue(e.getMessage().contains("journal 6"));
+            }
+        }
+        cursor.close();
+        Assert.assertTrue(mockCursor.closed);
+    }
+
+    @Test
+    public void testReuseFetchThread() {
+        // the same fetch thread serves the cursors of successive replays
+        for (int round = 0; round < 3; round++) {
+            MockJournalCursor mockCursor = new MockJournalCursor(round * 10 + 1, round * 10 + 10);
+            PrefetchJournalCursor cursor = new PrefetchJournalCursor(mockCursor, 2, fetchExecutor);
+            Assert.assertEquals(round * 10 + 1L, (long) cursor.next().first);
+            cursor.close();
+            Assert.assertTrue(mockCursor.closed);
+        }
+    }
+}
@@ -0,0 +1,315 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+package org.apache.doris.journal.bdbje;
+
+import org.apache.doris.catalog.Env;
+import org.apache.doris.common.Config;
+import org.apache.doris.common.io.Text;
+import org.apache.doris.common.jmockit.Deencapsulation;
+import org.apache.doris.persist.OperationType;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.sleepycat.bind.tuple.TupleBinding;
+import com.sleepycat.je.Database;
+import com.sleepycat.je.DatabaseEntry;
+import com.sleepycat.je.OperationStatus;
+import com.sleepycat.je.Transaction;
+import com.sleepycat.je.TransactionConfig;
+import com.sleepycat.je.rep.ReplicatedEnvironment;
+import mockit.Delegate;
+import mockit.Expectations;
+import mockit.Mocked;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.lang.reflect.Constructor;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class BDBJEJournalTest {
+    private static final TupleBinding<Long> ID_BINDING = TupleBinding.getPrimitiveBinding(Long.class);
+
+    @Mocked
+    private Env env;
+    @Mocked
+    private BDBEnvironment bdbEnvironment;
+    @Mocked
+    private ReplicatedEnvironment replicatedEnvironment;
+    @Mocked
+    private Transaction transaction;
+    @Mocked
+    private Database database;
+
+    private BDBJEJournal journal;
+    private ExecutorService executor;
+    private int maxBatchNum;
+
+    // the journals put in the current bdb transaction, id -> value
+    private final Map<Long, String> pendingJournals = Maps.newTreeMap();
+    private final Map<Long, String> committedJournals = Maps.newConcurrentMap();
+    // the journal ids of each committed bdb transaction
+    private final List<List<Long>> committedBatches = Lists.newCopyOnWriteArrayList();
+    private volatile int abortNum = 0;
+    private volatile OperationStatus putStatus = OperationStatus.SUCCESS;
+    private final Set<String> failedValues = ConcurrentHashMap.newKeySet();
+    // if set, the next put is blocked until the latch is counted down, so that the following writes are queued
+    private volatile CountDownLatch blockingPutLatch = null;
+    private final CountDownLatch putBlocked = new CountDownLatch(1);
+
+    @Before
+    public void setUp() {
+        maxBatchNum = Config.edit_log_group_commit_max_batch_num;
+        new Expectations() {
+            {
+                bdbEnvironment.getReplicatedEnvironment();
+                minTimes = 0;
+                result = replicatedEnvironment;
+
+                replicatedEnvironment.beginTransaction((Transaction) any, (TransactionConfig) any);
+                minTimes = 0;
+                result = transaction;
+
+                database.put((Transaction) any, (DatabaseEntry) any, (DatabaseEntry) any);
+                minTimes = 0;
+                result = new Delegate() {
+                    OperationStatus put(Transaction txn, DatabaseEntry key, DatabaseEntry data) throws Exception {
+                        return onPut(txn, key, data);
+                    }
+                };
+
+                transaction.commit();
+                minTimes = 0;
+                result = new Delegate() {
+                    void commit() {
+                        onCommit();
+                    }
+                };
+
+                transaction.abort();
+                minTimes = 0;
+                result = new Delegate() {
+                    void abort() {
+                        onAbort();
+                    }
+                };
+            }
+        };
+
+        journal = new BDBJEJournal("test_node");
+        Deencapsulation.setField(journal, "bdbEnvironment", bdbEnvironment);
+        Deencapsulation.setField(journal, "currentJournalDB", database);
+        Deencapsulation.invoke(journal, "startGroupCommitFlusher");
+        executor = Executors.newCachedThreadPool();
+    }
+
+    @After
+    public void tearDown() {
+        Deencapsulation.invoke(journal, "stopGroupCommitFlusher");
+        executor.shutdownNow();
+        Config.edit_log_group_commit_max_batch_num = maxBatchNum;
+    }
+
+    private OperationStatus onPut(Transaction txn, DatabaseEntry key, DatabaseEntry data) throws Exception {
+        CountDownLatch latch = blockingPutLatch;
+        if (latch != null) {
+            blockingPutLatch = null;
+            putBlocked.countDown();
+            latch.await();
+        }
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(data.getData(), data.getOffset(),
+                data.getSize()));
+        String value = in.readShort() == OperationType.OP_TIMESTAMP ? "timestamp" : Text.readString(in);
+        if (failedValues.contains(value)) {
+            throw new IllegalStateException("mock put failure of " + value);
+        }
+        if (putStatus != OperationStatus.SUCCESS) {
+            return putStatus;
+        }
+        synchronized (this) {
+            pendingJournals.put(ID_BINDING.entryToObject(key), value);
+        }
+        // a put without transaction is auto committed
+        if (txn == null) {
+            onCommit();
+        }
+        return OperationStatus.SUCCESS;
+    }
+
+    private synchronized void onCommit() {
+        committedJournals.putAll(pendingJournals);
+        committedBatches.add(Lists.newArrayList(pendingJournals.keySet()));
+        pendingJournals.clear();
+    }
+
+    private synchronized void onAbort() {
+        abortNum++;
+        pendingJournals.clear();
+    }
+
+    private CountDownLatch blockNextPut() {
+        CountDownLatch latch = new CountDownLatch(1);
+        blockingPutLatch = latch;
+        return latch;
+    }
+
+    private Future<Long> write(String value) {
+        return executor.submit(() -> journal.write(OperationType.OP_SAVE_NEXTID, out -> Text.writeString(out, value)));
+    }
+
+    private static void waitForQueueSize(LinkedBlockingQueue<?> queue, int size) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10000;
+        while (queue.size() < size) {
+            Assert.assertTrue("wait for queued requests timeout", System.currentTimeMillis() < deadline);
+            Thread.sleep(1);
+        }
+    }
+
+    private LinkedBlockingQueue<?> getQueue() {
+        return Deencapsulation.getField(journal, "groupCommitQueue");
+    }
+
+    private static void assertWriteFailed(Future<Long> future) throws InterruptedException, TimeoutException {
+        try {
+            future.get(10, TimeUnit.SECONDS);
+            Assert.fail("the write should fail");
+        } catch (ExecutionException e) {
+            Assert.assertTrue(e.getCause() instanceof IOException);
+        }
+    }
+
+    @Test
+    public void testJournalIdsInBatchOrder() throws Exception {
+        Config.edit_log_group_commit_max_batch_num = 4;
+        LinkedBlockingQueue<?> queue = getQueue();
+        CountDownLatch putLatch = blockNextPut();
+        Future<Long> first = write("journal_1");
+        putBlocked.await();
+        // queue the writes while the flusher is blocked by the first one
+        List<Future<Long>> futures = Lists.newArrayList();
+        for (int i = 2; i <= 10; i++) {
+            futures.add(write("journal_" + i));
+            waitForQueueSize(queue, i - 1);
+        }
+        putLatch.countDown();
+
+        Assert.assertEquals(1L, (long) first.get(10, TimeUnit.SECONDS));
+        for (int i = 2; i <= 10; i++) {
+            Assert.assertEquals(i, (long) futures.get(i - 2).get(10, TimeUnit.SECONDS));
+        }
+        // the ids are assigned continuously in the order of the queue, and at most 4 journals in a bdb transaction
+        Assert.assertEquals(Lists.newArrayList(Lists.newArrayList(1L), Lists.newArrayList(2L, 3L, 4L, 5L),
+                Lists.newArrayList(6L, 7L, 8L, 9L), Lists.newArrayList(10L)), committedBatches);
+        for (long id = 1; id <= 10; id++) {
+            Assert.assertEquals("journal_" + id, committedJournals.get(id));
+        }
+        Assert.assertEquals(11L, ((AtomicLong) Deencapsulation.getField(journal, "nextJournalId")).get());
+    }
+
+    @Test
+    public void testFailedBatch() throws Exception {
+        LinkedBlockingQueue<?> queue = getQueue();
+        CountDownLatch putLatch = blockNextPut();
+        Future<Long> first = write("a");
+        putBlocked.await();
+        Future<Long> second = write("b");
+        waitForQueueSize(queue, 1);
+        Future<Long> third = write("c");
+        waitForQueueSize(queue, 2);
+        failedValues.add("b");
+        putLatch.countDown();
+
+        // every writer of the failed batch is notified, the writers of other batches are not affected
+        Assert.assertEquals(1L, (long) first.get(10, TimeUnit.SECONDS));
+        assertWriteFailed(second);
+        assertWriteFailed(third);
+        Assert.assertEquals(1, abortNum);
+
+        // the flusher is still running, and the ids of the failed batch are not used
+        Assert.assertEquals(2L, (long) write("d").get(10, TimeUnit.SECONDS));
+        Assert.assertEquals(Lists.newArrayList(Lists.newArrayList(1L), Lists.newArrayList(2L)), committedBatches);
+        Assert.assertEquals("d", committedJournals.get(2L));
+    }
+
+    @Test
+    public void testTimestampBatchWriteFailure() throws Exception {
+        putStatus = OperationStatus.KEYEXIST;
+        // the master does not exit if only timestamps failed to be written
+        Assert.assertEquals(-1L, journal.write(OperationType.OP_TIMESTAMP, out -> out.writeLong(0L)));
+        Assert.assertEquals(3, abortNum);
+        Assert.assertTrue(committedBatches.isEmpty());
+
+        putStatus = OperationStatus.SUCCESS;
+        Assert.assertEquals(1L, (long) write("a").get(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testStopWithQueuedRequests() throws Exception {
+        LinkedBlockingQueue<Object> queue = Deencapsulation.getField(journal, "groupCommitQueue");
+        CountDownLatch putLatch = blockNextPut();
+        Future<Long> first = write("a");
+        putBlocked.await();
+        Future<Long> second = write("b");
+        waitForQueueSize(queue, 1);
+        Future<Long> third = write("c");
+        waitForQueueSize(queue, 2);
+
+        Future<?> stopFuture = executor.submit(() -> {
+            Deencapsulation.invoke(journal, "stopGroupCommitFlusher");
+        });
+        // wait for the stop request
+        waitForQueueSize(queue, 3);
+        // a writer which got the queue before the flusher is stopped, and put its request after the stop request
+        Class<?> requestClass = Class.forName(BDBJEJournal.class.getName() + "$GroupCommitRequest");
+        Constructor<?> constructor = requestClass.getDeclaredConstructor(short.class, DatabaseEntry.class);
+        constructor.setAccessible(true);
+        Object lateRequest = constructor.newInstance(OperationType.OP_SAVE_NEXTID, new DatabaseEntry(new byte[0]));
+        queue.add(lateRequest);
+        putLatch.countDown();
+        stopFuture.get(10, TimeUnit.SECONDS);
+
+        // the requests before the stop request are flushed, the ones after it are failed
+        Assert.assertEquals(1L, (long) first.get(10, TimeUnit.SECONDS));
+        Assert.assertEquals(2L, (long) second.get(10, TimeUnit.SECONDS));
+        Assert.assertEquals(3L, (long) third.get(10, TimeUnit.SECONDS));
+        CompletableFuture<Long> lateFuture = Deencapsulation.getField(lateRequest, "future");
+        Assert.assertTrue(lateFuture.isCompletedExceptionally());
+        Assert.assertNull(getQueue());
+
+        // the writes after the flusher is stopped are written one by one
+        Assert.assertEquals(4L, (long) write("d").get(10, TimeUnit.SECONDS));
+        Assert.assertEquals(Lists.newArrayList(4L), committedBatches.get(committedBatches.size() - 1));
+    }
+}
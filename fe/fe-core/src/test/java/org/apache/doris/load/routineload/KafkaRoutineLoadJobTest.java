@@ -241,6 +241,84 @@ public class KafkaRoutineLoadJobTest {
         };
     }
 
+    @Test
+    public void testAdaptiveBatch(@Injectable RoutineLoadManager routineLoadManager,
+                                  @Mocked RoutineLoadDesc routineLoadDesc) {
+        boolean adaptiveBatch = Config.enable_routine_load_adaptive_batch;
+        Config.enable_routine_load_adaptive_batch = true;
+        try {
+            Env env = Deencapsulation.newInstance(Env.class);
+            new Expectations() {
+                {
+                    env.getRoutineLoadManager();
+                    minTimes = 0;
+                    result = routineLoadManager;
+                }
+            };
+
+            KafkaRoutineLoadJob routineLoadJob =
+                    new KafkaRoutineLoadJob(1L, "kafka_routine_load_job", "default", 1L,
+                            1L, "127.0.0.1:9020", "topic1", UserIdentity.ADMIN);
+            Deencapsulation.setField(routineLoadJob, "maxBatchIntervalS", 10L);
+            Deencapsulation.setField(routineLoadJob, "maxBatchRows", 200000L);
+            Deencapsulation.setField(routineLoadJob, "state", RoutineLoadJob.JobState.RUNNING);
+            Deencapsulation.setField(routineLoadJob, "currentTaskConcurrentNum", 3);
+            KafkaProgress kafkaProgress = (KafkaProgress) routineLoadJob.getProgress();
+            Map<Integer, Long> latestOffsets = Maps.newConcurrentMap();
+            Map<Integer, Double> ingestRates = Maps.newConcurrentMap();
+            for (int partition = 1; partition <= 3; partition++) {
+                kafkaProgress.addPartitionOffset(Pair.of(partition, 100L));
+            }
+            // partition 1 and 2 are small, partition 3 is lagging
+            latestOffsets.put(1, 150L);
+            latestOffsets.put(2, 120L);
+            latestOffsets.put(3, 1000000L);
+            ingestRates.put(1, 10.0);
+            ingestRates.put(2, 0.0);
+            ingestRates.put(3, 5000.0);
+            Deencapsulation.setField(routineLoadJob, "cachedPartitionWithLatestOffsets", latestOffsets);
+            Deencapsulation.setField(routineLoadJob, "partitionIdToIngestRate", ingestRates);
+
+            Assert.assertEquals(10L * Config.routine_load_max_batch_interval_multiple,
+                    routineLoadJob.getAdaptiveBatchIntervalS(
+                            kafkaProgress.getPartitionIdToOffset(Lists.newArrayList(1))));
+            Assert.assertEquals(10L,
+                    routineLoadJob.getAdaptiveBatchIntervalS(
+                            kafkaProgress.getPartitionIdToOffset(Lists.newArrayList(3))));
+            // the ingest rate of partition 4 is unknown
+            Map<Integer, Long> unknownPartitionToOffset = Maps.newHashMap();
+            unknownPartitionToOffset.put(4, 0L);
+            Assert.assertEquals(10L, routineLoadJob.getAdaptiveBatchIntervalS(unknownPartitionToOffset));
+
+            List<RoutineLoadTaskInfo> routineLoadTaskInfoList = new ArrayList<>();
+            for (int partition = 1; partition <= 3; partition++) {
+                routineLoadTaskInfoList.add(new KafkaTaskInfo(UUID.randomUUID(), 1L, "default_cluster", 20000,
+                        kafkaProgress.getPartitionIdToOffset(Lists.newArrayList(partition)), false));
+            }
+            Deencapsulation.setField(routineLoadJob, "routineLoadTaskInfoList", routineLoadTaskInfoList);
+
+            // the task of partition 2 is merged, the task of lagging partition 3 is not
+            RoutineLoadTaskInfo mergedTaskInfo = routineLoadJob.mergeSmallTasks(routineLoadTaskInfoList.get(0),
+                    Lists.newArrayList(routineLoadTaskInfoList.subList(1, 3)));
+            Assert.assertEquals(Lists.newArrayList(1, 2), ((KafkaTaskInfo) mergedTaskInfo).getPartitions());
+            Assert.assertEquals(2, routineLoadTaskInfoList.size());
+            Assert.assertTrue(routineLoadJob.containsTask(mergedTaskInfo.getId()));
+
+            // the merged task is renewed as it is while it is small
+            RoutineLoadTaskInfo renewedTaskInfo = routineLoadJob.unprotectRenewTask(mergedTaskInfo);
+            Assert.assertEquals(Lists.newArrayList(1, 2), ((KafkaTaskInfo) renewedTaskInfo).getPartitions());
+            Assert.assertEquals(2, routineLoadTaskInfoList.size());
+
+            // and split when it is not small any more
+            ingestRates.put(2, 5000.0);
+            renewedTaskInfo = routineLoadJob.unprotectRenewTask(renewedTaskInfo);
+            Assert.assertEquals(Lists.newArrayList(1), ((KafkaTaskInfo) renewedTaskInfo).getPartitions());
+            Assert.assertEquals(3, routineLoadTaskInfoList.size());
+        } finally {
+            Config.enable_routine_load_adaptive_batch = adaptiveBatch;
+        }
+    }
+
     @Test
     public void testFromCreateStmt(@Mocked Env env,
                                    @Injectable Database database,
@@ -0,0 +1,120 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+package org.apache.doris.mysql;
+
+import org.apache.doris.common.Config;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+
+public class MysqlBufferPoolTest {
+    @Test
+    public void testBorrowAndRelease() {
+        MysqlBufferPool pool = new MysqlBufferPool(true);
+        ByteBuffer buffer = pool.borrow(100);
+        Assert.assertTrue(buffer.isDirect());
+        Assert.assertEquals(MysqlBufferPool.MIN_BUFFER_SIZE, buffer.capacity());
+        buffer.put((byte) 1);
+        pool.release(buffer);
+        Assert.assertEquals(MysqlBufferPool.MIN_BUFFER_SIZE, pool.getIdleBytes());
+
+        // the released buffer is reused and cleared
+        ByteBuffer reused = pool.borrow(MysqlBufferPool.MIN_BUFFER_SIZE);
+        Assert.assertSame(buffer, reused);
+        Assert.assertEquals(0, reused.position());
+        Assert.assertEquals(0, pool.getIdleBytes());
+
+        // rounded up to the size class
+        Assert.assertEquals(64 * 1024, pool.borrow(40 * 1024).capacity());
+        Assert.assertEquals(MysqlBufferPool.MAX_BUFFER_SIZE, pool.borrow(MysqlBufferPool.MAX_BUFFER_SIZE).capacity());
+        Assert.assertEquals(4, pool.getBorrowNum());
+        Assert.assertEquals(3, pool.getAllocateNum());
+
+        // a buffer not allocated by the pool is not cached
+        ByteBuffer large = pool.borrow(MysqlBufferPool.MAX_BUFFER_SIZE + 1);
+        Assert.assertEquals(MysqlBufferPool.MAX_BUFFER_SIZE + 1, large.capacity());
+        pool.release(large);
+        pool.release(ByteBuffer.allocate(MysqlBufferPool.MIN_BUFFER_SIZE));
+        pool.release(ByteBuffer.allocateDirect(MysqlBufferPool.MIN_BUFFER_SIZE + 1));
+        Assert.assertEquals(0, pool.getIdleBytes());
+    }
+
+    @Test
+    public void testMaxIdleBytes() {
+        long maxIdleBytes = Config.mysql_buffer_pool_max_idle_bytes;
+        Config.mysql_buffer_pool_max_idle_bytes = MysqlBufferPool.MIN_BUFFER_SIZE;
+        try {
+            MysqlBufferPool pool = new MysqlBufferPool(false);
+            ByteBuffer first = pool.borrow(1);
+            ByteBuffer second = pool.borrow(1);
+            Assert.assertFalse(first.isDirect());
+            pool.release(first);
+            pool.release(second);
+            Assert.assertEquals(MysqlBufferPool.MIN_BUFFER_SIZE, pool.getIdleBytes());
+            Assert.assertSame(first, pool.borrow(1));
+            Assert.assertNotSame(second, pool.borrow(1));
+        } finally {
+            Config.mysql_buffer_pool_max_idle_bytes = maxIdleBytes;
+        }
+    }
+
+    @Test
+    public void testMaxDirectBytes() {
+        long maxDirectBytes = Config.mysql_buffer_pool_max_direct_bytes;
+        Config.mysql_buffer_pool_max_direct_bytes = 2 * MysqlBufferPool.MIN_BUFFER_SIZE;
+        try {
+            MysqlBufferPool pool = new MysqlBufferPool(true);
+            ByteBuffer first = pool.borrow(1);
+            Assert.assertTrue(first.isDirect());
+            Assert.assertEquals(MysqlBufferPool.MIN_BUFFER_SIZE, pool.getInUseBytes());
+
+            // the size class of 32KB exceeds the limit, so a heap buffer is borrowed
+            ByteBuffer second = pool.borrow(MysqlBufferPool.MIN_BUFFER_SIZE + 1);
+            Assert.assertFalse(second.isDirect());
+            Assert.assertEquals(2 * MysqlBufferPool.MIN_BUFFER_SIZE, second.capacity());
+            Assert.assertEquals(MysqlBufferPool.MIN_BUFFER_SIZE, pool.getInUseBytes());
+            Assert.assertEquals(1, pool.getFallbackNum());
+            ByteBuffer third = pool.borrow(1);
+            Assert.assertTrue(third.isDirect());
+            Assert.assertEquals(2 * MysqlBufferPool.MIN_BUFFER_SIZE, pool.getInUseBytes());
+
+            // the heap buffer is returned to the heap pool, and the direct bytes are available again
+            pool.release(second);
+            pool.release(first);
+            pool.release(third);
+            Assert.assertEquals(0, pool.getInUseBytes());
+            Assert.assertEquals(2 * MysqlBufferPool.MIN_BUFFER_SIZE, pool.getIdleBytes());
+            Assert.assertTrue(pool.borrow(MysqlBufferPool.MIN_BUFFER_SIZE + 1).isDirect());
+        } finally {
+            Config.mysql_buffer_pool_max_direct_bytes = maxDirectBytes;
+        }
+    }
+
+    @Test
+    public void testCapacityOf() {
+        Assert.assertEquals(MysqlBufferPool.MIN_BUFFER_SIZE, MysqlBufferPool.capacityOf(1));
+        Assert.assertEquals(MysqlBufferPool.MIN_BUFFER_SIZE,
+                MysqlBufferPool.capacityOf(MysqlBufferPool.MIN_BUFFER_SIZE));
+        Assert.assertEquals(2 * MysqlBufferPool.MIN_BUFFER_SIZE,
+                MysqlBufferPool.capacityOf(MysqlBufferPool.MIN_BUFFER_SIZE + 1));
+        Assert.assertEquals(MysqlBufferPool.MAX_BUFFER_SIZE + 1,
+                MysqlBufferPool.capacityOf(MysqlBufferPool.MAX_BUFFER_SIZE + 1));
+    }
+}
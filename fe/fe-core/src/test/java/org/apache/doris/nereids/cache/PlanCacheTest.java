@@ -0,0 +1,201 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+package org.apache.doris.nereids.cache;
+
+import org.apache.doris.analysis.CreateUserStmt;
+import org.apache.doris.analysis.GrantStmt;
+import org.apache.doris.analysis.RevokeStmt;
+import org.apache.doris.catalog.Env;
+import org.apache.doris.catalog.OlapTable;
+import org.apache.doris.catalog.Partition;
+import org.apache.doris.catalog.Table;
+import org.apache.doris.common.Config;
+import org.apache.doris.nereids.NereidsPlanner;
+import org.apache.doris.nereids.StatementContext;
+import org.apache.doris.nereids.cache.PlanCache.PlanCacheKey;
+import org.apache.doris.nereids.glue.LogicalPlanAdapter;
+import org.apache.doris.nereids.parser.NereidsParser;
+import org.apache.doris.utframe.TestWithFeService;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+public class PlanCacheTest extends TestWithFeService {
+    private static final String SQL = "select k1, sum(v1) from test.tbl1 where k1 >= 10 group by k1";
+
+    private OlapTable table;
+    private boolean enablePlanCache;
+
+    @Override
+    protected void runBeforeAll() throws Exception {
+        createDatabase("test");
+        useDatabase("test");
+        createTable("create table test.tbl1 (k1 int, k2 int, v1 int) duplicate key(k1, k2) "
+                + "partition by range(k1) (partition p1 values less than ('10'), "
+                + "partition p2 values less than ('20')) "
+                + "distributed by hash(k2) buckets 1 properties('replication_num' = '1');");
+        table = (OlapTable) Env.getCurrentInternalCatalog().getDbOrMetaException("default_cluster:test")
+                .getTableOrMetaException("tbl1", Table.TableType.OLAP);
+        Env.getCurrentEnv().getAuth().createUser(
+                (CreateUserStmt) parseAndAnalyzeStmt("create user 'plan_cache_user'@'%'"));
+        Env.getCurrentEnv().getAuth().grant(
+                (GrantStmt) parseAndAnalyzeStmt("grant select_priv on test.tbl1 to 'plan_cache_user'@'%'"));
+        enablePlanCache = Config.enable_nereids_plan_cache;
+        Config.enable_nereids_plan_cache = true;
+        connectContext.getSessionVariable().setEnableNereidsPlanner(true);
+    }
+
+    @Override
+    protected void runAfterAll() throws Exception {
+        Config.enable_nereids_plan_cache = enablePlanCache;
+    }
+
+    @Override
+    protected void runBeforeEach() throws Exception {
+        useUser("root");
+        PlanCache.getInstance().clear();
+    }
+
+    private void plan(String sql) {
+        StatementContext statementContext = createStatementCtx(sql);
+        LogicalPlanAdapter adapter = new LogicalPlanAdapter(new NereidsParser().parseSingle(sql), statementContext);
+        new NereidsPlanner(statementContext).plan(adapter, connectContext.getSessionVariable().toThrift());
+    }
+
+    // whether a valid plan of the sql is cached for the current user
+    private boolean isCached(String sql) {
+        StatementContext statementContext = createStatementCtx(sql);
+        PlanCacheKey key = PlanCache.getInstance().buildKey(statementContext);
+        return key != null && PlanCache.getInstance().get(key, statementContext).isPresent();
+    }
+
+    private String getHitCount(String sql) {
+        for (List<String> info : PlanCache.getInstance().getInfos()) {
+            if (info.get(0).equals(sql)) {
+                return info.get(4);
+            }
+        }
+        return null;
+    }
+
+    // simulate a load into the partition, which makes a new visible version
+    private void load(String partitionName) {
+        Partition partition = table.getPartition(partitionName);
+        partition.updateVisibleVersionAndTime(partition.getVisibleVersion() + 1, System.currentTimeMillis());
+    }
+
+    private void grantOrRevoke(String sql) throws Exception {
+        String user = connectContext.getQualifiedUser();
+        useUser("root");
+        if (sql.startsWith("grant")) {
+            Env.getCurrentEnv().getAuth().grant((GrantStmt) parseAndAnalyzeStmt(sql));
+        } else {
+            Env.getCurrentEnv().getAuth().revoke((RevokeStmt) parseAndAnalyzeStmt(sql));
+        }
+        useUser(user.substring(user.indexOf(':') + 1));
+    }
+
+    @Test
+    public void testHitAndMiss() {
+        plan(SQL);
+        Assertions.assertEquals(1, PlanCache.getInstance().size());
+        Assertions.assertEquals("0", getHitCount(SQL));
+        plan(SQL);
+        Assertions.assertEquals(1, PlanCache.getInstance().size());
+        Assertions.assertEquals("1", getHitCount(SQL));
+
+        // different statements are cached separately
+        String otherSql = "select k1, sum(v1) from test.tbl1 where k1 >= 11 group by k1";
+        Assertions.assertFalse(isCached(otherSql));
+        plan(otherSql);
+        Assertions.assertTrue(isCached(otherSql));
+        Assertions.assertEquals(2, PlanCache.getInstance().size());
+
+        // the plans depending on the query time are not cached
+        String nowSql = "select k1, now() from test.tbl1";
+        plan(nowSql);
+        Assertions.assertFalse(isCached(nowSql));
+    }
+
+    @Test
+    public void testInvalidatedByDdl() throws Exception {
+        plan(SQL);
+        Assertions.assertTrue(isCached(SQL));
+        alterTableSync("alter table test.tbl1 add partition p3 values less than ('30')");
+        Assertions.assertFalse(isCached(SQL));
+        plan(SQL);
+        Assertions.assertTrue(isCached(SQL));
+    }
+
+    @Test
+    public void testInvalidatedByLoad() {
+        // p2 is empty, and is pruned from the plan
+        plan(SQL);
+        Assertions.assertTrue(isCached(SQL));
+        load("p2");
+        Assertions.assertFalse(isCached(SQL));
+        plan(SQL);
+        Assertions.assertTrue(isCached(SQL));
+    }
+
+    @Test
+    public void testInvalidatedByStatistics() {
+        plan(SQL);
+        Assertions.assertTrue(isCached(SQL));
+        Env.getCurrentEnv().getStatisticsCache().invalidate(table.getId(), -1, "v1");
+        Assertions.assertFalse(isCached(SQL));
+        plan(SQL);
+        Assertions.assertTrue(isCached(SQL));
+    }
+
+    @Test
+    public void testInvalidatedByRowPolicy() throws Exception {
+        useUser("plan_cache_user");
+        plan(SQL);
+        Assertions.assertTrue(isCached(SQL));
+        useUser("root");
+        createPolicy("CREATE ROW POLICY plan_cache_policy ON test.tbl1 AS RESTRICTIVE TO plan_cache_user "
+                + "USING (k2 = 1)");
+        try {
+            // the policy is not applied to root, so the plan of root is still valid
+            plan(SQL);
+            Assertions.assertTrue(isCached(SQL));
+            useUser("plan_cache_user");
+            Assertions.assertFalse(isCached(SQL));
+        } finally {
+            useUser("root");
+            dropPolicy("DROP ROW POLICY plan_cache_policy ON test.tbl1");
+        }
+    }
+
+    @Test
+    public void testPrivilegeChecked() throws Exception {
+        useUser("plan_cache_user");
+        plan(SQL);
+        Assertions.assertTrue(isCached(SQL));
+        grantOrRevoke("revoke select_priv on test.tbl1 from 'plan_cache_user'@'%'");
+        try {
+            Assertions.assertFalse(isCached(SQL));
+        } finally {
+            grantOrRevoke("grant select_priv on test.tbl1 to 'plan_cache_user'@'%'");
+        }
+        Assertions.assertTrue(isCached(SQL));
+    }
+}
@@ -0,0 +1,120 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+package org.apache.doris.nereids.memo;
+
+import org.apache.doris.nereids.datasets.tpch.TPCHTestBase;
+import org.apache.doris.nereids.datasets.tpch.TPCHUtils;
+import org.apache.doris.nereids.properties.PhysicalProperties;
+import org.apache.doris.nereids.util.PlanChecker;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.StringJoiner;
+
+/**
+ * Report memo size, allocation and optimize time of the cascades optimizer on join graphs.
+ * TPC-H queries cover the real join graphs, and the generated chain joins cover the join graphs which are larger
+ * than any TPC-H query.
+ * The benchmarks are disabled by default, run them manually to get the numbers. Only the memo consistency
+ * check of a single round runs in the normal suite.
+ */
+public class MemoBenchmarkTest extends TPCHTestBase {
+    private static final Logger LOG = LogManager.getLogger(MemoBenchmarkTest.class);
+    private static final int ROUNDS = 3;
+
+    @Test
+    public void testMemoConsistency() {
+        checkMemo(optimize(TPCHUtils.Q5).getCascadesContext().getMemo());
+        checkMemo(optimize(chainJoin(6)).getCascadesContext().getMemo());
+    }
+
+    @Disabled
+    @Test
+    public void testTPCHJoins() {
+        benchmark("tpch q2", TPCHUtils.Q2);
+        benchmark("tpch q5", TPCHUtils.Q5);
+        benchmark("tpch q7", TPCHUtils.Q7);
+        benchmark("tpch q8", TPCHUtils.Q8);
+        benchmark("tpch q9", TPCHUtils.Q9);
+        benchmark("tpch q21", TPCHUtils.Q21);
+    }
+
+    @Disabled
+    @Test
+    public void testChainJoins() {
+        benchmark("chain join 6", chainJoin(6));
+        benchmark("chain join 10", chainJoin(10));
+    }
+
+    private void benchmark(String name, String sql) {
+        com.sun.management.ThreadMXBean threadBean =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        long totalNanos = 0;
+        long totalBytes = 0;
+        Memo memo = null;
+        for (int i = 0; i < ROUNDS; i++) {
+            PlanChecker checker = PlanChecker.from(connectContext)
+                    .analyze(sql)
+                    .rewrite();
+            long bytes = threadBean.getThreadAllocatedBytes(threadId);
+            long nanos = System.nanoTime();
+            checker.optimize();
+            totalNanos += System.nanoTime() - nanos;
+            totalBytes += threadBean.getThreadAllocatedBytes(threadId) - bytes;
+            memo = checker.getCascadesContext().getMemo();
+        }
+
+        checkMemo(memo);
+        LOG.info(String.format("%s: groups=%d, group expressions=%d, optimize time=%.2fms, allocated=%.2fMB",
+                name, memo.getGroupsSize(), memo.getGroupExpressionsSize(),
+                totalNanos / 1e6 / ROUNDS, totalBytes / 1024.0 / 1024.0 / ROUNDS));
+    }
+
+    private PlanChecker optimize(String sql) {
+        return PlanChecker.from(connectContext)
+                .analyze(sql)
+                .rewrite()
+                .optimize();
+    }
+
+    private static void checkMemo(Memo memo) {
+        Assertions.assertEquals(memo.getGroups().size(), memo.getGroupsSize());
+        for (Group group : memo.getGroups()) {
+            Assertions.assertSame(group, memo.getGroup(group.getGroupId()));
+        }
+        Assertions.assertTrue(memo.getRoot().getLowestCostPlan(PhysicalProperties.GATHER).isPresent());
+    }
+
+    private static String chainJoin(int tableNum) {
+        StringJoiner from = new StringJoiner(", ");
+        StringJoiner where = new StringJoiner(" and ");
+        for (int i = 0; i < tableNum; i++) {
+            from.add("nation n" + i);
+            if (i > 0) {
+                where.add("n" + (i - 1) + ".n_nationkey = n" + i + ".n_regionkey");
+            }
+        }
+        return "select count(*) from " + from + " where " + where;
+    }
+}
@@ -0,0 +1,161 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+package org.apache.doris.persist.meta;
+
+import com.google.common.collect.Lists;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+public class MetaBodyCrcTest {
+    private File imageFile;
+
+    @Before
+    public void setUp() throws IOException {
+        imageFile = Files.createTempFile("image", ".test").toFile();
+        // MetaHeader has to be written to an empty file
+        Assert.assertTrue(imageFile.delete());
+    }
+
+    @After
+    public void tearDown() {
+        imageFile.delete();
+    }
+
+    // write the header and two modules in the same way as MetaWriter, and return the crc of body
+    private List<MetaIndex> writeHeaderAndBody(CRC32 bodyCrc) throws IOException {
+        long position = MetaHeader.write(imageFile);
+        List<MetaIndex> metaIndices = Lists.newArrayList();
+        try (DataOutputStream dos = new DataOutputStream(
+                new CheckedOutputStream(new FileOutputStream(imageFile, true), bodyCrc))) {
+            metaIndices.add(new MetaIndex("header", position));
+            dos.writeLong(1000L);
+            metaIndices.add(new MetaIndex("module", position + 8));
+            for (int i = 0; i < 1024; i++) {
+                dos.writeInt(i);
+            }
+        }
+        return metaIndices;
+    }
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        CRC32 bodyCrc = new CRC32();
+        List<MetaIndex> metaIndices = writeHeaderAndBody(bodyCrc);
+        MetaFooter.write(imageFile, metaIndices, 12345L, bodyCrc.getValue());
+
+        MetaFooter metaFooter = MetaFooter.read(imageFile);
+        Assert.assertEquals(12345L, metaFooter.checksum);
+        Assert.assertEquals(bodyCrc.getValue(), metaFooter.bodyCrc);
+        Assert.assertEquals(2, metaFooter.metaIndices.size());
+        Assert.assertEquals("module", metaFooter.metaIndices.get(1).name);
+        Assert.assertTrue(MetaReader.verifyBodyCrc(imageFile));
+    }
+
+    @Test
+    public void testCorruptBody() throws IOException {
+        CRC32 bodyCrc = new CRC32();
+        List<MetaIndex> metaIndices = writeHeaderAndBody(bodyCrc);
+        MetaFooter.write(imageFile, metaIndices, 12345L, bodyCrc.getValue());
+
+        try (RandomAccessFile raf = new RandomAccessFile(imageFile, "rw")) {
+            long pos = metaIndices.get(1).offset + 100;
+            raf.seek(pos);
+            int b = raf.read();
+            raf.seek(pos);
+            raf.write(b ^ 0xff);
+        }
+        try {
+            MetaReader.verifyBodyCrc(imageFile);
+            Assert.fail("corrupt body should be detected");
+        } catch (IOException e) {
+            Assert.assertTrue(e.getMessage().contains("mismatch"));
+        }
+    }
+
+    @Test
+    public void testInvalidModuleOffset() throws IOException {
+        CRC32 bodyCrc = new CRC32();
+        List<MetaIndex> metaIndices = writeHeaderAndBody(bodyCrc);
+        metaIndices.add(new MetaIndex("broken", imageFile.length() + 1024));
+        MetaFooter.write(imageFile, metaIndices, 12345L, bodyCrc.getValue());
+        try {
+            MetaReader.verifyBodyCrc(imageFile);
+            Assert.fail("offset out of body should be detected");
+        } catch (IOException e) {
+            Assert.assertTrue(e.getMessage().contains("invalid offset"));
+        }
+    }
+
+    @Test
+    public void testImageWithoutBodyCrc() throws IOException {
+        List<MetaIndex> metaIndices = writeHeaderAndBody(new CRC32());
+        // footer written by the version without body crc
+        try (RandomAccessFile raf = new RandomAccessFile(imageFile, "rw")) {
+            long startIndex = raf.length();
+            raf.seek(startIndex);
+            raf.writeLong(12345L);
+            raf.writeInt(metaIndices.size());
+            for (MetaIndex metaIndex : metaIndices) {
+                MetaIndex.write(raf, metaIndex);
+            }
+            raf.writeLong(raf.length() - startIndex);
+            MetaMagicNumber.write(raf);
+        }
+
+        MetaFooter metaFooter = MetaFooter.read(imageFile);
+        Assert.assertEquals(MetaFooter.NO_BODY_CRC, metaFooter.bodyCrc);
+        Assert.assertEquals(2, metaFooter.metaIndices.size());
+        // must be verified by loading the image
+        Assert.assertFalse(MetaReader.verifyBodyCrc(imageFile));
+    }
+
+    @Test
+    public void testOldReaderWithBodyCrc() throws IOException {
+        CRC32 bodyCrc = new CRC32();
+        List<MetaIndex> metaIndices = writeHeaderAndBody(bodyCrc);
+        MetaFooter.write(imageFile, metaIndices, 12345L, bodyCrc.getValue());
+
+        // the reader without body crc locates the footer by its length, and stops after the indices
+        try (RandomAccessFile raf = new RandomAccessFile(imageFile, "r")) {
+            long footerLengthIndex = raf.length() - MetaFooter.FOOTER_LENGTH_SIZE - MetaMagicNumber.MAGIC_STR.length();
+            raf.seek(footerLengthIndex);
+            long footerLength = raf.readLong();
+            raf.seek(footerLengthIndex - footerLength);
+            Assert.assertEquals(12345L, raf.readLong());
+            int indexNum = raf.readInt();
+            Assert.assertEquals(metaIndices.size(), indexNum);
+            for (int i = 0; i < indexNum; i++) {
+                MetaIndex metaIndex = MetaIndex.read(raf);
+                Assert.assertEquals(metaIndices.get(i).name, metaIndex.name);
+                Assert.assertEquals(metaIndices.get(i).offset, metaIndex.offset);
+            }
+        }
+    }
+}
@@ -0,0 +1,245 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+package org.apache.doris.persist.meta;
+
+import org.apache.doris.catalog.Env;
+import org.apache.doris.common.Config;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import mockit.Delegate;
+import mockit.Expectations;
+import mockit.Mocked;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+public class MetaReaderParallelLoadTest {
+    // in the order of PersistMetaModules.MODULE_NAMES
+    private static final List<String> MODULES = ImmutableList.of("masterInfo", "exportJob", "paloAuth",
+            "transactionState", "routineLoadJobs", "loadJobV2", "smallFiles", "globalFunction");
+    private static final int VALUE_NUM = 100;
+
+    @Mocked
+    private Env env;
+
+    private File imageFile;
+    private boolean enableParallelImageLoading;
+
+    // module name -> values loaded
+    private final Map<String, List<Long>> loadedValues = new ConcurrentHashMap<>();
+    // module name -> name of the thread loading it
+    private final Map<String, String> loadThreads = new ConcurrentHashMap<>();
+    private volatile boolean transactionStateLoaded;
+    private volatile boolean transactionStateLoadedBeforeLoadJob;
+
+    @Before
+    public void setUp() throws IOException {
+        enableParallelImageLoading = Config.enable_parallel_image_loading;
+        imageFile = Files.createTempFile("image", ".test").toFile();
+        // MetaHeader has to be written to an empty file
+        Assert.assertTrue(imageFile.delete());
+        writeImage();
+
+        new Expectations() {
+            {
+                env.loadHeader((DataInputStream) any, (MetaHeader) any, anyLong);
+                minTimes = 0;
+                result = new Delegate() {
+                    long loadHeader(DataInputStream dis, MetaHeader metaHeader, long checksum) throws IOException {
+                        return checksum ^ dis.readLong();
+                    }
+                };
+
+                env.loadMasterInfo((DataInputStream) any, anyLong);
+                minTimes = 0;
+                result = new Delegate() {
+                    long loadMasterInfo(DataInputStream dis, long checksum) throws IOException {
+                        return loadModule("masterInfo", dis, checksum);
+                    }
+                };
+
+                env.loadExportJob((DataInputStream) any, anyLong);
+                minTimes = 0;
+                result = new Delegate() {
+                    long loadExportJob(DataInputStream dis, long checksum) throws IOException {
+                        return loadModule("exportJob", dis, checksum);
+                    }
+                };
+
+                env.loadAuth((DataInputStream) any, anyLong);
+                minTimes = 0;
+                result = new Delegate() {
+                    long loadAuth(DataInputStream dis, long checksum) throws IOException {
+                        return loadModule("paloAuth", dis, checksum);
+                    }
+                };
+
+                env.loadTransactionState((DataInputStream) any, anyLong);
+                minTimes = 0;
+                result = new Delegate() {
+                    long loadTransactionState(DataInputStream dis, long checksum)
+                            throws IOException, InterruptedException {
+                        // make the load jobs catch up if they do not wait for the transactions
+                        Thread.sleep(500);
+                        long newChecksum = loadModule("transactionState", dis, checksum);
+                        transactionStateLoaded = true;
+                        return newChecksum;
+                    }
+                };
+
+                env.loadRoutineLoadJobs((DataInputStream) any, anyLong);
+                minTimes = 0;
+                result = new Delegate() {
+                    long loadRoutineLoadJobs(DataInputStream dis, long checksum) throws IOException {
+                        return loadModule("routineLoadJobs", dis, checksum);
+                    }
+                };
+
+                env.loadLoadJobsV2((DataInputStream) any, anyLong);
+                minTimes = 0;
+                result = new Delegate() {
+                    long loadLoadJobsV2(DataInputStream dis, long checksum) throws IOException {
+                        transactionStateLoadedBeforeLoadJob = transactionStateLoaded;
+                        return loadModule("loadJobV2", dis, checksum);
+                    }
+                };
+
+                env.loadSmallFiles((DataInputStream) any, anyLong);
+                minTimes = 0;
+                result = new Delegate() {
+                    long loadSmallFiles(DataInputStream dis, long checksum) throws IOException {
+                        return loadModule("smallFiles", dis, checksum);
+                    }
+                };
+
+                env.loadGlobalFunction((DataInputStream) any, anyLong);
+                minTimes = 0;
+                result = new Delegate() {
+                    long loadGlobalFunction(DataInputStream dis, long checksum) throws IOException {
+                        return loadModule("globalFunction", dis, checksum);
+                    }
+                };
+            }
+        };
+    }
+
+    @After
+    public void tearDown() {
+        Config.enable_parallel_image_loading = enableParallelImageLoading;
+        imageFile.delete();
+    }
+
+    // write the header and the modules in the same way as MetaWriter
+    private void writeImage() throws IOException {
+        long position = MetaHeader.write(imageFile);
+        List<MetaIndex> metaIndices = Lists.newArrayList();
+        long checksum = 0;
+        CRC32 bodyCrc = new CRC32();
+        try (DataOutputStream dos = new DataOutputStream(
+                new CheckedOutputStream(new FileOutputStream(imageFile, true), bodyCrc))) {
+            metaIndices.add(new MetaIndex("header", position));
+            dos.writeLong(1000L);
+            checksum ^= 1000L;
+            position += 8;
+            for (int i = 0; i < MODULES.size(); i++) {
+                metaIndices.add(new MetaIndex(MODULES.get(i), position));
+                dos.writeInt(VALUE_NUM);
+                checksum ^= VALUE_NUM;
+                for (int j = 0; j < VALUE_NUM; j++) {
+                    long value = (i + 1) * 10000L + j;
+                    dos.writeLong(value);
+                    checksum ^= value;
+                }
+                position += 4 + 8 * VALUE_NUM;
+            }
+        }
+        MetaFooter.write(imageFile, metaIndices, checksum, bodyCrc.getValue());
+    }
+
+    private long loadModule(String name, DataInputStream dis, long checksum) throws IOException {
+        loadThreads.put(name, Thread.currentThread().getName());
+        int size = dis.readInt();
+        long newChecksum = checksum ^ size;
+        List<Long> values = Lists.newArrayList();
+        for (int i = 0; i < size; i++) {
+            long value = dis.readLong();
+            newChecksum ^= value;
+            values.add(value);
+        }
+        loadedValues.put(name, values);
+        return newChecksum;
+    }
+
+    private Map<String, List<Long>> loadImage(boolean parallel) throws Exception {
+        Config.enable_parallel_image_loading = parallel;
+        loadedValues.clear();
+        loadThreads.clear();
+        transactionStateLoaded = false;
+        transactionStateLoadedBeforeLoadJob = false;
+        // the checksum is checked when reading
+        MetaReader.read(imageFile, env);
+        return Maps.newHashMap(loadedValues);
+    }
+
+    @Test
+    public void testParallelLoadSameAsSerialLoad() throws Exception {
+        Map<String, List<Long>> serialResult = loadImage(false);
+        String mainThread = Thread.currentThread().getName();
+        for (String module : MODULES) {
+            Assert.assertEquals(mainThread, loadThreads.get(module));
+        }
+        Assert.assertTrue(transactionStateLoadedBeforeLoadJob);
+
+        Map<String, List<Long>> parallelResult = loadImage(true);
+        for (String module : MODULES) {
+            if (PersistMetaModules.PARALLEL_LOADABLE_MODULE_NAMES.contains(module)) {
+                Assert.assertNotEquals(module, mainThread, loadThreads.get(module));
+            } else {
+                Assert.assertEquals(module, mainThread, loadThreads.get(module));
+            }
+        }
+        // the load jobs wait for the transactions loaded concurrently
+        Assert.assertTrue(transactionStateLoadedBeforeLoadJob);
+
+        Assert.assertEquals(MODULES.size(), serialResult.size());
+        Assert.assertEquals(serialResult, parallelResult);
+    }
+
+    @Test
+    public void testLoadJobNotLoadedConcurrentlyWithTransactions() {
+        Assert.assertTrue(PersistMetaModules.PARALLEL_LOADABLE_MODULE_NAMES.contains("transactionState"));
+        Assert.assertFalse(PersistMetaModules.PARALLEL_LOADABLE_MODULE_NAMES.contains("loadJobV2"));
+        Assert.assertTrue(PersistMetaModules.PARALLEL_LOADING_DEPENDENCIES.get("loadJobV2")
+                .contains("transactionState"));
+    }
+}
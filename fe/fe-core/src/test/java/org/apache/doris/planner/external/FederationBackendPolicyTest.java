@@ -0,0 +1,249 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+package org.apache.doris.planner.external;
+
+import org.apache.doris.common.Config;
+import org.apache.doris.common.UserException;
+import org.apache.doris.system.Backend;
+import org.apache.doris.thrift.TExternalScanRange;
+import org.apache.doris.thrift.TFileRangeDesc;
+import org.apache.doris.thrift.TFileScanRange;
+import org.apache.doris.thrift.TScanRange;
+import org.apache.doris.thrift.TScanRangeLocations;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Simulate the assignment of splits of external tables on synthetic split distributions, and report the skew
+ * of bytes among backends and the ratio of splits which are assigned to the same backend as a previous query,
+ * which is the hit ratio of the file cache of backends.
+ */
+public class FederationBackendPolicyTest {
+    private static final Logger LOG = LogManager.getLogger(FederationBackendPolicyTest.class);
+    private static final long MB = 1024L * 1024L;
+    private static final int BACKEND_NUM = 10;
+
+    private double maxLoadFactor;
+    private boolean weightByCpuCores;
+
+    private static class SimSplit {
+        private final String path;
+        private final long size;
+
+        SimSplit(String path, long size) {
+            this.path = path;
+            this.size = size;
+        }
+    }
+
+    private static class Result {
+        private final Map<SimSplit, Long> assignment = Maps.newHashMap();
+        private double skew;
+    }
+
+    @BeforeEach
+    public void setUp() {
+        maxLoadFactor = Config.external_split_max_load_factor;
+        weightByCpuCores = Config.external_split_weight_by_cpu_cores;
+    }
+
+    @AfterEach
+    public void tearDown() {
+        Config.external_split_max_load_factor = maxLoadFactor;
+        Config.external_split_weight_by_cpu_cores = weightByCpuCores;
+    }
+
+    @Test
+    public void testUniformSplits() throws UserException {
+        Random random = new Random(1);
+        List<SimSplit> splits = Lists.newArrayList();
+        for (int i = 0; i < 2000; i++) {
+            splits.add(new SimSplit("hdfs://nn/warehouse/t/part-" + i, (64 + random.nextInt(64)) * MB));
+        }
+        simulate("uniform", splits, Collections.emptyMap());
+    }
+
+    @Test
+    public void testLongTailSplits() throws UserException {
+        Random random = new Random(2);
+        List<SimSplit> splits = Lists.newArrayList();
+        for (int i = 0; i < 2000; i++) {
+            // pareto distribution of file sizes, most files are small and a few are large
+            long size = (long) (MB / Math.pow(1 - random.nextDouble(), 1 / 1.2));
+            splits.add(new SimSplit("hdfs://nn/warehouse/t/part-" + i, Math.min(size, 256 * MB)));
+        }
+        simulate("long tail", splits, Collections.emptyMap());
+    }
+
+    @Test
+    public void testSmallFilesWithLargeFiles() throws UserException {
+        Random random = new Random(3);
+        List<SimSplit> splits = Lists.newArrayList();
+        for (int i = 0; i < 3000; i++) {
+            long size = i % 100 == 0 ? 256 * MB : random.nextInt(4096) * 1024L;
+            splits.add(new SimSplit("hdfs://nn/warehouse/t/part-" + i, size));
+        }
+        simulate("small and large files", splits, Collections.emptyMap());
+    }
+
+    @Test
+    public void testWeightedBackends() throws UserException {
+        Random random = new Random(4);
+        List<SimSplit> splits = Lists.newArrayList();
+        for (int i = 0; i < 2000; i++) {
+            splits.add(new SimSplit("hdfs://nn/warehouse/t/part-" + i, (32 + random.nextInt(96)) * MB));
+        }
+        Map<Long, Integer> weights = Maps.newHashMap();
+        for (long id = 0; id < BACKEND_NUM; id++) {
+            weights.put(id, id < BACKEND_NUM / 2 ? 16 : 32);
+        }
+        simulate("weighted backends", splits, weights);
+    }
+
+    private void simulate(String name, List<SimSplit> splits, Map<Long, Integer> weights) throws UserException {
+        // the second query scans most of the splits of the first one in another order, and some new splits
+        Random random = new Random(name.hashCode());
+        List<SimSplit> nextSplits = Lists.newArrayList();
+        for (SimSplit split : splits) {
+            if (random.nextInt(10) < 8) {
+                nextSplits.add(split);
+            }
+        }
+        for (int i = 0; i < splits.size() / 10; i++) {
+            nextSplits.add(new SimSplit("hdfs://nn/warehouse/t/new-part-" + i, splits.get(i).size));
+        }
+        Collections.shuffle(nextSplits, random);
+
+        double roundRobinHitRatio = 0;
+        for (Strategy strategy : Strategy.values()) {
+            Result first = assign(strategy, splits, weights);
+            Result next = assign(strategy, nextSplits, weights);
+            int hits = 0;
+            for (Map.Entry<SimSplit, Long> entry : next.assignment.entrySet()) {
+                if (entry.getValue().equals(first.assignment.get(entry.getKey()))) {
+                    hits++;
+                }
+            }
+            double hitRatio = (double) hits / nextSplits.size();
+            LOG.info(String.format("%s, %s: skew=%.3f/%.3f, cache hit ratio=%.3f",
+                    name, strategy, first.skew, next.skew, hitRatio));
+
+            if (strategy == Strategy.ROUND_ROBIN) {
+                roundRobinHitRatio = hitRatio;
+            } else if (strategy == Strategy.BOUNDED_CONSISTENT_HASH) {
+                Assertions.assertTrue(hitRatio > roundRobinHitRatio);
+            }
+            if (strategy.maxLoadFactor >= 1) {
+                Assertions.assertTrue(first.skew <= maxSkew(strategy.maxLoadFactor, splits, weights));
+                Assertions.assertTrue(next.skew <= maxSkew(strategy.maxLoadFactor, nextSplits, weights));
+            }
+        }
+    }
+
+    private enum Strategy {
+        ROUND_ROBIN(0, false),
+        CONSISTENT_HASH(0, true),
+        LEAST_LOADED(1.25, false),
+        BOUNDED_CONSISTENT_HASH(1.25, true);
+
+        private final double maxLoadFactor;
+        private final boolean consistent;
+
+        Strategy(double maxLoadFactor, boolean consistent) {
+            this.maxLoadFactor = maxLoadFactor;
+            this.consistent = consistent;
+        }
+    }
+
+    private Result assign(Strategy strategy, List<SimSplit> splits, Map<Long, Integer> weights)
+            throws UserException {
+        Config.external_split_max_load_factor = strategy.maxLoadFactor;
+        List<Backend> backends = Lists.newArrayList();
+        for (long id = 0; id < BACKEND_NUM; id++) {
+            backends.add(new Backend(id, "192.168.0." + id, 9050));
+        }
+        FederationBackendPolicy policy = new FederationBackendPolicy();
+        policy.init(backends, weights);
+
+        Result result = new Result();
+        for (SimSplit split : splits) {
+            Backend backend = policy.getNextBalancedBe(newLocations(split), split.size, strategy.consistent);
+            result.assignment.put(split, backend.getId());
+        }
+
+        long totalBytes = 0;
+        long totalWeight = 0;
+        for (Backend backend : backends) {
+            totalBytes += policy.getAssignedBytes().get(backend.getId());
+            totalWeight += weights.getOrDefault(backend.getId(), 1);
+        }
+        double maxLoad = 0;
+        for (Backend backend : backends) {
+            maxLoad = Math.max(maxLoad, (double) policy.getAssignedBytes().get(backend.getId())
+                    / weights.getOrDefault(backend.getId(), 1));
+        }
+        result.skew = maxLoad / ((double) totalBytes / totalWeight);
+        return result;
+    }
+
+    // The bytes of a backend are under max load factor times of its share before the last split is assigned to it.
+    private double maxSkew(double maxLoadFactor, List<SimSplit> splits, Map<Long, Integer> weights) {
+        long totalBytes = 0;
+        long maxSplitBytes = 0;
+        for (SimSplit split : splits) {
+            totalBytes += Math.max(split.size, 1);
+            maxSplitBytes = Math.max(maxSplitBytes, Math.max(split.size, 1));
+        }
+        long totalWeight = 0;
+        int minWeight = Integer.MAX_VALUE;
+        for (long id = 0; id < BACKEND_NUM; id++) {
+            int weight = weights.getOrDefault(id, 1);
+            totalWeight += weight;
+            minWeight = Math.min(minWeight, weight);
+        }
+        return maxLoadFactor + (double) maxSplitBytes * totalWeight / minWeight / totalBytes;
+    }
+
+    private static TScanRangeLocations newLocations(SimSplit split) {
+        TFileRangeDesc rangeDesc = new TFileRangeDesc();
+        rangeDesc.setPath(split.path);
+        rangeDesc.setStartOffset(0);
+        rangeDesc.setSize(split.size);
+        TFileScanRange fileScanRange = new TFileScanRange();
+        fileScanRange.addToRanges(rangeDesc);
+        TExternalScanRange externalScanRange = new TExternalScanRange();
+        externalScanRange.setFileScanRange(fileScanRange);
+        TScanRange scanRange = new TScanRange();
+        scanRange.setExtScanRange(externalScanRange);
+        TScanRangeLocations locations = new TScanRangeLocations();
+        locations.setScanRange(scanRange);
+        return locations;
+    }
+}
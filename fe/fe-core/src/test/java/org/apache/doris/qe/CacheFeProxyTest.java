@@ -0,0 +1,96 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+package org.apache.doris.qe;
+
+import org.apache.doris.common.Config;
+import org.apache.doris.common.Status;
+import org.apache.doris.proto.InternalService;
+import org.apache.doris.qe.cache.CacheFeProxy;
+import org.apache.doris.qe.cache.CacheProxy;
+
+import com.google.protobuf.ByteString;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class CacheFeProxyTest {
+    private final CacheFeProxy proxy = CacheFeProxy.getInstance();
+
+    @After
+    public void tearDown() {
+        proxy.clearCache(InternalService.PClearCacheRequest.newBuilder()
+                .setClearType(InternalService.PClearType.CLEAR_ALL).build());
+    }
+
+    private static InternalService.PCacheParam param(long version) {
+        return InternalService.PCacheParam.newBuilder()
+                .setPartitionKey(1).setLastVersion(version).setLastVersionTime(100).build();
+    }
+
+    private static InternalService.PUpdateCacheRequest updateRequest(String sql, int rowSize) {
+        return InternalService.PUpdateCacheRequest.newBuilder()
+                .setSqlKey(CacheProxy.getMd5(sql))
+                .setCacheType(InternalService.CacheType.SQL_CACHE)
+                .addValues(InternalService.PCacheValue.newBuilder()
+                        .setParam(param(2))
+                        .setDataSize(rowSize)
+                        .addRows(ByteString.copyFrom(new byte[rowSize])))
+                .build();
+    }
+
+    private InternalService.PFetchCacheResult fetch(String sql, long version) {
+        InternalService.PFetchCacheRequest request = InternalService.PFetchCacheRequest.newBuilder()
+                .setSqlKey(CacheProxy.getMd5(sql))
+                .addParams(param(version))
+                .build();
+        return proxy.fetchCache(request, CacheProxy.FETCH_TIMEOUT, new Status());
+    }
+
+    @Test
+    public void testFetch() {
+        Status status = new Status();
+        proxy.updateCache(updateRequest("select 1", 10), CacheProxy.UPDATE_TIMEOUT, status);
+        Assert.assertTrue(status.ok());
+
+        InternalService.PFetchCacheResult result = fetch("select 1", 2);
+        Assert.assertEquals(InternalService.PCacheStatus.CACHE_OK, result.getStatus());
+        Assert.assertEquals(1, result.getValuesCount());
+        Assert.assertEquals(10, result.getValues(0).getRows(0).size());
+
+        Assert.assertEquals(InternalService.PCacheStatus.NO_SQL_KEY, fetch("select 2", 2).getStatus());
+        // the partition is updated after the result is cached
+        Assert.assertEquals(InternalService.PCacheStatus.DATA_OVERDUE, fetch("select 1", 3).getStatus());
+        Assert.assertEquals(InternalService.PCacheStatus.NO_SQL_KEY, fetch("select 1", 2).getStatus());
+    }
+
+    @Test
+    public void testSizeLimit() {
+        long maxBytes = Config.cache_fe_result_max_bytes;
+        try {
+            Config.cache_fe_result_max_bytes = 1024;
+            Status status = new Status();
+            InternalService.PUpdateCacheRequest request = updateRequest("select 1", 2048);
+            Assert.assertFalse(CacheFeProxy.canCache(request));
+            proxy.updateCache(request, CacheProxy.UPDATE_TIMEOUT, status);
+            Assert.assertFalse(status.ok());
+            Assert.assertEquals(InternalService.PCacheStatus.NO_SQL_KEY, fetch("select 1", 2).getStatus());
+        } finally {
+            Config.cache_fe_result_max_bytes = maxBytes;
+        }
+    }
+}
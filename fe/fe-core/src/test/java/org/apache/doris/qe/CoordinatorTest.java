@@ -27,6 +27,7 @@ import org.apache.doris.analysis.TupleId;
 import org.apache.doris.catalog.Env;
 import org.apache.doris.catalog.HashDistributionInfo;
 import org.apache.doris.catalog.OlapTable;
+import org.apache.doris.common.Config;
 import org.apache.doris.common.jmockit.Deencapsulation;
 import org.apache.doris.persist.EditLog;
 import org.apache.doris.planner.DataPartition;
@@ -38,6 +39,7 @@ import org.apache.doris.planner.PlanFragment;
 import org.apache.doris.planner.PlanFragmentId;
 import org.apache.doris.planner.PlanNodeId;
 import org.apache.doris.planner.ScanNode;
+import org.apache.doris.proto.InternalService.PExecPlanFragmentResult;
 import org.apache.doris.service.FrontendOptions;
 import org.apache.doris.system.Backend;
 import org.apache.doris.thrift.TNetworkAddress;
@@ -49,10 +51,12 @@ import org.apache.doris.thrift.TUniqueId;
 
 import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 import mockit.Mocked;
 import org.apache.commons.collections.map.HashedMap;
+import org.apache.thrift.TException;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -62,6 +66,15 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 public class CoordinatorTest extends Coordinator {
     @Mocked
@@ -873,4 +886,128 @@ public class CoordinatorTest extends Coordinator {
             hostNames.remove(host.hostname);
         }
     }
+
+    // Run the senders by execRemoteFragments with and without parallel serialization
+    private static List<Future<PExecPlanFragmentResult>> execRemoteFragments(
+            List<Callable<Future<PExecPlanFragmentResult>>> senders, ExecutorService pool, boolean parallel)
+            throws TException {
+        boolean enableParallelSerialize = Config.enable_parallel_serialize_fragments;
+        try {
+            Config.enable_parallel_serialize_fragments = parallel;
+            return Coordinator.execRemoteFragments(senders, pool);
+        } finally {
+            Config.enable_parallel_serialize_fragments = enableParallelSerialize;
+        }
+    }
+
+    @Test
+    public void testParallelSerializeFragments() throws TException {
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<PExecPlanFragmentResult>> rpcFutures = Lists.newArrayList();
+            List<String> senderThreads = Lists.newArrayList();
+            List<Callable<Future<PExecPlanFragmentResult>>> senders = Lists.newArrayList();
+            for (int i = 0; i < 8; i++) {
+                CompletableFuture<PExecPlanFragmentResult> rpcFuture = new CompletableFuture<>();
+                rpcFutures.add(rpcFuture);
+                senderThreads.add(null);
+                int index = i;
+                senders.add(() -> {
+                    senderThreads.set(index, Thread.currentThread().getName());
+                    return rpcFuture;
+                });
+            }
+
+            // the rpc futures are returned in the order of the senders in both ways
+            Assert.assertEquals(rpcFutures, execRemoteFragments(senders, pool, false));
+            for (String thread : senderThreads) {
+                Assert.assertEquals(Thread.currentThread().getName(), thread);
+            }
+            Assert.assertEquals(rpcFutures, execRemoteFragments(senders, pool, true));
+            for (String thread : senderThreads) {
+                Assert.assertNotEquals(Thread.currentThread().getName(), thread);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testSerializePoolRejected() throws TException {
+        // a pool which can run only one sender and queues nothing, so the others are rejected
+        ExecutorService pool = new ThreadPoolExecutor(1, 1, 0, TimeUnit.SECONDS, new SynchronousQueue<>());
+        try {
+            CountDownLatch inlineSendersDone = new CountDownLatch(3);
+            List<Future<PExecPlanFragmentResult>> rpcFutures = Lists.newArrayList();
+            List<String> senderThreads = Lists.newArrayList();
+            List<Callable<Future<PExecPlanFragmentResult>>> senders = Lists.newArrayList();
+            for (int i = 0; i < 4; i++) {
+                CompletableFuture<PExecPlanFragmentResult> rpcFuture = new CompletableFuture<>();
+                rpcFutures.add(rpcFuture);
+                senderThreads.add(null);
+                int index = i;
+                senders.add(() -> {
+                    senderThreads.set(index, Thread.currentThread().getName());
+                    if (index == 0) {
+                        // keep the only pool thread busy until the other senders are done
+                        Assert.assertTrue(inlineSendersDone.await(10, TimeUnit.SECONDS));
+                    } else {
+                        inlineSendersDone.countDown();
+                    }
+                    return rpcFuture;
+                });
+            }
+
+            Assert.assertEquals(rpcFutures, execRemoteFragments(senders, pool, true));
+            Assert.assertNotEquals(Thread.currentThread().getName(), senderThreads.get(0));
+            for (int i = 1; i < senders.size(); i++) {
+                Assert.assertEquals(Thread.currentThread().getName(), senderThreads.get(i));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testSerializeFragmentsFailed() {
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            TException sendException = new TException("failed to send fragments");
+            RuntimeException serializeException = new RuntimeException("failed to serialize fragments");
+            List<Callable<Future<PExecPlanFragmentResult>>> senders = Lists.newArrayList();
+            for (int i = 0; i < 4; i++) {
+                int index = i;
+                senders.add(() -> {
+                    if (index == 1) {
+                        throw sendException;
+                    } else if (index == 2) {
+                        throw serializeException;
+                    }
+                    return new CompletableFuture<>();
+                });
+            }
+
+            // the first failure is thrown in both ways
+            for (boolean parallel : new boolean[] {false, true}) {
+                try {
+                    execRemoteFragments(senders, pool, parallel);
+                    Assert.fail("the failure of sender should be thrown");
+                } catch (TException e) {
+                    Assert.assertSame(sendException, e);
+                }
+            }
+
+            senders.remove(1);
+            for (boolean parallel : new boolean[] {false, true}) {
+                try {
+                    execRemoteFragments(senders, pool, parallel);
+                    Assert.fail("the failure of sender should be thrown");
+                } catch (TException e) {
+                    Assert.assertSame(serializeException, e.getCause());
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
 }
@@ -0,0 +1,123 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+package org.apache.doris.qe;
+
+import org.apache.doris.catalog.Env;
+import org.apache.doris.catalog.OlapTable;
+import org.apache.doris.catalog.Partition;
+import org.apache.doris.catalog.Table;
+import org.apache.doris.common.Config;
+import org.apache.doris.metric.MetricRepo;
+import org.apache.doris.nereids.NereidsPlanner;
+import org.apache.doris.nereids.StatementContext;
+import org.apache.doris.nereids.glue.LogicalPlanAdapter;
+import org.apache.doris.nereids.parser.NereidsParser;
+import org.apache.doris.qe.cache.CacheAnalyzer;
+import org.apache.doris.qe.cache.CacheAnalyzer.CacheMode;
+import org.apache.doris.qe.cache.NereidsSqlCache;
+import org.apache.doris.thrift.TUniqueId;
+import org.apache.doris.utframe.TestWithFeService;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class NereidsSqlCacheTest extends TestWithFeService {
+    private OlapTable table;
+    private boolean enableSqlMode;
+    private int lastVersionIntervalSecond;
+
+    @Override
+    protected void runBeforeAll() throws Exception {
+        MetricRepo.init();
+        createDatabase("test");
+        useDatabase("test");
+        createTable("create table test.tbl1 (k1 int, k2 int, v1 int) duplicate key(k1, k2) "
+                + "partition by range(k1) (partition p1 values less than ('10'), "
+                + "partition p2 values less than ('20')) "
+                + "distributed by hash(k2) buckets 1 properties('replication_num' = '1');");
+        table = (OlapTable) Env.getCurrentInternalCatalog().getDbOrMetaException("default_cluster:test")
+                .getTableOrMetaException("tbl1", Table.TableType.OLAP);
+
+        enableSqlMode = Config.cache_enable_sql_mode;
+        lastVersionIntervalSecond = Config.cache_last_version_interval_second;
+        Config.cache_enable_sql_mode = true;
+        Config.cache_last_version_interval_second = 0;
+        connectContext.getSessionVariable().setEnableSqlCache(true);
+        connectContext.setQueryId(new TUniqueId(1, 1));
+    }
+
+    @Override
+    protected void runAfterAll() throws Exception {
+        Config.cache_enable_sql_mode = enableSqlMode;
+        Config.cache_last_version_interval_second = lastVersionIntervalSecond;
+    }
+
+    private CacheAnalyzer analyzeCache(String sql) {
+        StatementContext statementContext = createStatementCtx(sql);
+        LogicalPlanAdapter adapter = new LogicalPlanAdapter(new NereidsParser().parseSingle(sql), statementContext);
+        NereidsPlanner planner = new NereidsPlanner(statementContext);
+        planner.plan(adapter, connectContext.getSessionVariable().toThrift());
+        CacheAnalyzer cacheAnalyzer = new CacheAnalyzer(connectContext, adapter, planner);
+        cacheAnalyzer.checkCacheMode(0);
+        return cacheAnalyzer;
+    }
+
+    private String getCacheKey(String sql) {
+        CacheAnalyzer cacheAnalyzer = analyzeCache(sql);
+        Assertions.assertEquals(CacheMode.Sql, cacheAnalyzer.getCacheMode());
+        Assertions.assertTrue(cacheAnalyzer.getCache() instanceof NereidsSqlCache);
+        return ((NereidsSqlCache) cacheAnalyzer.getCache()).getSqlWithViewStmt();
+    }
+
+    // simulate a load into the partition, which makes a new visible version
+    private void load(String partitionName) {
+        Partition partition = table.getPartition(partitionName);
+        partition.updateVisibleVersionAndTime(partition.getVisibleVersion() + 1, System.currentTimeMillis());
+    }
+
+    @Test
+    public void testSameKeyForDifferentSpellings() {
+        String key = getCacheKey("select k1, sum(v1) as s from test.tbl1 where k1 >= 10 group by k1");
+        Assertions.assertEquals(key, getCacheKey("SELECT k1,\n  SUM(v1) AS s\nFROM tbl1\n"
+                + "WHERE k1>=10 GROUP BY tbl1.k1"));
+        Assertions.assertNotEquals(key, getCacheKey("select k1, sum(v1) as s from test.tbl1 "
+                + "where k1 >= 11 group by k1"));
+    }
+
+    @Test
+    public void testKeyChangedByLoad() {
+        String sql = "select k1, sum(v1) as s from test.tbl1 where k1 >= 10 group by k1";
+        String key = getCacheKey(sql);
+        // p1 is pruned, the load into it does not change the key
+        load("p1");
+        Assertions.assertEquals(key, getCacheKey(sql));
+        load("p2");
+        String newKey = getCacheKey(sql);
+        Assertions.assertNotEquals(key, newKey);
+        Assertions.assertEquals(newKey, getCacheKey(sql));
+    }
+
+    @Test
+    public void testNondeterministicQuery() {
+        // now() is folded to a literal by the rewrite, the query must still not be cached
+        Assertions.assertEquals(CacheMode.None, analyzeCache("select k1, now() from test.tbl1").getCacheMode());
+        Assertions.assertEquals(CacheMode.None, analyzeCache("select k1 from test.tbl1 where v1 > rand()")
+                .getCacheMode());
+        Assertions.assertEquals(CacheMode.Sql, analyzeCache("select k1 from test.tbl1").getCacheMode());
+    }
+}
@@ -0,0 +1,151 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+package org.apache.doris.qe;
+
+import org.apache.doris.catalog.Env;
+import org.apache.doris.catalog.OlapTable;
+import org.apache.doris.catalog.Partition;
+import org.apache.doris.common.Config;
+import org.apache.doris.planner.OlapScanNode;
+import org.apache.doris.planner.Planner;
+import org.apache.doris.planner.ScanNode;
+import org.apache.doris.qe.QueryState.MysqlStateType;
+import org.apache.doris.utframe.TestWithFeService;
+
+import com.google.common.collect.Lists;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+public class PrepareStmtTest extends TestWithFeService {
+    private OlapTable tbl;
+
+    @Override
+    protected void runBeforeAll() throws Exception {
+        connectContext.getSessionVariable().setEnableNereidsPlanner(false);
+        createDatabase("test_prepare");
+        createTable("create table test_prepare.tbl (k1 int, k2 int, v1 int)\n"
+                + "duplicate key(k1, k2)\n"
+                + "partition by range(k1) (partition p1 values less than (\"10\"),\n"
+                + "partition p2 values less than (\"20\"))\n"
+                + "distributed by hash(k2) buckets 3\n"
+                + "properties(\"replication_num\" = \"1\");");
+        tbl = (OlapTable) Env.getCurrentInternalCatalog()
+                .getDbOrMetaException("default_cluster:test_prepare").getTableOrMetaException("tbl");
+    }
+
+    private void prepare(String sql) throws Exception {
+        StmtExecutor prepare = new StmtExecutor(connectContext, sql);
+        prepare.execute();
+        Assertions.assertNotEquals(MysqlStateType.ERR, connectContext.getState().getStateType(),
+                connectContext.getState().getErrorMessage());
+    }
+
+    private Planner executePrepared(String sql) throws Exception {
+        StmtExecutor executor = new StmtExecutor(connectContext, sql);
+        executor.analyze(connectContext.getSessionVariable().toThrift());
+        return executor.planner();
+    }
+
+    private static List<Long> getSelectedPartitionIds(Planner planner) {
+        List<Long> partitionIds = Lists.newArrayList();
+        for (ScanNode scanNode : planner.getScanNodes()) {
+            partitionIds.addAll(((OlapScanNode) scanNode).getSelectedPartitionIds());
+        }
+        return partitionIds;
+    }
+
+    @Test
+    public void testExecuteWithDifferentValues() throws Exception {
+        boolean enablePlanReuse = Config.enable_prepared_stmt_plan_reuse;
+        Config.enable_prepared_stmt_plan_reuse = true;
+        try {
+            prepare("PREPARE stmt1 FROM SELECT k2, sum(v1) FROM test_prepare.tbl WHERE k1 = ? GROUP BY k2");
+            Assertions.assertNotNull(connectContext.getPreparedStmt("stmt1"));
+            Partition p1 = tbl.getPartition("p1");
+            Partition p2 = tbl.getPartition("p2");
+
+            Planner planner1 = executePrepared("EXECUTE stmt1 USING (5)");
+            Assertions.assertEquals(Lists.newArrayList(p1.getId()), getSelectedPartitionIds(planner1));
+
+            // the plan created by the first execution is reused, only the scan ranges are computed again
+            Planner planner2 = executePrepared("EXECUTE stmt1 USING (15)");
+            Assertions.assertSame(planner1, planner2);
+            Assertions.assertEquals(Lists.newArrayList(p2.getId()), getSelectedPartitionIds(planner2));
+
+            Planner planner3 = executePrepared("EXECUTE stmt1 USING (6)");
+            Assertions.assertSame(planner1, planner3);
+            Assertions.assertEquals(Lists.newArrayList(p1.getId()), getSelectedPartitionIds(planner3));
+        } finally {
+            Config.enable_prepared_stmt_plan_reuse = enablePlanReuse;
+        }
+    }
+
+    @Test
+    public void testExecuteWithDifferentTypes() throws Exception {
+        boolean enablePlanReuse = Config.enable_prepared_stmt_plan_reuse;
+        Config.enable_prepared_stmt_plan_reuse = true;
+        try {
+            prepare("PREPARE stmt3 FROM SELECT k2, sum(v1) FROM test_prepare.tbl WHERE k1 = ? GROUP BY k2");
+            Partition p1 = tbl.getPartition("p1");
+            Partition p2 = tbl.getPartition("p2");
+
+            Planner planner1 = executePrepared("EXECUTE stmt3 USING (5)");
+            Assertions.assertEquals(Lists.newArrayList(p1.getId()), getSelectedPartitionIds(planner1));
+
+            // the casts added for the type of the first value do not fit a value of another type,
+            // so the stmt is planned again
+            Planner planner2 = executePrepared("EXECUTE stmt3 USING ('15')");
+            Assertions.assertNotSame(planner1, planner2);
+            Assertions.assertTrue(getSelectedPartitionIds(planner2).contains(p2.getId()));
+
+            Planner planner3 = executePrepared("EXECUTE stmt3 USING ('6')");
+            Assertions.assertSame(planner2, planner3);
+            Assertions.assertTrue(getSelectedPartitionIds(planner3).contains(p1.getId()));
+
+            Planner planner4 = executePrepared("EXECUTE stmt3 USING (16)");
+            Assertions.assertNotSame(planner3, planner4);
+            Assertions.assertEquals(Lists.newArrayList(p2.getId()), getSelectedPartitionIds(planner4));
+        } finally {
+            Config.enable_prepared_stmt_plan_reuse = enablePlanReuse;
+        }
+    }
+
+    @Test
+    public void testPlanReuseDisabled() throws Exception {
+        prepare("PREPARE stmt4 FROM SELECT k2, sum(v1) FROM test_prepare.tbl WHERE k1 = ? GROUP BY k2");
+        Planner planner1 = executePrepared("EXECUTE stmt4 USING (5)");
+        Planner planner2 = executePrepared("EXECUTE stmt4 USING (15)");
+        Assertions.assertNotSame(planner1, planner2);
+        Assertions.assertEquals(Lists.newArrayList(tbl.getPartition("p2").getId()),
+                getSelectedPartitionIds(planner2));
+    }
+
+    @Test
+    public void testPrepareInvalidStmt() throws Exception {
+        // errors not caused by the placeholders are reported when preparing
+        StmtExecutor prepare = new StmtExecutor(connectContext,
+                "PREPARE stmt2 FROM SELECT k2, not_exist_col FROM test_prepare.tbl WHERE k1 = ?");
+        prepare.execute();
+        Assertions.assertEquals(MysqlStateType.ERR, connectContext.getState().getStateType());
+        Assertions.assertTrue(connectContext.getState().getErrorMessage().contains("not_exist_col"),
+                connectContext.getState().getErrorMessage());
+        Assertions.assertNull(connectContext.getPreparedStmt("stmt2"));
+    }
+}
@@ -0,0 +1,140 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+package org.apache.doris.resource.workloadgroup;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class QueryQueueTest {
+
+    private static QueryResource resource(long memoryBytes) {
+        return new QueryResource(memoryBytes, 0);
+    }
+
+    @Test
+    public void testConcurrency() throws InterruptedException {
+        QueryQueue queue = new QueryQueue("g1", 1, 1, 10);
+        QueueOfferToken token1 = queue.offer("u1", 0, QueryResource.EMPTY);
+        Assert.assertTrue(queue.await(token1));
+
+        QueueOfferToken token2 = queue.offer("u1", 0, QueryResource.EMPTY);
+        Assert.assertFalse(token2.isDone());
+        QueueOfferToken token3 = queue.offer("u1", 0, QueryResource.EMPTY);
+        Assert.assertFalse(token3.isOfferSuccess());
+        Assert.assertTrue(token3.getOfferResultDetail().contains("queue is full"));
+
+        // the waiting query is admitted as soon as the running one finishes
+        queue.poll(token1);
+        Assert.assertTrue(token2.isOfferSuccess());
+        Assert.assertTrue(queue.await(token2));
+        // poll twice is ignored
+        queue.poll(token1);
+        Assert.assertEquals(1, queue.getCurrentRunningQueryNum());
+
+        QueueOfferToken token4 = queue.offer("u1", 0, QueryResource.EMPTY);
+        Assert.assertFalse(queue.await(token4));
+        Assert.assertTrue(token4.getOfferResultDetail().contains("timeout"));
+        Assert.assertEquals(0, queue.getCurrentWaitingQueryNum());
+    }
+
+    @Test
+    public void testResourceLimit() {
+        QueryQueue queue = new QueryQueue("g1", 10, 10, 1000);
+        queue.resetResourceLimit(100, 0);
+        QueueOfferToken token1 = queue.offer("u1", 0, resource(60));
+        QueueOfferToken token2 = queue.offer("u1", 0, resource(60));
+        Assert.assertTrue(token1.isOfferSuccess());
+        Assert.assertFalse(token2.isDone());
+        // the small query waits behind the large one
+        QueueOfferToken token3 = queue.offer("u1", 0, resource(10));
+        Assert.assertFalse(token3.isDone());
+
+        queue.poll(token1);
+        Assert.assertTrue(token2.isOfferSuccess());
+        Assert.assertTrue(token3.isOfferSuccess());
+
+        // a query exceeding the limit runs alone
+        QueueOfferToken token4 = queue.offer("u1", 0, resource(1000));
+        queue.poll(token2);
+        Assert.assertFalse(token4.isDone());
+        queue.poll(token3);
+        Assert.assertTrue(token4.isOfferSuccess());
+
+        // the query is admitted if the limit is raised
+        QueueOfferToken token5 = queue.offer("u1", 0, resource(10));
+        Assert.assertFalse(token5.isDone());
+        queue.resetResourceLimit(0, 0);
+        Assert.assertTrue(token5.isOfferSuccess());
+    }
+
+    @Test
+    public void testStrictOrder() {
+        QueryQueue queue = new QueryQueue("g1", 10, 10, 1000);
+        queue.resetResourceLimit(100, 0);
+        QueueOfferToken running1 = queue.offer("u1", 0, resource(60));
+        QueueOfferToken running2 = queue.offer("u1", 0, resource(30));
+        QueueOfferToken large = queue.offer("u1", 0, resource(60));
+        QueueOfferToken small = queue.offer("u2", 0, resource(10));
+        Assert.assertTrue(running2.isOfferSuccess());
+        Assert.assertFalse(large.isDone());
+        Assert.assertFalse(small.isDone());
+
+        // the small query fits after running2 finishes, but it is not admitted before the large one arriving first
+        queue.poll(running2);
+        Assert.assertFalse(large.isDone());
+        Assert.assertFalse(small.isDone());
+        Assert.assertEquals(2, queue.getCurrentWaitingQueryNum());
+
+        queue.poll(running1);
+        Assert.assertTrue(large.isOfferSuccess());
+        Assert.assertTrue(small.isOfferSuccess());
+
+        // a blocked query of higher priority blocks the queries of lower priority too
+        QueueOfferToken highPriorityQuery = queue.offer("u1", 1, resource(60));
+        QueueOfferToken lowPriorityQuery = queue.offer("u2", 0, resource(10));
+        queue.poll(small);
+        Assert.assertFalse(highPriorityQuery.isDone());
+        Assert.assertFalse(lowPriorityQuery.isDone());
+        queue.poll(large);
+        Assert.assertTrue(highPriorityQuery.isOfferSuccess());
+        Assert.assertTrue(lowPriorityQuery.isOfferSuccess());
+    }
+
+    @Test
+    public void testPriorityAndFairness() {
+        QueryQueue queue = new QueryQueue("g1", 2, 10, 1000);
+        QueueOfferToken running1 = queue.offer("u1", 0, QueryResource.EMPTY);
+        QueueOfferToken running2 = queue.offer("u1", 0, QueryResource.EMPTY);
+        QueueOfferToken u1Query = queue.offer("u1", 0, QueryResource.EMPTY);
+        QueueOfferToken u2Query = queue.offer("u2", 0, QueryResource.EMPTY);
+        QueueOfferToken highPriorityQuery = queue.offer("u1", 1, QueryResource.EMPTY);
+
+        queue.poll(running1);
+        Assert.assertTrue(highPriorityQuery.isOfferSuccess());
+        Assert.assertFalse(u1Query.isDone());
+        Assert.assertFalse(u2Query.isDone());
+
+        // u1 has a running query and u2 has none, though the query of u1 arrives first
+        queue.poll(running2);
+        Assert.assertTrue(u2Query.isOfferSuccess());
+        Assert.assertFalse(u1Query.isDone());
+
+        queue.poll(highPriorityQuery);
+        Assert.assertTrue(u1Query.isOfferSuccess());
+    }
+}
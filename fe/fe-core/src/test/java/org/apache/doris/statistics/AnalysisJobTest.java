@@ -18,6 +18,7 @@
 package org.apache.doris.statistics;
 
 import org.apache.doris.catalog.InternalSchemaInitializer;
+import org.apache.doris.common.Config;
 import org.apache.doris.common.FeConstants;
 import org.apache.doris.qe.AutoCloseConnectContext;
 import org.apache.doris.qe.ConnectContext;
@@ -100,6 +101,54 @@ public class AnalysisJobTest extends TestWithFeService {
         Assertions.assertNotNull(getSqlStmtExecutor(sql));
     }
 
+    @Test
+    public void testCreateBatchAnalysisJob(@Mocked AnalysisTaskScheduler scheduler) throws Exception {
+        new Expectations() {
+            {
+                // col1 and col2 are analyzed by one task, and col3 by another
+                scheduler.schedule((BaseAnalysisTask) any);
+                times = 2;
+            }
+        };
+
+        new MockUp<StatisticsUtil>() {
+
+            @Mock
+            public AutoCloseConnectContext buildConnectContext() {
+                return new AutoCloseConnectContext(connectContext);
+            }
+
+            @Mock
+            public void execUpdate(String sql) throws Exception {
+            }
+        };
+
+        new MockUp<ConnectContext>() {
+
+            @Mock
+            public ConnectContext get() {
+                return connectContext;
+            }
+        };
+        int batchColumnNum = Config.analyze_batch_column_num;
+        Config.analyze_batch_column_num = 2;
+        try {
+            Assertions.assertNotNull(getSqlStmtExecutor("ANALYZE TABLE t1"));
+        } finally {
+            Config.analyze_batch_column_num = batchColumnNum;
+        }
+    }
+
+    @Test
+    public void testScaleSampleNdv() {
+        // not sampled
+        Assertions.assertEquals(100, OlapBatchAnalysisTask.scaleNdv(100, 100, 1));
+        // the values are unique in the sample
+        Assertions.assertEquals(1000, OlapBatchAnalysisTask.scaleNdv(100, 100, 10));
+        // the values have many duplicates in the sample
+        Assertions.assertEquals(10, OlapBatchAnalysisTask.scaleNdv(10, 100, 10));
+    }
+
     @Test
     public void testJobExecution(@Mocked AnalysisTaskScheduler scheduler, @Mocked StmtExecutor stmtExecutor)
             throws Exception {
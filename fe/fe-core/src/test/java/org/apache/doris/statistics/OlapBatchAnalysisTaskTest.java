@@ -0,0 +1,166 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+package org.apache.doris.statistics;
+
+import org.apache.doris.catalog.InternalSchemaInitializer;
+import org.apache.doris.catalog.PrimitiveType;
+import org.apache.doris.common.FeConstants;
+import org.apache.doris.qe.AutoCloseConnectContext;
+import org.apache.doris.qe.ConnectContext;
+import org.apache.doris.qe.StmtExecutor;
+import org.apache.doris.statistics.AnalysisInfo.AnalysisMethod;
+import org.apache.doris.statistics.AnalysisInfo.AnalysisMode;
+import org.apache.doris.statistics.AnalysisInfo.AnalysisType;
+import org.apache.doris.statistics.AnalysisInfo.JobType;
+import org.apache.doris.statistics.util.InternalQueryResult.ResultRow;
+import org.apache.doris.statistics.util.StatisticsUtil;
+import org.apache.doris.utframe.TestWithFeService;
+
+import com.google.common.collect.ImmutableSet;
+import mockit.Mock;
+import mockit.MockUp;
+import org.apache.commons.lang3.StringUtils;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public class OlapBatchAnalysisTaskTest extends TestWithFeService {
+
+    // 4 partitions of the columns fill the insert buffer exactly, and the rest are flushed at last
+    private static final int COLUMN_NUM = StatisticConstants.INSERT_MERGE_ITEM_COUNT / 4;
+    private static final int PARTITION_NUM = 5;
+
+    @Override
+    protected void runBeforeAll() throws Exception {
+        InternalSchemaInitializer.createDB();
+        createDatabase("batch_analysis_test");
+        connectContext.setDatabase("default_cluster:batch_analysis_test");
+        StringBuilder columns = new StringBuilder();
+        for (int i = 0; i < COLUMN_NUM; i++) {
+            columns.append("c").append(i).append(" int not null, ");
+        }
+        StringBuilder partitions = new StringBuilder();
+        for (int i = 0; i < PARTITION_NUM; i++) {
+            partitions.append(i == 0 ? "" : ", ").append("PARTITION p").append(i)
+                    .append(" VALUES LESS THAN ('").append((i + 1) * 10).append("')");
+        }
+        createTable("CREATE TABLE t1 (" + columns + "k int not null)\n"
+                + "PARTITION BY RANGE(k) (" + partitions + ")\n"
+                + "DISTRIBUTED BY HASH(k) BUCKETS 1\n"
+                + "PROPERTIES(\"replication_num\"=\"1\");");
+        FeConstants.runningUnitTest = true;
+    }
+
+    @Test
+    public void testBatchSql() throws Exception {
+        List<String> queries = new ArrayList<>();
+        List<String> updates = new ArrayList<>();
+        new MockUp<StatisticsUtil>() {
+            @Mock
+            public AutoCloseConnectContext buildConnectContext() {
+                return new AutoCloseConnectContext(connectContext);
+            }
+        };
+        new MockUp<ConnectContext>() {
+            @Mock
+            public ConnectContext get() {
+                return connectContext;
+            }
+        };
+        new MockUp<StatisticsCache>() {
+            @Mock
+            public void refreshColStatsSync(long tblId, long idxId, String colName) {
+            }
+        };
+        new MockUp<StmtExecutor>() {
+            private String sql;
+
+            @Mock
+            public void $init(ConnectContext context, String stmt) {
+                sql = stmt;
+            }
+
+            @Mock
+            public List<ResultRow> executeInternalQuery() {
+                queries.add(sql);
+                // the partition query returns 5 values for each column, and the ndv query returns 2
+                int valueNum = sql.contains(" PARTITION ") ? 5 : 2;
+                List<String> values = new ArrayList<>();
+                values.add("100");
+                for (int i = 0; i < COLUMN_NUM * valueNum; i++) {
+                    values.add("10");
+                }
+                return Collections.singletonList(new ResultRow(Collections.nCopies(values.size(), "v"),
+                        Collections.nCopies(values.size(), PrimitiveType.BIGINT), values));
+            }
+
+            @Mock
+            public void execute() {
+                updates.add(sql);
+            }
+        };
+
+        Map<String, Set<String>> colToPartitions = new HashMap<>();
+        Set<String> allPartitions = new HashSet<>();
+        for (int i = 0; i < PARTITION_NUM; i++) {
+            allPartitions.add("p" + i);
+        }
+        for (int i = 0; i < COLUMN_NUM; i++) {
+            colToPartitions.put("c" + i, ImmutableSet.copyOf(allPartitions));
+        }
+        AnalysisInfo info = new AnalysisInfoBuilder().setJobId(0).setTaskId(0)
+                .setCatalogName("internal").setDbName("default_cluster:batch_analysis_test").setTblName("t1")
+                .setIndexId(-1L).setJobType(JobType.MANUAL)
+                .setAnalysisMode(AnalysisMode.FULL)
+                .setAnalysisMethod(AnalysisMethod.SAMPLE)
+                .setSamplePercent(100)
+                .setAnalysisType(AnalysisType.FUNDAMENTALS)
+                .setColToPartitions(colToPartitions)
+                .build();
+        Assertions.assertTrue(OlapBatchAnalysisTask.isBatchTask(info));
+        new OlapBatchAnalysisTask(info).execute();
+
+        // one scan of each partition, and one scan of the table for the ndv, all the columns are in each scan
+        Assertions.assertEquals(PARTITION_NUM + 1, queries.size());
+        for (String query : queries) {
+            for (int i = 0; i < COLUMN_NUM; i++) {
+                Assertions.assertTrue(query.contains("NDV(`c" + i + "`)"), query);
+                if (query.contains(" PARTITION ")) {
+                    Assertions.assertTrue(query.contains("MIN(`c" + i + "`)"), query);
+                    Assertions.assertTrue(query.contains("MAX(`c" + i + "`)"), query);
+                }
+            }
+        }
+
+        // the stats of partitions are inserted in batches of INSERT_MERGE_ITEM_COUNT rows,
+        // then the stats of the columns are inserted by one statement
+        Assertions.assertEquals(3, updates.size());
+        Assertions.assertEquals(StatisticConstants.INSERT_MERGE_ITEM_COUNT,
+                StringUtils.countMatches(updates.get(0), "NOW())"));
+        Assertions.assertEquals(COLUMN_NUM * PARTITION_NUM - StatisticConstants.INSERT_MERGE_ITEM_COUNT,
+                StringUtils.countMatches(updates.get(1), "NOW())"));
+        Assertions.assertEquals(COLUMN_NUM - 1, StringUtils.countMatches(updates.get(2), " UNION ALL "));
+    }
+}
@@ -0,0 +1,110 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+package org.apache.doris.statistics;
+
+import org.apache.doris.catalog.PrimitiveType;
+import org.apache.doris.common.io.Hll;
+import org.apache.doris.statistics.util.InternalQueryResult.ResultRow;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.text.StringSubstitutor;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.util.Base64;
+import java.util.List;
+import java.util.OptionalLong;
+
+public class PartitionNdvSketchesTest {
+
+    @Test
+    public void testEstimateNdv() throws Exception {
+        Hll sketch1 = new Hll();
+        Hll sketch2 = new Hll();
+        for (int i = 0; i < 1000; i++) {
+            sketch1.updateWithHash(i);
+            sketch2.updateWithHash(i + 500);
+        }
+        // the sketches are persisted and loaded
+        PartitionNdvSketches sketches = new PartitionNdvSketches(ImmutableMap.of(
+                1L, PartitionNdvSketches.deserialize(PartitionNdvSketches.serialize(sketch1)),
+                2L, PartitionNdvSketches.deserialize(PartitionNdvSketches.serialize(sketch2))));
+
+        OptionalLong ndv = sketches.estimateNdv(ImmutableList.of(1L));
+        Assertions.assertEquals(sketch1.estimateCardinality(), ndv.getAsLong());
+        ndv = sketches.estimateNdv(ImmutableList.of(1L, 2L));
+        Assertions.assertTrue(Math.abs(ndv.getAsLong() - 1500) < 1500 * 0.02);
+        // the sketch of partition 3 is not collected
+        Assertions.assertFalse(sketches.estimateNdv(ImmutableList.of(1L, 3L)).isPresent());
+    }
+
+    @Test
+    public void testFromRegisters() {
+        ImmutableList<String> columns = ImmutableList.of("pos", "idx", "val");
+        ImmutableList<PrimitiveType> types = ImmutableList.of(PrimitiveType.BIGINT, PrimitiveType.BIGINT,
+                PrimitiveType.DOUBLE);
+        // the registers of column 0 and 2, column 1 has only null values
+        List<Hll> sketches = PartitionNdvSketches.fromRegisters(ImmutableList.of(
+                new ResultRow(columns, types, ImmutableList.of("0", "1", "1")),
+                new ResultRow(columns, types, ImmutableList.of("0", "2", "3.0")),
+                new ResultRow(columns, types, ImmutableList.of("2", "1", "1"))), 3);
+        Assertions.assertEquals(3, sketches.size());
+        Assertions.assertEquals(Hll.HLL_DATA_FULL, sketches.get(0).getType());
+        Assertions.assertEquals(2, sketches.get(0).estimateCardinality());
+        Assertions.assertEquals(Hll.HLL_DATA_EMPTY, sketches.get(1).getType());
+        Assertions.assertEquals(1, sketches.get(2).estimateCardinality());
+        Assertions.assertEquals(Hll.HLL_DATA_EMPTY, PartitionNdvSketches.fromRegisters(null, 1).get(0).getType());
+    }
+
+    @Test
+    public void testRegistersSql() {
+        String sql = new StringSubstitutor(ImmutableMap.of(
+                "hashExprs", PartitionNdvSketches.getHashExprs(ImmutableList.of("c1", "c2")),
+                "colNum", "2", "dbName", "db", "tblName", "tbl", "partName", "p1"))
+                .replace(PartitionNdvSketches.REGISTERS_TEMPLATE);
+        // the partition is scanned once for all the columns
+        Assertions.assertEquals(1, StringUtils.countMatches(sql, "`db`.`tbl` PARTITION `p1`"));
+        Assertions.assertTrue(sql.contains("WHEN 0 THEN MURMUR_HASH3_64(CAST(`c1` AS STRING))"), sql);
+        Assertions.assertTrue(sql.contains("WHEN 1 THEN MURMUR_HASH3_64(CAST(`c2` AS STRING))"), sql);
+        Assertions.assertTrue(sql.contains("EXPLODE_NUMBERS(2)"), sql);
+    }
+
+    @Test
+    public void testSerialize() throws Exception {
+        Hll sketch = new Hll();
+        for (int i = 0; i < 100000; i++) {
+            sketch.updateWithHash(i);
+        }
+        Assertions.assertEquals(Hll.HLL_DATA_FULL, sketch.getType());
+        String sketchStr = PartitionNdvSketches.serialize(sketch);
+        // the registers are compressed, the base64 of the raw registers is about 22KB
+        Assertions.assertTrue(sketchStr.length() < 12 * 1024, String.valueOf(sketchStr.length()));
+        Assertions.assertEquals(sketch.estimateCardinality(),
+                PartitionNdvSketches.deserialize(sketchStr).estimateCardinality());
+
+        // the sketches persisted without compression are still readable
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        sketch.serialize(new DataOutputStream(output));
+        Assertions.assertEquals(sketch.estimateCardinality(), PartitionNdvSketches.deserialize(
+                Base64.getEncoder().encodeToString(output.toByteArray())).estimateCardinality());
+    }
+}
@@ -0,0 +1,70 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+package org.apache.doris.statistics;
+
+import org.apache.doris.load.EtlStatus;
+import org.apache.doris.load.loadv2.JobState;
+import org.apache.doris.load.loadv2.LoadJobFinalOperation;
+import org.apache.doris.task.LoadEtlTask;
+import org.apache.doris.transaction.TransactionState;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collection;
+import java.util.Map;
+
+public class PartitionUpdateTrackerTest {
+
+    @Test
+    public void testRecordLoad() {
+        PartitionUpdateTracker tracker = new PartitionUpdateTracker();
+        Map<Long, Collection<Long>> tableToPartitions = Maps.newHashMap();
+        tableToPartitions.put(1L, Lists.newArrayList(10L, 11L));
+        tableToPartitions.put(2L, Lists.newArrayList(20L, 21L));
+
+        tracker.recordLoad(newTransactionState(400), tableToPartitions);
+        tracker.recordLoad(newTransactionState(400), ImmutableMap.of(1L, ImmutableList.of(10L)));
+        Assertions.assertEquals(500, tracker.getUpdatedRows(1L, 10L));
+        Assertions.assertEquals(100, tracker.getUpdatedRows(1L, 11L));
+        Assertions.assertEquals(600, tracker.getUpdatedRows(1L));
+        Assertions.assertEquals(200, tracker.getUpdatedRows(2L));
+
+        // the loaded rows of the transaction are unknown
+        tracker.recordLoad(new TransactionState(), tableToPartitions);
+        Assertions.assertEquals(600, tracker.getUpdatedRows(1L));
+
+        tracker.reset(1L, Lists.newArrayList(10L));
+        Assertions.assertEquals(0, tracker.getUpdatedRows(1L, 10L));
+        Assertions.assertEquals(100, tracker.getUpdatedRows(1L));
+        Assertions.assertEquals(0, tracker.getUpdatedRows(3L));
+    }
+
+    private static TransactionState newTransactionState(long loadedRows) {
+        EtlStatus loadingStatus = new EtlStatus();
+        loadingStatus.replaceCounter(LoadEtlTask.DPP_NORMAL_ALL, String.valueOf(loadedRows));
+        TransactionState transactionState = new TransactionState();
+        transactionState.setTxnCommitAttachment(new LoadJobFinalOperation(1L, loadingStatus, 100, 0L, 0L,
+                JobState.FINISHED, null));
+        return transactionState;
+    }
+}
@@ -21,6 +21,7 @@ import org.apache.doris.catalog.CatalogTestUtil;
 import org.apache.doris.catalog.Env;
 import org.apache.doris.catalog.FakeEditLog;
 import org.apache.doris.catalog.FakeEnv;
+import org.apache.doris.catalog.OlapTable;
 import org.apache.doris.catalog.Table;
 import org.apache.doris.common.AnalysisException;
 import org.apache.doris.common.Config;
@@ -41,6 +42,14 @@ import org.junit.rules.ExpectedException;
 import java.lang.reflect.InvocationTargetException;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
 
 public class DatabaseTransactionMgrTest {
 
@@ -56,6 +65,9 @@ public class DatabaseTransactionMgrTest {
     private static Env slaveEnv;
     private static Map<String, Long> LabelToTxnId;
 
+    private static final int CONCURRENT_TXN_NUM = 16;
+    private static final int CONCURRENT_TXN_TIMEOUT_SECOND = 60;
+
     private TransactionState.TxnCoordinator transactionSource = new TransactionState.TxnCoordinator(TransactionState.TxnSourceType.FE, "localfe");
 
     @Before
@@ -269,4 +281,263 @@ public class DatabaseTransactionMgrTest {
         Assert.assertEquals(3, masterDbTransMgr.getTransactionNum());
         Assert.assertNull(masterDbTransMgr.unprotectedGetTxnIdsByLabel(CatalogTestUtil.testTxnLabel1));
     }
+
+    private long beginTransaction(long tableId, String label) throws UserException {
+        return masterTransMgr.beginTransaction(CatalogTestUtil.testDbId1, Lists.newArrayList(tableId), label,
+                transactionSource, TransactionState.LoadJobSourceType.FRONTEND, CONCURRENT_TXN_TIMEOUT_SECOND);
+    }
+
+    // commit with the table lock held like the callers, all the replicas of the tablet are committed
+    private void commitTransaction(long tableId, long txnId) throws UserException {
+        Table table = masterEnv.getInternalCatalog().getDbOrMetaException(CatalogTestUtil.testDbId1)
+                .getTableOrMetaException(tableId);
+        List<TabletCommitInfo> tabletCommitInfos = tableId == CatalogTestUtil.testTableId1
+                ? Lists.newArrayList(
+                        new TabletCommitInfo(CatalogTestUtil.testTabletId1, CatalogTestUtil.testBackendId1),
+                        new TabletCommitInfo(CatalogTestUtil.testTabletId1, CatalogTestUtil.testBackendId2),
+                        new TabletCommitInfo(CatalogTestUtil.testTabletId1, CatalogTestUtil.testBackendId3))
+                : Lists.newArrayList(
+                        new TabletCommitInfo(CatalogTestUtil.testTabletId2, CatalogTestUtil.testBackendId1));
+        table.writeLock();
+        try {
+            masterTransMgr.commitTransaction(CatalogTestUtil.testDbId1, Lists.newArrayList(table), txnId,
+                    tabletCommitInfos);
+        } finally {
+            table.writeUnlock();
+        }
+    }
+
+    // publish the committed transactions like PublishVersionDaemon until the transactions are visible
+    private void publishTransactions(DatabaseTransactionMgr dbTransMgr, List<Long> txnIds) throws Exception {
+        long deadline = System.currentTimeMillis() + 60000;
+        while (txnIds.stream().anyMatch(txnId -> dbTransMgr.getTransactionState(txnId).getTransactionStatus()
+                != TransactionStatus.VISIBLE)) {
+            Assert.assertTrue("publish timeout", System.currentTimeMillis() < deadline);
+            for (TransactionState transactionState : dbTransMgr.getCommittedTxnList()) {
+                masterTransMgr.finishTransaction(CatalogTestUtil.testDbId1, transactionState.getTransactionId(),
+                        null);
+            }
+            Thread.sleep(1);
+        }
+    }
+
+    private long getVisibleVersion(long tableId, long partitionId) throws UserException {
+        OlapTable table = (OlapTable) masterEnv.getInternalCatalog().getDbOrMetaException(CatalogTestUtil.testDbId1)
+                .getTableOrMetaException(tableId);
+        return table.getPartition(partitionId).getVisibleVersion();
+    }
+
+    // run the tasks by threads starting at the same time
+    private static void runConcurrently(List<Callable<Void>> tasks) throws Exception {
+        MetaContext metaContext = MetaContext.get();
+        CountDownLatch startLatch = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(tasks.size());
+        try {
+            List<Future<Void>> futures = Lists.newArrayList();
+            for (Callable<Void> task : tasks) {
+                futures.add(executor.submit(() -> {
+                    metaContext.setThreadLocalInfo();
+                    startLatch.await();
+                    return task.call();
+                }));
+            }
+            startLatch.countDown();
+            for (Future<Void> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    // each transaction is either running or finished, and is in the final status deques only once
+    private static void assertTransactionsConsistent(DatabaseTransactionMgr dbTransMgr) {
+        Assert.assertEquals(dbTransMgr.getTransactionNum(), dbTransMgr.getRunningTxnNums()
+                + dbTransMgr.getRunningRoutineLoadTxnNums() + dbTransMgr.getFinishedTxnNums());
+    }
+
+    // the edit logs of commits are written concurrently only if edit log group commit is enabled,
+    // so the concurrent tests run with both
+    private interface ConcurrentTest {
+        void run() throws Exception;
+    }
+
+    private void runWithAndWithoutGroupCommit(ConcurrentTest test) throws Exception {
+        boolean groupCommit = Config.enable_edit_log_group_commit;
+        try {
+            for (boolean enabled : new boolean[] {false, true}) {
+                Config.enable_edit_log_group_commit = enabled;
+                setUp();
+                FakeEnv.setEnv(masterEnv);
+                test.run();
+            }
+        } finally {
+            Config.enable_edit_log_group_commit = groupCommit;
+        }
+    }
+
+    @Test
+    public void testConcurrentCommitAndPublish() throws Exception {
+        runWithAndWithoutGroupCommit(() -> {
+            DatabaseTransactionMgr masterDbTransMgr = masterTransMgr.getDatabaseTransactionMgr(
+                    CatalogTestUtil.testDbId1);
+            long version1 = getVisibleVersion(CatalogTestUtil.testTableId1, CatalogTestUtil.testPartitionId1);
+            long version2 = getVisibleVersion(CatalogTestUtil.testTableId2, CatalogTestUtil.testPartitionId2);
+            int finishedTxnNum = masterDbTransMgr.getFinishedTxnNums();
+            List<Long> txnIds = Lists.newArrayList();
+            List<Callable<Void>> tasks = Lists.newArrayList();
+            // the transactions on the same table and on different tables are committed concurrently
+            for (int i = 0; i < CONCURRENT_TXN_NUM; i++) {
+                long tableId = i % 2 == 0 ? CatalogTestUtil.testTableId1 : CatalogTestUtil.testTableId2;
+                long txnId = beginTransaction(tableId, "concurrent_commit_" + i);
+                txnIds.add(txnId);
+                tasks.add(() -> {
+                    commitTransaction(tableId, txnId);
+                    return null;
+                });
+            }
+            tasks.add(() -> {
+                publishTransactions(masterDbTransMgr, txnIds);
+                return null;
+            });
+            runConcurrently(tasks);
+
+            Assert.assertEquals(version1 + CONCURRENT_TXN_NUM / 2,
+                    getVisibleVersion(CatalogTestUtil.testTableId1, CatalogTestUtil.testPartitionId1));
+            Assert.assertEquals(version2 + CONCURRENT_TXN_NUM / 2,
+                    getVisibleVersion(CatalogTestUtil.testTableId2, CatalogTestUtil.testPartitionId2));
+            Assert.assertEquals(finishedTxnNum + CONCURRENT_TXN_NUM, masterDbTransMgr.getFinishedTxnNums());
+            Assert.assertTrue(masterDbTransMgr.getCommittedTxnList().isEmpty());
+            assertTransactionsConsistent(masterDbTransMgr);
+        });
+    }
+
+    @Test
+    public void testConcurrentCommitAndAbortSameTxn() throws Exception {
+        runWithAndWithoutGroupCommit(() -> {
+            DatabaseTransactionMgr masterDbTransMgr = masterTransMgr.getDatabaseTransactionMgr(
+                    CatalogTestUtil.testDbId1);
+            Map<Long, AtomicBoolean> committed = Maps.newConcurrentMap();
+            Map<Long, AtomicBoolean> aborted = Maps.newConcurrentMap();
+            List<Callable<Void>> tasks = Lists.newArrayList();
+            for (int i = 0; i < CONCURRENT_TXN_NUM; i++) {
+                long tableId = i % 2 == 0 ? CatalogTestUtil.testTableId1 : CatalogTestUtil.testTableId2;
+                long txnId = beginTransaction(tableId, "concurrent_abort_" + i);
+                committed.put(txnId, new AtomicBoolean());
+                aborted.put(txnId, new AtomicBoolean());
+                tasks.add(() -> {
+                    try {
+                        commitTransaction(tableId, txnId);
+                        committed.get(txnId).set(true);
+                    } catch (TransactionCommitFailedException e) {
+                        // aborted before committed
+                    }
+                    return null;
+                });
+                tasks.add(() -> {
+                    try {
+                        masterTransMgr.abortTransaction(CatalogTestUtil.testDbId1, txnId, "test abort");
+                        aborted.get(txnId).set(true);
+                    } catch (UserException e) {
+                        // committed before aborted
+                    }
+                    return null;
+                });
+            }
+            runConcurrently(tasks);
+
+            // the commit and the abort of a transaction are serialized, only one of them succeeds
+            for (long txnId : committed.keySet()) {
+                TransactionState transactionState = masterDbTransMgr.getTransactionState(txnId);
+                Assert.assertNotEquals(committed.get(txnId).get(), aborted.get(txnId).get());
+                TransactionStatus expectedStatus = committed.get(txnId).get() ? TransactionStatus.COMMITTED
+                        : TransactionStatus.ABORTED;
+                Assert.assertEquals(expectedStatus, transactionState.getTransactionStatus());
+            }
+            long committedNum = committed.values().stream().filter(AtomicBoolean::get).count();
+            Assert.assertEquals(committedNum, masterDbTransMgr.getCommittedTxnList().size());
+            Assert.assertEquals(0, masterDbTransMgr.getTxnNumByStatus(TransactionStatus.ABORTED));
+            assertTransactionsConsistent(masterDbTransMgr);
+        });
+    }
+
+    @Test
+    public void testConcurrentCommitAndTimeout() throws Exception {
+        runWithAndWithoutGroupCommit(() -> {
+            DatabaseTransactionMgr masterDbTransMgr = masterTransMgr.getDatabaseTransactionMgr(
+                    CatalogTestUtil.testDbId1);
+            List<TransactionState> transactionStates = Lists.newArrayList();
+            List<Callable<Void>> tasks = Lists.newArrayList();
+            for (int i = 0; i < CONCURRENT_TXN_NUM; i++) {
+                long tableId = i % 2 == 0 ? CatalogTestUtil.testTableId1 : CatalogTestUtil.testTableId2;
+                long txnId = beginTransaction(tableId, "concurrent_timeout_" + i);
+                transactionStates.add(masterDbTransMgr.getTransactionState(txnId));
+                tasks.add(() -> {
+                    try {
+                        commitTransaction(tableId, txnId);
+                    } catch (TransactionCommitFailedException e) {
+                        // aborted by timeout before committed
+                    }
+                    return null;
+                });
+            }
+            // the timeout checker aborts the transactions which are not committed, without the table locks.
+            tasks.add(() -> {
+                long currentMillis = System.currentTimeMillis() + CONCURRENT_TXN_TIMEOUT_SECOND * 2000L;
+                while (transactionStates.stream().anyMatch(transactionState ->
+                        transactionState.getTransactionStatus() == TransactionStatus.PREPARE)) {
+                    masterDbTransMgr.removeExpiredAndTimeoutTxns(currentMillis);
+                }
+                return null;
+            });
+            runConcurrently(tasks);
+
+            List<Long> committedTxnIds = masterDbTransMgr.getCommittedTxnList().stream()
+                    .map(TransactionState::getTransactionId).collect(Collectors.toList());
+            for (TransactionState transactionState : transactionStates) {
+                TransactionStatus status = transactionState.getTransactionStatus();
+                Assert.assertTrue(status == TransactionStatus.COMMITTED || status == TransactionStatus.ABORTED);
+                Assert.assertEquals(status == TransactionStatus.COMMITTED,
+                        committedTxnIds.contains(transactionState.getTransactionId()));
+            }
+            Assert.assertEquals(0, masterDbTransMgr.getTxnNumByStatus(TransactionStatus.ABORTED));
+            Assert.assertEquals(0, masterDbTransMgr.getTxnNumByStatus(TransactionStatus.PREPARE));
+            assertTransactionsConsistent(masterDbTransMgr);
+        });
+    }
+
+    @Test
+    public void testConcurrentPublishSameTxn() throws Exception {
+        runWithAndWithoutGroupCommit(() -> {
+            DatabaseTransactionMgr masterDbTransMgr = masterTransMgr.getDatabaseTransactionMgr(
+                    CatalogTestUtil.testDbId1);
+            long version1 = getVisibleVersion(CatalogTestUtil.testTableId1, CatalogTestUtil.testPartitionId1);
+            long version2 = getVisibleVersion(CatalogTestUtil.testTableId2, CatalogTestUtil.testPartitionId2);
+            int finishedTxnNum = masterDbTransMgr.getFinishedTxnNums();
+            List<Long> txnIds = Lists.newArrayList();
+            for (int i = 0; i < CONCURRENT_TXN_NUM; i++) {
+                long tableId = i % 2 == 0 ? CatalogTestUtil.testTableId1 : CatalogTestUtil.testTableId2;
+                long txnId = beginTransaction(tableId, "concurrent_publish_" + i);
+                commitTransaction(tableId, txnId);
+                txnIds.add(txnId);
+            }
+            // the same transactions are published by several threads
+            List<Callable<Void>> tasks = Lists.newArrayList();
+            for (int i = 0; i < 4; i++) {
+                tasks.add(() -> {
+                    publishTransactions(masterDbTransMgr, txnIds);
+                    return null;
+                });
+            }
+            runConcurrently(tasks);
+
+            // each transaction is finished only once
+            Assert.assertEquals(version1 + CONCURRENT_TXN_NUM / 2,
+                    getVisibleVersion(CatalogTestUtil.testTableId1, CatalogTestUtil.testPartitionId1));
+            Assert.assertEquals(version2 + CONCURRENT_TXN_NUM / 2,
+                    getVisibleVersion(CatalogTestUtil.testTableId2, CatalogTestUtil.testPartitionId2));
+            Assert.assertEquals(finishedTxnNum + CONCURRENT_TXN_NUM, masterDbTransMgr.getFinishedTxnNums());
+            assertTransactionsConsistent(masterDbTransMgr);
+        });
+    }
 }
@@ -0,0 +1,112 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+package org.apache.doris.transaction;
+
+import org.apache.doris.catalog.Database;
+import org.apache.doris.catalog.Env;
+import org.apache.doris.catalog.MaterializedIndex;
+import org.apache.doris.catalog.OlapTable;
+import org.apache.doris.catalog.Partition;
+import org.apache.doris.catalog.Replica;
+import org.apache.doris.catalog.Table;
+import org.apache.doris.catalog.Tablet;
+import org.apache.doris.common.Config;
+import org.apache.doris.common.FeConstants;
+import org.apache.doris.load.loadv2.LoadJobSourceType;
+import org.apache.doris.transaction.TransactionState.TxnCoordinator;
+import org.apache.doris.transaction.TransactionState.TxnSourceType;
+import org.apache.doris.utframe.TestWithFeService;
+
+import com.google.common.collect.Lists;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+/**
+ * Report the latency from commit to visible of small load transactions, with the publish version daemon
+ * driven by events or by polling. It is disabled in the normal suite, run it manually.
+ */
+public class PublishVersionBenchmarkTest extends TestWithFeService {
+    private static final Logger LOG = LogManager.getLogger(PublishVersionBenchmarkTest.class);
+    private static final int TXN_NUM = 20;
+
+    private Database db;
+    private OlapTable table;
+
+    @Override
+    protected void runBeforeAll() throws Exception {
+        FeConstants.runningUnitTest = true;
+        createDatabase("test");
+        createTable("create table test.tbl1 (k1 int, k2 int) distributed by hash(k1) buckets 1 "
+                + "properties('replication_num' = '1');");
+        db = Env.getCurrentInternalCatalog().getDbOrMetaException("default_cluster:test");
+        table = (OlapTable) db.getTableOrMetaException("tbl1", Table.TableType.OLAP);
+    }
+
+    @Test
+    @Disabled
+    public void testPublishLatency() throws Exception {
+        boolean eventDriven = Config.enable_event_driven_publish_version;
+        try {
+            Config.enable_event_driven_publish_version = false;
+            long pollingMs = benchmark("polling");
+            Config.enable_event_driven_publish_version = true;
+            long eventDrivenMs = benchmark("event driven");
+            LOG.info("publish version latency, polling: {} ms, event driven: {} ms", pollingMs, eventDrivenMs);
+        } finally {
+            Config.enable_event_driven_publish_version = eventDriven;
+        }
+    }
+
+    private long benchmark(String name) throws Exception {
+        GlobalTransactionMgr transactionMgr = Env.getCurrentGlobalTransactionMgr();
+        List<Table> tableList = Lists.newArrayList(table);
+        List<TabletCommitInfo> tabletCommitInfos = getTabletCommitInfos();
+        long totalMs = 0;
+        for (int i = 0; i < TXN_NUM; i++) {
+            long transactionId = transactionMgr.beginTransaction(db.getId(), Lists.newArrayList(table.getId()),
+                    name.replace(' ', '_') + "_" + i, new TxnCoordinator(TxnSourceType.FE, "127.0.0.1"),
+                    LoadJobSourceType.BACKEND_STREAMING, 60);
+            long startTime = System.currentTimeMillis();
+            Assertions.assertTrue(transactionMgr.commitAndPublishTransaction(db, tableList, transactionId,
+                    tabletCommitInfos, 30000));
+            totalMs += System.currentTimeMillis() - startTime;
+            Assertions.assertEquals(TransactionStatus.VISIBLE,
+                    transactionMgr.getTransactionState(db.getId(), transactionId).getTransactionStatus());
+        }
+        return totalMs / TXN_NUM;
+    }
+
+    private List<TabletCommitInfo> getTabletCommitInfos() {
+        List<TabletCommitInfo> tabletCommitInfos = Lists.newArrayList();
+        for (Partition partition : table.getPartitions()) {
+            for (MaterializedIndex index : partition.getMaterializedIndices(MaterializedIndex.IndexExtState.ALL)) {
+                for (Tablet tablet : index.getTablets()) {
+                    for (Replica replica : tablet.getReplicas()) {
+                        tabletCommitInfos.add(new TabletCommitInfo(tablet.getId(), replica.getBackendId()));
+                    }
+                }
+            }
+        }
+        return tabletCommitInfos;
+    }
+}